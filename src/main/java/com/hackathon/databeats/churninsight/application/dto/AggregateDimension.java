@@ -0,0 +1,78 @@
+package com.hackathon.databeats.churninsight.application.dto;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Dimensões aceitas no agrupamento de {@code /clients/aggregate}.
+ *
+ * <p>Faixas etárias: {@code <18}, {@code 18-24}, {@code 25-34}, {@code 35-44}, {@code 45-54},
+ * {@code 55-64} e {@code 65+}. Faixas de probabilidade: VERY_LOW [0, 0.2), LOW [0.2, 0.5),
+ * MEDIUM [0.5, 0.7) e HIGH [0.7, 1], as mesmas dos agregados do dashboard. Fator de risco:
+ * nome de {@link com.hackathon.databeats.churninsight.domain.enums.RiskFactor}.</p>
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public enum AggregateDimension {
+    GENDER("gender"),
+    COUNTRY("country"),
+    SUBSCRIPTION_TYPE("subscription_type"),
+    DEVICE_TYPE("device_type"),
+    AGE_BAND("age_band"),
+    PROBABILITY_BUCKET("probability_bucket"),
+    CREATED_DAY("created_at_day"),
+    PRIMARY_RISK_FACTOR("primary_risk_factor");
+
+    /** Limites inferiores das faixas etárias a partir da segunda faixa. */
+    public static final int[] AGE_BAND_LOWER_BOUNDS = {18, 25, 35, 45, 55, 65};
+
+    public static final List<String> AGE_BAND_LABELS =
+            List.of("<18", "18-24", "25-34", "35-44", "45-54", "55-64", "65+");
+
+    /** Limites inferiores das faixas de probabilidade a partir da segunda faixa. */
+    public static final double[] PROBABILITY_BUCKET_LOWER_BOUNDS = {0.2, 0.5, 0.7};
+
+    public static final List<String> PROBABILITY_BUCKET_LABELS = List.of("VERY_LOW", "LOW", "MEDIUM", "HIGH");
+
+    private final String key;
+
+    AggregateDimension(String key) {
+        this.key = key;
+    }
+
+    /** Nome da dimensão na requisição e na resposta. */
+    public String key() {
+        return key;
+    }
+
+    /** Índice da faixa etária da idade em {@link #AGE_BAND_LABELS}. */
+    public static int ageBand(int age) {
+        int band = 0;
+        while (band < AGE_BAND_LOWER_BOUNDS.length && age >= AGE_BAND_LOWER_BOUNDS[band]) band++;
+        return band;
+    }
+
+    /** Índice da faixa de probabilidade em {@link #PROBABILITY_BUCKET_LABELS}. */
+    public static int probabilityBucket(double probability) {
+        int bucket = 0;
+        while (bucket < PROBABILITY_BUCKET_LOWER_BOUNDS.length && probability >= PROBABILITY_BUCKET_LOWER_BOUNDS[bucket]) bucket++;
+        return bucket;
+    }
+
+    /**
+     * Converte o parâmetro da requisição: aceita o nome da resposta ({@code subscription_type}),
+     * camelCase ({@code subscriptionType}) ou o nome da constante, sem diferenciar caixa.
+     *
+     * @throws IllegalArgumentException se o valor não corresponder a nenhuma dimensão
+     */
+    public static AggregateDimension from(String value) {
+        String normalized = value == null ? "" : value.trim().replace("_", "").toLowerCase(Locale.ROOT);
+        return Arrays.stream(values())
+                .filter(d -> d.key.replace("_", "").equals(normalized) || d.name().replace("_", "").toLowerCase(Locale.ROOT).equals(normalized))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Dimensão de agrupamento inválida: " + value + " (use "
+                        + String.join(", ", Arrays.stream(values()).map(AggregateDimension::key).toList()) + ")"));
+    }
+}
@@ -0,0 +1,48 @@
+package com.hackathon.databeats.churninsight.application.dto;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Métricas aceitas em {@code /clients/aggregate}, calculadas por grupo.
+ *
+ * <p>{@code revenue_at_risk} soma o valor mensal do plano
+ * ({@link com.hackathon.databeats.churninsight.domain.rules.SubscriptionPricing}) das predições
+ * WILL_CHURN do grupo.</p>
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public enum AggregateMetric {
+    COUNT("count"),
+    AVG_PROBABILITY("avg_probability"),
+    MIN_PROBABILITY("min_probability"),
+    MAX_PROBABILITY("max_probability"),
+    REVENUE_AT_RISK("revenue_at_risk");
+
+    private final String key;
+
+    AggregateMetric(String key) {
+        this.key = key;
+    }
+
+    /** Nome da métrica na requisição e na resposta. */
+    public String key() {
+        return key;
+    }
+
+    /**
+     * Converte o parâmetro da requisição ({@code avg_probability} ou {@code avgProbability},
+     * sem diferenciar caixa).
+     *
+     * @throws IllegalArgumentException se o valor não corresponder a nenhuma métrica
+     */
+    public static AggregateMetric from(String value) {
+        String normalized = value == null ? "" : value.trim().replace("_", "").toLowerCase(Locale.ROOT);
+        return Arrays.stream(values())
+                .filter(m -> m.key.replace("_", "").equals(normalized))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Métrica inválida: " + value + " (use "
+                        + String.join(", ", Arrays.stream(values()).map(AggregateMetric::key).toList()) + ")"));
+    }
+}
@@ -0,0 +1,42 @@
+package com.hackathon.databeats.churninsight.application.dto;
+
+import java.util.List;
+
+/**
+ * Consulta de agregação sobre o histórico de predições: dimensões de agrupamento, métricas e
+ * os mesmos filtros da busca de {@code /clients}.
+ *
+ * @param groupBy dimensões na ordem do agrupamento (vazio = um único grupo com o total)
+ * @param metrics métricas calculadas por grupo (vazio = apenas count)
+ * @param filter filtros combinados com AND
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public record AggregateQuery(
+        List<AggregateDimension> groupBy,
+        List<AggregateMetric> metrics,
+        PredictionSearchFilter filter
+) {
+
+    /** Máximo de dimensões por consulta. */
+    public static final int MAX_DIMENSIONS = 4;
+
+    /**
+     * Retorna uma cópia sem repetições, com count como métrica padrão e o filtro normalizado.
+     * Consultas equivalentes resultam em objetos iguais, usados como chave de cache.
+     *
+     * @throws IllegalArgumentException se houver mais de {@link #MAX_DIMENSIONS} dimensões
+     */
+    public AggregateQuery normalized() {
+        List<AggregateDimension> dimensions = groupBy == null ? List.of() : groupBy.stream().distinct().toList();
+        if (dimensions.size() > MAX_DIMENSIONS) {
+            throw new IllegalArgumentException("Agrupamento aceita no máximo " + MAX_DIMENSIONS + " dimensões");
+        }
+        List<AggregateMetric> requested = metrics == null ? List.of() : metrics.stream().distinct().toList();
+        return new AggregateQuery(
+                dimensions,
+                requested.isEmpty() ? List.of(AggregateMetric.COUNT) : requested,
+                (filter != null ? filter : PredictionSearchFilter.builder().build()).normalized());
+    }
+}
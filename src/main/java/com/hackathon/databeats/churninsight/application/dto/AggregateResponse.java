@@ -0,0 +1,50 @@
+package com.hackathon.databeats.churninsight.application.dto;
+
+import lombok.Builder;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resultado de {@code /clients/aggregate}: um item por combinação de valores das dimensões
+ * que tenha ao menos uma predição, ordenados pelas chaves.
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+@Builder
+public record AggregateResponse(
+
+    /** Dimensões do agrupamento, na ordem pedida. */
+    List<String> groupBy,
+
+    /** Métricas calculadas por grupo. */
+    List<String> metrics,
+
+    /** Grupos com suas chaves e métricas. */
+    List<Group> groups,
+
+    /** Predições que atendem aos filtros (soma dos grupos). */
+    long totalRows,
+
+    /** Motor que calculou o resultado: columnar (snapshot em memória) ou sql. */
+    String engine,
+
+    /** {@code true} se o resultado veio do cache. */
+    boolean cached
+) {
+
+    /**
+     * Um grupo do resultado.
+     *
+     * @param keys valor de cada dimensão (null quando a coluna é nula)
+     * @param values valor de cada métrica (médias, mínimos e máximos null sem linhas)
+     */
+    public record Group(Map<String, Object> keys, Map<String, Number> values) {
+    }
+
+    /** Cópia marcando o resultado como servido pelo cache. */
+    public AggregateResponse asCached() {
+        return new AggregateResponse(groupBy, metrics, groups, totalRows, engine, true);
+    }
+}
@@ -0,0 +1,38 @@
+package com.hackathon.databeats.churninsight.application.dto;
+
+import java.util.Locale;
+
+/**
+ * Estratégia de cálculo do total de registros em buscas paginadas.
+ *
+ * <ul>
+ *   <li><b>EXACT:</b> {@code COUNT(*)} com os mesmos filtros da busca</li>
+ *   <li><b>CACHED:</b> contagem exata reaproveitada por filtro normalizado, com TTL e
+ *       invalidada a cada gravação de predições</li>
+ *   <li><b>ESTIMATED:</b> estimativa de linhas do otimizador ({@code EXPLAIN}), sem varrer a tabela</li>
+ * </ul>
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public enum CountStrategy {
+    EXACT,
+    CACHED,
+    ESTIMATED;
+
+    /**
+     * Converte o parâmetro da requisição (case-insensitive).
+     *
+     * @param value nome da estratégia, ou null/vazio para usar o padrão
+     * @param defaultStrategy estratégia usada quando o valor não é informado
+     * @throws IllegalArgumentException se o valor não corresponder a nenhuma estratégia
+     */
+    public static CountStrategy from(String value, CountStrategy defaultStrategy) {
+        if (value == null || value.isBlank()) return defaultStrategy;
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Estratégia de contagem inválida: " + value + " (use exact, cached ou estimated)");
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.hackathon.databeats.churninsight.application.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Agregados do dashboard executivo calculados sobre a predição mais recente de cada cliente.
+ *
+ * <p>Contagens por fator de risco e por faixa de probabilidade seguem a mesma ordem usada
+ * pelas consultas agregadas do repositório.</p>
+ *
+ * @param totalCustomers total de clientes com ao menos uma predição
+ * @param willChurn clientes cuja predição mais recente é WILL_CHURN
+ * @param willStay clientes cuja predição mais recente é WILL_STAY
+ * @param customersAtRisk clientes no TOP 25% por probabilidade
+ * @param riskFactors contagens por fator de risco heurístico
+ * @param probabilityBuckets contagens por faixa de probabilidade
+ * @param customersByPlan clientes por tipo de assinatura
+ * @param top25ByPlan clientes do TOP 25% por tipo de assinatura
+ * @param asOf instante a que os valores se referem
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public record DashboardAggregates(
+        long totalCustomers,
+        long willChurn,
+        long willStay,
+        long customersAtRisk,
+        RiskFactorCounts riskFactors,
+        ProbabilityBuckets probabilityBuckets,
+        Map<String, Long> customersByPlan,
+        Map<String, Long> top25ByPlan,
+        LocalDateTime asOf
+) {
+
+    /**
+     * Contagens por fator de risco: free+ads, skip alto, frustração alta, premium sem offline
+     * e tempo de escuta baixo.
+     */
+    public record RiskFactorCounts(long freeHighAds, long highSkipRate, long highFrustration,
+                                   long premiumNoOffline, long lowListening) {
+    }
+
+    /**
+     * Faixas de probabilidade: [0, 0.2), [0.2, 0.5), [0.5, 0.7) e [0.7, 1].
+     */
+    public record ProbabilityBuckets(long veryLow, long low, long medium, long high) {
+    }
+}
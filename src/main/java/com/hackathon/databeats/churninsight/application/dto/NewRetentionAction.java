@@ -0,0 +1,27 @@
+package com.hackathon.databeats.churninsight.application.dto;
+
+import com.hackathon.databeats.churninsight.domain.enums.RetentionActionStatus;
+import com.hackathon.databeats.churninsight.domain.enums.RetentionActionType;
+import com.hackathon.databeats.churninsight.domain.enums.RetentionChannel;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ação de retenção a inserir em lote, já com id e cliente validados.
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public record NewRetentionAction(
+        String id,
+        String clientId,
+        String userId,
+        RetentionActionType actionType,
+        RetentionChannel channel,
+        RetentionActionStatus status,
+        String owner,
+        LocalDateTime scheduledAt,
+        String notes,
+        LocalDateTime createdAt
+) {
+}
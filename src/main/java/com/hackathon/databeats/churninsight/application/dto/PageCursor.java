@@ -0,0 +1,62 @@
+package com.hackathon.databeats.churninsight.application.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Cursor opaco para paginação keyset (seek).
+ *
+ * <p>Guarda a chave de ordenação e o id do último registro entregue; a próxima página
+ * começa estritamente depois desse par, sem OFFSET. A ordenação faz parte do cursor para
+ * que ele não seja reutilizado com outra ordenação.</p>
+ *
+ * @param sortBy campo de ordenação usado na consulta
+ * @param sortDir direção da ordenação (asc/desc)
+ * @param sortValue valor da chave de ordenação do último registro, em texto
+ * @param id desempate (chave primária) do último registro
+ * @param position quantidade de registros já entregues até este cursor
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public record PageCursor(String sortBy, String sortDir, String sortValue, String id, long position) {
+
+    private static final String VERSION = "1";
+    private static final String SEPARATOR = "\u001F";
+
+    /** Codifica o cursor em Base64 URL-safe. */
+    public String encode() {
+        String raw = String.join(SEPARATOR, VERSION, sortBy, sortDir, sortValue, id, Long.toString(position));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica um cursor recebido do cliente.
+     *
+     * @throws IllegalArgumentException se o cursor estiver malformado
+     */
+    public static PageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, -1);
+            if (parts.length != 6 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Cursor de paginação inválido");
+            }
+            return new PageCursor(parts[1], parts[2], parts[3], parts[4], Long.parseLong(parts[5]));
+        } catch (IllegalArgumentException e) {
+            // Base64 e NumberFormatException também são IllegalArgumentException
+            throw new IllegalArgumentException("Cursor de paginação inválido", e);
+        }
+    }
+
+    /**
+     * Garante que o cursor foi gerado com a mesma ordenação da requisição atual.
+     *
+     * @throws IllegalArgumentException se a ordenação divergir
+     */
+    public void requireSort(String expectedSortBy, String expectedSortDir) {
+        if (!sortBy.equals(expectedSortBy) || !sortDir.equalsIgnoreCase(expectedSortDir)) {
+            throw new IllegalArgumentException("Cursor gerado para outra ordenação (" + sortBy + " " + sortDir + ")");
+        }
+    }
+}
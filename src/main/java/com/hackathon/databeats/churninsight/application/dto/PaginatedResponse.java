@@ -10,6 +10,10 @@ import java.util.List;
  * <p>Encapsula dados paginados com metadados de navegação e estatísticas opcionais
  * da página atual. Reutilizável para qualquer tipo de conteúdo.</p>
  *
+ * <p>Na paginação por cursor (keyset), {@code nextCursor} leva à próxima página e o total
+ * só é calculado quando solicitado; caso contrário {@code totalElements} e
+ * {@code totalPages} são -1.</p>
+ *
  * @param <T> tipo do conteúdo (ex: PredictionHistory, ClientPrediction)
  *
  * @author Equipe ChurnInsight
@@ -33,6 +37,9 @@ public record PaginatedResponse<T>(
     /** Quantidade total de páginas. */
     int totalPages,
 
+    /** {@code true} se o total foi contado agora; {@code false} se estimado, reaproveitado do cache ou omitido. */
+    boolean totalExact,
+
     /** {@code true} se é a primeira página. */
     boolean first,
 
@@ -46,7 +53,10 @@ public record PaginatedResponse<T>(
     boolean hasPrevious,
 
     /** Estatísticas da página atual (opcional, pode ser null). */
-    PageStats stats
+    PageStats stats,
+
+    /** Cursor opaco da próxima página (apenas na paginação por cursor; null na última página). */
+    String nextCursor
 ) {
 
     /**
@@ -0,0 +1,29 @@
+package com.hackathon.databeats.churninsight.application.dto;
+
+import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Predição confirmada no churn_history, entregue pelo feed de mudanças.
+ *
+ * @param cursor posição do evento no feed (UUIDv7 crescente na ordem de publicação)
+ * @param id identificador da predição
+ * @param userId ID do cliente no sistema externo (pode ser nulo)
+ * @param subscriptionType tipo de assinatura
+ * @param churnStatus status de classificação de churn
+ * @param probability probabilidade de churn (0.0 a 1.0)
+ * @param createdAt timestamp da predição
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public record PredictionFeedEvent(
+        String cursor,
+        String id,
+        String userId,
+        String subscriptionType,
+        ChurnStatus churnStatus,
+        double probability,
+        LocalDateTime createdAt) {
+}
@@ -0,0 +1,32 @@
+package com.hackathon.databeats.churninsight.application.dto;
+
+import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
+
+/**
+ * Filtro aplicado no servidor aos eventos do feed de predições. Campos nulos não filtram.
+ *
+ * @param minProbability probabilidade mínima (inclusive)
+ * @param churnStatus status de churn
+ * @param subscriptionType tipo de assinatura (case-insensitive)
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public record PredictionFeedFilter(Double minProbability, ChurnStatus churnStatus, String subscriptionType) {
+
+    /** Filtro que aceita todos os eventos. */
+    public static final PredictionFeedFilter ALL = new PredictionFeedFilter(null, null, null);
+
+    public PredictionFeedFilter {
+        if (minProbability != null && (minProbability < 0.0 || minProbability > 1.0)) {
+            throw new IllegalArgumentException("minProbability deve estar entre 0 e 1");
+        }
+        if (subscriptionType != null && subscriptionType.isBlank()) subscriptionType = null;
+    }
+
+    public boolean matches(PredictionFeedEvent event) {
+        return (minProbability == null || event.probability() >= minProbability)
+                && (churnStatus == null || event.churnStatus() == churnStatus)
+                && (subscriptionType == null || subscriptionType.equalsIgnoreCase(event.subscriptionType()));
+    }
+}
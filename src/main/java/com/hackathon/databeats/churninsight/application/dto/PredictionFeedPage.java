@@ -0,0 +1,19 @@
+package com.hackathon.databeats.churninsight.application.dto;
+
+import java.util.List;
+
+/**
+ * Resultado de uma leitura do feed de predições.
+ *
+ * @param events eventos que atendem ao filtro, na ordem do feed
+ * @param cursor cursor para a próxima leitura; avança também sobre os eventos descartados
+ *               pelo filtro, então deve ser usado mesmo quando {@code events} vier vazio
+ * @param gap {@code true} se eventos posteriores ao cursor informado já saíram do buffer (ou
+ *            são anteriores à subida da aplicação) e o consumidor precisa reconciliar por
+ *            {@code /clients}
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public record PredictionFeedPage(List<PredictionFeedEvent> events, String cursor, boolean gap) {
+}
@@ -1,9 +1,13 @@
 package com.hackathon.databeats.churninsight.application.dto;
 
 import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
+import com.hackathon.databeats.churninsight.domain.enums.RiskFactor;
+import com.hackathon.databeats.churninsight.domain.rules.CategoricalNormalizer;
 import lombok.Builder;
 
 import java.time.LocalDate;
+import java.util.Locale;
+import java.util.function.UnaryOperator;
 
 /**
  * DTO para filtros de busca avançada de histórico de predições.
@@ -17,8 +21,8 @@ import java.time.LocalDate;
  *   <li><b>Demográfico:</b> gender, age (range), country, subscription_type, device_type</li>
  *   <li><b>Temporal:</b> startDate, endDate (data da predição)</li>
  *   <li><b>Comportamento:</b> isHeavyUser, offlineListening</li>
- *   <li><b>Features:</b> frustrationIndex (range)</li>
- *   <li><b>Texto:</b> userId (busca parcial)</li>
+ *   <li><b>Features:</b> frustrationIndex (range), riskFactor (fator de risco primário)</li>
+ *   <li><b>Texto:</b> userId (exato, prefixo ou contém, conforme userIdMatch)</li>
  * </ul>
  *
  * <p><b>Exemplo de uso:</b></p>
@@ -82,7 +86,48 @@ public record PredictionSearchFilter(
     /** Índice de frustração máximo. */
     Double maxFrustrationIndex,
 
-    /** Busca por ID do cliente (busca contém). */
-    String userId
-) {}
+    /** Fator de risco primário gravado na predição. */
+    RiskFactor riskFactor,
+
+    /** Busca por ID do cliente (modo definido por userIdMatch). */
+    String userId,
+
+    /** Modo de comparação do userId (padrão: contém; prefixo usa o índice). */
+    UserIdMatch userIdMatch
+) {
+
+    /**
+     * Retorna uma cópia com os categóricos na forma canônica gravada no banco
+     * ({@link CategoricalNormalizer}), vazio como ausente e userId aparado em minúsculas
+     * (as colunas usam collation case-insensitive). Filtros equivalentes resultam em objetos
+     * iguais, o que permite usá-los como chave de cache.
+     */
+    public PredictionSearchFilter normalized() {
+        String normalizedUserId = userId == null || userId.isBlank() ? null : userId.trim().toLowerCase(Locale.ROOT);
+        return PredictionSearchFilter.builder()
+                .churnStatus(churnStatus)
+                .minProbability(minProbability)
+                .maxProbability(maxProbability)
+                .gender(canonical(gender, CategoricalNormalizer::gender))
+                .minAge(minAge)
+                .maxAge(maxAge)
+                .country(canonical(country, CategoricalNormalizer::country))
+                .subscriptionType(canonical(subscriptionType, CategoricalNormalizer::subscriptionType))
+                .deviceType(canonical(deviceType, CategoricalNormalizer::deviceType))
+                .startDate(startDate)
+                .endDate(endDate)
+                .isHeavyUser(isHeavyUser)
+                .offlineListening(offlineListening)
+                .minFrustrationIndex(minFrustrationIndex)
+                .maxFrustrationIndex(maxFrustrationIndex)
+                .riskFactor(riskFactor)
+                .userId(normalizedUserId)
+                .userIdMatch(normalizedUserId == null ? null : (userIdMatch != null ? userIdMatch : UserIdMatch.CONTAINS))
+                .build();
+    }
+
+    private static String canonical(String value, UnaryOperator<String> normalizer) {
+        return value == null || value.isBlank() ? null : normalizer.apply(value);
+    }
+}
 
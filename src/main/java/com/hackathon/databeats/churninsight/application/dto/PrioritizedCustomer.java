@@ -0,0 +1,30 @@
+package com.hackathon.databeats.churninsight.application.dto;
+
+import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
+import com.hackathon.databeats.churninsight.domain.enums.RetentionActionStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cliente da lista priorizada de retenção: predição mais recente do usuário e a última ação
+ * de retenção registrada para ele.
+ *
+ * @param clientId churn_history.id da predição mais recente
+ * @param createdAt data da predição mais recente
+ * @param actionId última ação de retenção do usuário, ou {@code null} se não houver
+ * @param actionStatus status da última ação, ou {@code null} se não houver
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public record PrioritizedCustomer(
+        String clientId,
+        String userId,
+        double probability,
+        String subscriptionType,
+        ChurnStatus churnStatus,
+        LocalDateTime createdAt,
+        String actionId,
+        RetentionActionStatus actionStatus
+) {
+}
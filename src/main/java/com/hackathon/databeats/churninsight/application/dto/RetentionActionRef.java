@@ -0,0 +1,12 @@
+package com.hackathon.databeats.churninsight.application.dto;
+
+import com.hackathon.databeats.churninsight.domain.enums.RetentionActionStatus;
+
+/**
+ * Identificação e status atual de uma ação de retenção existente.
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public record RetentionActionRef(String id, String clientId, String userId, RetentionActionStatus status) {
+}
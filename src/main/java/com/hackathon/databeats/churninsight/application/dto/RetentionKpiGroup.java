@@ -0,0 +1,13 @@
+package com.hackathon.databeats.churninsight.application.dto;
+
+/**
+ * Totais dos KPIs de retenção de um canal e responsável.
+ *
+ * @param channel canal das ações
+ * @param owner responsável pelas ações, ou {@code null} quando não informado
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public record RetentionKpiGroup(String channel, String owner, RetentionKpiTotals totals) {
+}
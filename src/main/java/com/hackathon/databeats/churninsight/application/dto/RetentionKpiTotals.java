@@ -0,0 +1,42 @@
+package com.hackathon.databeats.churninsight.application.dto;
+
+/**
+ * Totais das ações de retenção de um período, base dos KPIs de retenção.
+ *
+ * <p>Também usado como delta por ação no rollup diário (valores negativos desfazem uma
+ * contagem, ex.: ação que deixa de estar EXECUTED).</p>
+ *
+ * @param totalActions ações criadas no período
+ * @param executedActions ações do período com status EXECUTED
+ * @param totalOutcomes ações do período com resultado registrado
+ * @param retainedCount resultados em que o cliente foi retido
+ * @param recoveredRevenue receita recuperada somada dos resultados
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public record RetentionKpiTotals(
+        long totalActions,
+        long executedActions,
+        long totalOutcomes,
+        long retainedCount,
+        double recoveredRevenue
+) {
+
+    public static final RetentionKpiTotals ZERO = new RetentionKpiTotals(0L, 0L, 0L, 0L, 0.0);
+
+    public RetentionKpiTotals plus(RetentionKpiTotals other) {
+        return new RetentionKpiTotals(
+                totalActions + other.totalActions,
+                executedActions + other.executedActions,
+                totalOutcomes + other.totalOutcomes,
+                retainedCount + other.retainedCount,
+                recoveredRevenue + other.recoveredRevenue);
+    }
+
+    /** Sem nenhuma variação (delta que não precisa ser gravado). */
+    public boolean isZero() {
+        return totalActions == 0 && executedActions == 0 && totalOutcomes == 0
+                && retainedCount == 0 && recoveredRevenue == 0.0;
+    }
+}
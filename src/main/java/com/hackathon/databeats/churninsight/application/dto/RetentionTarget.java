@@ -0,0 +1,13 @@
+package com.hackathon.databeats.churninsight.application.dto;
+
+/**
+ * Cliente alvo de uma ação de retenção.
+ *
+ * @param clientId churn_history.id da predição
+ * @param userId usuário da predição, ou {@code null} se a predição não tem usuário
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public record RetentionTarget(String clientId, String userId) {
+}
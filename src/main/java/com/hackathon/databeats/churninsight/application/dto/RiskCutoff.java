@@ -0,0 +1,17 @@
+package com.hackathon.databeats.churninsight.application.dto;
+
+/**
+ * Corte de probabilidade que define o TOP 25% de clientes em risco.
+ *
+ * <p>Um cliente está no TOP 25% quando a probabilidade da sua predição mais recente é maior
+ * ou igual a {@code probability}. Empates no limite entram todos, de forma determinística.</p>
+ *
+ * @param probability probabilidade mínima do TOP 25%
+ * @param totalCustomers total de clientes considerado no cálculo
+ * @param exact true quando calculado diretamente na base, false quando estimado pelo sketch
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public record RiskCutoff(double probability, long totalCustomers, boolean exact) {
+}
@@ -0,0 +1,37 @@
+package com.hackathon.databeats.churninsight.application.dto;
+
+import java.util.Locale;
+
+/**
+ * Modo de comparação do filtro por userId na busca de predições.
+ *
+ * <ul>
+ *   <li><b>EXACT:</b> igualdade (usa idx_user_id)</li>
+ *   <li><b>PREFIX:</b> começa com o texto informado (range scan em idx_user_id)</li>
+ *   <li><b>CONTAINS:</b> contém o texto em qualquer posição (não usa índice B-tree)</li>
+ * </ul>
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public enum UserIdMatch {
+    EXACT,
+    PREFIX,
+    CONTAINS;
+
+    /**
+     * Converte o parâmetro da requisição (case-insensitive).
+     *
+     * @param value nome do modo, ou null/vazio para usar o padrão
+     * @param defaultMatch modo usado quando o valor não é informado
+     * @throws IllegalArgumentException se o valor não corresponder a nenhum modo
+     */
+    public static UserIdMatch from(String value, UserIdMatch defaultMatch) {
+        if (value == null || value.isBlank()) return defaultMatch;
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Modo de busca por userId inválido: " + value + " (use exact, prefix ou contains)");
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.hackathon.databeats.churninsight.application.port.output;
+
+import com.hackathon.databeats.churninsight.application.dto.DashboardAggregates;
+
+import java.util.Optional;
+
+/**
+ * Port de saída para os agregados pré-calculados do dashboard executivo.
+ *
+ * <p>Implementações mantêm os contadores atualizados a cada predição persistida, de forma
+ * que a leitura não precise varrer a base. Quando os agregados ainda não estão disponíveis
+ * (ex.: logo após a inicialização) o retorno é vazio e o chamador deve recorrer às
+ * consulta exata de {@link LatestPredictionQueryPort}.</p>
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public interface DashboardAggregatePort {
+
+    /**
+     * Retorna uma cópia consistente dos agregados atuais.
+     *
+     * @return agregados, ou vazio se ainda não carregados
+     */
+    Optional<DashboardAggregates> current();
+}
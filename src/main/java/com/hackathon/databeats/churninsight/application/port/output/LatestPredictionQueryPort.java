@@ -0,0 +1,23 @@
+package com.hackathon.databeats.churninsight.application.port.output;
+
+import com.hackathon.databeats.churninsight.application.dto.DashboardAggregates;
+
+/**
+ * Port de saída para consultas sobre a predição mais recente de cada cliente.
+ *
+ * <p>Diferente de {@link PredictionHistoryQueryPort}, que opera sobre todas as predições
+ * já feitas, este contrato conta cada cliente uma única vez. É a base do dashboard
+ * executivo e do ranking TOP 25%.</p>
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public interface LatestPredictionQueryPort {
+
+    /**
+     * Calcula de forma exata todos os agregados do dashboard em uma única consulta: totais,
+     * status, fatores de risco, faixas de probabilidade, clientes por plano e TOP 25% por plano
+     * (com o corte calculado na própria consulta).
+     */
+    DashboardAggregates aggregateDashboard();
+}
@@ -0,0 +1,21 @@
+package com.hackathon.databeats.churninsight.application.port.output;
+
+import com.hackathon.databeats.churninsight.application.dto.AggregateQuery;
+import com.hackathon.databeats.churninsight.application.dto.AggregateResponse;
+
+/**
+ * Port de saída para agregações com agrupamento dinâmico sobre o histórico de predições.
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public interface PredictionAggregatePort {
+
+    /**
+     * Agrupa as predições que atendem aos filtros pelas dimensões da consulta.
+     *
+     * @param query consulta já normalizada ({@link AggregateQuery#normalized()})
+     * @throws IllegalArgumentException se a combinação de dimensões tiver grupos demais
+     */
+    AggregateResponse aggregate(AggregateQuery query);
+}
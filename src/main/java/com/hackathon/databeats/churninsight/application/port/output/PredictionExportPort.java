@@ -0,0 +1,26 @@
+package com.hackathon.databeats.churninsight.application.port.output;
+
+import com.hackathon.databeats.churninsight.application.dto.PredictionHistoryResponse;
+import com.hackathon.databeats.churninsight.application.dto.PredictionSearchFilter;
+
+import java.util.function.Consumer;
+
+/**
+ * Port de saída para exportação do histórico de predições.
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public interface PredictionExportPort {
+
+    /**
+     * Entrega, uma a uma, todas as predições que atendem aos filtros, sem carregar o resultado
+     * em memória. Uma exceção lançada pelo consumidor (ex.: cliente desconectado) interrompe a
+     * consulta e é repassada ao chamador.
+     *
+     * @param filter filtros da busca
+     * @param sink consumidor de cada linha
+     * @return quantidade de linhas entregues
+     */
+    long forEach(PredictionSearchFilter filter, Consumer<PredictionHistoryResponse> sink);
+}
@@ -0,0 +1,28 @@
+package com.hackathon.databeats.churninsight.application.port.output;
+
+import com.hackathon.databeats.churninsight.application.dto.PredictionFeedFilter;
+import com.hackathon.databeats.churninsight.application.dto.PredictionFeedPage;
+
+import java.time.Duration;
+
+/**
+ * Port de saída do feed de predições confirmadas, lido por cursor.
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public interface PredictionFeedPort {
+
+    /**
+     * Lê os eventos posteriores ao cursor, aguardando até {@code wait} quando ainda não houver
+     * nenhum que atenda ao filtro (long-poll).
+     *
+     * @param after cursor recebido em uma leitura anterior; {@code null} começa no fim do feed
+     * @param filter filtro aplicado a cada evento
+     * @param limit quantidade máxima de eventos devolvidos
+     * @param wait espera máxima por eventos novos ({@link Duration#ZERO} não espera)
+     * @return eventos encontrados e cursor da próxima leitura
+     * @throws IllegalArgumentException se o cursor estiver malformado
+     */
+    PredictionFeedPage poll(String after, PredictionFeedFilter filter, int limit, Duration wait);
+}
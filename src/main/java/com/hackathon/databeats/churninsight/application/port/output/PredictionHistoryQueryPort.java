@@ -1,5 +1,6 @@
 package com.hackathon.databeats.churninsight.application.port.output;
 
+import com.hackathon.databeats.churninsight.application.dto.CountStrategy;
 import com.hackathon.databeats.churninsight.application.dto.PaginatedResponse;
 import com.hackathon.databeats.churninsight.application.dto.PredictionHistoryResponse;
 import com.hackathon.databeats.churninsight.application.dto.PredictionSearchFilter;
@@ -24,9 +25,6 @@ public interface PredictionHistoryQueryPort {
     /** Conta predições por status de churn. */
     long countByChurnStatus(ChurnStatus status);
 
-    /** Conta quantos clientes estão no TOP 25% por probabilidade. */
-    Long countTop25AtRisk();
-
     /** Retorna tupla com contagens agregadas de fatores de risco. */
     Object[] getRiskFactorCounts();
 
@@ -36,9 +34,6 @@ public interface PredictionHistoryQueryPort {
     /** Retorna tupla com estatísticas globais (total, avg, churners, stayers). */
     Object[] getGlobalStats();
 
-    /** Retorna pares [subscription_type, count] do TOP 25% por probabilidade. */
-    List<Object[]> getTop25SubscriptionCounts();
-
     /** Contagem de predições agrupada por gênero. */
     List<Object[]> countByGender();
 
@@ -56,7 +51,23 @@ public interface PredictionHistoryQueryPort {
      * @param size tamanho da página (já limitado ao máximo)
      * @param sortBy campo de ordenação
      * @param sortDir direção da ordenação (asc/desc)
+     * @param countStrategy como calcular o total; fora de EXACT a página é lida sem COUNT(*)
      */
     PaginatedResponse<PredictionHistoryResponse> search(
-            PredictionSearchFilter filter, int page, int size, String sortBy, String sortDir);
+            PredictionSearchFilter filter, int page, int size, String sortBy, String sortDir, CountStrategy countStrategy);
+
+    /**
+     * Busca paginada por cursor (keyset): a página começa logo após o último registro
+     * da página anterior, com custo independente da profundidade.
+     *
+     * @param filter critérios de filtragem (todos opcionais)
+     * @param cursor cursor opaco recebido na página anterior (null = primeira página)
+     * @param size tamanho da página (já limitado ao máximo)
+     * @param sortBy campo de ordenação (createdAt, probability ou age)
+     * @param sortDir direção da ordenação (asc/desc)
+     * @param countStrategy como calcular o total, ou null para omiti-lo (totalElements = -1)
+     * @throws IllegalArgumentException se o cursor for inválido ou o campo não suportar keyset
+     */
+    PaginatedResponse<PredictionHistoryResponse> searchAfter(
+            PredictionSearchFilter filter, String cursor, int size, String sortBy, String sortDir, CountStrategy countStrategy);
 }
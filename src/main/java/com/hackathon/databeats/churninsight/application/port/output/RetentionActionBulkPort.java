@@ -0,0 +1,58 @@
+package com.hackathon.databeats.churninsight.application.port.output;
+
+import com.hackathon.databeats.churninsight.application.dto.NewRetentionAction;
+import com.hackathon.databeats.churninsight.application.dto.RetentionActionRef;
+import com.hackathon.databeats.churninsight.application.dto.RetentionTarget;
+import com.hackathon.databeats.churninsight.domain.enums.RetentionActionStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Port de saída para as operações de retenção em lote.
+ *
+ * <p>Validações e gravações são feitas por conjunto (uma consulta {@code IN (...)} por bloco
+ * de ids e inserções em batch JDBC), e não uma ida ao banco por item.</p>
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public interface RetentionActionBulkPort {
+
+    /**
+     * Predições existentes entre os ids informados.
+     *
+     * @return um alvo por id encontrado, em ordem arbitrária
+     */
+    List<RetentionTarget> findClients(Collection<String> clientIds);
+
+    /**
+     * Clientes do TOP 25% (predição mais recente com {@code probability >= cutoff}) na ordem
+     * da lista priorizada.
+     *
+     * @param subscriptionType plano, ou {@code null} para todos
+     * @param withoutOpenAction exclui usuários com ação PLANNED ou IN_PROGRESS
+     * @param limit máximo de clientes
+     */
+    List<RetentionTarget> findTopRisk(double cutoff, String subscriptionType, boolean withoutOpenAction, int limit);
+
+    /** Insere as ações em uma única transação. */
+    void insertAll(List<NewRetentionAction> actions);
+
+    /**
+     * Ações existentes entre os ids informados, bloqueadas para escrita até o fim da transação
+     * do chamador ({@code SELECT ... FOR UPDATE}). Exige transação ativa.
+     *
+     * @return uma referência por id encontrado, em ordem arbitrária
+     */
+    List<RetentionActionRef> lockActions(Collection<String> actionIds);
+
+    /**
+     * Altera o status das ações que ainda não estão em {@code status}.
+     *
+     * @param executedAt nova data de execução, ou {@code null} para manter a atual
+     * @return quantidade de ações efetivamente alteradas
+     */
+    int updateStatus(Collection<String> actionIds, RetentionActionStatus status, LocalDateTime executedAt);
+}
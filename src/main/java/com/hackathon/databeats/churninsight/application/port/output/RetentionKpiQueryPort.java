@@ -0,0 +1,24 @@
+package com.hackathon.databeats.churninsight.application.port.output;
+
+import com.hackathon.databeats.churninsight.application.dto.RetentionKpiGroup;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Port de saída para os totais dos KPIs de retenção.
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public interface RetentionKpiQueryPort {
+
+    /**
+     * Totais por canal e responsável das ações criadas no período e dos seus resultados.
+     *
+     * @param from primeiro dia do período (inclusive)
+     * @param to último dia do período (inclusive)
+     * @return um grupo por combinação presente no período, em ordem arbitrária
+     */
+    List<RetentionKpiGroup> totalsByChannelAndOwner(LocalDate from, LocalDate to);
+}
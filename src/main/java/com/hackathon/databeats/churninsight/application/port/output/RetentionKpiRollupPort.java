@@ -0,0 +1,39 @@
+package com.hackathon.databeats.churninsight.application.port.output;
+
+import com.hackathon.databeats.churninsight.application.dto.RetentionKpiTotals;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Port de saída para o rollup diário dos KPIs de retenção.
+ *
+ * <p>Cada gravação de ação ou resultado informa a variação que causou; a implementação a
+ * soma no dia de criação, canal, tipo e responsável de cada ação, na mesma transação da
+ * gravação. Divergências (ex.: gravações diretas no banco) são corrigidas pelo recálculo
+ * periódico ou por {@link #rebuild}.</p>
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public interface RetentionKpiRollupPort {
+
+    /**
+     * Soma {@code deltaPerAction} uma vez para cada ação informada.
+     *
+     * @param actionIds ações já gravadas
+     * @param deltaPerAction variação causada em cada ação
+     */
+    void add(Collection<String> actionIds, RetentionKpiTotals deltaPerAction);
+
+    /**
+     * Recalcula o rollup do período a partir das ações e resultados gravados, substituindo o
+     * que estiver armazenado.
+     *
+     * @param from primeiro dia (inclusive), ou {@code null} para o dia da ação mais antiga
+     * @param to último dia (inclusive), ou {@code null} para hoje
+     * @return diferença absoluta de contagens entre o rollup anterior e o recalculado
+     * @throws IllegalArgumentException com {@code from} posterior a {@code to}
+     */
+    long rebuild(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,55 @@
+package com.hackathon.databeats.churninsight.application.port.output;
+
+import com.hackathon.databeats.churninsight.application.dto.PrioritizedCustomer;
+import com.hackathon.databeats.churninsight.domain.enums.RetentionActionStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * Port de saída para a lista priorizada de retenção (TOP 25%) mantida fora do banco.
+ *
+ * <p>A ordem é a mesma das consultas de {@code RetentionActionRepository}: probabilidade da
+ * predição mais recente desc, user_id asc, restrita a {@code probability >= cutoff}. Enquanto
+ * o índice não está carregado as leituras devolvem vazio e o chamador usa as consultas SQL.</p>
+ *
+ * <p>As ações de retenção gravadas fora das gravações de predição precisam ser informadas por
+ * {@link #onActionSaved} e {@link #onActionStatusChanged} após o commit.</p>
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public interface RetentionPriorityPort {
+
+    /**
+     * Página por posição.
+     *
+     * @param cutoff probabilidade mínima do TOP 25%
+     * @param offset posição do primeiro cliente da página
+     * @param size tamanho da página
+     * @return clientes da página, ou vazio se o índice não está pronto
+     */
+    Optional<List<PrioritizedCustomer>> page(double cutoff, long offset, int size);
+
+    /**
+     * Página por cursor: clientes estritamente depois de (lastProbability, lastUserId).
+     *
+     * @return até {@code limit} clientes, ou vazio se o índice não está pronto
+     */
+    Optional<List<PrioritizedCustomer>> after(double cutoff, double lastProbability, String lastUserId, int limit);
+
+    /**
+     * Total de clientes com {@code probability >= cutoff}.
+     *
+     * @return total, ou vazio se o índice não está pronto
+     */
+    OptionalLong count(double cutoff);
+
+    /** Ação de retenção criada para o usuário. */
+    void onActionSaved(String userId, String actionId, RetentionActionStatus status, LocalDateTime createdAt);
+
+    /** Status de uma ação existente alterado. */
+    void onActionStatusChanged(String userId, String actionId, RetentionActionStatus status);
+}
@@ -0,0 +1,22 @@
+package com.hackathon.databeats.churninsight.application.port.output;
+
+import com.hackathon.databeats.churninsight.application.dto.RiskCutoff;
+
+/**
+ * Port de saída para o corte de probabilidade do TOP 25% de clientes em risco.
+ *
+ * <p>Com o corte conhecido, as consultas do TOP 25% viram uma varredura por faixa
+ * ({@code probability >= corte}) no índice de probabilidade, sem ranquear a base inteira.</p>
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public interface RiskCutoffPort {
+
+    /**
+     * Obtém o corte atual do TOP 25%.
+     *
+     * @return corte estimado pelo sketch em memória ou, no modo exato, calculado na base
+     */
+    RiskCutoff top25Cutoff();
+}
@@ -92,7 +92,7 @@ public class BatchProcessingService implements BatchProcessingUseCase {
 
     @Override
     public String startBatchProcessing(MultipartFile multipartFile, String requestIp) {
-        String jobId = com.hackathon.databeats.churninsight.infra.util.UUIDv7.randomUUIDString();
+        String jobId = com.hackathon.databeats.churninsight.infra.util.UUIDv7.nextString();
         String originalFilename = multipartFile.getOriginalFilename();
 
         BatchProcessingStatus initialStatus = new BatchProcessingStatus(
@@ -142,7 +142,7 @@ public class BatchProcessingService implements BatchProcessingUseCase {
 
         try {
             updateJobStatus(jobId, "RUNNING", "Processando stream de dados...", 0);
-            List<CustomerProfile> profileBuffer = new ArrayList<>(batchSize);
+            List<BatchRow> profileBuffer = new ArrayList<>(batchSize);
 
             try (InputStream is = new BufferedInputStream(new FileInputStream(file), 1024 * 1024)) { // 1MB buffer
                 if (originalFilename.toLowerCase().endsWith(".csv")) {
@@ -165,11 +165,11 @@ public class BatchProcessingService implements BatchProcessingUseCase {
                                 }
                                 if (context.currentLine() <= 2)
                                     validateCsvHeaders(context);
-                                profileBuffer.add(parseRowToProfile(row, context.headers()));
+                                profileBuffer.add(new BatchRow(context.currentLine(), parseRowToProfile(row, context.headers())));
 
                                 if (profileBuffer.size() >= batchSize) {
                                     submitBatchAsync(new ArrayList<>(profileBuffer), requestIp, jobId,
-                                            totalDbTime, processedCount, successCount, futures);
+                                            totalDbTime, processedCount, successCount, futures, errors);
                                     profileBuffer.clear();
                                 }
                             } catch (Exception e) {
@@ -197,10 +197,10 @@ public class BatchProcessingService implements BatchProcessingUseCase {
                                 continue;
                             }
                             try {
-                                profileBuffer.add(parseExcelRowToProfile(row, headers));
+                                profileBuffer.add(new BatchRow(row.getRowNum(), parseExcelRowToProfile(row, headers)));
                                 if (profileBuffer.size() >= batchSize) {
                                     submitBatchAsync(new ArrayList<>(profileBuffer), requestIp, jobId,
-                                            totalDbTime, processedCount, successCount, futures);
+                                            totalDbTime, processedCount, successCount, futures, errors);
                                     profileBuffer.clear();
                                 }
                             } catch (Exception e) {
@@ -214,7 +214,7 @@ public class BatchProcessingService implements BatchProcessingUseCase {
 
             if (!profileBuffer.isEmpty()) {
                 submitBatchAsync(new ArrayList<>(profileBuffer), requestIp, jobId,
-                        totalDbTime, processedCount, successCount, futures);
+                        totalDbTime, processedCount, successCount, futures, errors);
             }
 
             // Aguarda todos os batches terminarem
@@ -233,15 +233,16 @@ public class BatchProcessingService implements BatchProcessingUseCase {
         }
     }
 
-    private void submitBatchAsync(List<CustomerProfile> batch, String requestIp, String jobId,
+    private void submitBatchAsync(List<BatchRow> batch, String requestIp, String jobId,
                                   AtomicLong totalDbTime, AtomicInteger processedCount,
-                                  AtomicInteger successCount, List<CompletableFuture<Void>> futures) {
+                                  AtomicInteger successCount, List<CompletableFuture<Void>> futures,
+                                  List<String> errors) {
         try {
             processingPermits.acquire(); // Bloqueia se atingir limite de batches simultâneos
 
             CompletableFuture<Void> future = CompletableFuture.supplyAsync(() -> {
                 try {
-                    return processAndSaveBatch(batch, requestIp, totalDbTime);
+                    return processAndSaveBatch(batch, requestIp, jobId, totalDbTime, errors);
                 } finally {
                     processingPermits.release();
                 }
@@ -265,18 +266,21 @@ public class BatchProcessingService implements BatchProcessingUseCase {
     /**
      * Processa batch com máximo paralelismo usando ForkJoinPool dedicado.
      * Pipeline: Inferência paralela → Salvar assíncrono no DB
+     *
+     * <p>Os ids são derivados de (jobId, linha), então a gravação pode ser repetida pelo
+     * adapter sem duplicar registros. Falhas definitivas são reportadas no status do job.</p>
      */
-    private int processAndSaveBatch(List<CustomerProfile> profiles, String requestIp, AtomicLong dbTimeAccumulator) {
+    private int processAndSaveBatch(List<BatchRow> rows, String requestIp, String jobId,
+                                    AtomicLong dbTimeAccumulator, List<String> errors) {
         // Pré-calcula valores constantes (evita chamadas repetidas)
         final LocalDateTime batchTimestamp = LocalDateTime.now();
         final double threshold = metadata.getThresholdOtimo();
-        final long timestampMillis = System.currentTimeMillis();
 
         try {
             // Usa ForkJoinPool dedicado para inferência (não compete com outras tarefas)
             List<PredictionHistory> histories = inferencePool.submit(() ->
-                    profiles.parallelStream()
-                            .map(p -> createHistoryFromProfile(p, threshold, timestampMillis, batchTimestamp, requestIp))
+                    rows.parallelStream()
+                            .map(r -> createHistoryFromProfile(r, jobId, threshold, batchTimestamp, requestIp))
                             .filter(Objects::nonNull)
                             .toList()
             ).get();
@@ -289,7 +293,11 @@ public class BatchProcessingService implements BatchProcessingUseCase {
             return histories.size();
 
         } catch (Exception e) {
-            log.error("Erro no processamento do batch: {}", e.getMessage());
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            String range = rows.isEmpty() ? "-" : rows.get(0).rowNumber() + "-" + rows.get(rows.size() - 1).rowNumber();
+            log.error("Erro no processamento do batch (linhas {}): {}", range, cause.getMessage());
+            if (errors.size() < 50)
+                errors.add("Falha ao persistir linhas " + range + ": " + cause.getMessage());
             return 0;
         }
     }
@@ -298,8 +306,9 @@ public class BatchProcessingService implements BatchProcessingUseCase {
      * Cria instância de domínio PredictionHistory a partir do perfil do cliente.
      */
     private PredictionHistory createHistoryFromProfile(
-            CustomerProfile p, double threshold, long timestampMillis,
+            BatchRow row, String jobId, double threshold,
             LocalDateTime batchTimestamp, String requestIp) {
+        CustomerProfile p = row.profile();
         try {
             // 1. Features de negócio
             Map<String, Object> features = ChurnBusinessRules.calculateEngineeredFeatures(p);
@@ -316,7 +325,7 @@ public class BatchProcessingService implements BatchProcessingUseCase {
             ChurnStatus status = prob >= threshold ? ChurnStatus.WILL_CHURN : ChurnStatus.WILL_STAY;
 
             return PredictionHistory.builder()
-                    .id(com.hackathon.databeats.churninsight.infra.util.UUIDv7.generateString(timestampMillis))
+                    .id(com.hackathon.databeats.churninsight.infra.util.UUIDv7.fromJobRow(jobId, row.rowNumber()).toString())
                     .userId(p.userId())
                     .age(p.age())
                     .gender(p.gender())
@@ -364,68 +373,22 @@ public class BatchProcessingService implements BatchProcessingUseCase {
     }
 
     private CustomerProfile mapToProfile(Map<String, String> data) {
+        // gender/country/subscription_type/device_type são padronizados pelo próprio CustomerProfile
         return CustomerProfile.builder()
                 .userId(data.getOrDefault("user_id", data.getOrDefault("userid", "")))
-                .gender(normalizeGender(data.getOrDefault("gender", "")))
+                .gender(data.getOrDefault("gender", ""))
                 .age(parseInt(data.get("age")))
-                .country(normalizeCountry(data.getOrDefault("country", "")))
-                .subscriptionType(normalizeSubscription(data.getOrDefault("subscription_type", data.getOrDefault("subscriptiontype", ""))))
+                .country(data.getOrDefault("country", ""))
+                .subscriptionType(data.getOrDefault("subscription_type", data.getOrDefault("subscriptiontype", "")))
                 .listeningTime(parseDouble(data.getOrDefault("listening_time", data.get("listeningtime"))))
                 .songsPlayedPerDay(parseInt(data.getOrDefault("songs_played_per_day", data.get("songsplayedperday"))))
                 .skipRate(parseDouble(data.getOrDefault("skip_rate", data.get("skiprate"))))
                 .adsListenedPerWeek(parseInt(data.getOrDefault("ads_listened_per_week", data.get("adslistenedperweek"))))
-                .deviceType(normalizeDevice(data.getOrDefault("device_type", data.getOrDefault("devicetype", ""))))
+                .deviceType(data.getOrDefault("device_type", data.getOrDefault("devicetype", "")))
                 .offlineListening(parseBoolean(data.getOrDefault("offline_listening", data.get("offlinelistening"))))
                 .build();
     }
 
-    private String normalizeGender(String v) {
-        if (v == null) return "";
-        v = v.trim().toLowerCase();
-        if (v.equals("male") || v.equals("m") || v.equals("masculino")) return "Masculino";
-        if (v.equals("female") || v.equals("f") || v.equals("feminino")) return "Feminino";
-        return v; // fallback
-    }
-
-    private String normalizeCountry(String v) {
-        if (v == null) return "";
-        v = v.trim().toUpperCase();
-        // Se seu modelo espera PT-BR (Brasil/França/Índia), converta aqui:
-        if (v.equals("BR") || v.equals("BRAZIL") || v.equals("BRASIL")) return "Brasil";
-        if (v.equals("FR") || v.equals("FRANCE") || v.equals("FRANÇA")) return "França";
-        if (v.equals("IN") || v.equals("INDIA") || v.equals("ÍNDIA")) return "Índia";
-        return v;
-    }
-
-    private String normalizeDevice(String v) {
-        if (v == null)
-            return "";
-        v = v.trim().toLowerCase();
-        if (v.equals("desktop"))
-            return "Web";
-        if (v.equals("mobile"))
-            return "Mobile";
-        return v;
-    }
-
-    private String normalizeSubscription(String v) {
-        if (v == null)
-            return "";
-        v = v.trim();
-        // mantém como está, mas garante capitalização conhecida:
-        if (v.equalsIgnoreCase("free"))
-            return "Free";
-        if (v.equalsIgnoreCase("premium"))
-            return "Premium";
-        if (v.equalsIgnoreCase("student"))
-            return "Student";
-        if (v.equalsIgnoreCase("family"))
-            return "Family";
-        if (v.equalsIgnoreCase("duo"))
-            return "Duo";
-        return v;
-    }
-
     private CustomerProfile parseRowToProfile(String[] row, String[] headers) {
         Map<String, String> map = new HashMap<>();
         for (int i = 0; i < Math.min(row.length, headers.length); i++)
@@ -563,6 +526,12 @@ public class BatchProcessingService implements BatchProcessingUseCase {
         return m;
     }
 
+    /**
+     * Perfil lido do arquivo junto com o número da linha de origem.
+     */
+    private record BatchRow(long rowNumber, CustomerProfile profile) {
+    }
+
     @Override
     public CompletableFuture<BatchResult> processCsvFileAsync(MultipartFile file, String requestIp) {
         startBatchProcessing(file, requestIp);
@@ -55,7 +55,7 @@ public class ChurnPredictionService implements PredictChurnUseCase, PredictionSt
             ChurnStatus status = determinarStatus(probabilidadeChurn);
 
             PredictionHistory historico = PredictionHistory.fromPrediction(
-                    UUIDv7.randomUUIDString(),
+                    UUIDv7.nextString(),
                     profile,
                     status,
                     probabilidadeChurn,
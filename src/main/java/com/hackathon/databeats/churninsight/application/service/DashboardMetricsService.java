@@ -1,11 +1,13 @@
 package com.hackathon.databeats.churninsight.application.service;
 
+import com.hackathon.databeats.churninsight.application.dto.DashboardAggregates;
 import com.hackathon.databeats.churninsight.application.dto.DashboardMetricsResponse;
 import com.hackathon.databeats.churninsight.application.dto.DashboardMetricsResponse.FeatureImportanceItem;
 import com.hackathon.databeats.churninsight.application.dto.DashboardMetricsResponse.RiskFactorItem;
+import com.hackathon.databeats.churninsight.application.port.output.DashboardAggregatePort;
 import com.hackathon.databeats.churninsight.application.port.output.ModelMetadataPort;
-import com.hackathon.databeats.churninsight.application.port.output.PredictionHistoryQueryPort;
-import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
+import com.hackathon.databeats.churninsight.application.port.output.LatestPredictionQueryPort;
+import com.hackathon.databeats.churninsight.domain.rules.SubscriptionPricing;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -18,19 +20,23 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class DashboardMetricsService {
 
-    private final PredictionHistoryQueryPort predictionHistoryQueryPort;
+    private final LatestPredictionQueryPort latestPredictionQueryPort;
+    private final DashboardAggregatePort dashboardAggregatePort;
     private final ModelMetadataPort modelMetadataPort;
 
         @Value("${dashboard.include-legacy-churn-distribution:true}")
         private boolean includeLegacyChurnDistribution;
 
     public DashboardMetricsResponse getMetrics() {
-        // 1 - Total de clientes (fonte única: histórico persistido)
-        long totalCustomers = Math.max(0L, predictionHistoryQueryPort.count());
+        // Agregados mantidos em memória; consulta exata (única) apenas enquanto não estiverem prontos
+        DashboardAggregates aggregates = dashboardAggregatePort.current()
+            .orElseGet(latestPredictionQueryPort::aggregateDashboard);
+
+        // 1 - Total de clientes (fonte única: predição mais recente de cada cliente)
+        long totalCustomers = Math.max(0L, aggregates.totalCustomers());
 
         // 2 - Clientes em risco (TOP 25% por probabilidade)  -> regra Mariana
-        Long customersAtRisk = predictionHistoryQueryPort.countTop25AtRisk();
-        if (customersAtRisk == null || customersAtRisk < 0) customersAtRisk = 0L;
+        long customersAtRisk = Math.max(0L, aggregates.customersAtRisk());
 
         // 3 - Clientes em monitoramento (%) = TOP 25% (não é WILL_CHURN)
         double monitoringRate = totalCustomers > 0
@@ -38,13 +44,13 @@ public class DashboardMetricsService {
             : 0.0;
 
         // 4 - Receita em risco (alinhada com o mesmo critério do TOP 25%)
-        double revenueAtRisk = Math.max(0.0, this.calculateRevenueAtRisk());
+        double revenueAtRisk = Math.max(0.0, SubscriptionPricing.totalMonthlyValue(aggregates.top25ByPlan()));
 
         // 5 - Precisão do modelo (0..1)
         double modelAccuracy = Math.max(0.0, modelMetadataPort.getAcuracia());
 
         // 6 - Principais fatores (consolidado no backend)
-        List<RiskFactorItem> riskFactors = buildRiskFactors(totalCustomers);
+        List<RiskFactorItem> riskFactors = buildRiskFactors(aggregates.riskFactors(), totalCustomers);
         if (riskFactors == null || riskFactors.isEmpty()) {
             riskFactors = List.of(RiskFactorItem.builder()
             .name("Dados insuficientes para análise de risco")
@@ -72,34 +78,24 @@ public class DashboardMetricsService {
             .featureImportance(featureImportance);
 
         if (includeLegacyChurnDistribution) {
-            responseBuilder.churnDistribution(buildChurnDistribution());
+            // Campo legado para compatibilidade temporaria: [willStay, willChurn]
+            responseBuilder.churnDistribution(List.of(aggregates.willStay(), aggregates.willChurn()));
         }
 
         return responseBuilder.build();
     }
 
-        /**
-         * Campo legado para compatibilidade temporaria: [willStay, willChurn]
-         */
-        private List<Long> buildChurnDistribution() {
-                long willChurn = predictionHistoryQueryPort.countByChurnStatus(ChurnStatus.WILL_CHURN);
-                long willStay = predictionHistoryQueryPort.countByChurnStatus(ChurnStatus.WILL_STAY);
-                return List.of(willStay, willChurn);
-        }
-
     /**
-     * Fatores de risco: usa query agregada já existente no repo.
-     * Repo retorna (na ordem): free+ads, skipHigh, frustHigh, premiumNoOffline, lowListeningTime
+     * Fatores de risco a partir das contagens agregadas, ordenados por frequência.
      */
-    private List<RiskFactorItem> buildRiskFactors(long totalCustomers) {
-        Object[] raw = normalizeAggregateTuple(predictionHistoryQueryPort.getRiskFactorCounts(), 5);
+    private List<RiskFactorItem> buildRiskFactors(DashboardAggregates.RiskFactorCounts raw, long totalCustomers) {
         Map<String, Long> counts = new LinkedHashMap<>();
         if (raw != null) {
-            counts.put("Anúncios por Semana", safeLong(raw[0]));
-            counts.put("Taxa de Pulos Elevada", safeLong(raw[1]));
-            counts.put("Índice de Frustração Alto", safeLong(raw[2]));
-            counts.put("Subutilização Premium", safeLong(raw[3]));
-            counts.put("Tempo de Escuta Baixo", safeLong(raw[4]));
+            counts.put("Anúncios por Semana", raw.freeHighAds());
+            counts.put("Taxa de Pulos Elevada", raw.highSkipRate());
+            counts.put("Índice de Frustração Alto", raw.highFrustration());
+            counts.put("Subutilização Premium", raw.premiumNoOffline());
+            counts.put("Tempo de Escuta Baixo", raw.lowListening());
         }
         long denom = Math.max(1, totalCustomers);
         List<RiskFactorItem> result = counts.entrySet().stream()
@@ -115,22 +111,6 @@ public class DashboardMetricsService {
         return result;
     }
 
-    /**
-     * Alguns providers/JPA podem devolver a tupla agregada "aninhada" em uma posição.
-     * Este helper normaliza para um array linear previsível.
-     */
-    private Object[] normalizeAggregateTuple(Object[] raw, int expectedSize) {
-        if (raw == null) return null;
-
-        if (raw.length >= expectedSize) return raw;
-
-        if (raw.length == 1 && raw[0] instanceof Object[] nested && nested.length >= expectedSize) {
-            return nested;
-        }
-
-        return null;
-    }
-
     /**
      * Proxy para o gráfico: normaliza pela soma dos fatores (0..1).
      */
@@ -156,40 +136,6 @@ public class DashboardMetricsService {
             .toList();
     }
 
-    /**
-     * Regra simples de receita estimada por tipo de assinatura.
-     */
-    private double calculateRevenueAtRisk() {
-        Map<String, Double> planValues = Map.of(
-                "Premium", 23.90,
-                "Family", 40.90,
-                "Duo", 31.90,
-                "Student", 12.90,
-                "Free", 0.0
-        );
-
-        List<Object[]> top25ByPlan = predictionHistoryQueryPort.getTop25SubscriptionCounts();
-        
-        if (top25ByPlan == null || top25ByPlan.isEmpty()) {
-            return 0.0;
-        }
-
-        return top25ByPlan.stream()
-                .mapToDouble(row -> {
-                    String subscriptionType = row[0] == null ? "" : String.valueOf(row[0]);
-                    long count = safeLong(row[1]);
-                    double planValue = planValues.getOrDefault(subscriptionType, 0.0);
-                    return count * planValue;
-                })
-                .sum();
-    }
-
-    private long safeLong(Object v) {
-        if (v == null) return 0L;
-        if (v instanceof Number n) return n.longValue();
-        try { return Long.parseLong(String.valueOf(v)); } catch (Exception e) { return 0L; }
-    }
-
     // 1 casa decimal (para % e números gerais)
     private double round(double value) {
         return Math.round(value * 10.0) / 10.0;
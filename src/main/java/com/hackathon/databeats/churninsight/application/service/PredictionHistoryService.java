@@ -1,8 +1,13 @@
 package com.hackathon.databeats.churninsight.application.service;
 
+import com.hackathon.databeats.churninsight.application.dto.AggregateQuery;
+import com.hackathon.databeats.churninsight.application.dto.AggregateResponse;
+import com.hackathon.databeats.churninsight.application.dto.CountStrategy;
 import com.hackathon.databeats.churninsight.application.dto.PaginatedResponse;
 import com.hackathon.databeats.churninsight.application.dto.PredictionHistoryResponse;
 import com.hackathon.databeats.churninsight.application.dto.PredictionSearchFilter;
+import com.hackathon.databeats.churninsight.application.port.output.PredictionAggregatePort;
+import com.hackathon.databeats.churninsight.application.port.output.PredictionExportPort;
 import com.hackathon.databeats.churninsight.application.port.output.PredictionHistoryQueryPort;
 import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
 import lombok.RequiredArgsConstructor;
@@ -12,6 +17,7 @@ import org.springframework.stereotype.Service;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Serviço para consulta paginada e agregações de histórico de predições.
@@ -24,6 +30,8 @@ import java.util.Map;
 public class PredictionHistoryService {
 
     private final PredictionHistoryQueryPort predictionHistoryQueryPort;
+    private final PredictionAggregatePort predictionAggregatePort;
+    private final PredictionExportPort predictionExportPort;
 
     /**
      * Busca paginada com filtros dinâmicos.
@@ -33,6 +41,7 @@ public class PredictionHistoryService {
      * @param size Tamanho da página (max 100)
      * @param sortBy Campo para ordenação
      * @param sortDir Direção da ordenação (asc/desc)
+     * @param countStrategy Como calcular o total (exato, cache ou estimado)
      * @return Resposta paginada com estatísticas
      */
     public PaginatedResponse<PredictionHistoryResponse> search(
@@ -40,13 +49,61 @@ public class PredictionHistoryService {
             int page,
             int size,
             String sortBy,
-            String sortDir) {
+            String sortDir,
+            CountStrategy countStrategy) {
 
         // Validação e limitação de tamanho
         size = Math.min(size, 100);
         page = Math.max(page, 0);
 
-        return predictionHistoryQueryPort.search(filter, page, size, sortBy, sortDir);
+        return predictionHistoryQueryPort.search(filter, page, size, sortBy, sortDir, countStrategy);
+    }
+
+    /**
+     * Busca paginada por cursor (keyset), sem OFFSET e com total opcional.
+     *
+     * @param filter Filtros de busca (todos opcionais)
+     * @param cursor Cursor recebido na página anterior (null = primeira página)
+     * @param size Tamanho da página (max 100)
+     * @param sortBy Campo para ordenação (createdAt, probability ou age)
+     * @param sortDir Direção da ordenação (asc/desc)
+     * @param countStrategy Como calcular o total, ou null para omiti-lo
+     * @return Resposta paginada com cursor da próxima página
+     */
+    public PaginatedResponse<PredictionHistoryResponse> searchAfter(
+            PredictionSearchFilter filter,
+            String cursor,
+            int size,
+            String sortBy,
+            String sortDir,
+            CountStrategy countStrategy) {
+
+        size = Math.max(1, Math.min(size, 100));
+
+        return predictionHistoryQueryPort.searchAfter(filter, cursor, size, sortBy, sortDir, countStrategy);
+    }
+
+    /**
+     * Agregação com agrupamento dinâmico (group-by) sobre o histórico filtrado.
+     *
+     * @param query Dimensões, métricas e filtros (normalizados aqui)
+     * @return Um grupo por combinação de valores das dimensões
+     * @throws IllegalArgumentException se houver dimensões ou grupos demais
+     */
+    public AggregateResponse aggregate(AggregateQuery query) {
+        return predictionAggregatePort.aggregate(query.normalized());
+    }
+
+    /**
+     * Percorre todas as predições que atendem aos filtros, sem paginação nem estatísticas
+     * de página (exportação).
+     *
+     * @param filter Filtros da busca
+     * @param sink Consumidor de cada linha; uma exceção dele interrompe a exportação
+     * @return Quantidade de linhas exportadas
+     */
+    public long export(PredictionSearchFilter filter, Consumer<PredictionHistoryResponse> sink) {
+        return predictionExportPort.forEach(filter, sink);
     }
 
     /**
@@ -1,38 +1,99 @@
 package com.hackathon.databeats.churninsight.application.service;
 
+import com.hackathon.databeats.churninsight.application.dto.NewRetentionAction;
+import com.hackathon.databeats.churninsight.application.dto.PageCursor;
 import com.hackathon.databeats.churninsight.application.dto.PaginatedResponse;
+import com.hackathon.databeats.churninsight.application.dto.PrioritizedCustomer;
+import com.hackathon.databeats.churninsight.application.dto.RetentionActionRef;
+import com.hackathon.databeats.churninsight.application.dto.RetentionKpiGroup;
+import com.hackathon.databeats.churninsight.application.dto.RetentionKpiTotals;
+import com.hackathon.databeats.churninsight.application.dto.RetentionTarget;
+import com.hackathon.databeats.churninsight.application.dto.RiskCutoff;
+import com.hackathon.databeats.churninsight.application.port.output.RetentionActionBulkPort;
+import com.hackathon.databeats.churninsight.application.port.output.RetentionKpiQueryPort;
+import com.hackathon.databeats.churninsight.application.port.output.RetentionKpiRollupPort;
+import com.hackathon.databeats.churninsight.application.port.output.RetentionPriorityPort;
+import com.hackathon.databeats.churninsight.application.port.output.RiskCutoffPort;
 import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
 import com.hackathon.databeats.churninsight.domain.enums.RetentionActionStatus;
 import com.hackathon.databeats.churninsight.domain.enums.RetentionActionType;
+import com.hackathon.databeats.churninsight.domain.enums.RetentionChannel;
+import com.hackathon.databeats.churninsight.domain.rules.SubscriptionPricing;
 import com.hackathon.databeats.churninsight.infra.adapter.input.web.dto.*;
 import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.entity.RetentionActionEntity;
 import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.entity.RetentionOutcomeEntity;
 import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.repository.PredictionHistoryRepository;
 import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.repository.RetentionActionRepository;
 import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.repository.RetentionOutcomeRepository;
-import lombok.RequiredArgsConstructor;
+import com.hackathon.databeats.churninsight.infra.util.SingleFlight;
+import com.hackathon.databeats.churninsight.infra.util.UUIDv7;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.UUID;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
-@RequiredArgsConstructor
 public class RetentionOperationsService {
 
     private final RetentionActionRepository retentionActionRepository;
     private final RetentionOutcomeRepository retentionOutcomeRepository;
     private final PredictionHistoryRepository predictionHistoryRepository;
+    private final RiskCutoffPort riskCutoffPort;
+    private final RetentionKpiQueryPort retentionKpiQueryPort;
+    private final RetentionKpiRollupPort retentionKpiRollupPort;
+    private final RetentionPriorityPort retentionPriorityPort;
+    private final RetentionActionBulkPort retentionActionBulkPort;
+
+    // Painéis abertos ao mesmo tempo pedem as mesmas páginas do TOP 25%: uma consulta por chave
+    private final SingleFlight<List<Object>, Page<PrioritizedCustomer>> prioritizedPageFlight;
+    private final SingleFlight<List<Object>, List<PrioritizedCustomer>> prioritizedKeysetFlight;
+    private final SingleFlight<Double, Long> prioritizedCountFlight;
+
+    public RetentionOperationsService(
+            RetentionActionRepository retentionActionRepository,
+            RetentionOutcomeRepository retentionOutcomeRepository,
+            PredictionHistoryRepository predictionHistoryRepository,
+            RiskCutoffPort riskCutoffPort,
+            RetentionKpiQueryPort retentionKpiQueryPort,
+            RetentionKpiRollupPort retentionKpiRollupPort,
+            RetentionPriorityPort retentionPriorityPort,
+            RetentionActionBulkPort retentionActionBulkPort,
+            MeterRegistry meterRegistry) {
+        this.retentionActionRepository = retentionActionRepository;
+        this.retentionOutcomeRepository = retentionOutcomeRepository;
+        this.predictionHistoryRepository = predictionHistoryRepository;
+        this.riskCutoffPort = riskCutoffPort;
+        this.retentionKpiQueryPort = retentionKpiQueryPort;
+        this.retentionKpiRollupPort = retentionKpiRollupPort;
+        this.retentionPriorityPort = retentionPriorityPort;
+        this.retentionActionBulkPort = retentionActionBulkPort;
+        this.prioritizedPageFlight = new SingleFlight<>("retention_prioritized_page", meterRegistry);
+        this.prioritizedKeysetFlight = new SingleFlight<>("retention_prioritized_keyset", meterRegistry);
+        this.prioritizedCountFlight = new SingleFlight<>("retention_prioritized_count", meterRegistry);
+    }
+
+    private static final String PRIORITY_SORT = "priority";
 
     @Value("${retention.priority.high-threshold:6.0}")
     private double priorityHighThreshold;
@@ -40,11 +101,28 @@ public class RetentionOperationsService {
     @Value("${retention.priority.medium-threshold:3.0}")
     private double priorityMediumThreshold;
 
-    public PaginatedResponse<RetentionPriorityItemResponse> getPrioritized(int page, int size) {
-        Page<Object[]> raw = retentionActionRepository.getPrioritizedTop25(PageRequest.of(page, size));
+    @Value("${app.retention.bulk.max-items:5000}")
+    private int bulkMaxItems;
 
-        List<RetentionPriorityItemResponse> items = raw.getContent().stream()
-                .map(this::toPriorityItem)
+    /**
+     * Lista priorizada por posição. Lida do ranking em memória ({@link RetentionPriorityPort})
+     * quando carregado; senão, da consulta SQL.
+     */
+    public PaginatedResponse<RetentionPriorityItemResponse> getPrioritized(int page, int size) {
+        PageRequest pageable = PageRequest.of(page, size);
+        RiskCutoff cutoff = riskCutoffPort.top25Cutoff();
+        Page<PrioritizedCustomer> raw = retentionPriorityPort.page(cutoff.probability(), pageable.getOffset(), size)
+                .<Page<PrioritizedCustomer>>map(content -> new PageImpl<>(content, pageable,
+                        retentionPriorityPort.count(cutoff.probability()).orElse(content.size())))
+                .orElseGet(() -> prioritizedPageFlight.execute(List.of(cutoff.probability(), page, size),
+                        () -> retentionActionRepository.getPrioritizedTop25(cutoff.probability(), pageable)
+                                .map(this::toPrioritizedCustomer)));
+
+        // Posição no ranking = offset da página + índice (a lista já vem ordenada por probabilidade)
+        long offset = pageable.getOffset();
+        List<PrioritizedCustomer> rows = raw.getContent();
+        List<RetentionPriorityItemResponse> items = IntStream.range(0, rows.size())
+                .mapToObj(i -> toPriorityItem(rows.get(i), offset + i + 1, cutoff.totalCustomers()))
                 .toList();
 
         return PaginatedResponse.<RetentionPriorityItemResponse>builder()
@@ -53,6 +131,7 @@ public class RetentionOperationsService {
                 .size(raw.getSize())
                 .totalElements(raw.getTotalElements())
                 .totalPages(raw.getTotalPages())
+                .totalExact(true)
                 .first(raw.isFirst())
                 .last(raw.isLast())
                 .hasNext(raw.hasNext())
@@ -60,13 +139,82 @@ public class RetentionOperationsService {
                 .build();
     }
 
+    /**
+     * Lista priorizada por cursor (keyset) na ordem (probabilidade desc, user_id), sem OFFSET.
+     */
+    public PaginatedResponse<RetentionPriorityItemResponse> getPrioritizedAfter(String cursor, int size, boolean includeTotal) {
+        int pageSize = Math.max(1, Math.min(size, 100));
+        PageCursor after = null;
+        double lastProbability = 2.0;
+        String lastUserId = "";
+        if (cursor != null && !cursor.isBlank()) {
+            after = PageCursor.decode(cursor);
+            after.requireSort(PRIORITY_SORT, "desc");
+            try {
+                lastProbability = Double.parseDouble(after.sortValue());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Cursor de paginação inválido", e);
+            }
+            lastUserId = after.id();
+        }
+
+        RiskCutoff cutoff = riskCutoffPort.top25Cutoff();
+        double fromProbability = lastProbability;
+        String fromUserId = lastUserId;
+        List<PrioritizedCustomer> rows = retentionPriorityPort
+                .after(cutoff.probability(), fromProbability, fromUserId, pageSize + 1)
+                .orElseGet(() -> prioritizedKeysetFlight.execute(
+                        List.of(cutoff.probability(), fromProbability, fromUserId, pageSize),
+                        () -> retentionActionRepository.getPrioritizedTop25After(cutoff.probability(), fromProbability, fromUserId, pageSize + 1)
+                                .stream()
+                                .map(this::toPrioritizedCustomer)
+                                .toList()));
+        boolean hasNext = rows.size() > pageSize;
+        List<PrioritizedCustomer> pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+
+        long position = after != null ? after.position() : 0L;
+        List<RetentionPriorityItemResponse> items = IntStream.range(0, pageRows.size())
+                .mapToObj(i -> toPriorityItem(pageRows.get(i), position + i + 1, cutoff.totalCustomers()))
+                .toList();
+
+        String nextCursor = null;
+        if (hasNext) {
+            PrioritizedCustomer last = pageRows.get(pageRows.size() - 1);
+            nextCursor = new PageCursor(PRIORITY_SORT, "desc", String.valueOf(last.probability()),
+                    last.userId(), position + pageRows.size()).encode();
+        }
+
+        long total = includeTotal
+                ? retentionPriorityPort.count(cutoff.probability()).orElseGet(() -> prioritizedCountFlight.execute(
+                        cutoff.probability(), () -> retentionActionRepository.countPrioritizedTop25(cutoff.probability())))
+                : -1L;
+        return PaginatedResponse.<RetentionPriorityItemResponse>builder()
+                .content(items)
+                .page((int) (position / pageSize))
+                .size(pageSize)
+                .totalElements(total)
+                .totalPages(includeTotal ? (int) ((total + pageSize - 1) / pageSize) : -1)
+                .totalExact(includeTotal)
+                .first(after == null)
+                .last(!hasNext)
+                .hasNext(hasNext)
+                .hasPrevious(after != null)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Cria a ação e soma o delta do rollup de KPIs na mesma transação; o ranking em memória só
+     * é atualizado após o commit.
+     */
+    @Transactional
     public RetentionActionResponse createAction(CreateRetentionActionRequest request) {
         String clientId = Objects.requireNonNull(request.clientId(), "clientId is required");
         var client = predictionHistoryRepository.findById(clientId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Cliente nao encontrado"));
 
         RetentionActionEntity entity = new RetentionActionEntity();
-        entity.setId(UUID.randomUUID().toString());
+        entity.setId(UUIDv7.nextString());
         entity.setClientId(clientId);
         entity.setUserId(client.getUserId());
         entity.setActionType(request.actionType());
@@ -76,34 +224,175 @@ public class RetentionOperationsService {
         entity.setNotes(request.notes());
         entity.setStatus(request.status() == null ? RetentionActionStatus.PLANNED : request.status());
 
-        RetentionActionEntity saved = retentionActionRepository.save(entity);
+        // O delta lê a ação de retention_action: o INSERT precisa estar no banco antes dele
+        RetentionActionEntity saved = retentionActionRepository.saveAndFlush(entity);
+        retentionKpiRollupPort.add(List.of(saved.getId()), createdDelta(saved.getStatus()));
+        afterCommit(() -> retentionPriorityPort.onActionSaved(
+                saved.getUserId(), saved.getId(), saved.getStatus(), saved.getCreatedAt()));
         return toActionResponse(saved);
     }
 
+    /**
+     * Altera o status da ação. A ação é bloqueada na leitura, então o status anterior usado no
+     * delta do rollup de KPIs é o que a alteração de fato substitui, mesmo com alterações
+     * concorrentes.
+     */
+    @Transactional
     public RetentionActionResponse updateActionStatus(String actionId, UpdateRetentionActionStatusRequest request) {
         String safeActionId = Objects.requireNonNull(actionId, "actionId is required");
-        RetentionActionEntity entity = retentionActionRepository.findById(safeActionId)
+        RetentionActionEntity entity = retentionActionRepository.findByIdForUpdate(safeActionId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Acao de retencao nao encontrada"));
 
+        RetentionActionStatus previousStatus = entity.getStatus();
         entity.setStatus(request.status());
         if (request.status() == RetentionActionStatus.EXECUTED) {
             entity.setExecutedAt(LocalDateTime.now());
         }
 
         RetentionActionEntity saved = retentionActionRepository.save(entity);
+        retentionKpiRollupPort.add(List.of(saved.getId()), statusDelta(previousStatus, saved.getStatus()));
+        afterCommit(() -> retentionPriorityPort.onActionStatusChanged(saved.getUserId(), saved.getId(), saved.getStatus()));
         return toActionResponse(saved);
     }
 
+    /**
+     * Cria ações em lote a partir da lista informada ou do filtro sobre o TOP 25%.
+     *
+     * <p>Os clientes são validados com uma consulta por bloco de ids e as ações inseridas em
+     * batch; a inserção e o delta do rollup de KPIs ficam na mesma transação, e o ranking em
+     * memória só é atualizado após o commit. Clientes inexistentes voltam como NOT_FOUND sem
+     * impedir os demais itens.</p>
+     *
+     * @throws IllegalArgumentException sem actions nem filter, com os dois, ou acima do máximo de itens
+     */
+    @Transactional
+    public BulkRetentionActionResponse createActions(BulkCreateRetentionActionsRequest request) {
+        boolean byList = request.actions() != null && !request.actions().isEmpty();
+        if (byList == (request.filter() != null)) {
+            throw new IllegalArgumentException("Informe actions ou filter, nao ambos");
+        }
+        // Já na precisão da coluna TIMESTAMP: o MySQL arredondaria a fração no INSERT
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        List<NewRetentionAction> actions = new ArrayList<>();
+        List<BulkRetentionActionItemResponse> items = new ArrayList<>();
+
+        if (byList) {
+            List<CreateRetentionActionRequest> requested = request.actions();
+            requireBulkSize(requested.size());
+            Map<String, RetentionTarget> clients = retentionActionBulkPort
+                    .findClients(requested.stream().map(CreateRetentionActionRequest::clientId).collect(Collectors.toSet()))
+                    .stream()
+                    .collect(Collectors.toMap(RetentionTarget::clientId, Function.identity()));
+            UUIDv7.Block ids = UUIDv7.reserve(requested.size());
+            for (int i = 0; i < requested.size(); i++) {
+                CreateRetentionActionRequest item = requested.get(i);
+                RetentionTarget client = clients.get(item.clientId());
+                if (client == null) {
+                    items.add(new BulkRetentionActionItemResponse(i, item.clientId(), null,
+                            BulkRetentionActionItemResponse.Result.NOT_FOUND, null, "Cliente nao encontrado"));
+                    continue;
+                }
+                NewRetentionAction action = newAction(ids.string(i), client, item.actionType(), item.channel(),
+                        item.status(), item.owner(), item.scheduledAt(), item.notes(), now);
+                actions.add(action);
+                items.add(created(i, action));
+            }
+        } else {
+            BulkRetentionActionFilter filter = request.filter();
+            int limit = filter.limit() == null ? bulkMaxItems : Math.min(filter.limit(), bulkMaxItems);
+            RiskCutoff cutoff = riskCutoffPort.top25Cutoff();
+            List<RetentionTarget> targets = retentionActionBulkPort.findTopRisk(cutoff.probability(),
+                    filter.subscriptionType(), !Boolean.FALSE.equals(filter.withoutOpenAction()), limit);
+            UUIDv7.Block ids = targets.isEmpty() ? null : UUIDv7.reserve(targets.size());
+            for (RetentionTarget target : targets) {
+                NewRetentionAction action = newAction(ids.string(actions.size()), target, filter.actionType(),
+                        filter.channel(), filter.status(), filter.owner(), filter.scheduledAt(), filter.notes(), now);
+                items.add(created(actions.size(), action));
+                actions.add(action);
+            }
+        }
+
+        retentionActionBulkPort.insertAll(actions);
+        actions.stream()
+                .collect(Collectors.groupingBy(NewRetentionAction::status,
+                        Collectors.mapping(NewRetentionAction::id, Collectors.toList())))
+                .forEach((status, ids) -> retentionKpiRollupPort.add(ids, createdDelta(status)));
+        afterCommit(() -> actions.forEach(action -> retentionPriorityPort.onActionSaved(
+                action.userId(), action.id(), action.status(), action.createdAt())));
+        return bulkResponse(items);
+    }
+
+    /**
+     * Altera o status de várias ações em uma única transação. As ações são lidas e bloqueadas
+     * com uma consulta por bloco de ids; o UPDATE só toca as que ainda não estão no status
+     * pedido e o delta do rollup de KPIs sai dessas mesmas linhas, de modo que alterações
+     * concorrentes das mesmas ações não contam duas vezes. O ranking em memória só é atualizado
+     * após o commit. Ids inexistentes voltam como NOT_FOUND e ações que já estão no status
+     * pedido, como UNCHANGED.
+     *
+     * @throws IllegalArgumentException acima do máximo de itens
+     */
+    @Transactional
+    public BulkRetentionActionResponse updateActionStatuses(BulkUpdateRetentionActionStatusRequest request) {
+        List<String> requested = request.actionIds();
+        requireBulkSize(requested.size());
+        RetentionActionStatus status = request.status();
+
+        Map<String, RetentionActionRef> existing = retentionActionBulkPort.lockActions(new LinkedHashSet<>(requested))
+                .stream()
+                .collect(Collectors.toMap(RetentionActionRef::id, Function.identity()));
+        List<RetentionActionRef> changed = existing.values().stream()
+                .filter(action -> action.status() != status)
+                .toList();
+        int updated = retentionActionBulkPort.updateStatus(changed.stream().map(RetentionActionRef::id).toList(),
+                status, status == RetentionActionStatus.EXECUTED ? LocalDateTime.now() : null);
+        // As linhas estão bloqueadas desde a leitura; divergência aqui desfaz a transação inteira
+        if (updated != changed.size()) {
+            throw new IllegalStateException("Esperadas " + changed.size() + " acoes alteradas, alteradas " + updated);
+        }
+        changed.stream()
+                .collect(Collectors.groupingBy(RetentionActionRef::status,
+                        Collectors.mapping(RetentionActionRef::id, Collectors.toList())))
+                .forEach((previous, ids) -> retentionKpiRollupPort.add(ids, statusDelta(previous, status)));
+        afterCommit(() -> changed.forEach(action ->
+                retentionPriorityPort.onActionStatusChanged(action.userId(), action.id(), status)));
+
+        List<BulkRetentionActionItemResponse> items = IntStream.range(0, requested.size())
+                .mapToObj(i -> {
+                    String actionId = requested.get(i);
+                    RetentionActionRef action = existing.get(actionId);
+                    if (action == null) {
+                        return new BulkRetentionActionItemResponse(i, null, actionId,
+                                BulkRetentionActionItemResponse.Result.NOT_FOUND, null, "Acao de retencao nao encontrada");
+                    }
+                    BulkRetentionActionItemResponse.Result result = action.status() == status
+                            ? BulkRetentionActionItemResponse.Result.UNCHANGED
+                            : BulkRetentionActionItemResponse.Result.UPDATED;
+                    return new BulkRetentionActionItemResponse(i, action.clientId(), actionId, result, status, null);
+                })
+                .toList();
+        return bulkResponse(items);
+    }
+
+    /**
+     * Registra ou substitui o resultado da ação, marcando-a como executada. A ação é bloqueada
+     * antes de ler o resultado existente, de modo que registros concorrentes para a mesma ação
+     * são serializados e o delta do rollup de KPIs parte sempre do resultado já commitado.
+     */
+    @Transactional
     public RetentionOutcomeResponse registerOutcome(String actionId, CreateRetentionOutcomeRequest request) {
         String safeActionId = Objects.requireNonNull(actionId, "actionId is required");
-        RetentionActionEntity action = retentionActionRepository.findById(safeActionId)
+        RetentionActionEntity action = retentionActionRepository.findByIdForUpdate(safeActionId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Acao de retencao nao encontrada"));
 
         RetentionOutcomeEntity entity = retentionOutcomeRepository.findByActionId(safeActionId)
                 .orElseGet(RetentionOutcomeEntity::new);
 
-        if (entity.getId() == null) {
-            entity.setId(UUID.randomUUID().toString());
+        boolean newOutcome = entity.getId() == null;
+        boolean wasRetained = entity.isRetained();
+        double previousRevenue = entity.getRecoveredRevenue();
+        if (newOutcome) {
+            entity.setId(UUIDv7.nextString());
             entity.setActionId(safeActionId);
         }
 
@@ -113,13 +402,20 @@ public class RetentionOperationsService {
         entity.setObservedAt(request.observedAt() == null ? LocalDateTime.now() : request.observedAt());
         entity.setComment(request.comment());
 
-        if (action.getStatus() != RetentionActionStatus.EXECUTED) {
+        RetentionActionStatus previousStatus = action.getStatus();
+        if (previousStatus != RetentionActionStatus.EXECUTED) {
             action.setStatus(RetentionActionStatus.EXECUTED);
             action.setExecutedAt(LocalDateTime.now());
             retentionActionRepository.save(action);
+            afterCommit(() -> retentionPriorityPort.onActionStatusChanged(
+                    action.getUserId(), action.getId(), RetentionActionStatus.EXECUTED));
         }
 
         RetentionOutcomeEntity saved = retentionOutcomeRepository.save(entity);
+        retentionKpiRollupPort.add(List.of(safeActionId), statusDelta(previousStatus, RetentionActionStatus.EXECUTED)
+                .plus(new RetentionKpiTotals(0L, 0L, newOutcome ? 1L : 0L,
+                        (saved.isRetained() ? 1L : 0L) - (wasRetained ? 1L : 0L),
+                        saved.getRecoveredRevenue() - previousRevenue)));
         return RetentionOutcomeResponse.builder()
                 .id(saved.getId())
                 .actionId(saved.getActionId())
@@ -131,56 +427,84 @@ public class RetentionOperationsService {
                 .build();
     }
 
+    /**
+     * Recalcula o rollup de KPIs do período a partir das ações e resultados gravados.
+     *
+     * @param from primeiro dia, ou {@code null} para o dia da ação mais antiga
+     * @param to último dia, ou {@code null} para hoje
+     * @throws IllegalArgumentException com {@code from} posterior a {@code to}
+     */
+    public RetentionKpiRebuildResponse rebuildKpis(LocalDate from, LocalDate to) {
+        LocalDate toDay = to == null ? LocalDate.now() : to;
+        long drift = retentionKpiRollupPort.rebuild(from, toDay);
+        return new RetentionKpiRebuildResponse(from, toDay, drift);
+    }
+
     public RetentionKpisResponse getKpis(LocalDate from, LocalDate to) {
-        LocalDateTime fromDate = (from == null ? LocalDate.now().minusDays(30) : from).atStartOfDay();
-        LocalDateTime toDate = (to == null ? LocalDate.now() : to).atTime(23, 59, 59);
-
-        long totalActions = retentionActionRepository.countByCreatedAtBetween(fromDate, toDate);
-        long executedActions = retentionActionRepository.countByStatusAndCreatedAtBetween(RetentionActionStatus.EXECUTED, fromDate, toDate);
-
-        List<Object[]> outcomes = retentionActionRepository.getRetentionOutcomeCounts(fromDate, toDate);
-        long retainedCount = 0;
-        long totalOutcomes = 0;
-        for (Object[] row : outcomes) {
-            boolean retained = Boolean.TRUE.equals(row[0]);
-            long count = row[1] instanceof Number n ? n.longValue() : 0L;
-            totalOutcomes += count;
-            if (retained) retainedCount += count;
+        LocalDate fromDay = from == null ? LocalDate.now().minusDays(30) : from;
+        LocalDate toDay = to == null ? LocalDate.now() : to;
+
+        // Uma única consulta ao rollup diário; totais e quebras são somados aqui
+        List<RetentionKpiGroup> groups = retentionKpiQueryPort.totalsByChannelAndOwner(fromDay, toDay);
+        RetentionKpiTotals totals = RetentionKpiTotals.ZERO;
+        Map<String, RetentionKpiTotals> byChannel = new TreeMap<>();
+        Map<String, RetentionKpiTotals> byOwner = new TreeMap<>();
+        RetentionKpiTotals withoutOwner = RetentionKpiTotals.ZERO;
+        for (RetentionKpiGroup group : groups) {
+            totals = totals.plus(group.totals());
+            byChannel.merge(group.channel(), group.totals(), RetentionKpiTotals::plus);
+            if (group.owner() == null) {
+                withoutOwner = withoutOwner.plus(group.totals());
+            } else {
+                byOwner.merge(group.owner(), group.totals(), RetentionKpiTotals::plus);
+            }
         }
-
-        double recoveredRevenue = retentionActionRepository.sumRecoveredRevenueBetween(fromDate, toDate) == null
-                ? 0.0
-                : retentionActionRepository.sumRecoveredRevenueBetween(fromDate, toDate);
-
-        double executionRate = totalActions > 0 ? (executedActions * 100.0) / totalActions : 0.0;
-        double retentionRate = totalOutcomes > 0 ? (retainedCount * 100.0) / totalOutcomes : 0.0;
+        List<RetentionKpiBreakdownResponse> ownerBreakdown = new ArrayList<>();
+        byOwner.forEach((owner, ownerTotals) -> ownerBreakdown.add(toBreakdown(owner, ownerTotals)));
+        if (withoutOwner.totalActions() > 0) ownerBreakdown.add(toBreakdown(null, withoutOwner));
 
         return RetentionKpisResponse.builder()
-                .totalActions(totalActions)
-                .executedActions(executedActions)
-                .executionRate(round1(executionRate))
-                .totalOutcomes(totalOutcomes)
-                .retainedCount(retainedCount)
-                .retentionRate(round1(retentionRate))
-                .recoveredRevenue(round2(recoveredRevenue))
+                .totalActions(totals.totalActions())
+                .executedActions(totals.executedActions())
+                .executionRate(round1(executionRate(totals)))
+                .totalOutcomes(totals.totalOutcomes())
+                .retainedCount(totals.retainedCount())
+                .retentionRate(round1(retentionRate(totals)))
+                .recoveredRevenue(round2(totals.recoveredRevenue()))
             .priorityHighThreshold(round2(priorityHighThreshold))
             .priorityMediumThreshold(round2(priorityMediumThreshold))
+                .byChannel(byChannel.entrySet().stream()
+                        .map(entry -> toBreakdown(entry.getKey(), entry.getValue()))
+                        .toList())
+                .byOwner(ownerBreakdown)
                 .build();
     }
 
-    private RetentionPriorityItemResponse toPriorityItem(Object[] row) {
-        String clientId = String.valueOf(row[0]);
-        String userId = row[1] == null ? null : String.valueOf(row[1]);
-        double probability = toDouble(row[2]);
-        String subscriptionType = row[3] == null ? "Free" : String.valueOf(row[3]);
-        ChurnStatus churnStatus = ChurnStatus.valueOf(String.valueOf(row[4]));
-        LocalDateTime createdAt = row[5] instanceof java.sql.Timestamp ts ? ts.toLocalDateTime() : null;
-        long rowNum = row[6] instanceof Number n ? n.longValue() : 1L;
-        long totalCount = row[7] instanceof Number n ? n.longValue() : 1L;
-        String actionId = row[8] == null ? null : String.valueOf(row[8]);
-        RetentionActionStatus actionStatus = row[9] == null ? null : RetentionActionStatus.valueOf(String.valueOf(row[9]));
-
-        double expectedValue = monthlyValueByPlan().getOrDefault(subscriptionType, 0.0);
+    // Linha das consultas de RetentionActionRepository: id, user_id, probability,
+    // subscription_type, churn_status, created_at, action_id, action_status
+    private PrioritizedCustomer toPrioritizedCustomer(Object[] row) {
+        return new PrioritizedCustomer(
+                String.valueOf(row[0]),
+                row[1] == null ? null : String.valueOf(row[1]),
+                toDouble(row[2]),
+                row[3] == null ? null : String.valueOf(row[3]),
+                ChurnStatus.valueOf(String.valueOf(row[4])),
+                row[5] instanceof java.sql.Timestamp ts ? ts.toLocalDateTime() : null,
+                row[6] == null ? null : String.valueOf(row[6]),
+                row[7] == null ? null : RetentionActionStatus.valueOf(String.valueOf(row[7])));
+    }
+
+    private RetentionPriorityItemResponse toPriorityItem(PrioritizedCustomer customer, long rowNum, long totalCount) {
+        String clientId = customer.clientId();
+        String userId = customer.userId();
+        double probability = customer.probability();
+        String subscriptionType = customer.subscriptionType() == null ? "Free" : customer.subscriptionType();
+        ChurnStatus churnStatus = customer.churnStatus();
+        LocalDateTime createdAt = customer.createdAt();
+        String actionId = customer.actionId();
+        RetentionActionStatus actionStatus = customer.actionStatus();
+
+        double expectedValue = SubscriptionPricing.monthlyValue(subscriptionType);
         double recoveryProbability = estimateRecoveryProbability(subscriptionType, probability);
         double rankScore = calculateRankScore(rowNum, totalCount);
         double riskSignal = calculateRiskSignal(probability, rankScore);
@@ -207,6 +531,83 @@ public class RetentionOperationsService {
                 .build();
     }
 
+    private RetentionKpiBreakdownResponse toBreakdown(String key, RetentionKpiTotals totals) {
+        return RetentionKpiBreakdownResponse.builder()
+                .key(key)
+                .totalActions(totals.totalActions())
+                .executedActions(totals.executedActions())
+                .executionRate(round1(executionRate(totals)))
+                .totalOutcomes(totals.totalOutcomes())
+                .retainedCount(totals.retainedCount())
+                .retentionRate(round1(retentionRate(totals)))
+                .recoveredRevenue(round2(totals.recoveredRevenue()))
+                .build();
+    }
+
+    private static double executionRate(RetentionKpiTotals totals) {
+        return totals.totalActions() > 0 ? (totals.executedActions() * 100.0) / totals.totalActions() : 0.0;
+    }
+
+    private static double retentionRate(RetentionKpiTotals totals) {
+        return totals.totalOutcomes() > 0 ? (totals.retainedCount() * 100.0) / totals.totalOutcomes() : 0.0;
+    }
+
+    // Variação do rollup de KPIs por ação criada
+    private static RetentionKpiTotals createdDelta(RetentionActionStatus status) {
+        return new RetentionKpiTotals(1L, status == RetentionActionStatus.EXECUTED ? 1L : 0L, 0L, 0L, 0.0);
+    }
+
+    // Variação do rollup de KPIs por ação que muda de status (só a contagem de executadas muda)
+    private static RetentionKpiTotals statusDelta(RetentionActionStatus previous, RetentionActionStatus current) {
+        long executed = (current == RetentionActionStatus.EXECUTED ? 1L : 0L)
+                - (previous == RetentionActionStatus.EXECUTED ? 1L : 0L);
+        return new RetentionKpiTotals(0L, executed, 0L, 0L, 0.0);
+    }
+
+    // Ranking em memória não pode ver gravações que ainda podem sofrer rollback
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void requireBulkSize(int size) {
+        if (size > bulkMaxItems) {
+            throw new IllegalArgumentException("Maximo de " + bulkMaxItems + " itens por requisicao");
+        }
+    }
+
+    private static NewRetentionAction newAction(String id, RetentionTarget target, RetentionActionType actionType,
+                                                RetentionChannel channel, RetentionActionStatus status,
+                                                String owner, LocalDateTime scheduledAt, String notes,
+                                                LocalDateTime createdAt) {
+        return new NewRetentionAction(id, target.clientId(), target.userId(),
+                actionType, channel, status == null ? RetentionActionStatus.PLANNED : status,
+                owner, scheduledAt, notes, createdAt);
+    }
+
+    private static BulkRetentionActionItemResponse created(int index, NewRetentionAction action) {
+        return new BulkRetentionActionItemResponse(index, action.clientId(), action.id(),
+                BulkRetentionActionItemResponse.Result.CREATED, action.status(), null);
+    }
+
+    private static BulkRetentionActionResponse bulkResponse(List<BulkRetentionActionItemResponse> items) {
+        int succeeded = (int) items.stream().filter(item -> item.result().succeeded()).count();
+        return BulkRetentionActionResponse.builder()
+                .requested(items.size())
+                .succeeded(succeeded)
+                .failed(items.size() - succeeded)
+                .items(items)
+                .build();
+    }
+
     private RetentionActionResponse toActionResponse(RetentionActionEntity e) {
         return RetentionActionResponse.builder()
                 .id(e.getId())
@@ -223,16 +624,6 @@ public class RetentionOperationsService {
                 .build();
     }
 
-    private Map<String, Double> monthlyValueByPlan() {
-        return Map.of(
-                "Premium", 23.90,
-                "Family", 40.90,
-                "Duo", 31.90,
-                "Student", 12.90,
-                "Free", 0.0
-        );
-    }
-
     private double estimateRecoveryProbability(String subscriptionType, double churnProbability) {
         double base = switch (subscriptionType) {
             case "Family", "Duo", "Premium" -> 0.55;
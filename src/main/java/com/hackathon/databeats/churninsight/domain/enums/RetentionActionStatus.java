@@ -4,5 +4,10 @@ public enum RetentionActionStatus {
     PLANNED,
     IN_PROGRESS,
     EXECUTED,
-    FAILED
+    FAILED;
+
+    /** Ação ainda em aberto (planejada ou em andamento). */
+    public boolean isOpen() {
+        return this == PLANNED || this == IN_PROGRESS;
+    }
 }
@@ -0,0 +1,74 @@
+package com.hackathon.databeats.churninsight.domain.enums;
+
+/**
+ * Fator de risco primário de uma predição, calculado uma vez na gravação por
+ * {@link com.hackathon.databeats.churninsight.domain.rules.ChurnBusinessRules#primaryRiskFactor}
+ * e persistido como código numérico em {@code churn_history.primary_risk_factor}.
+ *
+ * <p>Os códigos são gravados no banco: não reordenar nem reaproveitar valores.</p>
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public enum RiskFactor {
+
+    /** Predição de permanência: nenhum fator é destacado. */
+    NONE(0, "Nenhum (Stay)", "Manter relacionamento atual."),
+
+    /** Plano Free exposto a muitos anúncios. */
+    FREE_HIGH_ADS(1, "Anúncios por Semana", "Oferecer teste Premium para aliviar interrupções de áudio."),
+
+    /** Taxa de pulos elevada. */
+    HIGH_SKIP_RATE(2, "Taxa de Pulos Elevada", "Recalibrar algoritmo de recomendação para reduzir pulos."),
+
+    /** Índice de frustração elevado. */
+    HIGH_FRUSTRATION(3, "Índice de Frustração", "Enviar pesquisa de satisfação com cupom de desconto."),
+
+    /** Plano pago sem uso do modo offline. */
+    PREMIUM_NO_OFFLINE(4, "Subutilização Premium", "Sugerir uso de downloads para experiência completa."),
+
+    /** Tempo de escuta baixo. */
+    LOW_ENGAGEMENT(5, "Baixo Engajamento", "Enviar recomendações personalizadas para aumentar engajamento."),
+
+    /** Predição de cancelamento sem nenhum fator heurístico. */
+    MODERATE(6, "Perfil de Risco Moderado", "Monitorar comportamento e manter contato proativo.");
+
+    private static final RiskFactor[] BY_CODE = values();
+
+    private final int code;
+    private final String label;
+    private final String recommendedAction;
+
+    RiskFactor(int code, String label, String recommendedAction) {
+        this.code = code;
+        this.label = label;
+        this.recommendedAction = recommendedAction;
+    }
+
+    /** Código persistido. */
+    public int code() {
+        return code;
+    }
+
+    /** Rótulo exibido nas listagens. */
+    public String label() {
+        return label;
+    }
+
+    /** Ação de retenção sugerida para o fator. */
+    public String recommendedAction() {
+        return recommendedAction;
+    }
+
+    /**
+     * Fator do código persistido.
+     *
+     * @throws IllegalArgumentException se o código não existir
+     */
+    public static RiskFactor fromCode(int code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("Código de fator de risco inválido: " + code);
+        }
+        return BY_CODE[code];
+    }
+}
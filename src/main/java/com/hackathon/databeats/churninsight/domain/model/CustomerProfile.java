@@ -1,5 +1,7 @@
 package com.hackathon.databeats.churninsight.domain.model;
 
+import com.hackathon.databeats.churninsight.domain.rules.CategoricalNormalizer;
+
 import java.util.Objects;
 
 /**
@@ -37,8 +39,11 @@ public record CustomerProfile(
             throw new IllegalArgumentException("SkipRate deve estar entre 0.0 e 1.0");
         }
 
-        // Padronização de dados (Opcional, mas útil no domínio)
-        country = (country != null) ? country.toUpperCase() : null;
+        // Padronização dos categóricos: o valor gravado é o mesmo enviado ao modelo
+        gender = CategoricalNormalizer.gender(gender);
+        country = CategoricalNormalizer.country(country);
+        subscriptionType = CategoricalNormalizer.subscriptionType(subscriptionType);
+        deviceType = CategoricalNormalizer.deviceType(deviceType);
     }
 
     /**
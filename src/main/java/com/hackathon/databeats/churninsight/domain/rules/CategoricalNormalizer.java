@@ -0,0 +1,107 @@
+package com.hackathon.databeats.churninsight.domain.rules;
+
+import java.util.Locale;
+
+/**
+ * Forma canônica dos atributos categóricos do cliente.
+ *
+ * <p>Os valores canônicos são os mesmos com que o modelo ONNX foi treinado (ex.: "Male",
+ * "Free", "DE", "Desktop") e são também os valores gravados em churn_history e
+ * customer_latest_prediction. Com a caixa padronizada na escrita, os filtros de busca
+ * comparam por igualdade simples e usam os índices das colunas.</p>
+ *
+ * <p>Entradas nulas permanecem nulas e entradas em branco viram string vazia. Valores
+ * desconhecidos são mantidos com a primeira letra maiúscula (país: em maiúsculas).</p>
+ *
+ * <h3>Thread Safety:</h3>
+ * <p>Classe utilitária <b>stateless</b> e <b>thread-safe</b>.</p>
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public final class CategoricalNormalizer {
+
+    private CategoricalNormalizer() {
+        // Utility class
+    }
+
+    /**
+     * Normaliza o valor de acordo com o nome da feature categórica do modelo
+     * (gender, country, subscription_type, device_type). Outras features só são aparadas.
+     */
+    public static String normalize(String feature, String rawValue) {
+        return switch (feature) {
+            case "gender" -> gender(rawValue);
+            case "country" -> country(rawValue);
+            case "subscription_type" -> subscriptionType(rawValue);
+            case "device_type" -> deviceType(rawValue);
+            default -> rawValue == null ? null : rawValue.trim();
+        };
+    }
+
+    public static String gender(String rawValue) {
+        if (rawValue == null || rawValue.isBlank()) return blankOrNull(rawValue);
+        return switch (key(rawValue)) {
+            case "male", "m", "masculino" -> "Male";
+            case "female", "f", "feminino" -> "Female";
+            case "other", "outro", "outros" -> "Other";
+            default -> capitalizeFirst(rawValue.trim());
+        };
+    }
+
+    /**
+     * Normaliza nomes de países para códigos ISO de 2 letras (formato do modelo).
+     */
+    public static String country(String rawValue) {
+        if (rawValue == null || rawValue.isBlank()) return blankOrNull(rawValue);
+        return switch (key(rawValue)) {
+            case "germany", "de", "alemanha", "deutschland" -> "DE";
+            case "usa", "us", "united states", "estados unidos", "eua" -> "US";
+            case "brazil", "br", "brasil" -> "BR";
+            case "canada", "ca", "canadá" -> "CA";
+            case "uk", "gb", "united kingdom", "reino unido", "england", "inglaterra" -> "GB";
+            case "france", "fr", "frança" -> "FR";
+            case "spain", "es", "espanha", "españa" -> "ES";
+            case "italy", "it", "italia", "itália" -> "IT";
+            case "portugal", "pt" -> "PT";
+            case "mexico", "mx", "méxico" -> "MX";
+            case "argentina", "ar" -> "AR";
+            case "india", "in", "índia" -> "IN";
+            default -> rawValue.trim().toUpperCase(Locale.ROOT); // Assume que é um código ISO
+        };
+    }
+
+    public static String subscriptionType(String rawValue) {
+        if (rawValue == null || rawValue.isBlank()) return blankOrNull(rawValue);
+        return switch (key(rawValue)) {
+            case "free", "gratis", "gratuito" -> "Free";
+            case "premium", "pago" -> "Premium";
+            case "family", "familia", "familiar" -> "Family";
+            case "student", "estudante", "universitario" -> "Student";
+            default -> capitalizeFirst(rawValue.trim());
+        };
+    }
+
+    public static String deviceType(String rawValue) {
+        if (rawValue == null || rawValue.isBlank()) return blankOrNull(rawValue);
+        return switch (key(rawValue)) {
+            case "desktop", "computer", "pc", "computador" -> "Desktop";
+            case "mobile", "celular", "smartphone", "phone" -> "Mobile";
+            case "web", "browser", "navegador" -> "Web";
+            default -> capitalizeFirst(rawValue.trim());
+        };
+    }
+
+    private static String key(String rawValue) {
+        return rawValue.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String blankOrNull(String rawValue) {
+        return rawValue == null ? null : "";
+    }
+
+    private static String capitalizeFirst(String s) {
+        if (s.isEmpty()) return s;
+        return s.substring(0, 1).toUpperCase(Locale.ROOT) + s.substring(1).toLowerCase(Locale.ROOT);
+    }
+}
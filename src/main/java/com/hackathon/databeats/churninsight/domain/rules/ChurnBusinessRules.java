@@ -1,6 +1,9 @@
 package com.hackathon.databeats.churninsight.domain.rules;
 
+import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
+import com.hackathon.databeats.churninsight.domain.enums.RiskFactor;
 import com.hackathon.databeats.churninsight.domain.model.CustomerProfile;
+import com.hackathon.databeats.churninsight.domain.model.PredictionHistory;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -95,6 +98,39 @@ public final class ChurnBusinessRules {
      */
     private static final String FREE_SUBSCRIPTION = "Free";
 
+    // =========================================================================
+    // FATORES DE RISCO HEURÍSTICOS (dashboard executivo)
+    // =========================================================================
+
+    /** Plano Free exposto a mais de 15 anúncios por semana. */
+    public static final int RISK_FREE_HIGH_ADS = 1;
+
+    /** Taxa de pulos acima de 40%. */
+    public static final int RISK_HIGH_SKIP_RATE = 1 << 1;
+
+    /** Índice de frustração acima de 3.0. */
+    public static final int RISK_HIGH_FRUSTRATION = 1 << 2;
+
+    /** Plano pago sem uso do modo offline. */
+    public static final int RISK_PREMIUM_NO_OFFLINE = 1 << 3;
+
+    /** Tempo de escuta abaixo de 100 minutos. */
+    public static final int RISK_LOW_LISTENING = 1 << 4;
+
+    private static final int FREE_HIGH_ADS_THRESHOLD = 15;
+    private static final double HIGH_SKIP_RATE_THRESHOLD = 0.4;
+    private static final double HIGH_FRUSTRATION_THRESHOLD = 3.0;
+    private static final double LOW_LISTENING_THRESHOLD = 100.0;
+
+    /** Fator primário de cada bit {@code RISK_*}, na ordem de precedência (bit menos significativo primeiro). */
+    private static final RiskFactor[] PRIMARY_BY_FLAG = {
+            RiskFactor.FREE_HIGH_ADS,
+            RiskFactor.HIGH_SKIP_RATE,
+            RiskFactor.HIGH_FRUSTRATION,
+            RiskFactor.PREMIUM_NO_OFFLINE,
+            RiskFactor.LOW_ENGAGEMENT
+    };
+
     // =========================================================================
     // CONSTRUTOR PRIVADO (Utility Class)
     // =========================================================================
@@ -297,6 +333,54 @@ public final class ChurnBusinessRules {
         return isPremium && noOffline;
     }
 
+    /**
+     * Calcula a máscara de fatores de risco heurísticos exibidos no dashboard.
+     *
+     * <p>Espelha as mesmas condições das agregações SQL da projeção de clientes: campos
+     * nulos não disparam nenhum fator e a comparação do plano ignora maiúsculas, como a
+     * collation da tabela.</p>
+     *
+     * @return combinação dos bits {@code RISK_*} (0 quando nenhum fator se aplica)
+     */
+    public static int riskFactorFlags(String subscriptionType, Integer adsListenedPerWeek, Double skipRate,
+                                      Double frustrationIndex, Boolean premiumNoOffline, Double listeningTime) {
+        int flags = 0;
+        if (FREE_SUBSCRIPTION.equalsIgnoreCase(subscriptionType)
+                && adsListenedPerWeek != null && adsListenedPerWeek > FREE_HIGH_ADS_THRESHOLD) {
+            flags |= RISK_FREE_HIGH_ADS;
+        }
+        if (skipRate != null && skipRate > HIGH_SKIP_RATE_THRESHOLD) flags |= RISK_HIGH_SKIP_RATE;
+        if (frustrationIndex != null && frustrationIndex > HIGH_FRUSTRATION_THRESHOLD) flags |= RISK_HIGH_FRUSTRATION;
+        if (Boolean.TRUE.equals(premiumNoOffline)) flags |= RISK_PREMIUM_NO_OFFLINE;
+        if (listeningTime != null && listeningTime < LOW_LISTENING_THRESHOLD) flags |= RISK_LOW_LISTENING;
+        return flags;
+    }
+
+    /**
+     * Máscara de fatores de risco de uma predição do histórico.
+     *
+     * @see #riskFactorFlags(String, Integer, Double, Double, Boolean, Double)
+     */
+    public static int riskFactorFlags(PredictionHistory history) {
+        return riskFactorFlags(history.subscriptionType(), history.adsListenedPerWeek(), history.skipRate(),
+                history.frustrationIndex(), history.premiumNoOffline(), history.listeningTime());
+    }
+
+    /**
+     * Fator de risco primário de uma predição: o primeiro fator presente na ordem
+     * anúncios (Free), pulos, frustração, Premium sem offline e baixo engajamento.
+     *
+     * <p>Predições de permanência não destacam fator ({@link RiskFactor#NONE}); predições de
+     * cancelamento sem nenhum fator ficam em {@link RiskFactor#MODERATE}.</p>
+     *
+     * @param riskFlags máscara de {@link #riskFactorFlags}
+     */
+    public static RiskFactor primaryRiskFactor(ChurnStatus churnStatus, int riskFlags) {
+        if (churnStatus != ChurnStatus.WILL_CHURN) return RiskFactor.NONE;
+        if (riskFlags == 0) return RiskFactor.MODERATE;
+        return PRIMARY_BY_FLAG[Integer.numberOfTrailingZeros(riskFlags)];
+    }
+
     // =========================================================================
     // MÉTODOS AUXILIARES DE NULL-SAFETY
     // =========================================================================
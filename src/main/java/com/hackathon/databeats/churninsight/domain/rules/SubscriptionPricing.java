@@ -0,0 +1,56 @@
+package com.hackathon.databeats.churninsight.domain.rules;
+
+import java.util.Map;
+
+/**
+ * Valor mensal estimado de cada tipo de assinatura, usado nos cálculos de receita em risco e
+ * na priorização de retenção.
+ *
+ * <p>O tipo é comparado na forma canônica ({@link CategoricalNormalizer#subscriptionType});
+ * planos desconhecidos ou ausentes valem zero.</p>
+ *
+ * <h3>Thread Safety:</h3>
+ * <p>Classe utilitária <b>stateless</b> e <b>thread-safe</b>.</p>
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public final class SubscriptionPricing {
+
+    private static final Map<String, Double> MONTHLY_VALUE_BY_PLAN = Map.of(
+            "Premium", 23.90,
+            "Family", 40.90,
+            "Duo", 31.90,
+            "Student", 12.90,
+            "Free", 0.0
+    );
+
+    private SubscriptionPricing() {
+        // Utility class
+    }
+
+    /**
+     * Valor mensal do plano, ou 0.0 se o plano for desconhecido.
+     */
+    public static double monthlyValue(String subscriptionType) {
+        if (subscriptionType == null || subscriptionType.isBlank()) return 0.0;
+        return MONTHLY_VALUE_BY_PLAN.getOrDefault(CategoricalNormalizer.subscriptionType(subscriptionType), 0.0);
+    }
+
+    /**
+     * Valores mensais por plano canônico (para montar expressões equivalentes em SQL).
+     */
+    public static Map<String, Double> monthlyValues() {
+        return MONTHLY_VALUE_BY_PLAN;
+    }
+
+    /**
+     * Receita mensal somada de clientes contados por plano.
+     */
+    public static double totalMonthlyValue(Map<String, Long> customersByPlan) {
+        if (customersByPlan == null || customersByPlan.isEmpty()) return 0.0;
+        return customersByPlan.entrySet().stream()
+                .mapToDouble(e -> e.getValue() * monthlyValue(e.getKey()))
+                .sum();
+    }
+}
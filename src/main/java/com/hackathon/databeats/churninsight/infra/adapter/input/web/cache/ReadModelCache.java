@@ -0,0 +1,191 @@
+package com.hackathon.databeats.churninsight.infra.adapter.input.web.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache refresh-ahead (stale-while-revalidate) das respostas de leitura do dashboard.
+ *
+ * <p>A primeira requisição de um read model calcula o valor (chamadas simultâneas aguardam o
+ * mesmo cálculo). Depois disso o último valor é servido imediatamente; quando passa do TTL
+ * suave, uma única atualização roda em segundo plano e as requisições seguintes continuam
+ * recebendo o valor anterior até ela terminar. Se nenhuma atualização concluir até o TTL
+ * rígido, o valor expira e a próxima requisição volta a calcular.</p>
+ *
+ * <p>Cada valor carrega um ETag (hash do JSON) e o instante da última mudança de conteúdo.
+ * {@link #respond} responde 304 sem corpo quando o cliente já tem a versão atual
+ * ({@code If-None-Match} / {@code If-Modified-Since}).</p>
+ */
+@Slf4j
+@Component
+public class ReadModelCache {
+
+    /**
+     * Valor em cache com a sua versão.
+     *
+     * @param value resposta calculada
+     * @param etag ETag fraco derivado do JSON da resposta
+     * @param lastModified instante em que o conteúdo mudou pela última vez
+     * @param loadedAt instante do cálculo (base do TTL suave)
+     */
+    private record Entry(Object value, String etag, Instant lastModified, Instant loadedAt) {
+    }
+
+    private record Key(String readModel, Object params) {
+    }
+
+    private final Cache<Key, Entry> cache;
+    private final Map<Key, Boolean> refreshing = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final ObjectMapper objectMapper;
+    private final TaskExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Duration softTtl;
+
+    public ReadModelCache(
+            ObjectMapper objectMapper,
+            @Qualifier("taskExecutor") TaskExecutor executor,
+            MeterRegistry meterRegistry,
+            @Value("${app.read-model-cache.enabled:true}") boolean enabled,
+            @Value("${app.read-model-cache.soft-ttl-seconds:15}") long softTtlSeconds,
+            @Value("${app.read-model-cache.hard-ttl-seconds:600}") long hardTtlSeconds,
+            @Value("${app.read-model-cache.max-entries:200}") long maxEntries) {
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.softTtl = Duration.ofSeconds(softTtlSeconds);
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(hardTtlSeconds))
+                .maximumSize(maxEntries)
+                .build();
+    }
+
+    /**
+     * Responde com o valor em cache do read model, 304 se o cliente já tem essa versão.
+     *
+     * @param request requisição (cabeçalhos condicionais)
+     * @param readModel nome do read model (tag das métricas)
+     * @param params parâmetros que distinguem valores do mesmo read model (equals/hashCode)
+     * @param loader cálculo do valor
+     */
+    public <T> ResponseEntity<T> respond(WebRequest request, String readModel, Object params, Supplier<T> loader) {
+        if (!enabled) {
+            return ResponseEntity.ok(loader.get());
+        }
+        Entry entry = get(new Key(readModel, params), loader);
+        if (request.checkNotModified(entry.etag(), entry.lastModified().toEpochMilli())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(entry.etag())
+                    .lastModified(entry.lastModified())
+                    .build();
+        }
+        @SuppressWarnings("unchecked")
+        T value = (T) entry.value();
+        return ResponseEntity.ok()
+                .eTag(entry.etag())
+                .lastModified(entry.lastModified())
+                .cacheControl(CacheControl.noCache())
+                .body(value);
+    }
+
+    /**
+     * Descarta os valores do read model (ex.: após uma escrita que o altera). Atualizações em
+     * andamento calculadas antes do descarte não voltam ao cache.
+     */
+    public void evict(String readModel) {
+        generation.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> key.readModel().equals(readModel));
+    }
+
+    // === MÉTODOS PRIVADOS ===
+
+    private Entry get(Key key, Supplier<?> loader) {
+        Entry cached = cache.getIfPresent(key);
+        if (cached == null) {
+            count(key, "miss");
+            // Caffeine executa um único cálculo por chave; chamadas simultâneas aguardam o mesmo
+            return cache.get(key, k -> load(k, loader, null));
+        }
+        if (!Instant.now().isBefore(cached.loadedAt().plus(softTtl))) {
+            count(key, "stale");
+            refreshInBackground(key, loader, cached);
+        } else {
+            count(key, "hit");
+        }
+        return cached;
+    }
+
+    private void refreshInBackground(Key key, Supplier<?> loader, Entry previous) {
+        if (refreshing.putIfAbsent(key, Boolean.TRUE) != null) return;
+        try {
+            long before = generation.get();
+            executor.execute(() -> {
+                try {
+                    Entry refreshed = load(key, loader, previous);
+                    if (generation.get() == before) {
+                        cache.put(key, refreshed);
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Falha ao atualizar o read model {}; mantendo o valor anterior: {}", key.readModel(), e.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+            log.debug("Atualização do read model {} adiada: executor ocupado", key.readModel());
+        }
+    }
+
+    private Entry load(Key key, Supplier<?> loader, Entry previous) {
+        Timer.Sample sample = Timer.start();
+        Object value = loader.get();
+        sample.stop(Timer.builder("churn.read_model.load")
+                .description("Tempo de cálculo dos read models do dashboard")
+                .tag("read_model", key.readModel())
+                .register(meterRegistry));
+
+        Instant now = Instant.now();
+        String etag = etag(value);
+        // Conteúdo igual ao anterior mantém o Last-Modified
+        Instant lastModified = previous != null && Objects.equals(previous.etag(), etag) ? previous.lastModified() : now;
+        return new Entry(value, etag, lastModified, now);
+    }
+
+    private String etag(Object value) {
+        try {
+            return "W/\"" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(value)) + "\"";
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar o read model", e);
+        }
+    }
+
+    private void count(Key key, String result) {
+        meterRegistry.counter("churn.read_model.cache", "read_model", key.readModel(), "result", result).increment();
+    }
+}
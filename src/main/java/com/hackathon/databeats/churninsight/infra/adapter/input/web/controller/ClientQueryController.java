@@ -1,6 +1,11 @@
 package com.hackathon.databeats.churninsight.infra.adapter.input.web.controller;
 
+import com.hackathon.databeats.churninsight.application.dto.AggregateDimension;
+import com.hackathon.databeats.churninsight.application.dto.AggregateMetric;
+import com.hackathon.databeats.churninsight.application.dto.AggregateQuery;
+import com.hackathon.databeats.churninsight.application.dto.AggregateResponse;
 import com.hackathon.databeats.churninsight.application.dto.ClientPrediction;
+import com.hackathon.databeats.churninsight.application.dto.CountStrategy;
 import com.hackathon.databeats.churninsight.application.dto.PaginatedResponse;
 import com.hackathon.databeats.churninsight.application.dto.PredictionHistoryResponse;
 import com.hackathon.databeats.churninsight.application.dto.PredictionSearchFilter;
@@ -8,6 +13,9 @@ import com.hackathon.databeats.churninsight.application.port.input.ClientPredict
 import com.hackathon.databeats.churninsight.application.port.input.ClientPredictionQueryUseCase.ClientStatistics;
 import com.hackathon.databeats.churninsight.application.service.PredictionHistoryService;
 import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
+import com.hackathon.databeats.churninsight.infra.adapter.input.web.cache.ReadModelCache;
+import com.hackathon.databeats.churninsight.infra.adapter.input.web.dto.PredictionSearchRequest;
+import com.hackathon.databeats.churninsight.infra.adapter.input.web.export.PredictionExportWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -15,12 +23,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.format.annotation.DateTimeFormat;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -43,6 +53,16 @@ public class ClientQueryController {
     // Serviço 2: Acesso histórico com filtros complexos (Search, Autocomplete)
     private final PredictionHistoryService historyService;
 
+    // Respostas de leitura do dashboard servidas com refresh-ahead e ETag
+    private final ReadModelCache readModelCache;
+
+    // Exportação em streaming (CSV/NDJSON)
+    private final PredictionExportWriter exportWriter;
+
+    // Estratégia de total da busca por offset quando a requisição não informa countStrategy
+    @Value("${app.search.count-strategy.default:exact}")
+    private String defaultCountStrategy;
+
     // =================================================================================
     // 1. BUSCA MESTRA (Substitui o getAllClients simples)
     // =================================================================================
@@ -63,79 +83,30 @@ public class ClientQueryController {
             @Parameter(description = "Direção da ordenação (asc/desc)")
             @RequestParam(defaultValue = "desc") String sortDir,
 
-            // === FILTROS (Vindos do ClientHistoryController) ===
-            @Parameter(description = "Status de churn")
-            @RequestParam(required = false) ChurnStatus status,
-
-            @Parameter(description = "Probabilidade mínima")
-            @RequestParam(required = false) Double minProbability,
-
-            @Parameter(description = "Probabilidade máxima")
-            @RequestParam(required = false) Double maxProbability,
-
-            @Parameter(description = "Gênero")
-            @RequestParam(required = false) String gender,
-
-            @Parameter(description = "Idade mínima")
-            @RequestParam(required = false) Integer minAge,
-
-            @Parameter(description = "Idade máxima")
-            @RequestParam(required = false) Integer maxAge,
-
-            @Parameter(description = "País")
-            @RequestParam(required = false) String country,
+            @Parameter(description = "Modo de paginação: offset (padrão) ou cursor (keyset)")
+            @RequestParam(defaultValue = "offset") String pagination,
 
-            @Parameter(description = "Tipo de assinatura")
-            @RequestParam(required = false) String subscriptionType,
+            @Parameter(description = "Cursor opaco da página anterior (paginação por cursor)")
+            @RequestParam(required = false) String cursor,
 
-            @Parameter(description = "Tipo de dispositivo")
-            @RequestParam(required = false) String deviceType,
+            @Parameter(description = "Calcula o total de registros na paginação por cursor")
+            @RequestParam(defaultValue = "false") boolean includeTotal,
 
-            @Parameter(description = "Data inicial (yyyy-MM-dd)")
-            @RequestParam(required = false)
-            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "Cálculo do total: exact, cached ou estimated (veja totalExact na resposta)")
+            @RequestParam(required = false) String countStrategy,
 
-            @Parameter(description = "Data final (yyyy-MM-dd)")
-            @RequestParam(required = false)
-            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
-
-            @Parameter(description = "Apenas Heavy Users")
-            @RequestParam(required = false) Boolean isHeavyUser,
-
-            @Parameter(description = "Usa Offline")
-            @RequestParam(required = false) Boolean offlineListening,
-
-            @Parameter(description = "Frustração mínima")
-            @RequestParam(required = false) Double minFrustration,
+            // === FILTROS (Vindos do ClientHistoryController) ===
+            @ParameterObject @ModelAttribute PredictionSearchRequest filters
+    ) {
+        log.debug("🔍 Busca avançada: page={}, size={}, userId={}, status={}", page, size, filters.userId(), filters.status());
 
-            @Parameter(description = "Frustração máxima")
-            @RequestParam(required = false) Double maxFrustration,
+        PredictionSearchFilter filter = filters.toFilter();
 
-            @Parameter(description = "Busca textual por ID")
-            @RequestParam(required = false) String userId
-    ) {
-        log.debug("🔍 Busca avançada: page={}, size={}, userId={}, status={}", page, size, userId, status);
-
-        PredictionSearchFilter filter = PredictionSearchFilter.builder()
-                .churnStatus(status)
-                .minProbability(minProbability)
-                .maxProbability(maxProbability)
-                .gender(gender)
-                .minAge(minAge)
-                .maxAge(maxAge)
-                .country(country)
-                .subscriptionType(subscriptionType)
-                .deviceType(deviceType)
-                .startDate(startDate)
-                .endDate(endDate)
-                .isHeavyUser(isHeavyUser)
-                .offlineListening(offlineListening)
-                .minFrustrationIndex(minFrustration)
-                .maxFrustrationIndex(maxFrustration)
-                .userId(userId)
-                .build();
-
-        return ResponseEntity.ok(historyService.search(filter, page, size, sortBy, sortDir));
+        if (isCursorPagination(pagination, cursor)) {
+            return ResponseEntity.ok(historyService.searchAfter(filter, cursor, size, sortBy, sortDir,
+                    cursorCountStrategy(countStrategy, includeTotal)));
+        }
+        return ResponseEntity.ok(historyService.search(filter, page, size, sortBy, sortDir, offsetCountStrategy(countStrategy)));
     }
 
     // =================================================================================
@@ -151,8 +122,8 @@ public class ClientQueryController {
 
     @GetMapping("/statistics")
     @Operation(summary = "Estatísticas de Churn (SQL)", description = "Retorna agregação (AVG, MAX, MIN, COUNT) calculada via SQL otimizado")
-    public ResponseEntity<ClientStatistics> getStatistics() {
-        return ResponseEntity.ok(predictionUseCase.getStatistics());
+    public ResponseEntity<ClientStatistics> getStatistics(WebRequest request) {
+        return readModelCache.respond(request, "client_statistics", "", predictionUseCase::getStatistics);
     }
 
     @GetMapping("/{clientId}")
@@ -216,15 +187,91 @@ public class ClientQueryController {
     public ResponseEntity<PaginatedResponse<PredictionHistoryResponse>> byStatus(
             @PathVariable ChurnStatus status,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "offset") String pagination,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @RequestParam(required = false) String countStrategy) {
         PredictionSearchFilter filter = PredictionSearchFilter.builder().churnStatus(status).build();
-        PaginatedResponse<PredictionHistoryResponse> response = historyService.search(filter, page, size, "createdAt", "desc");
+        if (isCursorPagination(pagination, cursor)) {
+            return ResponseEntity.ok(historyService.searchAfter(filter, cursor, size, "createdAt", "desc",
+                    cursorCountStrategy(countStrategy, includeTotal)));
+        }
+        PaginatedResponse<PredictionHistoryResponse> response = historyService.search(filter, page, size, "createdAt", "desc",
+                offsetCountStrategy(countStrategy));
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/aggregates")
     @Operation(summary = "Aggregates para dashboard", description = "Retorna métricas pre-agrupadas para alimentar o dashboard")
-    public ResponseEntity<Map<String, Object>> getAggregates() {
-        return ResponseEntity.ok(historyService.getAggregates());
+    public ResponseEntity<Map<String, Object>> getAggregates(WebRequest request) {
+        return readModelCache.respond(request, "client_aggregates", "", historyService::getAggregates);
+    }
+
+    @GetMapping("/aggregate")
+    @Operation(summary = "Agregação com group-by",
+            description = "Agrupa as predições filtradas por até 4 dimensões (gender, country, subscription_type, "
+                    + "device_type, age_band, probability_bucket, created_at_day, primary_risk_factor) e calcula count, avg_probability, "
+                    + "min_probability, max_probability e revenue_at_risk por grupo. Aceita os mesmos filtros de /clients.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Grupos calculados"),
+            @ApiResponse(responseCode = "400", description = "Dimensão ou métrica inválida, ou combinação com grupos demais")
+    })
+    public ResponseEntity<AggregateResponse> aggregate(
+            @Parameter(description = "Dimensões separadas por vírgula (vazio = total geral)")
+            @RequestParam(required = false) List<String> groupBy,
+
+            @Parameter(description = "Métricas separadas por vírgula (padrão: count)")
+            @RequestParam(required = false) List<String> metrics,
+
+            @ParameterObject @ModelAttribute PredictionSearchRequest filters
+    ) {
+        PredictionSearchFilter filter = filters.toFilter();
+
+        AggregateQuery query = new AggregateQuery(
+                groupBy == null ? List.of() : groupBy.stream().filter(v -> !v.isBlank()).map(AggregateDimension::from).toList(),
+                metrics == null ? List.of() : metrics.stream().filter(v -> !v.isBlank()).map(AggregateMetric::from).toList(),
+                filter);
+        log.debug("📊 Agregação: groupBy={}, metrics={}", query.groupBy(), query.metrics());
+        return ResponseEntity.ok(historyService.aggregate(query));
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.ALL_VALUE)
+    @Operation(summary = "Exportar histórico (CSV/NDJSON)",
+            description = "Transmite todas as predições que atendem aos filtros de /clients, sem paginação, "
+                    + "como CSV (padrão) ou NDJSON, opcionalmente com gzip. A memória usada não depende do "
+                    + "tamanho da exportação.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Arquivo transmitido"),
+            @ApiResponse(responseCode = "400", description = "Formato inválido"),
+            @ApiResponse(responseCode = "429", description = "Limite de exportações simultâneas atingido")
+    })
+    public ResponseEntity<StreamingResponseBody> export(
+            @Parameter(description = "Formato: csv (padrão) ou ndjson")
+            @RequestParam(required = false) String format,
+
+            @Parameter(description = "Comprime a resposta com gzip")
+            @RequestParam(defaultValue = "false") boolean gzip,
+
+            @ParameterObject @ModelAttribute PredictionSearchRequest filters
+    ) {
+        PredictionExportWriter.Format exportFormat = PredictionExportWriter.Format.from(format);
+        PredictionSearchFilter filter = filters.toFilter();
+
+        log.info("📤 Exportação: format={}, gzip={}", exportFormat, gzip);
+        return exportWriter.respond(exportFormat, gzip, sink -> historyService.export(filter, sink));
+    }
+
+    private static boolean isCursorPagination(String pagination, String cursor) {
+        return "cursor".equalsIgnoreCase(pagination) || (cursor != null && !cursor.isBlank());
+    }
+
+    private CountStrategy offsetCountStrategy(String countStrategy) {
+        return CountStrategy.from(countStrategy, CountStrategy.from(defaultCountStrategy, CountStrategy.EXACT));
+    }
+
+    // No cursor o total é opcional: sem countStrategy, includeTotal=true equivale a exact
+    private static CountStrategy cursorCountStrategy(String countStrategy, boolean includeTotal) {
+        return CountStrategy.from(countStrategy, includeTotal ? CountStrategy.EXACT : null);
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package com.hackathon.databeats.churninsight.infra.adapter.input.web.controller;
 
 import com.hackathon.databeats.churninsight.application.dto.DashboardMetricsResponse;
 import com.hackathon.databeats.churninsight.application.service.DashboardMetricsService;
+import com.hackathon.databeats.churninsight.infra.adapter.input.web.cache.ReadModelCache;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -10,6 +11,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping(value = "/dashboard", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -17,13 +19,14 @@ import org.springframework.web.bind.annotation.RestController;
 @Tag(name = "Dashboard", description = "Métricas consolidadas para o Dashboard")
 public class DashboardController {
     private final DashboardMetricsService dashboardMetricsService;
+    private final ReadModelCache readModelCache;
 
     @GetMapping(value = "/metrics")
     @Operation(
             summary = "Métricas do Dashboard",
-            description = "Retorna métricas consolidadas para os cards do dashboard"
+            description = "Retorna métricas consolidadas para os cards do dashboard (com ETag; 304 se inalteradas)"
     )
-    public ResponseEntity<DashboardMetricsResponse> getMetrics() {
-        return ResponseEntity.ok(this.dashboardMetricsService.getMetrics());
+    public ResponseEntity<DashboardMetricsResponse> getMetrics(WebRequest request) {
+        return readModelCache.respond(request, "dashboard_metrics", "", dashboardMetricsService::getMetrics);
     }
 }
\ No newline at end of file
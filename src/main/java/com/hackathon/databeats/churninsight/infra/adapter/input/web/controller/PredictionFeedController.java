@@ -0,0 +1,97 @@
+package com.hackathon.databeats.churninsight.infra.adapter.input.web.controller;
+
+import com.hackathon.databeats.churninsight.application.dto.PredictionFeedFilter;
+import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
+import com.hackathon.databeats.churninsight.infra.adapter.input.web.feed.PredictionFeedStreamer;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+
+/**
+ * Feed das predições gravadas, para consumidores que reagem a predições novas (frontend,
+ * sincronização com CRM, automação de retenção) sem consultar {@code /clients} em loop.
+ */
+@RestController
+@RequestMapping("/predictions/feed")
+@RequiredArgsConstructor
+@Tag(name = "Feed de Predições", description = "Predições novas por long-poll NDJSON ou SSE, retomáveis por cursor")
+public class PredictionFeedController {
+
+    private static final int MAX_LIMIT = 1000;
+
+    private final PredictionFeedStreamer feedStreamer;
+
+    @Value("${app.prediction-feed.max-wait-seconds:30}")
+    private int maxWaitSeconds;
+
+    @GetMapping(produces = MediaType.ALL_VALUE)
+    @Operation(summary = "Long-poll do feed (NDJSON)",
+            description = "Devolve as predições posteriores ao cursor, uma por linha, esperando até waitSeconds "
+                    + "quando ainda não há nenhuma. O próximo cursor vem no header X-Feed-Cursor, inclusive em "
+                    + "respostas vazias; X-Feed-Gap=true indica eventos perdidos (reconciliar por /clients).")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Eventos (possivelmente nenhum) e próximo cursor"),
+            @ApiResponse(responseCode = "400", description = "Cursor ou filtro inválido")
+    })
+    public ResponseEntity<String> poll(
+            @Parameter(description = "Cursor da leitura anterior; vazio começa pelas próximas predições")
+            @RequestParam(required = false) String after,
+
+            @Parameter(description = "Probabilidade mínima")
+            @RequestParam(required = false) Double minProbability,
+
+            @Parameter(description = "Status de churn")
+            @RequestParam(required = false) ChurnStatus status,
+
+            @Parameter(description = "Tipo de assinatura")
+            @RequestParam(required = false) String subscriptionType,
+
+            @Parameter(description = "Máximo de eventos (até 1000)")
+            @RequestParam(defaultValue = "500") int limit,
+
+            @Parameter(description = "Espera máxima em segundos (0 não espera)")
+            @RequestParam(defaultValue = "25") int waitSeconds
+    ) {
+        int wait = Math.clamp(waitSeconds, 0, maxWaitSeconds);
+        return feedStreamer.poll(after, new PredictionFeedFilter(minProbability, status, subscriptionType),
+                Math.clamp(limit, 1, MAX_LIMIT), Duration.ofSeconds(wait));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Feed em SSE",
+            description = "Evento 'prediction' por predição, com o cursor no id; o EventSource retoma pelo "
+                    + "Last-Event-ID. Evento 'gap' indica eventos perdidos.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Conexão SSE aberta"),
+            @ApiResponse(responseCode = "400", description = "Cursor ou filtro inválido"),
+            @ApiResponse(responseCode = "429", description = "Limite de conexões SSE simultâneas atingido")
+    })
+    public ResponseEntity<SseEmitter> stream(
+            @Parameter(description = "Cursor inicial; o header Last-Event-ID tem precedência")
+            @RequestParam(required = false) String after,
+
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+
+            @Parameter(description = "Probabilidade mínima")
+            @RequestParam(required = false) Double minProbability,
+
+            @Parameter(description = "Status de churn")
+            @RequestParam(required = false) ChurnStatus status,
+
+            @Parameter(description = "Tipo de assinatura")
+            @RequestParam(required = false) String subscriptionType
+    ) {
+        String cursor = lastEventId != null && !lastEventId.isBlank() ? lastEventId : after;
+        return feedStreamer.stream(cursor, new PredictionFeedFilter(minProbability, status, subscriptionType));
+    }
+}
@@ -2,6 +2,7 @@ package com.hackathon.databeats.churninsight.infra.adapter.input.web.controller;
 
 import com.hackathon.databeats.churninsight.application.dto.PaginatedResponse;
 import com.hackathon.databeats.churninsight.application.service.RetentionOperationsService;
+import com.hackathon.databeats.churninsight.infra.adapter.input.web.cache.ReadModelCache;
 import com.hackathon.databeats.churninsight.infra.adapter.input.web.dto.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -11,8 +12,10 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 
 @RestController
 @RequestMapping(value = "/retention", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -20,14 +23,23 @@ import java.time.LocalDate;
 @Tag(name = "Retention", description = "Operacoes de retencao e priorizacao")
 public class RetentionController {
 
+    private static final String KPIS_READ_MODEL = "retention_kpis";
+
     private final RetentionOperationsService retentionOperationsService;
+    private final ReadModelCache readModelCache;
 
     @GetMapping("/prioritized")
     @Operation(summary = "Lista clientes priorizados", description = "Retorna TOP 25% por risco com score financeiro de prioridade")
     public ResponseEntity<PaginatedResponse<RetentionPriorityItemResponse>> prioritized(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "offset") String pagination,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal
     ) {
+        if ("cursor".equalsIgnoreCase(pagination) || (cursor != null && !cursor.isBlank())) {
+            return ResponseEntity.ok(retentionOperationsService.getPrioritizedAfter(cursor, size, includeTotal));
+        }
         return ResponseEntity.ok(retentionOperationsService.getPrioritized(page, size));
     }
 
@@ -36,7 +48,30 @@ public class RetentionController {
     public ResponseEntity<RetentionActionResponse> createAction(
             @Valid @RequestBody CreateRetentionActionRequest request
     ) {
-        return ResponseEntity.ok(retentionOperationsService.createAction(request));
+        RetentionActionResponse response = retentionOperationsService.createAction(request);
+        readModelCache.evict(KPIS_READ_MODEL);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping(value = "/actions/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Cria acoes de retencao em lote",
+            description = "Lista de acoes (actions) ou filtro sobre o TOP 25% (filter); retorna o resultado de cada item")
+    public ResponseEntity<BulkRetentionActionResponse> createActions(
+            @Valid @RequestBody BulkCreateRetentionActionsRequest request
+    ) {
+        BulkRetentionActionResponse response = retentionOperationsService.createActions(request);
+        readModelCache.evict(KPIS_READ_MODEL);
+        return ResponseEntity.ok(response);
+    }
+
+    @PatchMapping(value = "/actions/bulk-status", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Atualiza status de acoes em lote", description = "Retorna o resultado de cada acao informada")
+    public ResponseEntity<BulkRetentionActionResponse> updateStatuses(
+            @Valid @RequestBody BulkUpdateRetentionActionStatusRequest request
+    ) {
+        BulkRetentionActionResponse response = retentionOperationsService.updateActionStatuses(request);
+        readModelCache.evict(KPIS_READ_MODEL);
+        return ResponseEntity.ok(response);
     }
 
     @PatchMapping(value = "/actions/{actionId}/status", consumes = MediaType.APPLICATION_JSON_VALUE)
@@ -45,7 +80,9 @@ public class RetentionController {
             @PathVariable String actionId,
             @Valid @RequestBody UpdateRetentionActionStatusRequest request
     ) {
-        return ResponseEntity.ok(retentionOperationsService.updateActionStatus(actionId, request));
+        RetentionActionResponse response = retentionOperationsService.updateActionStatus(actionId, request);
+        readModelCache.evict(KPIS_READ_MODEL);
+        return ResponseEntity.ok(response);
     }
 
     @PostMapping(value = "/actions/{actionId}/outcome", consumes = MediaType.APPLICATION_JSON_VALUE)
@@ -54,15 +91,32 @@ public class RetentionController {
             @PathVariable String actionId,
             @Valid @RequestBody CreateRetentionOutcomeRequest request
     ) {
-        return ResponseEntity.ok(retentionOperationsService.registerOutcome(actionId, request));
+        RetentionOutcomeResponse response = retentionOperationsService.registerOutcome(actionId, request);
+        readModelCache.evict(KPIS_READ_MODEL);
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/kpis")
     @Operation(summary = "KPIs de operacao de retencao")
     public ResponseEntity<RetentionKpisResponse> kpis(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            WebRequest request
+    ) {
+        return readModelCache.respond(request, KPIS_READ_MODEL, Arrays.asList(from, to),
+                () -> retentionOperationsService.getKpis(from, to));
+    }
+
+    @PostMapping("/kpis/rebuild")
+    @Operation(summary = "Recalcula o rollup de KPIs de retencao",
+            description = "Substitui o rollup diario do periodo pelo recalculo a partir das acoes e resultados; "
+                    + "sem from, parte da acao mais antiga. Requer permissao de administrador.")
+    public ResponseEntity<RetentionKpiRebuildResponse> rebuildKpis(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
     ) {
-        return ResponseEntity.ok(retentionOperationsService.getKpis(from, to));
+        RetentionKpiRebuildResponse response = retentionOperationsService.rebuildKpis(from, to);
+        readModelCache.evict(KPIS_READ_MODEL);
+        return ResponseEntity.ok(response);
     }
 }
@@ -0,0 +1,15 @@
+package com.hackathon.databeats.churninsight.infra.adapter.input.web.dto;
+
+import jakarta.validation.Valid;
+
+import java.util.List;
+
+/**
+ * Criação de ações de retenção em lote: informe {@code actions} (uma ação por cliente
+ * informado) ou {@code filter} (a mesma ação para os clientes do TOP 25% selecionados).
+ */
+public record BulkCreateRetentionActionsRequest(
+        List<@Valid CreateRetentionActionRequest> actions,
+        @Valid BulkRetentionActionFilter filter
+) {
+}
@@ -0,0 +1,31 @@
+package com.hackathon.databeats.churninsight.infra.adapter.input.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.hackathon.databeats.churninsight.domain.enums.RetentionActionStatus;
+import com.hackathon.databeats.churninsight.domain.enums.RetentionActionType;
+import com.hackathon.databeats.churninsight.domain.enums.RetentionChannel;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+/**
+ * Seleção de clientes do TOP 25% (na ordem da lista priorizada) e a ação criada para cada um.
+ * Ex.: todos os clientes Free do TOP 25% sem ação em aberto.
+ *
+ * @param subscriptionType plano dos clientes; todos quando ausente
+ * @param withoutOpenAction exclui clientes com ação PLANNED ou IN_PROGRESS (padrão true)
+ * @param limit máximo de clientes; limitado por {@code app.retention.bulk.max-items}
+ */
+public record BulkRetentionActionFilter(
+        @JsonAlias({"subscriptionType", "subscription_type"}) String subscriptionType,
+        @JsonAlias({"withoutOpenAction", "without_open_action"}) Boolean withoutOpenAction,
+        @Min(1) Integer limit,
+        @JsonAlias({"actionType", "action_type"}) @NotNull RetentionActionType actionType,
+        @NotNull RetentionChannel channel,
+        String owner,
+        @JsonAlias({"scheduledAt", "scheduled_at"}) LocalDateTime scheduledAt,
+        String notes,
+        RetentionActionStatus status
+) {
+}
@@ -0,0 +1,35 @@
+package com.hackathon.databeats.churninsight.infra.adapter.input.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.hackathon.databeats.churninsight.domain.enums.RetentionActionStatus;
+
+/**
+ * Resultado de um item da operação em lote.
+ *
+ * @param index posição do item na requisição
+ * @param status status da ação após a operação; null se o item falhou
+ */
+public record BulkRetentionActionItemResponse(
+        @JsonProperty("index") int index,
+        @JsonProperty("client_id") String clientId,
+        @JsonProperty("action_id") String actionId,
+        @JsonProperty("result") Result result,
+        @JsonProperty("status") RetentionActionStatus status,
+        @JsonProperty("message") String message
+) {
+
+    public enum Result {
+        /** Ação criada. */
+        CREATED,
+        /** Status alterado. */
+        UPDATED,
+        /** A ação já estava no status pedido. */
+        UNCHANGED,
+        /** Cliente ou ação inexistente. */
+        NOT_FOUND;
+
+        public boolean succeeded() {
+            return this != NOT_FOUND;
+        }
+    }
+}
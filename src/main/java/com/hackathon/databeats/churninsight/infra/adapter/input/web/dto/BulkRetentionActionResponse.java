@@ -0,0 +1,19 @@
+package com.hackathon.databeats.churninsight.infra.adapter.input.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+
+import java.util.List;
+
+/**
+ * Resultado de uma operação de retenção em lote, com um item por entrada da requisição
+ * (ou por cliente selecionado, no modo filtro).
+ */
+@Builder
+public record BulkRetentionActionResponse(
+        @JsonProperty("requested") int requested,
+        @JsonProperty("succeeded") int succeeded,
+        @JsonProperty("failed") int failed,
+        @JsonProperty("items") List<BulkRetentionActionItemResponse> items
+) {
+}
@@ -0,0 +1,15 @@
+package com.hackathon.databeats.churninsight.infra.adapter.input.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.hackathon.databeats.churninsight.domain.enums.RetentionActionStatus;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public record BulkUpdateRetentionActionStatusRequest(
+        @JsonAlias({"actionIds", "action_ids"}) @NotEmpty List<@NotBlank String> actionIds,
+        @JsonAlias({"status", "action_status"}) @NotNull RetentionActionStatus status
+) {
+}
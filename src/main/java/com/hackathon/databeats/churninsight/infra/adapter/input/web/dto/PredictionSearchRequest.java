@@ -0,0 +1,100 @@
+package com.hackathon.databeats.churninsight.infra.adapter.input.web.dto;
+
+import com.hackathon.databeats.churninsight.application.dto.PredictionSearchFilter;
+import com.hackathon.databeats.churninsight.application.dto.UserIdMatch;
+import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
+import com.hackathon.databeats.churninsight.domain.enums.RiskFactor;
+import io.swagger.v3.oas.annotations.Parameter;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Filtros de {@code /clients} vindos da query string, compartilhados pela busca, pela
+ * agregação ({@code /clients/aggregate}) e pela exportação ({@code /clients/export}).
+ * Todos são opcionais.
+ */
+public record PredictionSearchRequest(
+        @Parameter(description = "Status de churn")
+        ChurnStatus status,
+
+        @Parameter(description = "Probabilidade mínima")
+        Double minProbability,
+
+        @Parameter(description = "Probabilidade máxima")
+        Double maxProbability,
+
+        @Parameter(description = "Gênero")
+        String gender,
+
+        @Parameter(description = "Idade mínima")
+        Integer minAge,
+
+        @Parameter(description = "Idade máxima")
+        Integer maxAge,
+
+        @Parameter(description = "País")
+        String country,
+
+        @Parameter(description = "Tipo de assinatura")
+        String subscriptionType,
+
+        @Parameter(description = "Tipo de dispositivo")
+        String deviceType,
+
+        @Parameter(description = "Data inicial (yyyy-MM-dd)")
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+
+        @Parameter(description = "Data final (yyyy-MM-dd)")
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+
+        @Parameter(description = "Apenas Heavy Users")
+        Boolean isHeavyUser,
+
+        @Parameter(description = "Usa Offline")
+        Boolean offlineListening,
+
+        @Parameter(description = "Frustração mínima")
+        Double minFrustration,
+
+        @Parameter(description = "Frustração máxima")
+        Double maxFrustration,
+
+        @Parameter(description = "Fator de risco primário (ex.: HIGH_SKIP_RATE)")
+        RiskFactor riskFactor,
+
+        @Parameter(description = "Busca textual por ID")
+        String userId,
+
+        @Parameter(description = "Modo da busca por ID: contains (padrão), prefix (usa índice) ou exact")
+        String userIdMatch
+) {
+
+    /**
+     * Converte para o filtro da aplicação.
+     *
+     * @throws IllegalArgumentException se {@code userIdMatch} não corresponder a nenhum modo
+     */
+    public PredictionSearchFilter toFilter() {
+        return PredictionSearchFilter.builder()
+                .churnStatus(status)
+                .minProbability(minProbability)
+                .maxProbability(maxProbability)
+                .gender(gender)
+                .minAge(minAge)
+                .maxAge(maxAge)
+                .country(country)
+                .subscriptionType(subscriptionType)
+                .deviceType(deviceType)
+                .startDate(startDate)
+                .endDate(endDate)
+                .isHeavyUser(isHeavyUser)
+                .offlineListening(offlineListening)
+                .minFrustrationIndex(minFrustration)
+                .maxFrustrationIndex(maxFrustration)
+                .riskFactor(riskFactor)
+                .userId(userId)
+                .userIdMatch(UserIdMatch.from(userIdMatch, UserIdMatch.CONTAINS))
+                .build();
+    }
+}
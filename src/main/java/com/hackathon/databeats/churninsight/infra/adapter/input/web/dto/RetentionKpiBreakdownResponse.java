@@ -0,0 +1,22 @@
+package com.hackathon.databeats.churninsight.infra.adapter.input.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+
+/**
+ * KPIs de retenção de um valor da quebra (canal ou responsável).
+ *
+ * @param key valor da quebra; null para ações sem responsável
+ */
+@Builder
+public record RetentionKpiBreakdownResponse(
+        @JsonProperty("key") String key,
+        @JsonProperty("total_actions") long totalActions,
+        @JsonProperty("executed_actions") long executedActions,
+        @JsonProperty("execution_rate") double executionRate,
+        @JsonProperty("total_outcomes") long totalOutcomes,
+        @JsonProperty("retained_count") long retainedCount,
+        @JsonProperty("retention_rate") double retentionRate,
+        @JsonProperty("recovered_revenue") double recoveredRevenue
+) {
+}
@@ -0,0 +1,18 @@
+package com.hackathon.databeats.churninsight.infra.adapter.input.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDate;
+
+/**
+ * Resultado do recálculo do rollup de KPIs de retenção.
+ *
+ * @param from primeiro dia pedido; null quando partiu da ação mais antiga
+ * @param drift diferença absoluta de contagens entre o rollup anterior e o recalculado
+ */
+public record RetentionKpiRebuildResponse(
+        @JsonProperty("from") LocalDate from,
+        @JsonProperty("to") LocalDate to,
+        @JsonProperty("drift") long drift
+) {
+}
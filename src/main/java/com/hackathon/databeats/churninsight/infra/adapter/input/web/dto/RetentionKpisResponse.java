@@ -3,6 +3,8 @@ package com.hackathon.databeats.churninsight.infra.adapter.input.web.dto;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Builder;
 
+import java.util.List;
+
 @Builder
 public record RetentionKpisResponse(
         @JsonProperty("total_actions") long totalActions,
@@ -13,6 +15,8 @@ public record RetentionKpisResponse(
         @JsonProperty("retention_rate") double retentionRate,
         @JsonProperty("recovered_revenue") double recoveredRevenue,
         @JsonProperty("priority_high_threshold") double priorityHighThreshold,
-        @JsonProperty("priority_medium_threshold") double priorityMediumThreshold
+        @JsonProperty("priority_medium_threshold") double priorityMediumThreshold,
+        @JsonProperty("by_channel") List<RetentionKpiBreakdownResponse> byChannel,
+        @JsonProperty("by_owner") List<RetentionKpiBreakdownResponse> byOwner
 ) {
 }
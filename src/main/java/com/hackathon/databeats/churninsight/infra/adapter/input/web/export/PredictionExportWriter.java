@@ -0,0 +1,251 @@
+package com.hackathon.databeats.churninsight.infra.adapter.input.web.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hackathon.databeats.churninsight.application.dto.PredictionHistoryResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Escreve a exportação do histórico como CSV ou NDJSON direto na resposta HTTP.
+ *
+ * <p>Cada linha é formatada e descartada assim que chega do banco; o único estado é o buffer
+ * de saída (64 KB), então a memória não cresce com o tamanho da exportação. Com
+ * {@code gzip=true} a resposta sai comprimida ({@code Content-Encoding: gzip}).</p>
+ *
+ * <p>Quando o cliente desconecta, a próxima escrita falha e a falha é repassada à consulta,
+ * que é cancelada no banco. Exportações simultâneas são limitadas por
+ * {@code app.export.max-concurrent}, pois cada uma ocupa uma conexão até o fim; acima do
+ * limite a resposta é 429. A vaga também é devolvida quando a requisição assíncrona termina
+ * sem executar o corpo (timeout ou erro).</p>
+ */
+@Slf4j
+@Component
+public class PredictionExportWriter {
+
+    /** Formato da exportação. */
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = MediaType.parseMediaType(mediaType + ";charset=UTF-8");
+            this.extension = extension;
+        }
+
+        /**
+         * Converte o parâmetro da requisição (case-insensitive), CSV por padrão.
+         *
+         * @throws IllegalArgumentException se o valor não corresponder a nenhum formato
+         */
+        public static Format from(String value) {
+            if (value == null || value.isBlank()) return CSV;
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Formato de exportação inválido: " + value + " (use csv ou ndjson)");
+            }
+        }
+    }
+
+    static final String PERMIT_INTERCEPTOR_KEY = PredictionExportWriter.class.getName() + ".permit";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String[] CSV_HEADER = {
+            "id", "user_id", "gender", "age", "country", "subscription_type", "device_type", "churn_status",
+            "probability", "prediction_label", "frustration_index", "is_heavy_user", "recommended_action",
+            "primary_risk_factor", "created_at"
+    };
+
+    private final ObjectWriter jsonWriter;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore permits;
+
+    public PredictionExportWriter(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.export.max-concurrent:2}") int maxConcurrent) {
+        // Uma linha por objeto, sem fechar nem descarregar o buffer a cada linha
+        this.jsonWriter = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(SerializationFeature.INDENT_OUTPUT);
+        this.meterRegistry = meterRegistry;
+        this.permits = new Semaphore(Math.max(1, maxConcurrent));
+    }
+
+    /**
+     * Monta a resposta em streaming.
+     *
+     * @param format formato das linhas
+     * @param gzip comprime a resposta
+     * @param export percorre as linhas entregando cada uma ao consumidor; retorna o total
+     */
+    public ResponseEntity<StreamingResponseBody> respond(
+            Format format, boolean gzip, ToLongFunction<Consumer<PredictionHistoryResponse>> export) {
+        if (!permits.tryAcquire()) {
+            log.warn("Exportação recusada: limite de exportações simultâneas atingido");
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        }
+
+        // Liberada uma única vez: ao fim do corpo ou pelo fim da requisição assíncrona (timeout,
+        // erro ou desconexão antes de o corpo ser executado)
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) permits.release();
+        };
+        releaseOnAsyncCompletion(release);
+
+        StreamingResponseBody body = out -> {
+            try {
+                write(out, format, gzip, export);
+            } finally {
+                release.run();
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format.mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("predictions-" + LocalDate.now() + "." + format.extension)
+                        .build()
+                        .toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    // === MÉTODOS PRIVADOS ===
+
+    // O corpo roda no executor assíncrono do MVC; se a requisição terminar antes de ele ser
+    // executado, só o afterCompletion do WebAsyncManager devolve a vaga
+    private static void releaseOnAsyncCompletion(Runnable release) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) return;
+        WebAsyncUtils.getAsyncManager(attributes.getRequest())
+                .registerCallableInterceptor(PERMIT_INTERCEPTOR_KEY, new CallableProcessingInterceptor() {
+                    @Override
+                    public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+                        release.run();
+                    }
+                });
+    }
+
+    private void write(OutputStream out, Format format, boolean gzip,
+                       ToLongFunction<Consumer<PredictionHistoryResponse>> export) throws IOException {
+        Timer.Sample sample = Timer.start();
+        Counter rowsCounter = meterRegistry.counter("churn.export.rows", "format", format.extension);
+        String result = "completed";
+        long rows = 0;
+        try {
+            OutputStream target = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE);
+            if (format == Format.CSV) {
+                writer.write(String.join(",", CSV_HEADER));
+                writer.write('\n');
+            }
+            rows = export.applyAsLong(row -> {
+                try {
+                    if (format == Format.CSV) writeCsv(writer, row);
+                    else writeJson(writer, row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rowsCounter.increment();
+            });
+            writer.flush();
+            if (target instanceof GZIPOutputStream gzipStream) {
+                gzipStream.finish();
+            }
+        } catch (UncheckedIOException | IOException e) {
+            // Cliente desconectado (a consulta em andamento já foi cancelada)
+            IOException cause = e instanceof UncheckedIOException unchecked ? unchecked.getCause() : (IOException) e;
+            result = "aborted";
+            log.info("Exportação {} interrompida pelo cliente: {}", format.extension, cause.getMessage());
+            throw cause;
+        } catch (RuntimeException e) {
+            result = "failed";
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("churn.export")
+                    .description("Duração das exportações do histórico")
+                    .tag("format", format.extension)
+                    .tag("result", result)
+                    .register(meterRegistry));
+        }
+        log.info("Exportação {} concluída: {} linhas", format.extension, rows);
+    }
+
+    private void writeJson(Writer writer, PredictionHistoryResponse row) throws IOException {
+        jsonWriter.writeValue(writer, row);
+        writer.write('\n');
+    }
+
+    private static void writeCsv(Writer writer, PredictionHistoryResponse row) throws IOException {
+        Object[] values = {
+                row.id(), row.userId(), row.gender(), row.age(), row.country(), row.subscriptionType(),
+                row.deviceType(), row.churnStatus(), row.probability(), row.predictionLabel(),
+                row.frustrationIndex(), row.isHeavyUser(), row.recommendedAction(), row.primaryRiskFactor(),
+                row.createdAt()
+        };
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) writer.write(',');
+            writeCsvValue(writer, values[i]);
+        }
+        writer.write('\n');
+    }
+
+    // RFC 4180: aspas quando o valor tem separador, aspas ou quebra de linha
+    private static void writeCsvValue(Writer writer, Object value) throws IOException {
+        if (value == null) return;
+        String text = value.toString();
+        boolean quote = text.indexOf(',') >= 0 || text.indexOf('"') >= 0
+                || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
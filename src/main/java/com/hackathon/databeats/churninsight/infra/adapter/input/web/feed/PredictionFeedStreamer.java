@@ -0,0 +1,158 @@
+package com.hackathon.databeats.churninsight.infra.adapter.input.web.feed;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hackathon.databeats.churninsight.application.dto.PredictionFeedEvent;
+import com.hackathon.databeats.churninsight.application.dto.PredictionFeedFilter;
+import com.hackathon.databeats.churninsight.application.dto.PredictionFeedPage;
+import com.hackathon.databeats.churninsight.application.port.output.PredictionFeedPort;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Entrega o feed de predições por long-poll NDJSON ou por SSE.
+ *
+ * <p>No long-poll a requisição espera (em thread virtual) até haver eventos ou o prazo
+ * acabar e devolve o cursor seguinte no header {@value #CURSOR_HEADER}. No SSE cada conexão
+ * tem uma thread virtual que repete a mesma leitura; o cursor vai no {@code id} de cada
+ * evento, então o {@code EventSource} retoma sozinho com {@code Last-Event-ID}. Sem eventos,
+ * um comentário de keepalive carrega o cursor avançado sobre os eventos filtrados.</p>
+ *
+ * <p>Conexões SSE simultâneas são limitadas por {@code app.prediction-feed.max-streams}; acima
+ * do limite a resposta é 429.</p>
+ */
+@Slf4j
+@Component
+public class PredictionFeedStreamer {
+
+    public static final String CURSOR_HEADER = "X-Feed-Cursor";
+    public static final String GAP_HEADER = "X-Feed-Gap";
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson;charset=UTF-8");
+
+    private static final int STREAM_BATCH = 500;
+
+    private final PredictionFeedPort feed;
+    private final ObjectWriter jsonWriter;
+    private final Semaphore streamPermits;
+    private final int maxStreams;
+    private final long streamTimeoutMs;
+    private final Duration heartbeat;
+
+    public PredictionFeedStreamer(
+            PredictionFeedPort feed,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${app.prediction-feed.max-streams:200}") int maxStreams,
+            @Value("${app.prediction-feed.stream-timeout-ms:1800000}") long streamTimeoutMs,
+            @Value("${app.prediction-feed.heartbeat-seconds:15}") int heartbeatSeconds) {
+        this.feed = feed;
+        this.jsonWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+        this.maxStreams = Math.max(1, maxStreams);
+        this.streamPermits = new Semaphore(this.maxStreams);
+        this.streamTimeoutMs = streamTimeoutMs;
+        this.heartbeat = Duration.ofSeconds(Math.max(1, heartbeatSeconds));
+        Gauge.builder("churn.prediction.feed.streams", streamPermits, p -> this.maxStreams - p.availablePermits())
+                .description("Conexões SSE abertas no feed de predições")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Long-poll: uma leitura do feed, com os eventos em NDJSON.
+     */
+    public ResponseEntity<String> poll(String after, PredictionFeedFilter filter, int limit, Duration wait) {
+        PredictionFeedPage page = feed.poll(after, filter, limit, wait);
+        StringBuilder body = new StringBuilder(page.events().size() * 200);
+        for (PredictionFeedEvent event : page.events()) {
+            body.append(toJson(event)).append('\n');
+        }
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(CURSOR_HEADER, page.cursor())
+                .header(GAP_HEADER, Boolean.toString(page.gap()))
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .body(body.toString());
+    }
+
+    /**
+     * Abre a conexão SSE. A primeira leitura acontece aqui, então um cursor inválido ainda
+     * resulta em 400.
+     */
+    public ResponseEntity<SseEmitter> stream(String after, PredictionFeedFilter filter) {
+        PredictionFeedPage first = feed.poll(after, filter, STREAM_BATCH, Duration.ZERO);
+        if (!streamPermits.tryAcquire()) {
+            log.warn("Conexão SSE do feed recusada: limite de conexões simultâneas atingido");
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "30")
+                    .build();
+        }
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        AtomicBoolean open = new AtomicBoolean(true);
+        emitter.onCompletion(() -> open.set(false));
+        emitter.onTimeout(() -> open.set(false));
+        emitter.onError(e -> open.set(false));
+        Thread.ofVirtual().name("prediction-feed-sse").start(() -> pump(emitter, open, first, filter));
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .body(emitter);
+    }
+
+    // === MÉTODOS PRIVADOS ===
+
+    private void pump(SseEmitter emitter, AtomicBoolean open, PredictionFeedPage first, PredictionFeedFilter filter) {
+        try {
+            PredictionFeedPage page = first;
+            while (open.get()) {
+                send(emitter, page);
+                page = feed.poll(page.cursor(), filter, STREAM_BATCH, heartbeat);
+            }
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            // Cliente desconectado ou emitter já encerrado por timeout
+            log.debug("Conexão SSE do feed encerrada: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            log.error("Falha na conexão SSE do feed: {}", e.getMessage(), e);
+            emitter.completeWithError(e);
+        } finally {
+            streamPermits.release();
+        }
+    }
+
+    private void send(SseEmitter emitter, PredictionFeedPage page) throws IOException {
+        if (page.gap()) {
+            emitter.send(SseEmitter.event().name("gap").data(Map.of("cursor", page.cursor()), MediaType.APPLICATION_JSON));
+        }
+        for (PredictionFeedEvent event : page.events()) {
+            emitter.send(SseEmitter.event().id(event.cursor()).name("prediction").data(toJson(event)));
+        }
+        // Cursor avançado além do último evento enviado (eventos filtrados) ou nenhum evento
+        String lastSent = page.events().isEmpty() ? null : page.events().getLast().cursor();
+        if (!page.cursor().equals(lastSent)) {
+            emitter.send(SseEmitter.event().id(page.cursor()).comment("keepalive"));
+        }
+    }
+
+    private String toJson(PredictionFeedEvent event) {
+        try {
+            return jsonWriter.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.hackathon.databeats.churninsight.infra.adapter.output.inference;
 
 import ai.onnxruntime.*;
 import com.hackathon.databeats.churninsight.application.port.output.InferencePort;
+import com.hackathon.databeats.churninsight.domain.rules.CategoricalNormalizer;
 import com.hackathon.databeats.churninsight.domain.model.CustomerProfile;
 import com.hackathon.databeats.churninsight.infra.exception.ModelInferenceException;
 import com.hackathon.databeats.churninsight.infra.util.ModelMetadata;
@@ -259,57 +260,7 @@ public class OnnxRuntimeAdapter implements InferencePort {
         if (rawValue == null || rawValue.isBlank()) {
             return "";
         }
-
-        String value = rawValue.trim().toLowerCase();
-
-        return switch (feature) {
-            case "gender" -> switch (value) {
-                case "male", "m", "masculino" -> "Male";
-                case "female", "f", "feminino" -> "Female";
-                case "other", "outro", "outros" -> "Other";
-                default -> capitalizeFirst(rawValue);
-            };
-            case "country" -> normalizeCountry(value);
-            case "subscription_type" -> switch (value) {
-                case "free", "gratis", "gratuito" -> "Free";
-                case "premium", "pago" -> "Premium";
-                case "family", "familia", "familiar" -> "Family";
-                case "student", "estudante", "universitario" -> "Student";
-                default -> capitalizeFirst(rawValue);
-            };
-            case "device_type" -> switch (value) {
-                case "desktop", "computer", "pc", "computador" -> "Desktop";
-                case "mobile", "celular", "smartphone", "phone" -> "Mobile";
-                case "web", "browser", "navegador" -> "Web";
-                default -> capitalizeFirst(rawValue);
-            };
-            default -> rawValue.trim();
-        };
-    }
-
-    /**
-     * Normaliza nomes de países para códigos ISO de 2 letras (formato do modelo)
-     */
-    private String normalizeCountry(String value) {
-        return switch (value) {
-            case "germany", "de", "alemanha", "deutschland" -> "DE";
-            case "usa", "us", "united states", "estados unidos", "eua" -> "US";
-            case "brazil", "br", "brasil" -> "BR";
-            case "canada", "ca", "canadá" -> "CA";
-            case "uk", "gb", "united kingdom", "reino unido", "england", "inglaterra" -> "GB";
-            case "france", "fr", "frança" -> "FR";
-            case "spain", "es", "espanha", "españa" -> "ES";
-            case "italy", "it", "italia", "itália" -> "IT";
-            case "portugal", "pt" -> "PT";
-            case "mexico", "mx", "méxico" -> "MX";
-            case "argentina", "ar" -> "AR";
-            default -> value.toUpperCase(); // Assume que é um código ISO
-        };
-    }
-
-    private String capitalizeFirst(String s) {
-        if (s == null || s.isEmpty()) return s;
-        return s.substring(0, 1).toUpperCase() + s.substring(1).toLowerCase();
+        return CategoricalNormalizer.normalize(feature, rawValue);
     }
 
     private float safeFloat(Integer value) { return value == null ? 0f : value.floatValue(); }
@@ -5,8 +5,10 @@ import com.hackathon.databeats.churninsight.application.port.input.ClientPredict
 import com.hackathon.databeats.churninsight.application.port.output.ClientPredictionOutputPort;
 import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.mapper.ClientPredictionMapper;
 import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.repository.ClientPredictionRepository;
-import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
+import com.hackathon.databeats.churninsight.infra.util.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,12 +17,28 @@ import java.util.Objects;
 import java.util.Optional;
 
 @Component // <--- ESTA ANOTAÇÃO É CRÍTICA! Ela diz ao Spring para carregar essa classe.
-@RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ClientPredictionJpaAdapter implements ClientPredictionOutputPort {
 
+    // Listagens leem só as três colunas do DTO, sem entidades gerenciadas
+    private static final String SELECT_PREDICTIONS = "SELECT client_id, probability, prediction FROM client_prediction ";
+    private static final RowMapper<ClientPrediction> PREDICTION_ROW = (rs, rowNum) ->
+            new ClientPrediction(rs.getString(1), rs.getDouble(2), rs.getString(3), null, null);
+
     private final ClientPredictionRepository repository;
     private final ClientPredictionMapper mapper;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Dashboards abertos ao mesmo tempo compartilham o mesmo cálculo das estatísticas
+    private final SingleFlight<String, ClientStatistics> statisticsFlight;
+
+    public ClientPredictionJpaAdapter(ClientPredictionRepository repository, ClientPredictionMapper mapper,
+                                      JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.jdbcTemplate = jdbcTemplate;
+        this.statisticsFlight = new SingleFlight<>("client_statistics", meterRegistry);
+    }
 
     @Override
     public Optional<ClientPrediction> findById(String clientId) {
@@ -29,21 +47,20 @@ public class ClientPredictionJpaAdapter implements ClientPredictionOutputPort {
 
     @Override
     public List<ClientPrediction> findAll(int page, int size) {
-        return repository.findAll(PageRequest.of(page, size))
-                .stream().map(mapper::toDomain).toList();
+        return jdbcTemplate.query(SELECT_PREDICTIONS + "LIMIT ? OFFSET ?", PREDICTION_ROW, size, offset(page, size));
     }
 
     @Override
     public List<ClientPrediction> findHighRiskClients(double threshold, int page, int size) {
-        return repository.findByProbabilityGreaterThanEqual(threshold, PageRequest.of(page, size))
-                .stream().map(mapper::toDomain).toList();
+        return jdbcTemplate.query(SELECT_PREDICTIONS + "WHERE probability >= ? LIMIT ? OFFSET ?",
+                PREDICTION_ROW, threshold, size, offset(page, size));
     }
 
     @Override
     public List<ClientPrediction> findByChurnPrediction(boolean willChurn, int page, int size) {
         String status = willChurn ? "WILL_CHURN" : "WILL_STAY";
-        return repository.findByPrediction(status, PageRequest.of(page, size))
-                .stream().map(mapper::toDomain).toList();
+        return jdbcTemplate.query(SELECT_PREDICTIONS + "WHERE prediction = ? LIMIT ? OFFSET ?",
+                PREDICTION_ROW, status, size, offset(page, size));
     }
 
     @Override
@@ -53,9 +70,18 @@ public class ClientPredictionJpaAdapter implements ClientPredictionOutputPort {
 
     @Override
     public ClientStatistics getStatistics() {
-        if (repository.count() == 0) {
-            return new ClientStatistics(0, 0, 0, 0.0, 0.0, 0.0);
-        }
-        return repository.calculateClientStatistics();
+        return statisticsFlight.execute("statistics", () -> {
+            if (repository.count() == 0) {
+                return new ClientStatistics(0, 0, 0, 0.0, 0.0, 0.0);
+            }
+            return repository.calculateClientStatistics();
+        });
+    }
+
+    // Mesma validação de PageRequest.of(page, size)
+    private static long offset(int page, int size) {
+        if (page < 0) throw new IllegalArgumentException("Page index must not be less than zero");
+        if (size < 1) throw new IllegalArgumentException("Page size must not be less than one");
+        return (long) page * size;
     }
-}
\ No newline at end of file
+}
@@ -2,23 +2,41 @@ package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.ad
 
 import com.hackathon.databeats.churninsight.application.port.output.BatchSavePort;
 import com.hackathon.databeats.churninsight.domain.model.PredictionHistory;
+import com.hackathon.databeats.churninsight.domain.rules.ChurnBusinessRules;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.repository.CustomerLatestPredictionJdbcRepository;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.repository.InsertedHistories;
+import com.hackathon.databeats.churninsight.infra.config.DataSourceRole;
+import com.hackathon.databeats.churninsight.infra.util.DataAccessFailures;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Primary;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Adapter JDBC otimizado para inserção em massa.
  * Usa multi-row INSERT com paralelismo agressivo.
+ *
+ * <p>A inserção é idempotente ({@code ON DUPLICATE KEY UPDATE id = id}): como os ids do
+ * batch são determinísticos, um chunk que falha no meio pode ser reenviado sem duplicar
+ * linhas. Falhas transitórias são repetidas com backoff exponencial.</p>
+ *
+ * <p>Cada chunk grava o histórico e atualiza a projeção customer_latest_prediction
+ * na mesma transação, com conexões do pool {@link DataSourceRole#BATCH_WRITER}. Só as
+ * linhas efetivamente inseridas ({@link InsertedHistories}) atualizam a projeção e são
+ * publicadas.</p>
  */
 @Slf4j
 @Repository("jdbcBatchPersistenceAdapter")
@@ -26,27 +44,50 @@ import java.util.concurrent.Executors;
 public class JdbcBatchPersistenceAdapter implements BatchSavePort {
 
     private final JdbcTemplate jdbcTemplate;
+    private final CustomerLatestPredictionJdbcRepository latestPredictionRepository;
+    private final InsertedHistories insertedHistories;
+    private final TransactionTemplate transactionTemplate;
     private final ExecutorService dbExecutor;
     private final int chunkSize;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
 
-    // SQL base - Single row insert for batch update
+    // SQL base - Single row insert for batch update.
+    // Linhas já existentes são ignoradas; diferente de INSERT IGNORE, outros erros
+    // (ex.: violação de CHECK ou truncamento) continuam sendo reportados.
     private static final String INSERT_SQL =
         "INSERT INTO churn_history (" +
         "id, user_id, gender, age, country, subscription_type, " +
         "listening_time, songs_played_per_day, skip_rate, " +
         "ads_listened_per_week, device_type, offline_listening, " +
         "churn_status, probability, created_at, requester_id, request_ip, " +
-        "frustration_index, ad_intensity, songs_per_minute, is_heavy_user, premium_no_offline" +
-        ") VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?)";
+        "frustration_index, ad_intensity, songs_per_minute, is_heavy_user, premium_no_offline, " +
+        "risk_flags, primary_risk_factor" +
+        ") VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?) " +
+        "ON DUPLICATE KEY UPDATE id = id";
 
     public JdbcBatchPersistenceAdapter(
             JdbcTemplate jdbcTemplate,
+            CustomerLatestPredictionJdbcRepository latestPredictionRepository,
+            InsertedHistories insertedHistories,
+            PlatformTransactionManager transactionManager,
             @Value("${app.db.insert-threads:16}") int insertThreads,
-            @Value("${app.db.chunk-size:2000}") int chunkSize) {
+            @Value("${app.db.chunk-size:2000}") int chunkSize,
+            @Value("${app.db.retry.max-attempts:4}") int maxAttempts,
+            @Value("${app.db.retry.initial-backoff-ms:200}") long initialBackoffMs,
+            @Value("${app.db.retry.max-backoff-ms:5000}") long maxBackoffMs) {
         this.jdbcTemplate = jdbcTemplate;
+        this.latestPredictionRepository = latestPredictionRepository;
+        this.insertedHistories = insertedHistories;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
         this.chunkSize = chunkSize;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = Math.max(1, initialBackoffMs);
+        this.maxBackoffMs = Math.max(this.initialBackoffMs, maxBackoffMs);
         this.dbExecutor = Executors.newFixedThreadPool(insertThreads);
-        log.info("🚀 JdbcBatchPersistenceAdapter: {} threads, chunk size {}", insertThreads, chunkSize);
+        log.info("🚀 JdbcBatchPersistenceAdapter: {} threads, chunk size {}, {} tentativas por chunk",
+                insertThreads, chunkSize, this.maxAttempts);
     }
 
     @Override
@@ -60,13 +101,48 @@ public class JdbcBatchPersistenceAdapter implements BatchSavePort {
             int end = Math.min(i + chunkSize, histories.size());
             List<PredictionHistory> chunk = histories.subList(i, end);
 
-            futures.add(CompletableFuture.runAsync(() -> insertMultiRow(chunk), dbExecutor));
+            // Pool de gravação em massa: um upload grande não disputa as conexões interativas
+            futures.add(CompletableFuture.runAsync(
+                    () -> DataSourceRole.runAs(DataSourceRole.BATCH_WRITER, () -> insertWithRetry(chunk)), dbExecutor));
         }
 
         // Aguarda todos em paralelo
         CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
     }
 
+    /**
+     * Insere o chunk repetindo falhas transitórias (deadlock, timeout de lock, perda de
+     * conexão) com backoff exponencial e jitter. Erros permanentes falham imediatamente.
+     */
+    private void insertWithRetry(List<PredictionHistory> chunk) {
+        long backoff = initialBackoffMs;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    Set<String> existing = insertedHistories.existingIds(chunk);
+                    int[][] counts = insertMultiRow(chunk);
+                    latestPredictionRepository.upsertAll(InsertedHistories.inserted(chunk, existing, counts));
+                });
+                if (attempt > 1) {
+                    log.info("Chunk de {} registros gravado na tentativa {}", chunk.size(), attempt);
+                }
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts || !DataAccessFailures.isTransient(e)) throw e;
+                long sleep = backoff + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+                log.warn("Falha transitória ao gravar chunk de {} registros (tentativa {}/{}), nova tentativa em {}ms: {}",
+                        chunk.size(), attempt, maxAttempts, sleep, e.getMessage());
+                try {
+                    Thread.sleep(sleep);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                backoff = Math.min(backoff * 2, maxBackoffMs);
+            }
+        }
+    }
+
     /**
      * MULTI-ROW INSERT otimizado usando JDBC Batch + RewriteBatchedStatements.
      *
@@ -74,13 +150,13 @@ public class JdbcBatchPersistenceAdapter implements BatchSavePort {
      * para usar batching padrão do driver JDBC, que é muito mais eficiente
      * quando rewriteBatchedStatements=true.
      */
-    private void insertMultiRow(List<PredictionHistory> histories) {
-        if (histories.isEmpty()) return;
+    private int[][] insertMultiRow(List<PredictionHistory> histories) {
+        if (histories.isEmpty()) return new int[0][];
 
         Timestamp now = Timestamp.valueOf(LocalDateTime.now());
 
         try {
-             jdbcTemplate.batchUpdate(INSERT_SQL, histories, histories.size(),
+             return jdbcTemplate.batchUpdate(INSERT_SQL, histories, histories.size(),
                 (ps, h) -> {
                     int col = 1;
                     ps.setString(col++, h.id());
@@ -105,6 +181,9 @@ public class JdbcBatchPersistenceAdapter implements BatchSavePort {
                     ps.setObject(col++, h.songsPerMinute());
                     ps.setObject(col++, h.isHeavyUser());
                     ps.setObject(col++, h.premiumNoOffline());
+                    int riskFlags = ChurnBusinessRules.riskFactorFlags(h);
+                    ps.setInt(col++, riskFlags);
+                    ps.setInt(col++, ChurnBusinessRules.primaryRiskFactor(h.churnStatus(), riskFlags).code());
                 });
         } catch (Exception e) {
              log.error("Erro ao salvar batch de {} registros: {}", histories.size(), e.getMessage());
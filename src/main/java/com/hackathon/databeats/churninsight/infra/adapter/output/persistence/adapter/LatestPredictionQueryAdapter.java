@@ -0,0 +1,111 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.adapter;
+
+import com.hackathon.databeats.churninsight.application.dto.DashboardAggregates;
+import com.hackathon.databeats.churninsight.application.port.output.LatestPredictionQueryPort;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Adapter de consulta da projeção customer_latest_prediction.
+ *
+ * <p>Os agregados do dashboard saem de uma única instrução: um CTE calcula o corte exato do
+ * TOP 25% (probabilidade do cliente na posição {@code ceil(total * 0.25)}) e uma varredura da
+ * projeção com agregação condicional por plano produz todos os contadores, inclusive os do
+ * TOP 25%. Antes eram seis idas ao banco, cada uma com a sua varredura.</p>
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+@Component
+@Transactional(readOnly = true)
+public class LatestPredictionQueryAdapter implements LatestPredictionQueryPort {
+
+    private static final String DASHBOARD_SQL = """
+        WITH ranked AS (
+            SELECT probability,
+                   ROW_NUMBER() OVER (ORDER BY probability DESC) AS position,
+                   COUNT(*) OVER () AS total
+            FROM customer_latest_prediction
+        ),
+        cutoff AS (
+            SELECT COALESCE(MIN(probability), 0.0) AS probability
+            FROM ranked
+            WHERE position <= CEIL(total * 0.25)
+        )
+        SELECT COALESCE(l.subscription_type, '') AS plan,
+               COUNT(*),
+               SUM(l.churn_status = 'WILL_CHURN'),
+               SUM(l.probability >= c.probability),
+               SUM(l.subscription_type = 'Free' AND l.ads_listened_per_week > 15),
+               SUM(l.skip_rate > 0.4),
+               SUM(l.frustration_index IS NOT NULL AND l.frustration_index > 3.0),
+               SUM(l.premium_no_offline = TRUE),
+               SUM(l.listening_time < 100),
+               SUM(l.probability < 0.2),
+               SUM(l.probability >= 0.2 AND l.probability < 0.5),
+               SUM(l.probability >= 0.5 AND l.probability < 0.7),
+               SUM(l.probability >= 0.7)
+        FROM customer_latest_prediction l
+        CROSS JOIN cutoff c
+        GROUP BY COALESCE(l.subscription_type, '')
+        """;
+
+    // Colunas numéricas do resultado, na ordem do SELECT (após o plano)
+    private static final int TOTAL = 0;
+    private static final int WILL_CHURN = 1;
+    private static final int TOP25 = 2;
+    private static final int RISK_FREE_HIGH_ADS = 3;
+    private static final int BUCKET_VERY_LOW = 8;
+    private static final int COLUMNS = 12;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Timer dashboardTimer;
+
+    public LatestPredictionQueryAdapter(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dashboardTimer = Timer.builder("churn.dashboard.query")
+                .tag("query", "dashboard_aggregates")
+                .description("Tempo das consultas agregadas do dashboard e dos KPIs")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public DashboardAggregates aggregateDashboard() {
+        long[] totals = new long[COLUMNS];
+        Map<String, Long> byPlan = new HashMap<>();
+        Map<String, Long> top25ByPlan = new HashMap<>();
+
+        dashboardTimer.record(() -> jdbcTemplate.query(DASHBOARD_SQL, rs -> {
+            String plan = rs.getString(1);
+            for (int i = 0; i < COLUMNS; i++) {
+                totals[i] += rs.getLong(i + 2);
+            }
+            long customers = rs.getLong(TOTAL + 2);
+            long top25 = rs.getLong(TOP25 + 2);
+            if (customers > 0) byPlan.merge(plan, customers, Long::sum);
+            if (top25 > 0) top25ByPlan.merge(plan, top25, Long::sum);
+        }));
+
+        int risk = RISK_FREE_HIGH_ADS;
+        int bucket = BUCKET_VERY_LOW;
+        return new DashboardAggregates(
+                totals[TOTAL],
+                totals[WILL_CHURN],
+                totals[TOTAL] - totals[WILL_CHURN],
+                totals[TOP25],
+                new DashboardAggregates.RiskFactorCounts(
+                        totals[risk], totals[risk + 1], totals[risk + 2], totals[risk + 3], totals[risk + 4]),
+                new DashboardAggregates.ProbabilityBuckets(
+                        totals[bucket], totals[bucket + 1], totals[bucket + 2], totals[bucket + 3]),
+                Map.copyOf(byPlan),
+                Map.copyOf(top25ByPlan),
+                LocalDateTime.now());
+    }
+}
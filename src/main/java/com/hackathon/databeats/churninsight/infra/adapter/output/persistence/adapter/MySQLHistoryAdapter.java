@@ -2,28 +2,79 @@ package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.ad
 
 import com.hackathon.databeats.churninsight.application.port.output.SaveHistoryPort;
 import com.hackathon.databeats.churninsight.domain.model.PredictionHistory;
+import com.hackathon.databeats.churninsight.domain.rules.ChurnBusinessRules;
 import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.entity.PredictionHistoryEntity;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.journal.PredictionJournal;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.repository.CustomerLatestPredictionJdbcRepository;
 import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.repository.PredictionHistoryRepository;
+import com.hackathon.databeats.churninsight.infra.util.DataAccessFailures;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
 
 /**
  * Adapter de persistência MySQL.
  * Converte modelo de domínio para entidade JPA, seguindo arquitetura hexagonal.
+ *
+ * <p>Cada predição é gravada primeiro no {@link PredictionJournal}. Se o MySQL estiver
+ * indisponível ({@link DataAccessFailures#isTransient}), a predição permanece no journal e é
+ * reenviada depois pelo replayer, sem falhar a requisição. Falhas permanentes, como violação
+ * de integridade, se repetiriam a cada reenvio: o registro é confirmado no journal e a
+ * exceção chega ao chamador.</p>
+ *
+ * <p>O histórico e a projeção customer_latest_prediction são gravados na mesma transação.</p>
  */
 @Component
 @Slf4j
 public class MySQLHistoryAdapter implements SaveHistoryPort {
     private final PredictionHistoryRepository repository;
+    private final CustomerLatestPredictionJdbcRepository latestPredictionRepository;
+    private final PredictionJournal journal;
+    private final TransactionTemplate transactionTemplate;
 
-    public MySQLHistoryAdapter(PredictionHistoryRepository repository) {
+    public MySQLHistoryAdapter(PredictionHistoryRepository repository,
+                               CustomerLatestPredictionJdbcRepository latestPredictionRepository,
+                               PredictionJournal journal,
+                               PlatformTransactionManager transactionManager) {
         this.repository = repository;
+        this.latestPredictionRepository = latestPredictionRepository;
+        this.journal = journal;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
     public void save(PredictionHistory history) {
+        long sequence = appendToJournal(history);
         PredictionHistoryEntity entity = toEntity(history);
-        this.repository.save(java.util.Objects.requireNonNull(entity, "PredictionHistoryEntity must not be null"));
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                this.repository.save(java.util.Objects.requireNonNull(entity, "PredictionHistoryEntity must not be null"));
+                this.latestPredictionRepository.upsertAll(java.util.List.of(history));
+            });
+        } catch (RuntimeException e) {
+            if (sequence == PredictionJournal.NO_SEQUENCE) throw e;
+            if (!DataAccessFailures.isTransient(e)) {
+                journal.acknowledge(sequence);
+                throw e;
+            }
+            log.warn("MySQL indisponível, predição {} mantida no journal (seq {}) para reenvio: {}",
+                    history.id(), sequence, e.getMessage());
+            return;
+        }
+        journal.acknowledge(sequence);
+    }
+
+    private long appendToJournal(PredictionHistory history) {
+        try {
+            return journal.append(history);
+        } catch (UncheckedIOException | IllegalStateException e) {
+            log.error("Falha ao gravar predição {} no journal, seguindo sem durabilidade local: {}",
+                    history.id(), e.getMessage());
+            return PredictionJournal.NO_SEQUENCE;
+        }
     }
 
     /**
@@ -54,6 +105,8 @@ public class MySQLHistoryAdapter implements SaveHistoryPort {
         entity.setSongsPerMinute(history.songsPerMinute());
         entity.setIsHeavyUser(history.isHeavyUser());
         entity.setPremiumNoOffline(history.premiumNoOffline());
+        entity.setRiskFlags(ChurnBusinessRules.riskFactorFlags(history));
+        entity.setPrimaryRiskFactor(ChurnBusinessRules.primaryRiskFactor(history.churnStatus(), entity.getRiskFlags()).code());
 
         entity.setRequesterId(history.requesterId());
         entity.setRequestIp(history.requestIp());
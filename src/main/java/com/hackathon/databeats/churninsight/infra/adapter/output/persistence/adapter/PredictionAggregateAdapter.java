@@ -0,0 +1,218 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.adapter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hackathon.databeats.churninsight.application.dto.AggregateDimension;
+import com.hackathon.databeats.churninsight.application.dto.AggregateMetric;
+import com.hackathon.databeats.churninsight.application.dto.AggregateQuery;
+import com.hackathon.databeats.churninsight.application.dto.AggregateResponse;
+import com.hackathon.databeats.churninsight.application.port.output.PredictionAggregatePort;
+import com.hackathon.databeats.churninsight.domain.enums.RiskFactor;
+import com.hackathon.databeats.churninsight.domain.model.PredictionHistory;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.columnar.ColumnarHistoryStore;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.columnar.GroupTotals;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.event.PredictionWriteListener;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.index.UserIdSearchIndex;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.specification.PredictionAggregateSql;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executa {@link AggregateQuery} sobre o histórico de predições.
+ *
+ * <p>O motor padrão é o snapshot colunar em memória ({@link ColumnarHistoryStore}), que
+ * agrupa e filtra numa única passada paralela. Enquanto o snapshot carrega, ou quando o filtro
+ * usa userId (coluna fora do snapshot), a mesma agregação roda como {@code GROUP BY} no banco
+ * ({@link PredictionAggregateSql}).</p>
+ *
+ * <p>Resultados ficam em cache por consulta normalizada, expirados pelo TTL e descartados a
+ * cada gravação confirmada no churn_history (com o mesmo controle por geração de
+ * {@link PredictionSearchCounter}).</p>
+ */
+@Slf4j
+@Component
+public class PredictionAggregateAdapter implements PredictionAggregatePort, PredictionWriteListener {
+
+    private static final String ENGINE_COLUMNAR = "columnar";
+    private static final String ENGINE_SQL = "sql";
+
+    private final ColumnarHistoryStore columnarStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final UserIdSearchIndex userIdSearchIndex;
+    private final Cache<AggregateQuery, AggregateResponse> cache;
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final MeterRegistry meterRegistry;
+
+    public PredictionAggregateAdapter(
+            ColumnarHistoryStore columnarStore,
+            JdbcTemplate jdbcTemplate,
+            UserIdSearchIndex userIdSearchIndex,
+            MeterRegistry meterRegistry,
+            @Value("${app.analytics.aggregate-cache.ttl-seconds:60}") long ttlSeconds,
+            @Value("${app.analytics.aggregate-cache.max-entries:500}") long maxEntries) {
+        this.columnarStore = columnarStore;
+        this.jdbcTemplate = jdbcTemplate;
+        this.userIdSearchIndex = userIdSearchIndex;
+        this.meterRegistry = meterRegistry;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxEntries)
+                .build();
+        this.cacheHits = Counter.builder("churn.analytics.aggregate.cache")
+                .tag("result", "hit")
+                .description("Agregações servidas pelo cache")
+                .register(meterRegistry);
+        this.cacheMisses = Counter.builder("churn.analytics.aggregate.cache")
+                .tag("result", "miss")
+                .description("Agregações calculadas por ausência no cache")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public AggregateResponse aggregate(AggregateQuery query) {
+        AggregateResponse cached = cache.getIfPresent(query);
+        if (cached != null) {
+            cacheHits.increment();
+            return cached.asCached();
+        }
+        cacheMisses.increment();
+
+        long before = generation.get();
+        AggregateResponse response = compute(query);
+        if (generation.get() == before) {
+            cache.put(query, response);
+        }
+        return response;
+    }
+
+    @Override
+    public void onHistoriesPersisted(List<PredictionHistory> histories) {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    // === MÉTODOS PRIVADOS ===
+
+    private AggregateResponse compute(AggregateQuery query) {
+        Timer.Sample sample = Timer.start();
+        String engine = ENGINE_COLUMNAR;
+        List<GroupTotals> groups = columnarStore.aggregate(query).orElse(null);
+        if (groups == null) {
+            engine = ENGINE_SQL;
+            groups = aggregateInDatabase(query);
+        }
+        sample.stop(Timer.builder("churn.analytics.aggregate")
+                .description("Tempo das agregações de /clients/aggregate")
+                .tag("engine", engine)
+                .register(meterRegistry));
+
+        log.debug("Agregação ({}): groupBy={}, metrics={}, grupos={}", engine, query.groupBy(), query.metrics(), groups.size());
+        return toResponse(query, groups, engine);
+    }
+
+    private List<GroupTotals> aggregateInDatabase(AggregateQuery query) {
+        List<String> resolvedUserIds = query.filter().userId() == null ? null
+                : userIdSearchIndex.resolve(query.filter().userId(), query.filter().userIdMatch()).orElse(null);
+        PredictionAggregateSql sql = PredictionAggregateSql.of(query, resolvedUserIds);
+        int dimensions = query.groupBy().size();
+        return jdbcTemplate.query(sql.sql(), (rs, rowNum) -> {
+            Object[] keys = new Object[dimensions];
+            for (int d = 0; d < dimensions; d++) {
+                AggregateDimension dimension = query.groupBy().get(d);
+                keys[d] = switch (dimension) {
+                    case AGE_BAND -> AggregateDimension.AGE_BAND_LABELS.get(rs.getInt(d + 1));
+                    case PROBABILITY_BUCKET -> AggregateDimension.PROBABILITY_BUCKET_LABELS.get(rs.getInt(d + 1));
+                    case PRIMARY_RISK_FACTOR -> RiskFactor.fromCode(rs.getInt(d + 1)).name();
+                    case CREATED_DAY -> {
+                        Date day = rs.getDate(d + 1);
+                        yield day != null ? day.toLocalDate() : null;
+                    }
+                    default -> rs.getString(d + 1);
+                };
+            }
+            return new GroupTotals(Arrays.asList(keys),
+                    rs.getLong(dimensions + 1),
+                    rs.getDouble(dimensions + 2),
+                    rs.getDouble(dimensions + 3),
+                    rs.getDouble(dimensions + 4),
+                    rs.getDouble(dimensions + 5));
+        }, sql.params().toArray()).stream()
+                // Sem dimensões o SQL sempre devolve uma linha, mesmo sem predições
+                .filter(g -> g.count() > 0)
+                .toList();
+    }
+
+    private static AggregateResponse toResponse(AggregateQuery query, List<GroupTotals> groups, String engine) {
+        List<GroupTotals> sorted = new ArrayList<>(groups);
+        sorted.sort(keyOrder(query.groupBy()));
+
+        long totalRows = 0;
+        List<AggregateResponse.Group> out = new ArrayList<>(sorted.size());
+        for (GroupTotals group : sorted) {
+            totalRows += group.count();
+            Map<String, Object> keys = new LinkedHashMap<>();
+            for (int d = 0; d < query.groupBy().size(); d++) {
+                keys.put(query.groupBy().get(d).key(), group.keys().get(d));
+            }
+            Map<String, Number> values = new LinkedHashMap<>();
+            for (AggregateMetric metric : query.metrics()) {
+                values.put(metric.key(), switch (metric) {
+                    case COUNT -> group.count();
+                    case AVG_PROBABILITY -> round4(group.probabilitySum() / group.count());
+                    case MIN_PROBABILITY -> round4(group.minProbability());
+                    case MAX_PROBABILITY -> round4(group.maxProbability());
+                    case REVENUE_AT_RISK -> Math.round(group.revenueAtRisk() * 100.0) / 100.0;
+                });
+            }
+            out.add(new AggregateResponse.Group(keys, values));
+        }
+
+        return AggregateResponse.builder()
+                .groupBy(query.groupBy().stream().map(AggregateDimension::key).toList())
+                .metrics(query.metrics().stream().map(AggregateMetric::key).toList())
+                .groups(out)
+                .totalRows(totalRows)
+                .engine(engine)
+                .cached(false)
+                .build();
+    }
+
+    // Nulos primeiro; faixas na ordem das faixas (não alfabética), demais chaves em ordem natural
+    private static Comparator<GroupTotals> keyOrder(List<AggregateDimension> dimensions) {
+        Comparator<GroupTotals> order = (a, b) -> 0;
+        for (int d = 0; d < dimensions.size(); d++) {
+            int index = d;
+            Comparator<Object> byValue = switch (dimensions.get(d)) {
+                case AGE_BAND -> Comparator.comparingInt(AggregateDimension.AGE_BAND_LABELS::indexOf);
+                case PROBABILITY_BUCKET -> Comparator.comparingInt(AggregateDimension.PROBABILITY_BUCKET_LABELS::indexOf);
+                case CREATED_DAY -> Comparator.comparing(key -> (LocalDate) key);
+                case PRIMARY_RISK_FACTOR -> Comparator.comparingInt(key -> RiskFactor.valueOf((String) key).code());
+                default -> Comparator.comparing(key -> (String) key);
+            };
+            order = order.thenComparing(group -> group.keys().get(index), Comparator.nullsFirst(byValue));
+        }
+        return order;
+    }
+
+    private static double round4(double value) {
+        return Math.round(value * 10_000.0) / 10_000.0;
+    }
+}
@@ -0,0 +1,91 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.adapter;
+
+import com.hackathon.databeats.churninsight.application.dto.PredictionHistoryResponse;
+import com.hackathon.databeats.churninsight.application.dto.PredictionSearchFilter;
+import com.hackathon.databeats.churninsight.application.port.output.PredictionExportPort;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.specification.PredictionSearchSql;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Adapter de exportação do histórico com cursor JDBC somente para frente.
+ *
+ * <p>Com {@code fetchSize = Integer.MIN_VALUE} o driver MySQL entrega as linhas conforme
+ * chegam do servidor, uma por vez, em vez de carregar o resultado inteiro: a memória usada
+ * não depende do tamanho da exportação. As linhas saem na ordem da chave primária (UUIDv7,
+ * aproximadamente cronológica), sem ORDER BY, para não exigir ordenação no servidor.</p>
+ *
+ * <p>Enquanto o resultado está aberto a conexão não aceita outros comandos; se o consumidor
+ * falhar (cliente desconectado), a consulta é cancelada no servidor antes de fechar o
+ * resultado, em vez de ler as linhas restantes.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PredictionExportAdapter implements PredictionExportPort {
+
+    private static final String EXPORT_SQL =
+            "SELECT " + PredictionHistoryRow.COLUMNS + " FROM churn_history WHERE %s";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional(readOnly = true)
+    public long forEach(PredictionSearchFilter filter, Consumer<PredictionHistoryResponse> sink) {
+        PredictionSearchSql sql = PredictionSearchSql.of(filter);
+        Long rows = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(EXPORT_SQL.formatted(sql.where()),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                ps.setFetchSize(Integer.MIN_VALUE);
+                bind(ps, sql.params());
+                return stream(ps, sink);
+            }
+        });
+        return rows == null ? 0 : rows;
+    }
+
+    // === MÉTODOS PRIVADOS ===
+
+    private static long stream(PreparedStatement ps, Consumer<PredictionHistoryResponse> sink) throws SQLException {
+        long count = 0;
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                PredictionHistoryResponse row = PredictionHistoryRow.map(rs, (int) count).toResponse();
+                try {
+                    sink.accept(row);
+                } catch (RuntimeException e) {
+                    cancel(ps, count);
+                    throw e;
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Sem o cancelamento, fechar um resultado em streaming lê (e descarta) todas as linhas restantes
+    private static void cancel(PreparedStatement ps, long delivered) {
+        try {
+            ps.cancel();
+            log.debug("Exportação interrompida após {} linhas; consulta cancelada", delivered);
+        } catch (SQLException e) {
+            log.warn("Falha ao cancelar a consulta de exportação: {}", e.getMessage());
+        }
+    }
+
+    private static void bind(PreparedStatement ps, List<Object> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            ps.setObject(i + 1, params.get(i));
+        }
+    }
+}
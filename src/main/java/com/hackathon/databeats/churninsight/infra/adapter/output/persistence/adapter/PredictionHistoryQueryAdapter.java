@@ -1,27 +1,42 @@
 package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.adapter;
 
+import com.hackathon.databeats.churninsight.application.dto.CountStrategy;
+import com.hackathon.databeats.churninsight.application.dto.PageCursor;
 import com.hackathon.databeats.churninsight.application.dto.PaginatedResponse;
 import com.hackathon.databeats.churninsight.application.dto.PredictionHistoryResponse;
 import com.hackathon.databeats.churninsight.application.dto.PredictionSearchFilter;
 import com.hackathon.databeats.churninsight.application.port.output.PredictionHistoryQueryPort;
 import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
+import com.hackathon.databeats.churninsight.domain.rules.ChurnBusinessRules;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.columnar.ColumnarHistoryStore;
 import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.entity.PredictionHistoryEntity;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.index.UserIdPrefixIndex;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.index.UserIdSearchIndex;
 import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.repository.PredictionHistoryRepository;
 import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.specification.PredictionHistorySpecification;
-import lombok.RequiredArgsConstructor;
+import com.hackathon.databeats.churninsight.infra.util.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import java.util.Objects;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.HashMap;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
 
 /**
  * Adapter de consulta do histórico de predições.
@@ -35,184 +50,348 @@ import java.util.Map;
  */
 @Component
 @Slf4j
-@RequiredArgsConstructor
 public class PredictionHistoryQueryAdapter implements PredictionHistoryQueryPort {
 
     private final PredictionHistoryRepository repository;
+    private final PredictionSearchCounter searchCounter;
+    private final UserIdSearchIndex userIdSearchIndex;
+    private final UserIdPrefixIndex userIdPrefixIndex;
+    private final ColumnarHistoryStore columnarStore;
+    private final EntityManager entityManager;
+
+    // Varreduras agregadas idênticas e simultâneas (snapshot colunar ausente) rodam uma só vez
+    private final SingleFlight<String, Object> aggregateFlight;
+
+    public PredictionHistoryQueryAdapter(
+            PredictionHistoryRepository repository,
+            PredictionSearchCounter searchCounter,
+            UserIdSearchIndex userIdSearchIndex,
+            UserIdPrefixIndex userIdPrefixIndex,
+            ColumnarHistoryStore columnarStore,
+            EntityManager entityManager,
+            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.searchCounter = searchCounter;
+        this.userIdSearchIndex = userIdSearchIndex;
+        this.userIdPrefixIndex = userIdPrefixIndex;
+        this.columnarStore = columnarStore;
+        this.entityManager = entityManager;
+        this.aggregateFlight = new SingleFlight<>("history_aggregates", meterRegistry);
+    }
 
     private static final List<String> VALID_SORT_FIELDS = List.of(
             "createdAt", "probability", "age", "gender",
             "country", "subscriptionType", "churnStatus"
     );
 
-    private static final Map<String, String> RECOMMENDED_ACTIONS = createActionsMap();
+    /**
+     * Campos aceitos na paginação keyset (não nulos e indexados). O desempate por id segue a ordem física do índice: idx_created_at é DESC, então
+     * createdAt desc usa id asc; idx_probability e idx_age são ASC e usam id na mesma direção.
+     */
+    private static final List<String> KEYSET_FIELDS = List.of("createdAt", "probability", "age");
+    private static final String DESC_INDEXED_KEYSET_FIELD = "createdAt";
 
-    private static Map<String, String> createActionsMap() {
-        Map<String, String> actions = new HashMap<>();
-        actions.put("FREE_HIGH_ADS", "Oferecer teste Premium para aliviar interrupções de áudio.");
-        actions.put("HIGH_SKIP_RATE", "Recalibrar algoritmo de recomendação para reduzir pulos.");
-        actions.put("LOW_ENGAGEMENT", "Enviar recomendações personalizadas para aumentar engajamento.");
-        actions.put("PREMIUM_NO_OFFLINE", "Sugerir uso de downloads para experiência completa.");
-        actions.put("HIGH_FRUSTRATION", "Enviar pesquisa de satisfação com cupom de desconto.");
-        actions.put("STUDENT_GRADUATING", "Oferecer desconto no plano Premium pós-formatura.");
-        actions.put("DEFAULT", "Monitorar comportamento e manter contato proativo.");
-        return Map.copyOf(actions);
-    }
+    /** Flags de risco na ordem das contagens de {@link #getRiskFactorCounts()}. */
+    private static final int[] RISK_FLAGS = {
+            ChurnBusinessRules.RISK_FREE_HIGH_ADS,
+            ChurnBusinessRules.RISK_HIGH_SKIP_RATE,
+            ChurnBusinessRules.RISK_HIGH_FRUSTRATION,
+            ChurnBusinessRules.RISK_PREMIUM_NO_OFFLINE,
+            ChurnBusinessRules.RISK_LOW_LISTENING
+    };
+
+    // Agregados servidos pelo snapshot colunar; as consultas SQL ficam para quando ele não está carregado
 
     @Override
     public long count() {
-        return repository.count();
+        return columnarStore.totals()
+                .map(ColumnarHistoryStore.Totals::total)
+                .orElseGet(() -> shared("count", repository::count));
     }
 
     @Override
     public long countByChurnStatus(ChurnStatus status) {
-        return repository.countByChurnStatus(status);
-    }
-
-    @Override
-    public Long countTop25AtRisk() {
-        return repository.countTop25AtRisk();
+        return columnarStore.totals()
+                .map(t -> status == ChurnStatus.WILL_CHURN ? t.willChurn() : t.willStay())
+                .orElseGet(() -> shared("countByChurnStatus:" + status, () -> repository.countByChurnStatus(status)));
     }
 
     @Override
     public Object[] getRiskFactorCounts() {
-        return repository.getRiskFactorCounts();
+        return columnarStore.riskFactorCounts()
+                .map(PredictionHistoryQueryAdapter::toTuple)
+                .orElseGet(() -> shared("riskFactorCounts",
+                        () -> toTuple(riskFactorCounts(repository.countByRiskFlags()))));
     }
 
     @Override
     public Object[] getProbabilityBuckets() {
-        return repository.getProbabilityBuckets();
+        return columnarStore.probabilityBuckets()
+                .map(PredictionHistoryQueryAdapter::toTuple)
+                .orElseGet(() -> shared("probabilityBuckets", repository::getProbabilityBuckets));
     }
 
     @Override
     public Object[] getGlobalStats() {
-        return repository.getGlobalStats();
-    }
-
-    @Override
-    public List<Object[]> getTop25SubscriptionCounts() {
-        return repository.getTop25SubscriptionCounts();
+        return columnarStore.totals()
+                .map(t -> new Object[]{t.total(), t.averageProbability(), t.willChurn(), t.willStay()})
+                .orElseGet(() -> shared("globalStats", repository::getGlobalStats));
     }
 
     @Override
     public List<Object[]> countByGender() {
-        return repository.countByGender();
+        return columnarStore.countBy(ColumnarHistoryStore.Categorical.GENDER)
+                .map(PredictionHistoryQueryAdapter::toRows)
+                .orElseGet(() -> shared("countByGender", repository::countByGender));
     }
 
     @Override
     public List<Object[]> countBySubscriptionType() {
-        return repository.countBySubscriptionType();
+        return columnarStore.countBy(ColumnarHistoryStore.Categorical.SUBSCRIPTION_TYPE)
+                .map(PredictionHistoryQueryAdapter::toRows)
+                .orElseGet(() -> shared("countBySubscriptionType", repository::countBySubscriptionType));
     }
 
     @Override
     public List<String> findUserIdsByPrefix(String prefix, int limit) {
-        return repository.findUserIdsByPrefix(prefix, PageRequest.of(0, limit));
+        return userIdPrefixIndex.complete(prefix, limit)
+                .orElseGet(() -> repository.findUserIdsByPrefix(prefix, PageRequest.of(0, limit)));
     }
 
     @Override
     @Transactional(readOnly = true)
     public PaginatedResponse<PredictionHistoryResponse> search(
-            PredictionSearchFilter filter, int page, int size, String sortBy, String sortDir) {
+            PredictionSearchFilter filter, int page, int size, String sortBy, String sortDir, CountStrategy countStrategy) {
 
+        PredictionSearchFilter normalized = filter.normalized();
+        List<String> resolvedUserIds = resolveUserIds(normalized);
         Sort sort = createSort(sortBy, sortDir);
-        Pageable pageable = PageRequest.of(page, size, Objects.requireNonNull(sort, "Sort must not be null"));
+        Specification<PredictionHistoryEntity> spec = PredictionHistorySpecification.withFilters(normalized, resolvedUserIds);
+
+        if (countStrategy == CountStrategy.EXACT) {
+            Pageable pageable = PageRequest.of(page, size, Objects.requireNonNull(sort, "Sort must not be null"));
+            List<PredictionHistoryRow> rows = fetchPage(spec, sort, pageable.getOffset(), size);
+            // Mesmo atalho de findAll(spec, pageable): sem COUNT(*) quando a página revela o total
+            Page<PredictionHistoryRow> resultPage = PageableExecutionUtils.getPage(rows, pageable, () -> repository.count(spec));
+
+            log.debug("Busca paginada: page={}, size={}, totalElements={}, filters={}",
+                    page, size, resultPage.getTotalElements(), normalized);
+
+            return PaginatedResponse.<PredictionHistoryResponse>builder()
+                    .content(rows.stream().map(PredictionHistoryRow::toResponse).toList())
+                    .page(page)
+                    .size(size)
+                    .totalElements(resultPage.getTotalElements())
+                    .totalPages(resultPage.getTotalPages())
+                    .totalExact(true)
+                    .first(resultPage.isFirst())
+                    .last(resultPage.isLast())
+                    .hasNext(resultPage.hasNext())
+                    .hasPrevious(resultPage.hasPrevious())
+                    .stats(calculatePageStats(rows))
+                    .build();
+        }
+
+        // Sem COUNT(*) junto da página: um registro a mais indica se existe próxima página
+        long offset = (long) page * size;
+        List<PredictionHistoryRow> rows = fetchPage(spec, sort, offset, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<PredictionHistoryRow> pageRows = hasNext ? rows.subList(0, size) : rows;
+        long seen = offset + pageRows.size();
+
+        PredictionSearchCounter.SearchTotal total;
+        if (!hasNext && (page == 0 || !pageRows.isEmpty())) {
+            // Última página alcançada: o total é conhecido sem contar
+            total = new PredictionSearchCounter.SearchTotal(seen, true);
+        } else {
+            total = searchCounter.count(normalized, resolvedUserIds, countStrategy);
+            long minimum = hasNext ? seen + 1 : seen;
+            if (total.total() < minimum) {
+                total = new PredictionSearchCounter.SearchTotal(minimum, false);
+            }
+        }
 
-        Specification<PredictionHistoryEntity> spec = PredictionHistorySpecification.withFilters(filter);
-        Page<PredictionHistoryEntity> resultPage = repository.findAll(spec, pageable);
+        log.debug("Busca paginada ({}): page={}, size={}, totalElements={}, exact={}, filters={}",
+                countStrategy, page, size, total.total(), total.exact(), normalized);
 
-        List<PredictionHistoryResponse> content = resultPage.getContent().stream()
-                .map(this::toResponse)
-                .toList();
+        return PaginatedResponse.<PredictionHistoryResponse>builder()
+                .content(pageRows.stream().map(PredictionHistoryRow::toResponse).toList())
+                .page(page)
+                .size(size)
+                .totalElements(total.total())
+                .totalPages(totalPages(total.total(), size))
+                .totalExact(total.exact())
+                .first(page == 0)
+                .last(!hasNext)
+                .hasNext(hasNext)
+                .hasPrevious(page > 0)
+                .stats(calculatePageStats(pageRows))
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PaginatedResponse<PredictionHistoryResponse> searchAfter(
+            PredictionSearchFilter filter, String cursor, int size, String sortBy, String sortDir, CountStrategy countStrategy) {
 
-        PaginatedResponse.PageStats stats = calculatePageStats(resultPage.getContent());
+        String field = sortBy == null ? "createdAt" : sortBy;
+        if (!KEYSET_FIELDS.contains(field)) {
+            throw new IllegalArgumentException("Paginação por cursor suporta ordenação apenas por " + KEYSET_FIELDS);
+        }
+        boolean ascending = "asc".equalsIgnoreCase(sortDir);
+        String direction = ascending ? "asc" : "desc";
+        boolean idAscending = DESC_INDEXED_KEYSET_FIELD.equals(field) != ascending;
+
+        PredictionSearchFilter normalized = filter.normalized();
+        List<String> resolvedUserIds = resolveUserIds(normalized);
+        Specification<PredictionHistoryEntity> spec = PredictionHistorySpecification.withFilters(normalized, resolvedUserIds);
+        PageCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            after = PageCursor.decode(cursor);
+            after.requireSort(field, direction);
+            spec = spec.and(keysetAfter(field, after, ascending, idAscending));
+        }
+
+        Sort sort = Sort.by(ascending ? Sort.Direction.ASC : Sort.Direction.DESC, field)
+                .and(Sort.by(idAscending ? Sort.Direction.ASC : Sort.Direction.DESC, "id"));
+        // Busca um registro a mais para saber se existe próxima página sem COUNT(*)
+        List<PredictionHistoryRow> rows = fetchPage(spec, sort, 0, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<PredictionHistoryRow> pageRows = hasNext ? rows.subList(0, size) : rows;
+
+        long position = after != null ? after.position() : 0L;
+        String nextCursor = null;
+        if (hasNext) {
+            PredictionHistoryRow last = pageRows.get(pageRows.size() - 1);
+            nextCursor = new PageCursor(field, direction, String.valueOf(sortValue(field, last)), last.id(),
+                    position + pageRows.size()).encode();
+        }
 
-        log.debug("Busca paginada: page={}, size={}, totalElements={}, filters={}",
-                page, size, resultPage.getTotalElements(), filter);
+        PredictionSearchCounter.SearchTotal total = countStrategy != null
+                ? searchCounter.count(normalized, resolvedUserIds, countStrategy)
+                : new PredictionSearchCounter.SearchTotal(-1L, false);
+
+        log.debug("Busca keyset: size={}, sortBy={} {}, position={}, filters={}", size, field, direction, position, normalized);
 
         return PaginatedResponse.<PredictionHistoryResponse>builder()
-                .content(content)
-                .page(page)
+                .content(pageRows.stream().map(PredictionHistoryRow::toResponse).toList())
+                .page((int) (position / Math.max(1, size)))
                 .size(size)
-                .totalElements(resultPage.getTotalElements())
-                .totalPages(resultPage.getTotalPages())
-                .first(resultPage.isFirst())
-                .last(resultPage.isLast())
-                .hasNext(resultPage.hasNext())
-                .hasPrevious(resultPage.hasPrevious())
-                .stats(stats)
+                .totalElements(total.total())
+                .totalPages(total.total() < 0 ? -1 : totalPages(total.total(), size))
+                .totalExact(total.exact())
+                .first(after == null)
+                .last(!hasNext)
+                .hasNext(hasNext)
+                .hasPrevious(after != null)
+                .stats(calculatePageStats(pageRows))
+                .nextCursor(nextCursor)
                 .build();
     }
 
     // === MÉTODOS PRIVADOS DE MAPEAMENTO ===
 
-    private Sort createSort(String sortBy, String sortDir) {
-        if (sortBy == null || !VALID_SORT_FIELDS.contains(sortBy)) {
-            sortBy = "createdAt";
+    /**
+     * userIds que casam com a busca por texto segundo o índice em memória, ou null quando a
+     * busca deve ficar no banco (sem texto, modo exato, índice em carga ou resultados demais).
+     */
+    private List<String> resolveUserIds(PredictionSearchFilter normalized) {
+        if (normalized.userId() == null) return null;
+        return userIdSearchIndex.resolve(normalized.userId(), normalized.userIdMatch()).orElse(null);
+    }
+
+    /**
+     * Página por OFFSET, projetada direto em {@link PredictionHistoryRow}: só as colunas da
+     * resposta, sem entidades gerenciadas no contexto de persistência.
+     */
+    private List<PredictionHistoryRow> fetchPage(
+            Specification<PredictionHistoryEntity> spec, Sort sort, long offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PredictionHistoryRow> query = cb.createQuery(PredictionHistoryRow.class);
+        Root<PredictionHistoryEntity> root = query.from(PredictionHistoryEntity.class);
+        query.select(PredictionHistoryRow.select(cb, root));
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
         }
-        Sort.Direction direction = "asc".equalsIgnoreCase(sortDir)
-                ? Sort.Direction.ASC
-                : Sort.Direction.DESC;
-        return Sort.by(direction, sortBy);
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query)
+                .setFirstResult(Math.toIntExact(offset))
+                .setMaxResults(limit)
+                .getResultList();
     }
 
-    private PredictionHistoryResponse toResponse(PredictionHistoryEntity entity) {
-        return PredictionHistoryResponse.builder()
-                .id(entity.getId())
-                .userId(entity.getUserId())
-                .gender(entity.getGender())
-                .age(entity.getAge())
-                .country(entity.getCountry())
-                .subscriptionType(entity.getSubscriptionType())
-                .deviceType(entity.getDeviceType())
-                .churnStatus(entity.getChurnStatus())
-                .probability(entity.getProbability())
-                .predictionLabel(entity.getChurnStatus() == ChurnStatus.WILL_CHURN
-                        ? "Vai Cancelar" : "Vai Continuar")
-                .frustrationIndex(entity.getFrustrationIndex())
-                .isHeavyUser(entity.getIsHeavyUser())
-                .recommendedAction(determineRecommendedAction(entity))
-                .primaryRiskFactor(identifyPrimaryRiskFactor(entity))
-                .createdAt(entity.getCreatedAt())
-                .build();
+    @SuppressWarnings("unchecked")
+    private <T> T shared(String key, Supplier<T> query) {
+        return (T) aggregateFlight.execute(key, query::get);
     }
 
-    private String identifyPrimaryRiskFactor(PredictionHistoryEntity entity) {
-        if (entity.getChurnStatus() == ChurnStatus.WILL_STAY) {
-            return "Nenhum (Stay)";
+    /** Soma as contagens por máscara em contagens por fator, na ordem dos bits {@code RISK_*}. */
+    private static long[] riskFactorCounts(List<Object[]> countsByFlags) {
+        long[] counts = new long[RISK_FLAGS.length];
+        for (Object[] row : countsByFlags) {
+            int flags = ((Number) row[0]).intValue();
+            long count = ((Number) row[1]).longValue();
+            for (int f = 0; f < RISK_FLAGS.length; f++) {
+                if ((flags & RISK_FLAGS[f]) != 0) counts[f] += count;
+            }
         }
-        if ("Free".equalsIgnoreCase(entity.getSubscriptionType()) && entity.getAdsListenedPerWeek() > 15) {
-            return "Anúncios por Semana";
-        }
-        if (entity.getSkipRate() > 0.4) return "Taxa de Pulos Elevada";
-        if (entity.getFrustrationIndex() != null && entity.getFrustrationIndex() > 3.0) return "Índice de Frustração";
-        if (Boolean.TRUE.equals(entity.getPremiumNoOffline())) return "Subutilização Premium";
-        if (entity.getListeningTime() < 100) return "Baixo Engajamento";
-        return "Perfil de Risco Moderado";
+        return counts;
     }
 
-    private String determineRecommendedAction(PredictionHistoryEntity entity) {
-        if (entity.getChurnStatus() == ChurnStatus.WILL_STAY) {
-            return "Manter relacionamento atual.";
-        }
-        if ("Free".equalsIgnoreCase(entity.getSubscriptionType()) && entity.getAdsListenedPerWeek() > 15) {
-            return RECOMMENDED_ACTIONS.get("FREE_HIGH_ADS");
-        }
-        if (entity.getSkipRate() > 0.4) {
-            return RECOMMENDED_ACTIONS.get("HIGH_SKIP_RATE");
-        }
-        if (entity.getFrustrationIndex() != null && entity.getFrustrationIndex() > 3.0) {
-            return RECOMMENDED_ACTIONS.get("HIGH_FRUSTRATION");
-        }
-        if (Boolean.TRUE.equals(entity.getPremiumNoOffline())) {
-            return RECOMMENDED_ACTIONS.get("PREMIUM_NO_OFFLINE");
+    private static Object[] toTuple(long[] counts) {
+        Object[] tuple = new Object[counts.length];
+        for (int i = 0; i < counts.length; i++) tuple[i] = counts[i];
+        return tuple;
+    }
+
+    private static List<Object[]> toRows(Map<String, Long> counts) {
+        return counts.entrySet().stream()
+                .map(e -> new Object[]{e.getKey(), e.getValue()})
+                .toList();
+    }
+
+    private static int totalPages(long total, int size) {
+        return (int) ((total + size - 1) / Math.max(1, size));
+    }
+
+    private static Specification<PredictionHistoryEntity> keysetAfter(
+            String field, PageCursor after, boolean ascending, boolean idAscending) {
+        String value = after.sortValue();
+        try {
+            return switch (field) {
+                case "probability" -> PredictionHistorySpecification.after(
+                        field, Double.valueOf(value), ascending, after.id(), idAscending);
+                case "age" -> PredictionHistorySpecification.after(
+                        field, Integer.valueOf(value), ascending, after.id(), idAscending);
+                default -> PredictionHistorySpecification.after(
+                        field, LocalDateTime.parse(value), ascending, after.id(), idAscending);
+            };
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Cursor de paginação inválido", e);
         }
-        if (entity.getListeningTime() < 100) {
-            return RECOMMENDED_ACTIONS.get("LOW_ENGAGEMENT");
+    }
+
+    private static Object sortValue(String field, PredictionHistoryRow row) {
+        return switch (field) {
+            case "probability" -> row.probability();
+            case "age" -> row.age();
+            default -> row.createdAt();
+        };
+    }
+
+
+    private Sort createSort(String sortBy, String sortDir) {
+        if (sortBy == null || !VALID_SORT_FIELDS.contains(sortBy)) {
+            sortBy = "createdAt";
         }
-        return RECOMMENDED_ACTIONS.get("DEFAULT");
+        Sort.Direction direction = "asc".equalsIgnoreCase(sortDir)
+                ? Sort.Direction.ASC
+                : Sort.Direction.DESC;
+        return Sort.by(direction, sortBy);
     }
 
-    private PaginatedResponse.PageStats calculatePageStats(List<PredictionHistoryEntity> content) {
+    private PaginatedResponse.PageStats calculatePageStats(List<PredictionHistoryRow> content) {
         if (content.isEmpty()) {
             return PaginatedResponse.PageStats.builder()
                     .willChurnCount(0)
@@ -222,12 +401,12 @@ public class PredictionHistoryQueryAdapter implements PredictionHistoryQueryPort
         }
 
         long willChurn = content.stream()
-                .filter(e -> e.getChurnStatus() == ChurnStatus.WILL_CHURN)
+                .filter(r -> r.churnStatus() == ChurnStatus.WILL_CHURN)
                 .count();
         long willStay = content.size() - willChurn;
 
         double avgProb = content.stream()
-                .mapToDouble(PredictionHistoryEntity::getProbability)
+                .mapToDouble(PredictionHistoryRow::probability)
                 .average()
                 .orElse(0.0);
 
@@ -0,0 +1,103 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.adapter;
+
+import com.hackathon.databeats.churninsight.application.dto.PredictionHistoryResponse;
+import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
+import com.hackathon.databeats.churninsight.domain.enums.RiskFactor;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.entity.PredictionHistoryEntity;
+import jakarta.persistence.criteria.CompoundSelection;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Root;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Projeção de leitura de churn_history com apenas as colunas usadas nas listagens e na
+ * exportação.
+ *
+ * <p>Carregada por projeção de construtor (Criteria) ou por {@link #map(ResultSet, int)}: não
+ * é entidade gerenciada, então não entra no contexto de persistência, não guarda estado para
+ * dirty checking e não traz as colunas que a resposta não usa.</p>
+ */
+public record PredictionHistoryRow(
+        String id,
+        String userId,
+        String gender,
+        int age,
+        String country,
+        String subscriptionType,
+        String deviceType,
+        ChurnStatus churnStatus,
+        double probability,
+        Double frustrationIndex,
+        Boolean isHeavyUser,
+        int primaryRiskFactor,
+        LocalDateTime createdAt
+) {
+
+    /** Colunas na ordem do construtor, para consultas SQL. */
+    static final String COLUMNS = "id, user_id, gender, age, country, subscription_type, device_type, churn_status, "
+            + "probability, frustration_index, is_heavy_user, primary_risk_factor, created_at";
+
+    /** Seleção Criteria equivalente a {@link #COLUMNS}. */
+    static CompoundSelection<PredictionHistoryRow> select(CriteriaBuilder cb, Root<PredictionHistoryEntity> root) {
+        return cb.construct(PredictionHistoryRow.class,
+                root.get("id"), root.get("userId"), root.get("gender"), root.get("age"), root.get("country"),
+                root.get("subscriptionType"), root.get("deviceType"), root.get("churnStatus"), root.get("probability"),
+                root.get("frustrationIndex"), root.get("isHeavyUser"), root.get("primaryRiskFactor"),
+                root.get("createdAt"));
+    }
+
+    /** Lê a linha atual de um resultado com {@link #COLUMNS}. */
+    static PredictionHistoryRow map(ResultSet rs, int rowNum) throws SQLException {
+        Timestamp createdAt = rs.getTimestamp(13);
+        return new PredictionHistoryRow(
+                rs.getString(1),
+                rs.getString(2),
+                rs.getString(3),
+                rs.getInt(4),
+                rs.getString(5),
+                rs.getString(6),
+                rs.getString(7),
+                ChurnStatus.valueOf(rs.getString(8)),
+                rs.getDouble(9),
+                nullableDouble(rs, 10),
+                nullableBoolean(rs, 11),
+                rs.getInt(12),
+                createdAt == null ? null : createdAt.toLocalDateTime());
+    }
+
+    /** Resposta da API; rótulo e ação do fator de risco vêm do código gravado. */
+    PredictionHistoryResponse toResponse() {
+        RiskFactor riskFactor = RiskFactor.fromCode(primaryRiskFactor);
+        return PredictionHistoryResponse.builder()
+                .id(id)
+                .userId(userId)
+                .gender(gender)
+                .age(age)
+                .country(country)
+                .subscriptionType(subscriptionType)
+                .deviceType(deviceType)
+                .churnStatus(churnStatus)
+                .probability(probability)
+                .predictionLabel(churnStatus == ChurnStatus.WILL_CHURN ? "Vai Cancelar" : "Vai Continuar")
+                .frustrationIndex(frustrationIndex)
+                .isHeavyUser(isHeavyUser)
+                .recommendedAction(riskFactor.recommendedAction())
+                .primaryRiskFactor(riskFactor.label())
+                .createdAt(createdAt)
+                .build();
+    }
+
+    private static Double nullableDouble(ResultSet rs, int column) throws SQLException {
+        double value = rs.getDouble(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static Boolean nullableBoolean(ResultSet rs, int column) throws SQLException {
+        boolean value = rs.getBoolean(column);
+        return rs.wasNull() ? null : value;
+    }
+}
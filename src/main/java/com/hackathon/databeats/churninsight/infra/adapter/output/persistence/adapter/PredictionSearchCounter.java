@@ -0,0 +1,144 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.adapter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hackathon.databeats.churninsight.application.dto.CountStrategy;
+import com.hackathon.databeats.churninsight.application.dto.PredictionSearchFilter;
+import com.hackathon.databeats.churninsight.domain.model.PredictionHistory;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.event.PredictionWriteListener;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.repository.PredictionHistoryRepository;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.specification.PredictionHistorySpecification;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.specification.PredictionSearchSql;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Total de registros da busca paginada conforme a {@link CountStrategy} pedida.
+ *
+ * <ul>
+ *   <li><b>EXACT:</b> {@code COUNT(*)} com os mesmos predicados da busca</li>
+ *   <li><b>CACHED:</b> contagem exata guardada por filtro normalizado, expirada pelo TTL e
+ *       descartada a cada gravação confirmada no churn_history</li>
+ *   <li><b>ESTIMATED:</b> {@code rows × filtered} do {@code EXPLAIN} da mesma consulta</li>
+ * </ul>
+ *
+ * <p>Uma contagem só entra no cache se nenhuma gravação foi confirmada enquanto ela rodava
+ * (controle por geração), então o cache nunca fica com um total anterior a uma invalidação.</p>
+ */
+@Slf4j
+@Component
+public class PredictionSearchCounter implements PredictionWriteListener {
+
+    private static final String EXPLAIN_SQL = "EXPLAIN SELECT id FROM churn_history WHERE ";
+
+    /**
+     * Total calculado para a busca.
+     *
+     * @param total quantidade de registros
+     * @param exact {@code true} se contado agora; {@code false} se estimado ou lido do cache
+     */
+    public record SearchTotal(long total, boolean exact) {}
+
+    private final PredictionHistoryRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<PredictionSearchFilter, Long> cache;
+    private final AtomicLong generation = new AtomicLong();
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Counter estimateFallbacks;
+
+    public PredictionSearchCounter(
+            PredictionHistoryRepository repository,
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.search.count-cache.ttl-seconds:60}") long ttlSeconds,
+            @Value("${app.search.count-cache.max-entries:1000}") long maxEntries) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .maximumSize(maxEntries)
+                .build();
+        this.cacheHits = Counter.builder("churn.search.count.cache")
+                .tag("result", "hit")
+                .description("Totais de busca servidos pelo cache de contagem")
+                .register(meterRegistry);
+        this.cacheMisses = Counter.builder("churn.search.count.cache")
+                .tag("result", "miss")
+                .description("Totais de busca contados por ausência no cache")
+                .register(meterRegistry);
+        this.estimateFallbacks = Counter.builder("churn.search.count.estimate.fallback")
+                .description("Estimativas via EXPLAIN que falharam e foram contadas de forma exata")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Calcula o total para o filtro já normalizado.
+     *
+     * @param resolvedUserIds userIds resolvidos pelo índice em memória, ou null para filtrar
+     *                        o userId no banco
+     */
+    public SearchTotal count(PredictionSearchFilter filter, Collection<String> resolvedUserIds, CountStrategy strategy) {
+        return switch (strategy) {
+            case EXACT -> new SearchTotal(exactCount(filter, resolvedUserIds), true);
+            case CACHED -> cachedCount(filter, resolvedUserIds);
+            case ESTIMATED -> estimatedCount(filter, resolvedUserIds);
+        };
+    }
+
+    @Override
+    public void onHistoriesPersisted(List<PredictionHistory> histories) {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private long exactCount(PredictionSearchFilter filter, Collection<String> resolvedUserIds) {
+        return repository.count(PredictionHistorySpecification.withFilters(filter, resolvedUserIds));
+    }
+
+    // A chave é só o filtro: com ou sem o índice de userIds o resultado exato é o mesmo
+    private SearchTotal cachedCount(PredictionSearchFilter filter, Collection<String> resolvedUserIds) {
+        Long cached = cache.getIfPresent(filter);
+        if (cached != null) {
+            cacheHits.increment();
+            return new SearchTotal(cached, false);
+        }
+        cacheMisses.increment();
+        long before = generation.get();
+        long total = exactCount(filter, resolvedUserIds);
+        if (generation.get() == before) {
+            cache.put(filter, total);
+        }
+        return new SearchTotal(total, true);
+    }
+
+    private SearchTotal estimatedCount(PredictionSearchFilter filter, Collection<String> resolvedUserIds) {
+        PredictionSearchSql sql = PredictionSearchSql.of(filter, resolvedUserIds);
+        try {
+            Long estimate = jdbcTemplate.query(EXPLAIN_SQL + sql.where(), rs -> {
+                if (!rs.next()) return null;
+                long rows = rs.getLong("rows");
+                double filtered = rs.getDouble("filtered");
+                if (rs.wasNull()) filtered = 100.0;
+                return Math.round(rows * filtered / 100.0);
+            }, sql.params().toArray());
+            if (estimate != null) {
+                return new SearchTotal(estimate, false);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Estimativa de contagem via EXPLAIN falhou, usando contagem exata: {}", e.getMessage());
+        }
+        estimateFallbacks.increment();
+        return new SearchTotal(exactCount(filter, resolvedUserIds), true);
+    }
+}
@@ -0,0 +1,165 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.adapter;
+
+import com.hackathon.databeats.churninsight.application.dto.NewRetentionAction;
+import com.hackathon.databeats.churninsight.application.dto.RetentionActionRef;
+import com.hackathon.databeats.churninsight.application.dto.RetentionTarget;
+import com.hackathon.databeats.churninsight.application.port.output.RetentionActionBulkPort;
+import com.hackathon.databeats.churninsight.domain.enums.RetentionActionStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Adapter JDBC das operações de retenção em lote.
+ *
+ * <p>As listas de ids viram {@code IN (...)} em blocos de {@value #IN_CHUNK} (chave primária);
+ * as inserções usam batch JDBC, que o Connector/J reescreve em INSERT multi-linha com
+ * {@code rewriteBatchedStatements=true}.</p>
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+@Component
+public class RetentionActionJdbcAdapter implements RetentionActionBulkPort {
+
+    static final int IN_CHUNK = 1000;
+
+    private static final String SELECT_CLIENTS_SQL = "SELECT id, user_id FROM churn_history WHERE id IN (%s)";
+
+    // Ordem fixa de bloqueio entre transações concorrentes sobre ids em comum
+    private static final String LOCK_ACTIONS_SQL =
+        "SELECT id, client_id, user_id, status FROM retention_action WHERE id IN (%s) ORDER BY id FOR UPDATE";
+
+    private static final String OPEN_STATUSES = Arrays.stream(RetentionActionStatus.values())
+            .filter(RetentionActionStatus::isOpen)
+            .map(status -> "'" + status.name() + "'")
+            .collect(Collectors.joining(","));
+
+    // Mesma faixa e ordem da lista priorizada (idx_clp_probability); a ação aberta é procurada
+    // por idx_retention_action_user_created
+    private static final String SELECT_TOP_RISK_SQL = """
+        SELECT l.history_id, l.user_id
+        FROM customer_latest_prediction l
+        WHERE l.probability >= ?
+          AND (? IS NULL OR l.subscription_type = ?)
+          AND (? = FALSE OR NOT EXISTS (
+                SELECT 1 FROM retention_action ra
+                WHERE ra.user_id = l.user_id AND ra.status IN (%s)))
+        ORDER BY l.probability DESC, l.user_id
+        LIMIT ?
+        """.formatted(OPEN_STATUSES);
+
+    private static final String INSERT_SQL =
+        "INSERT INTO retention_action (" +
+        "id, client_id, user_id, action_type, channel, status, owner, scheduled_at, notes, created_at" +
+        ") VALUES (?,?,?,?,?,?,?,?,?,?)";
+
+    private static final String UPDATE_STATUS_SQL =
+        "UPDATE retention_action SET status = ?, executed_at = COALESCE(?, executed_at) WHERE id IN (%s) AND status <> ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RetentionActionJdbcAdapter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RetentionTarget> findClients(Collection<String> clientIds) {
+        List<RetentionTarget> found = new ArrayList<>(clientIds.size());
+        for (List<String> chunk : chunks(clientIds)) {
+            jdbcTemplate.query(SELECT_CLIENTS_SQL.formatted(placeholders(chunk.size())),
+                    rs -> {
+                        found.add(new RetentionTarget(rs.getString("id"), rs.getString("user_id")));
+                    },
+                    chunk.toArray());
+        }
+        return found;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<RetentionTarget> findTopRisk(double cutoff, String subscriptionType, boolean withoutOpenAction, int limit) {
+        return jdbcTemplate.query(SELECT_TOP_RISK_SQL,
+                (rs, rowNum) -> new RetentionTarget(rs.getString("history_id"), rs.getString("user_id")),
+                cutoff, subscriptionType, subscriptionType, withoutOpenAction, limit);
+    }
+
+    @Override
+    @Transactional
+    public void insertAll(List<NewRetentionAction> actions) {
+        if (actions.isEmpty()) return;
+        jdbcTemplate.batchUpdate(INSERT_SQL, actions, IN_CHUNK, (ps, action) -> {
+            int col = 1;
+            ps.setString(col++, action.id());
+            ps.setString(col++, action.clientId());
+            ps.setString(col++, action.userId());
+            ps.setString(col++, action.actionType().name());
+            ps.setString(col++, action.channel().name());
+            ps.setString(col++, action.status().name());
+            ps.setString(col++, action.owner());
+            ps.setTimestamp(col++, action.scheduledAt() != null ? Timestamp.valueOf(action.scheduledAt()) : null);
+            ps.setString(col++, action.notes());
+            ps.setTimestamp(col++, Timestamp.valueOf(action.createdAt()));
+        });
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<RetentionActionRef> lockActions(Collection<String> actionIds) {
+        List<RetentionActionRef> found = new ArrayList<>(actionIds.size());
+        for (List<String> chunk : chunks(actionIds)) {
+            jdbcTemplate.query(LOCK_ACTIONS_SQL.formatted(placeholders(chunk.size())),
+                    rs -> {
+                        found.add(new RetentionActionRef(
+                                rs.getString("id"),
+                                rs.getString("client_id"),
+                                rs.getString("user_id"),
+                                RetentionActionStatus.valueOf(rs.getString("status"))));
+                    },
+                    chunk.toArray());
+        }
+        return found;
+    }
+
+    @Override
+    @Transactional
+    public int updateStatus(Collection<String> actionIds, RetentionActionStatus status, LocalDateTime executedAt) {
+        Timestamp executed = executedAt != null ? Timestamp.valueOf(executedAt) : null;
+        int updated = 0;
+        for (List<String> chunk : chunks(actionIds)) {
+            List<Object> args = new ArrayList<>(chunk.size() + 3);
+            args.add(status.name());
+            args.add(executed);
+            args.addAll(chunk);
+            args.add(status.name());
+            updated += jdbcTemplate.update(UPDATE_STATUS_SQL.formatted(placeholders(chunk.size())), args.toArray());
+        }
+        return updated;
+    }
+
+    // === MÉTODOS PRIVADOS ===
+
+    private static List<List<String>> chunks(Collection<String> ids) {
+        List<String> all = List.copyOf(ids);
+        List<List<String>> chunks = new ArrayList<>((all.size() / IN_CHUNK) + 1);
+        for (int i = 0; i < all.size(); i += IN_CHUNK) {
+            chunks.add(all.subList(i, Math.min(i + IN_CHUNK, all.size())));
+        }
+        return chunks;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+}
@@ -0,0 +1,65 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.adapter;
+
+import com.hackathon.databeats.churninsight.application.dto.RetentionKpiGroup;
+import com.hackathon.databeats.churninsight.application.dto.RetentionKpiTotals;
+import com.hackathon.databeats.churninsight.application.port.output.RetentionKpiQueryPort;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Adapter dos totais de KPIs de retenção.
+ *
+ * <p>Os totais saem do rollup diário retention_kpi_daily (mantido por
+ * {@code RetentionKpiRollup}): uma varredura por faixa de dias na chave primária, com
+ * algumas linhas por dia, em vez de percorrer as ações e resultados do período.</p>
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+@Component
+@Transactional(readOnly = true)
+public class RetentionKpiQueryAdapter implements RetentionKpiQueryPort {
+
+    private static final String KPI_SQL = """
+        SELECT channel, owner,
+               SUM(total_actions),
+               SUM(executed_actions),
+               SUM(total_outcomes),
+               SUM(retained_count),
+               SUM(recovered_revenue)
+        FROM retention_kpi_daily
+        WHERE day BETWEEN ? AND ?
+        GROUP BY channel, owner
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Timer kpiTimer;
+
+    public RetentionKpiQueryAdapter(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.kpiTimer = Timer.builder("churn.dashboard.query")
+                .tag("query", "retention_kpis")
+                .description("Tempo das consultas agregadas do dashboard e dos KPIs")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<RetentionKpiGroup> totalsByChannelAndOwner(LocalDate from, LocalDate to) {
+        return kpiTimer.record(() -> jdbcTemplate.query(KPI_SQL, (rs, rowNum) -> new RetentionKpiGroup(
+                rs.getString(1),
+                rs.getString(2).isEmpty() ? null : rs.getString(2),
+                new RetentionKpiTotals(
+                        rs.getLong(3),
+                        rs.getLong(4),
+                        rs.getLong(5),
+                        rs.getLong(6),
+                        rs.getDouble(7))), Date.valueOf(from), Date.valueOf(to)));
+    }
+}
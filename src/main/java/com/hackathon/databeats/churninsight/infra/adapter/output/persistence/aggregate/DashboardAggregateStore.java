@@ -0,0 +1,546 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.aggregate;
+
+import com.hackathon.databeats.churninsight.application.dto.DashboardAggregates;
+import com.hackathon.databeats.churninsight.application.dto.RiskCutoff;
+import com.hackathon.databeats.churninsight.application.port.output.DashboardAggregatePort;
+import com.hackathon.databeats.churninsight.application.port.output.RiskCutoffPort;
+import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
+import com.hackathon.databeats.churninsight.domain.rules.ChurnBusinessRules;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.event.LatestPredictionChange;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.event.LatestPredictionSnapshot;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.event.PredictionWriteListener;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.event.PredictionWritePublisher;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.repository.CustomerLatestPredictionRepository;
+import com.hackathon.databeats.churninsight.infra.config.DataSourceRole;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Agregados do dashboard mantidos em memória e reconciliados com a tabela dashboard_aggregate.
+ *
+ * <p>Os contadores ficam por tipo de assinatura e são ajustados a cada mudança efetiva da
+ * projeção customer_latest_prediction (o estado anterior do cliente sai, o novo entra), de
+ * forma que a leitura custa apenas a soma de poucos planos.</p>
+ *
+ * <p>Periodicamente os agregados são recalculados de forma exata com uma única varredura da
+ * projeção e gravados em dashboard_aggregate. A diferença entre os contadores em memória e o
+ * valor exato é exposta em {@code churn.dashboard.aggregate.drift}; as mudanças recebidas
+ * durante a reconciliação são reaplicadas sobre o resultado exato.</p>
+ *
+ * <p>Uma mudança commitada antes do snapshot pode ser publicada depois de a reconciliação
+ * começar. Por isso, ainda na transação do snapshot, a reconciliação espera a publicação de tudo
+ * o que foi commitado antes dele ({@link PredictionWritePublisher#awaitPublished}) e consulta o
+ * history_id que o snapshot tem para cada cliente dessas mudanças: só são reaplicadas as que
+ * seguem esse estado. As publicadas depois da consulta são todas posteriores ao snapshot.
+ * O snapshot é lido do primário: numa réplica atrasada faltariam mudanças já publicadas.</p>
+ *
+ * <p>Cada plano também mantém um {@link ProbabilityHistogram}. A soma dos histogramas fornece o
+ * corte do TOP 25% ({@link RiskCutoffPort}) e a distribuição do TOP 25% por plano sem ranquear a
+ * base. Os histogramas são reconstruídos na reconciliação e persistidos junto com os agregados.
+ * Com {@code app.risk-cutoff.mode=exact} o corte é recalculado na base a cada consulta.</p>
+ */
+@Slf4j
+@Component
+public class DashboardAggregateStore implements DashboardAggregatePort, RiskCutoffPort, PredictionWriteListener {
+
+    // Layout dos contadores de cada plano
+    static final int TOTAL = 0;
+    static final int WILL_CHURN = 1;
+    static final int RISK_FREE_HIGH_ADS = 2;
+    static final int RISK_HIGH_SKIP_RATE = 3;
+    static final int RISK_HIGH_FRUSTRATION = 4;
+    static final int RISK_PREMIUM_NO_OFFLINE = 5;
+    static final int RISK_LOW_LISTENING = 6;
+    static final int BUCKET_VERY_LOW = 7;
+    static final int BUCKET_LOW = 8;
+    static final int BUCKET_MEDIUM = 9;
+    static final int BUCKET_HIGH = 10;
+    static final int COUNTERS = 11;
+
+    private static final double TOP_FRACTION = 0.25;
+    private static final int IN_CHUNK = 1000;
+    private static final long PUBLISH_TIMEOUT_MS = 5_000;
+
+    private static final int[] RISK_FLAGS = {
+            ChurnBusinessRules.RISK_FREE_HIGH_ADS,
+            ChurnBusinessRules.RISK_HIGH_SKIP_RATE,
+            ChurnBusinessRules.RISK_HIGH_FRUSTRATION,
+            ChurnBusinessRules.RISK_PREMIUM_NO_OFFLINE,
+            ChurnBusinessRules.RISK_LOW_LISTENING
+    };
+
+    private static final String EXACT_SQL = """
+        SELECT COALESCE(subscription_type, '') AS plan,
+               COUNT(*),
+               SUM(churn_status = 'WILL_CHURN'),
+               SUM(subscription_type = 'Free' AND ads_listened_per_week > 15),
+               SUM(skip_rate > 0.4),
+               SUM(frustration_index IS NOT NULL AND frustration_index > 3.0),
+               SUM(premium_no_offline = TRUE),
+               SUM(listening_time < 100),
+               SUM(probability < 0.2),
+               SUM(probability >= 0.2 AND probability < 0.5),
+               SUM(probability >= 0.5 AND probability < 0.7),
+               SUM(probability >= 0.7)
+        FROM customer_latest_prediction
+        GROUP BY COALESCE(subscription_type, '')
+        """;
+
+    private static final String EXACT_HISTOGRAM_SQL = """
+        SELECT COALESCE(subscription_type, '') AS plan,
+               LEAST(%1$d, GREATEST(0, FLOOR(probability * %2$d))) AS bin,
+               COUNT(*)
+        FROM customer_latest_prediction
+        GROUP BY plan, bin
+        """.formatted(ProbabilityHistogram.BINS - 1, ProbabilityHistogram.BINS);
+
+    private static final String SNAPSHOT_HISTORY_IDS_SQL =
+            "SELECT user_id, history_id FROM customer_latest_prediction WHERE user_id IN (%s)";
+
+    private static final String SELECT_PERSISTED_SQL = """
+        SELECT subscription_type, total_customers, will_churn,
+               risk_free_high_ads, risk_high_skip_rate, risk_high_frustration,
+               risk_premium_no_offline, risk_low_listening,
+               bucket_very_low, bucket_low, bucket_medium, bucket_high,
+               probability_histogram, reconciled_at
+        FROM dashboard_aggregate
+        """;
+
+    private static final String INSERT_PERSISTED_SQL = """
+        INSERT INTO dashboard_aggregate (
+            subscription_type, total_customers, will_churn,
+            risk_free_high_ads, risk_high_skip_rate, risk_high_frustration,
+            risk_premium_no_offline, risk_low_listening,
+            bucket_very_low, bucket_low, bucket_medium, bucket_high,
+            top25_customers, probability_histogram, reconciled_at
+        ) VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?,?,?)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CustomerLatestPredictionRepository latestPredictionRepository;
+    private final PredictionWritePublisher publisher;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+    private final boolean enabled;
+    private final boolean exactCutoff;
+    private final Timer reconcileTimer;
+    private final AtomicLong lastDrift = new AtomicLong();
+
+    private final Object lock = new Object();
+    private final Object reconcileLock = new Object();
+
+    // Protegidos por lock
+    private Map<String, PlanState> live = new HashMap<>();
+    private List<LatestPredictionChange> pendingDuringReconcile;
+    private LocalDateTime reconciledAt;
+    private boolean ready;
+
+    public DashboardAggregateStore(
+            JdbcTemplate jdbcTemplate,
+            CustomerLatestPredictionRepository latestPredictionRepository,
+            PredictionWritePublisher publisher,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.dashboard.aggregates.enabled:true}") boolean enabled,
+            @Value("${app.risk-cutoff.mode:sketch}") String cutoffMode) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.latestPredictionRepository = latestPredictionRepository;
+        this.publisher = publisher;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        // Todas as consultas da reconciliação precisam ver o mesmo snapshot
+        this.readTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.exactCutoff = "exact".equalsIgnoreCase(cutoffMode);
+        this.reconcileTimer = Timer.builder("churn.dashboard.aggregate.reconcile")
+                .description("Tempo da reconciliação exata dos agregados do dashboard")
+                .register(meterRegistry);
+        Gauge.builder("churn.dashboard.aggregate.drift", lastDrift, AtomicLong::get)
+                .description("Diferença absoluta entre os contadores em memória e a última reconciliação exata")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Optional<DashboardAggregates> current() {
+        if (!enabled) return Optional.empty();
+        long[] totals = new long[COUNTERS];
+        Map<String, Long> byPlan = new HashMap<>();
+        Map<String, Long> sketchTop25ByPlan = new HashMap<>();
+        LocalDateTime asOf;
+        synchronized (lock) {
+            if (!ready) return Optional.empty();
+            ProbabilityHistogram merged = mergedHistogram();
+            int cutoffBin = merged.upperFractionBin(TOP_FRACTION);
+            live.forEach((plan, state) -> {
+                add(totals, state.counters(), 1);
+                if (state.counters()[TOTAL] > 0) byPlan.put(plan, state.counters()[TOTAL]);
+                long top25 = cutoffBin < 0 ? 0 : state.histogram().countFromBin(cutoffBin);
+                if (top25 > 0) sketchTop25ByPlan.put(plan, top25);
+            });
+            asOf = reconciledAt;
+        }
+        Map<String, Long> top25ByPlan = exactCutoff ? exactTop25ByPlan(top25Cutoff()) : sketchTop25ByPlan;
+        long customersAtRisk = top25ByPlan.values().stream().mapToLong(Long::longValue).sum();
+        return Optional.of(new DashboardAggregates(
+                totals[TOTAL],
+                totals[WILL_CHURN],
+                totals[TOTAL] - totals[WILL_CHURN],
+                customersAtRisk,
+                new DashboardAggregates.RiskFactorCounts(
+                        totals[RISK_FREE_HIGH_ADS], totals[RISK_HIGH_SKIP_RATE], totals[RISK_HIGH_FRUSTRATION],
+                        totals[RISK_PREMIUM_NO_OFFLINE], totals[RISK_LOW_LISTENING]),
+                new DashboardAggregates.ProbabilityBuckets(
+                        totals[BUCKET_VERY_LOW], totals[BUCKET_LOW], totals[BUCKET_MEDIUM], totals[BUCKET_HIGH]),
+                Map.copyOf(byPlan),
+                Map.copyOf(top25ByPlan),
+                asOf));
+    }
+
+    @Override
+    public RiskCutoff top25Cutoff() {
+        if (enabled && !exactCutoff) {
+            synchronized (lock) {
+                if (ready) {
+                    ProbabilityHistogram merged = mergedHistogram();
+                    int bin = merged.upperFractionBin(TOP_FRACTION);
+                    double cutoff = bin < 0 ? 0.0 : ProbabilityHistogram.lowerBound(bin);
+                    return new RiskCutoff(cutoff, merged.total(), false);
+                }
+            }
+        }
+        return exactTop25Cutoff();
+    }
+
+    /**
+     * Corte exato: probabilidade do cliente na posição {@code ceil(total * 0.25)}, lida pelo
+     * índice de probabilidade.
+     */
+    private RiskCutoff exactTop25Cutoff() {
+        long total = latestPredictionRepository.count();
+        long k = (long) Math.ceil(total * TOP_FRACTION);
+        if (k == 0) return new RiskCutoff(0.0, 0L, true);
+        Double cutoff = latestPredictionRepository.findProbabilityAtRankFromTop(k - 1);
+        return new RiskCutoff(cutoff != null ? cutoff : 0.0, total, true);
+    }
+
+    private Map<String, Long> exactTop25ByPlan(RiskCutoff cutoff) {
+        Map<String, Long> top25 = new HashMap<>();
+        if (cutoff.totalCustomers() == 0) return top25;
+        for (Object[] row : latestPredictionRepository.getSubscriptionCountsAtOrAbove(cutoff.probability())) {
+            String plan = row[0] == null ? "" : String.valueOf(row[0]);
+            top25.merge(plan, ((Number) row[1]).longValue(), Long::sum);
+        }
+        return top25;
+    }
+
+    private ProbabilityHistogram mergedHistogram() {
+        ProbabilityHistogram merged = new ProbabilityHistogram();
+        live.values().forEach(state -> merged.merge(state.histogram()));
+        return merged;
+    }
+
+    @Override
+    public void onLatestPredictionsChanged(List<LatestPredictionChange> changes) {
+        if (!enabled) return;
+        synchronized (lock) {
+            for (LatestPredictionChange change : changes) {
+                apply(live, change);
+                if (pendingDuringReconcile != null) pendingDuringReconcile.add(change);
+            }
+        }
+    }
+
+    /**
+     * Carrega o último estado persistido e em seguida reconcilia com a projeção.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (!enabled) return;
+        try {
+            loadPersisted();
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível carregar dashboard_aggregate, aguardando reconciliação: {}", e.getMessage());
+        }
+        reconcile();
+    }
+
+    /**
+     * Recalcula os agregados de forma exata, persiste em dashboard_aggregate e substitui os
+     * contadores em memória, reportando a divergência encontrada.
+     */
+    @Scheduled(initialDelayString = "${app.dashboard.aggregates.reconcile-interval-ms:300000}",
+               fixedDelayString = "${app.dashboard.aggregates.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        if (!enabled) return;
+        synchronized (reconcileLock) {
+            synchronized (lock) {
+                pendingDuringReconcile = new ArrayList<>();
+            }
+            try {
+                Timer.Sample sample = Timer.start();
+                ReconcileSnapshot snapshot = DataSourceRole.callAs(DataSourceRole.INTERACTIVE_WRITER,
+                        () -> readTransaction.execute(status -> readSnapshot()));
+                ExactAggregates exact = snapshot.exact();
+                LocalDateTime now = LocalDateTime.now();
+                writeTransaction.executeWithoutResult(status -> persist(exact, now));
+
+                long drift;
+                boolean hadState;
+                synchronized (lock) {
+                    Map<String, PlanState> reconciled = copy(exact.plans());
+                    snapshot.afterSnapshot().forEach(change -> apply(reconciled, change));
+                    pendingDuringReconcile.subList(snapshot.checked(), pendingDuringReconcile.size())
+                            .forEach(change -> apply(reconciled, change));
+                    drift = drift(live, reconciled);
+                    hadState = ready;
+                    live = reconciled;
+                    reconciledAt = now;
+                    ready = true;
+                    pendingDuringReconcile = null;
+                }
+                sample.stop(reconcileTimer);
+                if (hadState) {
+                    lastDrift.set(drift);
+                    if (drift > 0) log.warn("Agregados do dashboard divergiam em {} unidades; corrigidos na reconciliação", drift);
+                }
+                log.debug("Agregados do dashboard reconciliados: {} planos", exact.plans().size());
+            } catch (RuntimeException e) {
+                synchronized (lock) {
+                    pendingDuringReconcile = null;
+                }
+                log.error("Falha ao reconciliar agregados do dashboard: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Lê os agregados exatos e separa, entre as mudanças publicadas até aqui, as que o snapshot
+     * ainda não contém.
+     */
+    private ReconcileSnapshot readSnapshot() {
+        ExactAggregates exact = loadExact();
+        // O snapshot já foi aberto: o que foi commitado antes dele registrou a publicação antes desta marca
+        publisher.awaitPublished(publisher.publicationMark(), PUBLISH_TIMEOUT_MS);
+        List<LatestPredictionChange> published;
+        synchronized (lock) {
+            published = List.copyOf(pendingDuringReconcile);
+        }
+        return new ReconcileSnapshot(exact, afterSnapshot(published, snapshotHistoryIds(published)), published.size());
+    }
+
+    private Map<String, String> snapshotHistoryIds(List<LatestPredictionChange> changes) {
+        List<String> userIds = changes.stream().map(c -> c.current().userId()).distinct().toList();
+        Map<String, String> historyIds = new HashMap<>(userIds.size() * 2);
+        for (int i = 0; i < userIds.size(); i += IN_CHUNK) {
+            List<String> chunk = userIds.subList(i, Math.min(i + IN_CHUNK, userIds.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.query(SNAPSHOT_HISTORY_IDS_SQL.formatted(placeholders), rs -> {
+                historyIds.put(rs.getString(1), rs.getString(2));
+            }, chunk.toArray());
+        }
+        return historyIds;
+    }
+
+    /**
+     * Mudanças que o snapshot não contém. As mudanças de um cliente formam uma cadeia (o upsert
+     * bloqueia a linha, então o estado anterior de cada uma é o atual da anterior): a partir do
+     * history_id do snapshot seguem-se os elos; as que ficam de fora já estavam no snapshot.
+     *
+     * @param snapshotHistoryIds history_id de cada cliente no snapshot (ausente se não existia)
+     */
+    static List<LatestPredictionChange> afterSnapshot(List<LatestPredictionChange> changes,
+                                                      Map<String, String> snapshotHistoryIds) {
+        Map<String, List<LatestPredictionChange>> byUser = new LinkedHashMap<>();
+        changes.forEach(c -> byUser.computeIfAbsent(c.current().userId(), k -> new ArrayList<>()).add(c));
+
+        List<LatestPredictionChange> after = new ArrayList<>();
+        for (Map.Entry<String, List<LatestPredictionChange>> entry : byUser.entrySet()) {
+            String historyId = snapshotHistoryIds.get(entry.getKey());
+            Iterator<LatestPredictionChange> it = entry.getValue().iterator();
+            while (it.hasNext()) {
+                LatestPredictionChange change = it.next();
+                String previousId = change.previous() == null ? null : change.previous().historyId();
+                if (!Objects.equals(previousId, historyId)) continue;
+                after.add(change);
+                it.remove();
+                historyId = change.current().historyId();
+                // Publicações podem chegar fora de ordem: o próximo elo pode estar antes deste
+                it = entry.getValue().iterator();
+            }
+        }
+        return after;
+    }
+
+    private ExactAggregates loadExact() {
+        Map<String, PlanState> plans = new HashMap<>();
+        jdbcTemplate.query(EXACT_SQL, rs -> {
+            PlanState state = plans.computeIfAbsent(rs.getString(1), k -> PlanState.empty());
+            for (int i = 0; i < COUNTERS; i++) state.counters()[i] = rs.getLong(i + 2);
+        });
+        jdbcTemplate.query(EXACT_HISTOGRAM_SQL, rs -> {
+            plans.computeIfAbsent(rs.getString(1), k -> PlanState.empty())
+                    .histogram().addToBin(rs.getInt(2), rs.getLong(3));
+        });
+        return new ExactAggregates(plans);
+    }
+
+    /**
+     * Persiste os contadores atuais (incluindo os histogramas) no encerramento, para que a
+     * próxima inicialização parta de um estado recente.
+     */
+    @PreDestroy
+    public void persistOnShutdown() {
+        if (!enabled) return;
+        Map<String, PlanState> snapshot;
+        LocalDateTime asOf;
+        synchronized (lock) {
+            if (!ready) return;
+            snapshot = copy(live);
+            asOf = reconciledAt;
+        }
+        try {
+            writeTransaction.executeWithoutResult(status -> persist(new ExactAggregates(snapshot), asOf));
+        } catch (RuntimeException e) {
+            log.warn("Não foi possível persistir os agregados do dashboard no encerramento: {}", e.getMessage());
+        }
+    }
+
+    private void persist(ExactAggregates aggregates, LocalDateTime reconciledAt) {
+        ProbabilityHistogram merged = new ProbabilityHistogram();
+        aggregates.plans().values().forEach(state -> merged.merge(state.histogram()));
+        int cutoffBin = merged.upperFractionBin(TOP_FRACTION);
+
+        jdbcTemplate.update("DELETE FROM dashboard_aggregate");
+        List<Map.Entry<String, PlanState>> rows = new ArrayList<>(aggregates.plans().entrySet());
+        Timestamp reconciled = Timestamp.valueOf(reconciledAt);
+        jdbcTemplate.batchUpdate(INSERT_PERSISTED_SQL, rows, rows.size(), (ps, row) -> {
+            PlanState state = row.getValue();
+            ps.setString(1, row.getKey());
+            for (int i = 0; i < COUNTERS; i++) ps.setLong(i + 2, state.counters()[i]);
+            ps.setLong(COUNTERS + 2, cutoffBin < 0 ? 0 : state.histogram().countFromBin(cutoffBin));
+            ps.setBytes(COUNTERS + 3, state.histogram().toBytes());
+            ps.setTimestamp(COUNTERS + 4, reconciled);
+        });
+    }
+
+    private void loadPersisted() {
+        Map<String, PlanState> plans = new HashMap<>();
+        LocalDateTime[] last = new LocalDateTime[1];
+        jdbcTemplate.query(SELECT_PERSISTED_SQL, rs -> {
+            byte[] histogram = rs.getBytes("probability_histogram");
+            PlanState state = new PlanState(new long[COUNTERS],
+                    histogram != null ? ProbabilityHistogram.fromBytes(histogram) : new ProbabilityHistogram());
+            for (int i = 0; i < COUNTERS; i++) state.counters()[i] = rs.getLong(i + 2);
+            plans.put(rs.getString("subscription_type"), state);
+            last[0] = rs.getTimestamp("reconciled_at").toLocalDateTime();
+        });
+        if (plans.isEmpty()) return;
+        synchronized (lock) {
+            if (ready) return;
+            live = plans;
+            reconciledAt = last[0];
+            ready = true;
+        }
+        log.info("Agregados do dashboard carregados de dashboard_aggregate ({} planos, reconciliados em {})",
+                plans.size(), last[0]);
+    }
+
+    static void apply(Map<String, PlanState> target, LatestPredictionChange change) {
+        if (change.previous() != null) {
+            PlanState state = target.computeIfAbsent(planKey(change.previous()), k -> PlanState.empty());
+            add(state.counters(), vector(change.previous()), -1);
+            state.histogram().remove(change.previous().probability());
+        }
+        PlanState state = target.computeIfAbsent(planKey(change.current()), k -> PlanState.empty());
+        add(state.counters(), vector(change.current()), 1);
+        state.histogram().add(change.current().probability());
+    }
+
+    private static long[] vector(LatestPredictionSnapshot snapshot) {
+        long[] v = new long[COUNTERS];
+        v[TOTAL] = 1;
+        v[WILL_CHURN] = snapshot.churnStatus() == ChurnStatus.WILL_CHURN ? 1 : 0;
+        for (int i = 0; i < RISK_FLAGS.length; i++) {
+            v[RISK_FREE_HIGH_ADS + i] = snapshot.hasRisk(RISK_FLAGS[i]) ? 1 : 0;
+        }
+        double p = snapshot.probability();
+        if (p < 0.2) v[BUCKET_VERY_LOW] = 1;
+        else if (p < 0.5) v[BUCKET_LOW] = 1;
+        else if (p < 0.7) v[BUCKET_MEDIUM] = 1;
+        else v[BUCKET_HIGH] = 1;
+        return v;
+    }
+
+    private static String planKey(LatestPredictionSnapshot snapshot) {
+        return snapshot.subscriptionType() == null ? "" : snapshot.subscriptionType();
+    }
+
+    private static void add(long[] target, long[] delta, int sign) {
+        for (int i = 0; i < COUNTERS; i++) target[i] += sign * delta[i];
+    }
+
+    /** Soma das diferenças absolutas dos contadores globais. */
+    static long drift(Map<String, PlanState> actual, Map<String, PlanState> expected) {
+        long[] a = new long[COUNTERS];
+        long[] e = new long[COUNTERS];
+        actual.values().forEach(v -> add(a, v.counters(), 1));
+        expected.values().forEach(v -> add(e, v.counters(), 1));
+        long drift = 0;
+        for (int i = 0; i < COUNTERS; i++) drift += Math.abs(a[i] - e[i]);
+        return drift;
+    }
+
+    private static Map<String, PlanState> copy(Map<String, PlanState> source) {
+        Map<String, PlanState> copy = new HashMap<>(source.size() * 2);
+        source.forEach((plan, state) -> copy.put(plan, state.copy()));
+        return copy;
+    }
+
+    /** Contadores e histograma de probabilidades de um plano. */
+    record PlanState(long[] counters, ProbabilityHistogram histogram) {
+
+        static PlanState empty() {
+            return new PlanState(new long[COUNTERS], new ProbabilityHistogram());
+        }
+
+        PlanState copy() {
+            return new PlanState(counters.clone(), histogram.copy());
+        }
+    }
+
+    private record ExactAggregates(Map<String, PlanState> plans) {
+    }
+
+    /**
+     * @param afterSnapshot mudanças publicadas até a verificação e ausentes do snapshot
+     * @param checked quantas mudanças pendentes foram verificadas; as seguintes são posteriores ao snapshot
+     */
+    private record ReconcileSnapshot(ExactAggregates exact, List<LatestPredictionChange> afterSnapshot, int checked) {
+    }
+}
@@ -0,0 +1,166 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.aggregate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Sketch de quantis para probabilidades em [0, 1] baseado em histograma de resolução fixa.
+ *
+ * <p>Diferente de t-digest/KLL, aceita remoção: quando a predição mais recente de um cliente
+ * muda, o valor antigo sai e o novo entra. Sketches de planos diferentes são combinados
+ * somando os contadores ({@link #merge}), e o erro de qualquer quantil fica limitado à
+ * largura de um bin ({@code 1 / BINS}).</p>
+ *
+ * <p>O bin de uma probabilidade é {@code floor(p * BINS)}, a mesma expressão usada na
+ * reconstrução exata via SQL. Não é thread-safe.</p>
+ */
+public final class ProbabilityHistogram {
+
+    public static final int BINS = 10_000;
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private final long[] counts;
+    private long total;
+
+    public ProbabilityHistogram() {
+        this(new long[BINS], 0L);
+    }
+
+    private ProbabilityHistogram(long[] counts, long total) {
+        this.counts = counts;
+        this.total = total;
+    }
+
+    public static int binOf(double probability) {
+        if (!(probability > 0.0)) return 0;
+        return (int) Math.min(BINS - 1, Math.floor(probability * BINS));
+    }
+
+    /** Limite inferior do bin: todo valor do bin satisfaz {@code p >= lowerBound(bin)}. */
+    public static double lowerBound(int bin) {
+        return (double) bin / BINS;
+    }
+
+    public void add(double probability) {
+        addToBin(binOf(probability), 1);
+    }
+
+    public void remove(double probability) {
+        addToBin(binOf(probability), -1);
+    }
+
+    public void addToBin(int bin, long delta) {
+        counts[bin] += delta;
+        total += delta;
+    }
+
+    public void merge(ProbabilityHistogram other) {
+        for (int i = 0; i < BINS; i++) counts[i] += other.counts[i];
+        total += other.total;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    public ProbabilityHistogram copy() {
+        return new ProbabilityHistogram(counts.clone(), total);
+    }
+
+    /**
+     * Bin que contém o k-ésimo maior valor, ou -1 se o sketch tiver menos de k valores.
+     */
+    public int binOfRankFromTop(long k) {
+        if (k <= 0 || k > total) return -1;
+        long acc = 0;
+        for (int bin = BINS - 1; bin >= 0; bin--) {
+            acc += counts[bin];
+            if (acc >= k) return bin;
+        }
+        return -1;
+    }
+
+    /**
+     * Bin limite da fração superior informada: os bins a partir dele somam ao menos
+     * {@code ceil(total * fraction)} valores, excedendo apenas pelos empates do bin limite.
+     *
+     * @return bin limite, ou -1 se o sketch estiver vazio
+     */
+    public int upperFractionBin(double fraction) {
+        return binOfRankFromTop((long) Math.ceil(total * fraction));
+    }
+
+    /** Quantidade de valores nos bins maiores ou iguais a {@code bin}. */
+    public long countFromBin(int bin) {
+        long acc = 0;
+        for (int i = Math.max(0, bin); i < BINS; i++) acc += counts[i];
+        return acc;
+    }
+
+    /**
+     * Serializa apenas os bins não vazios: versão, quantidade de bins preenchidos e pares
+     * (distância desde o bin anterior, contagem) em varint.
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        out.write(FORMAT_VERSION);
+        int nonZero = 0;
+        for (long c : counts) if (c != 0) nonZero++;
+        writeVarLong(out, nonZero);
+        int previous = 0;
+        for (int bin = 0; bin < BINS; bin++) {
+            if (counts[bin] == 0) continue;
+            writeVarLong(out, bin - previous);
+            writeVarLong(out, (counts[bin] << 1) ^ (counts[bin] >> 63));
+            previous = bin;
+        }
+        return out.toByteArray();
+    }
+
+    public static ProbabilityHistogram fromBytes(byte[] bytes) {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        byte version = in.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Versão de histograma não suportada: " + version);
+        }
+        ProbabilityHistogram histogram = new ProbabilityHistogram();
+        long nonZero = readVarLong(in);
+        int bin = 0;
+        for (long i = 0; i < nonZero; i++) {
+            bin += (int) readVarLong(in);
+            long zigzag = readVarLong(in);
+            histogram.addToBin(bin, (zigzag >>> 1) ^ -(zigzag & 1));
+        }
+        return histogram;
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IllegalArgumentException("Varint malformado");
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ProbabilityHistogram other && total == other.total && Arrays.equals(counts, other.counts);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(counts);
+    }
+}
@@ -0,0 +1,256 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.aggregate;
+
+import com.hackathon.databeats.churninsight.application.dto.RetentionKpiTotals;
+import com.hackathon.databeats.churninsight.application.port.output.RetentionKpiRollupPort;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rollup diário dos KPIs de retenção (retention_kpi_daily), por dia de criação da ação,
+ * canal, tipo de ação e responsável.
+ *
+ * <p>As gravações somam deltas com {@code INSERT ... SELECT ... ON DUPLICATE KEY UPDATE}: a
+ * chave de cada ação é lida de retention_action pela chave primária, então o chamador só
+ * informa os ids e a variação.</p>
+ *
+ * <p>Os deltas são gravados na transação do chamador, junto da ação ou do resultado, e
+ * bloqueiam as linhas do rollup que tocam até o commit.</p>
+ *
+ * <p>Os últimos {@code reconcile-days} dias são recalculados periodicamente a partir de
+ * retention_action e retention_outcome e substituídos em uma transação por bloco de dias. Cada
+ * bloco bloqueia primeiro a faixa de dias do rollup ({@code SELECT ... FOR UPDATE}, que em
+ * REPEATABLE READ inclui os intervalos vazios) e só depois lê as tabelas brutas: deltas já
+ * gravados e não commitados terminam antes da leitura e entram nela; deltas posteriores esperam
+ * a substituição e somam sobre ela. A diferença encontrada é exposta em
+ * {@code churn.retention.kpi.rollup.drift}. {@link #rebuild} recalcula qualquer período da
+ * mesma forma.</p>
+ */
+@Slf4j
+@Component
+public class RetentionKpiRollup implements RetentionKpiRollupPort {
+
+    static final int IN_CHUNK = 1000;
+    private static final int BACKFILL_CHUNK_DAYS = 31;
+
+    private static final String ADD_DELTA_SQL = """
+        INSERT INTO retention_kpi_daily (
+            day, channel, action_type, owner,
+            total_actions, executed_actions, total_outcomes, retained_count, recovered_revenue
+        )
+        SELECT DATE(created_at), channel, action_type, COALESCE(owner, ''),
+               COUNT(*) * ?, COUNT(*) * ?, COUNT(*) * ?, COUNT(*) * ?, COUNT(*) * ?
+        FROM retention_action
+        WHERE id IN (%s)
+        GROUP BY DATE(created_at), channel, action_type, COALESCE(owner, '')
+        ORDER BY 1, 2, 3, 4
+        ON DUPLICATE KEY UPDATE
+            total_actions = total_actions + VALUES(total_actions),
+            executed_actions = executed_actions + VALUES(executed_actions),
+            total_outcomes = total_outcomes + VALUES(total_outcomes),
+            retained_count = retained_count + VALUES(retained_count),
+            recovered_revenue = recovered_revenue + VALUES(recovered_revenue)
+        """;
+
+    // Faixa em idx_retention_action_created_at; o resultado (no máximo um) pela chave única
+    private static final String EXACT_SQL = """
+        SELECT DATE(a.created_at), a.channel, a.action_type, COALESCE(a.owner, ''),
+               COUNT(*),
+               SUM(a.status = 'EXECUTED'),
+               COUNT(o.action_id),
+               COALESCE(SUM(o.retained), 0),
+               COALESCE(SUM(o.recovered_revenue), 0)
+        FROM retention_action a
+        LEFT JOIN retention_outcome o ON o.action_id = a.id
+        WHERE a.created_at >= ? AND a.created_at < ?
+        GROUP BY DATE(a.created_at), a.channel, a.action_type, COALESCE(a.owner, '')
+        """;
+
+    // Bloqueia a faixa da chave primária (day, ...) e os intervalos entre as linhas
+    private static final String LOCK_STORED_SQL = """
+        SELECT day, channel, action_type, owner,
+               total_actions, executed_actions, total_outcomes, retained_count, recovered_revenue
+        FROM retention_kpi_daily
+        WHERE day BETWEEN ? AND ?
+        FOR UPDATE
+        """;
+
+    private static final String FIRST_DAY_SQL = "SELECT MIN(created_at) FROM retention_action";
+
+    private static final String DELETE_RANGE_SQL = "DELETE FROM retention_kpi_daily WHERE day BETWEEN ? AND ?";
+
+    private static final String INSERT_SQL = """
+        INSERT INTO retention_kpi_daily (
+            day, channel, action_type, owner,
+            total_actions, executed_actions, total_outcomes, retained_count, recovered_revenue
+        ) VALUES (?,?,?,?,?,?,?,?,?)
+        """;
+
+    private record Bucket(LocalDate day, String channel, String actionType, String owner) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate writeTransaction;
+    private final int reconcileDays;
+    private final Timer reconcileTimer;
+    private final AtomicLong lastDrift = new AtomicLong();
+
+    public RetentionKpiRollup(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.retention.kpi-rollup.reconcile-days:7}") int reconcileDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        // O bloqueio da faixa depende dos gap locks do REPEATABLE READ
+        this.writeTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.reconcileDays = Math.max(1, reconcileDays);
+        this.reconcileTimer = Timer.builder("churn.retention.kpi.rollup.reconcile")
+                .description("Tempo do recálculo exato do rollup diário de KPIs de retenção")
+                .register(meterRegistry);
+        Gauge.builder("churn.retention.kpi.rollup.drift", lastDrift, AtomicLong::get)
+                .description("Diferença absoluta de contagens entre o rollup e o último recálculo exato")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void add(Collection<String> actionIds, RetentionKpiTotals deltaPerAction) {
+        if (actionIds.isEmpty() || deltaPerAction.isZero()) return;
+        List<String> ids = List.copyOf(actionIds);
+        for (int i = 0; i < ids.size(); i += IN_CHUNK) {
+            List<String> chunk = ids.subList(i, Math.min(i + IN_CHUNK, ids.size()));
+            List<Object> args = new ArrayList<>(chunk.size() + 5);
+            args.add(deltaPerAction.totalActions());
+            args.add(deltaPerAction.executedActions());
+            args.add(deltaPerAction.totalOutcomes());
+            args.add(deltaPerAction.retainedCount());
+            args.add(deltaPerAction.recoveredRevenue());
+            args.addAll(chunk);
+            jdbcTemplate.update(ADD_DELTA_SQL.formatted(String.join(",", Collections.nCopies(chunk.size(), "?"))),
+                    args.toArray());
+        }
+    }
+
+    /**
+     * Recalcula os dias recentes, onde se concentram as ações e os resultados novos.
+     */
+    @Scheduled(cron = "${app.retention.kpi-rollup.reconcile-cron:0 15 3 * * *}")
+    public void reconcileRecent() {
+        LocalDate today = LocalDate.now();
+        try {
+            long drift = replaceRange(today.minusDays(reconcileDays - 1L), today);
+            lastDrift.set(drift);
+            if (drift > 0) log.warn("Rollup de KPIs de retenção divergia em {} unidades; corrigido no recálculo", drift);
+        } catch (RuntimeException e) {
+            log.error("Falha ao recalcular rollup de KPIs de retenção: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public long rebuild(LocalDate from, LocalDate to) {
+        LocalDate last = to != null ? to : LocalDate.now();
+        LocalDate first = from;
+        if (first == null) {
+            Timestamp oldest = jdbcTemplate.queryForObject(FIRST_DAY_SQL, Timestamp.class);
+            first = oldest != null ? oldest.toLocalDateTime().toLocalDate() : last;
+        }
+        if (first.isAfter(last)) {
+            throw new IllegalArgumentException("from deve ser anterior ou igual a to");
+        }
+        log.info("Recalculando rollup de KPIs de retenção de {} a {}", first, last);
+        long drift = replaceRange(first, last);
+        log.info("Rollup de KPIs de retenção recalculado de {} a {}: divergência de {} unidades", first, last, drift);
+        return drift;
+    }
+
+    // === MÉTODOS PRIVADOS ===
+
+    // Uma transação por bloco de até BACKFILL_CHUNK_DAYS dias, para não segurar a faixa inteira
+    private long replaceRange(LocalDate from, LocalDate to) {
+        long drift = 0;
+        for (LocalDate start = from; !start.isAfter(to); start = start.plusDays(BACKFILL_CHUNK_DAYS)) {
+            LocalDate end = start.plusDays(BACKFILL_CHUNK_DAYS - 1L);
+            LocalDate last = end.isAfter(to) ? to : end;
+            LocalDate first = start;
+            Timer.Sample sample = Timer.start();
+            Long chunkDrift = writeTransaction.execute(status -> replace(first, last));
+            sample.stop(reconcileTimer);
+            drift += chunkDrift != null ? chunkDrift : 0L;
+        }
+        log.debug("Rollup de KPIs de retenção recalculado de {} a {}", from, to);
+        return drift;
+    }
+
+    private long replace(LocalDate from, LocalDate to) {
+        // Primeiro o bloqueio: a leitura consistente abaixo abre o snapshot só depois dele
+        Map<Bucket, RetentionKpiTotals> stored = new HashMap<>();
+        jdbcTemplate.query(LOCK_STORED_SQL, rs -> {
+            stored.put(bucket(rs.getDate(1), rs.getString(2), rs.getString(3), rs.getString(4)),
+                    new RetentionKpiTotals(rs.getLong(5), rs.getLong(6), rs.getLong(7), rs.getLong(8), rs.getDouble(9)));
+        }, Date.valueOf(from), Date.valueOf(to));
+
+        Map<Bucket, RetentionKpiTotals> exact = new HashMap<>();
+        jdbcTemplate.query(EXACT_SQL, rs -> {
+            exact.put(bucket(rs.getDate(1), rs.getString(2), rs.getString(3), rs.getString(4)),
+                    new RetentionKpiTotals(rs.getLong(5), rs.getLong(6), rs.getLong(7), rs.getLong(8), rs.getDouble(9)));
+        }, Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+
+        jdbcTemplate.update(DELETE_RANGE_SQL, Date.valueOf(from), Date.valueOf(to));
+        List<Map.Entry<Bucket, RetentionKpiTotals>> rows = new ArrayList<>(exact.entrySet());
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, IN_CHUNK, (ps, row) -> {
+            Bucket bucket = row.getKey();
+            RetentionKpiTotals totals = row.getValue();
+            ps.setDate(1, Date.valueOf(bucket.day()));
+            ps.setString(2, bucket.channel());
+            ps.setString(3, bucket.actionType());
+            ps.setString(4, bucket.owner());
+            ps.setLong(5, totals.totalActions());
+            ps.setLong(6, totals.executedActions());
+            ps.setLong(7, totals.totalOutcomes());
+            ps.setLong(8, totals.retainedCount());
+            ps.setDouble(9, totals.recoveredRevenue());
+        });
+        return drift(stored, exact);
+    }
+
+    private static Bucket bucket(Date day, String channel, String actionType, String owner) {
+        return new Bucket(day.toLocalDate(), channel, actionType, owner);
+    }
+
+    // Soma das diferenças absolutas das contagens (a receita fica fora: é DOUBLE)
+    static long drift(Map<?, RetentionKpiTotals> stored, Map<?, RetentionKpiTotals> exact) {
+        Set<Object> buckets = new HashSet<>(stored.keySet());
+        buckets.addAll(exact.keySet());
+        long drift = 0;
+        for (Object bucket : buckets) {
+            RetentionKpiTotals a = stored.getOrDefault(bucket, RetentionKpiTotals.ZERO);
+            RetentionKpiTotals b = exact.getOrDefault(bucket, RetentionKpiTotals.ZERO);
+            drift += Math.abs(a.totalActions() - b.totalActions())
+                    + Math.abs(a.executedActions() - b.executedActions())
+                    + Math.abs(a.totalOutcomes() - b.totalOutcomes())
+                    + Math.abs(a.retainedCount() - b.retainedCount());
+        }
+        return drift;
+    }
+}
@@ -0,0 +1,51 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.columnar;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dicionário de uma coluna categórica: cada valor distinto recebe um código de 16 bits,
+ * com o código 0 reservado para nulo.
+ *
+ * <p>Somente a thread que grava codifica; leitores usam {@link #values()}, publicado por
+ * cópia a cada valor novo (as colunas categóricas têm poucos valores distintos).</p>
+ */
+final class ColumnDictionary {
+
+    static final int NULL_CODE = 0;
+    static final int MAX_CODES = 1 << 16;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private volatile String[] values = {null};
+
+    /**
+     * Código do valor, criando um novo se ainda não existir.
+     *
+     * @throws IllegalStateException se a coluna ultrapassar 65536 valores distintos
+     */
+    int encode(String value) {
+        if (value == null) return NULL_CODE;
+        Integer code = codes.get(value);
+        if (code != null) return code;
+
+        String[] current = values;
+        if (current.length == MAX_CODES) {
+            throw new IllegalStateException("Coluna categórica excedeu " + MAX_CODES + " valores distintos");
+        }
+        String[] grown = Arrays.copyOf(current, current.length + 1);
+        grown[current.length] = value;
+        codes.put(value, current.length);
+        values = grown;
+        return current.length;
+    }
+
+    /** Valores indexados pelo código (posição 0 = nulo). */
+    String[] values() {
+        return values;
+    }
+
+    static int decode(short code) {
+        return code & 0xFFFF;
+    }
+}
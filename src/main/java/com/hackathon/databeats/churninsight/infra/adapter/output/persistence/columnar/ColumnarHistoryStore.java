@@ -0,0 +1,244 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.columnar;
+
+import com.hackathon.databeats.churninsight.application.dto.AggregateQuery;
+import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
+import com.hackathon.databeats.churninsight.domain.model.PredictionHistory;
+import com.hackathon.databeats.churninsight.domain.rules.ChurnBusinessRules;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.event.PredictionWriteListener;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.snapshot.SnapshotHolder;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.snapshot.StreamingQuery;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Snapshot colunar do churn_history em memória para os agregados de dashboard, filtros e
+ * estatísticas.
+ *
+ * <p>Carregado após a subida da aplicação por uma varredura em streaming da tabela e mantido
+ * atual acrescentando as predições de cada gravação confirmada. Os agregados
+ * ({@link #totals()}, {@link #probabilityBuckets()}, {@link #riskFactorCounts()},
+ * {@link #countBy}, {@link #aggregate}) são laços sobre arrays primitivos executados em paralelo por bloco, sem
+ * consulta ao banco. Enquanto o snapshot não está pronto os métodos devolvem vazio e o
+ * chamador usa as consultas SQL.</p>
+ *
+ * <p>O snapshot é reconstruído periodicamente. Predições gravadas durante a varredura são
+ * guardadas e reaplicadas ao final, descartando as que a própria varredura já leu (comparação
+ * por id entre as linhas criadas na janela {@code recent-window-minutes} antes do início). A
+ * reconstrução também corrige eventuais duplicidades de reenvios do journal, que republicam
+ * predições já gravadas.</p>
+ */
+@Slf4j
+@Component
+public class ColumnarHistoryStore implements PredictionWriteListener {
+
+    private static final String SCAN_SQL = """
+        SELECT id, probability, churn_status, age, created_at,
+               gender, country, subscription_type, device_type,
+               frustration_index, is_heavy_user, offline_listening, risk_flags
+        FROM churn_history
+        """;
+
+    /** Colunas categóricas disponíveis para contagem. */
+    public enum Categorical {
+        GENDER(HistoryColumns.Categorical.GENDER),
+        COUNTRY(HistoryColumns.Categorical.COUNTRY),
+        SUBSCRIPTION_TYPE(HistoryColumns.Categorical.SUBSCRIPTION_TYPE),
+        DEVICE_TYPE(HistoryColumns.Categorical.DEVICE_TYPE);
+
+        private final HistoryColumns.Categorical column;
+
+        Categorical(HistoryColumns.Categorical column) {
+            this.column = column;
+        }
+    }
+
+    /** Totais do histórico; a média é null sem linhas, como o AVG do SQL. */
+    public record Totals(long total, Double averageProbability, long willChurn, long willStay) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final Duration recentWindow;
+    private final Timer buildTimer;
+    private final MeterRegistry meterRegistry;
+    private final SnapshotHolder<HistoryColumns, PredictionHistory> snapshot =
+            new SnapshotHolder<>(ColumnarHistoryStore::append);
+
+    public ColumnarHistoryStore(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.analytics.columnar.enabled:true}") boolean enabled,
+            @Value("${app.analytics.columnar.recent-window-minutes:60}") long recentWindowMinutes) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.recentWindow = Duration.ofMinutes(recentWindowMinutes);
+        this.buildTimer = Timer.builder("churn.analytics.columnar.build")
+                .description("Tempo de carga do snapshot colunar do histórico")
+                .register(meterRegistry);
+        Gauge.builder("churn.analytics.columnar.rows", snapshot, s -> s.current() == null ? 0 : s.current().rows())
+                .description("Linhas do snapshot colunar do histórico")
+                .register(meterRegistry);
+        Gauge.builder("churn.analytics.columnar.bytes", snapshot, s -> s.current() == null ? 0 : s.current().memoryBytes())
+                .description("Memória estimada do snapshot colunar do histórico")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) return;
+        Thread.ofVirtual().name("columnar-history-build").start(this::rebuild);
+    }
+
+    /**
+     * Reconstrói o snapshot a partir do banco. Ignorado se outra reconstrução estiver em curso;
+     * o snapshot anterior continua respondendo até a troca.
+     */
+    @Scheduled(initialDelayString = "${app.analytics.columnar.rebuild-interval-ms:1800000}",
+               fixedDelayString = "${app.analytics.columnar.rebuild-interval-ms:1800000}")
+    public void rebuild() {
+        if (!enabled) return;
+        Timer.Sample sample = Timer.start();
+        try {
+            snapshot.rebuild(this::scan).ifPresent(rebuilt -> {
+                HistoryColumns fresh = rebuilt.snapshot();
+                long nanos = sample.stop(buildTimer);
+                log.info("Snapshot colunar do histórico carregado: {} linhas ({} MB) em {} ms, {} gravações reaplicadas",
+                        fresh.rows(), fresh.memoryBytes() / (1024 * 1024), nanos / 1_000_000, rebuilt.replayed());
+            });
+        } catch (RuntimeException e) {
+            log.error("Falha ao carregar snapshot colunar, agregados seguirão no banco: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void onHistoriesPersisted(List<PredictionHistory> histories) {
+        if (!enabled) return;
+        snapshot.applyAll(histories);
+    }
+
+    /** Indica se o snapshot já foi carregado. */
+    public boolean isReady() {
+        return snapshot.current() != null;
+    }
+
+    /** Total de predições, soma de WILL_CHURN/WILL_STAY e probabilidade média. */
+    public Optional<Totals> totals() {
+        return query("totals", columns -> {
+            HistoryColumns.Totals totals = columns.totals();
+            Double average = totals.rows() > 0 ? totals.probabilitySum() / totals.rows() : null;
+            return new Totals(totals.rows(), average, totals.willChurn(), totals.rows() - totals.willChurn());
+        });
+    }
+
+    /** Contagens por faixa de probabilidade ({@code <0.2}, {@code <0.5}, {@code <0.7}, demais). */
+    public Optional<long[]> probabilityBuckets() {
+        return query("probability_buckets", HistoryColumns::probabilityBuckets);
+    }
+
+    /**
+     * Contagens por fator de risco: FREE_HIGH_ADS, HIGH_SKIP_RATE, HIGH_FRUSTRATION,
+     * PREMIUM_NO_OFFLINE e LOW_ENGAGEMENT.
+     */
+    public Optional<long[]> riskFactorCounts() {
+        return query("risk_factors", HistoryColumns::riskFactorCounts);
+    }
+
+    /** Contagem de predições por valor da coluna (chave null para nulos). */
+    public Optional<Map<String, Long>> countBy(Categorical column) {
+        return query("count_by_" + column.name().toLowerCase(), columns -> columns.countBy(column.column));
+    }
+
+    /**
+     * Agrupa as predições que atendem ao filtro pelas dimensões da consulta.
+     *
+     * @param query consulta normalizada
+     * @return grupos em ordem arbitrária, ou vazio se o snapshot não está pronto ou o filtro
+     *         usa userId (coluna fora do snapshot)
+     * @throws IllegalArgumentException se a combinação de dimensões tiver grupos demais
+     */
+    public Optional<List<GroupTotals>> aggregate(AggregateQuery query) {
+        if (query.filter().userId() != null) return Optional.empty();
+        return query("aggregate", columns -> columns.aggregate(query.filter(), query.groupBy()));
+    }
+
+    // === MÉTODOS PRIVADOS ===
+
+    private <T> Optional<T> query(String operation, Function<HistoryColumns, T> aggregate) {
+        HistoryColumns columns = snapshot.current();
+        if (columns == null) return Optional.empty();
+        Timer timer = Timer.builder("churn.analytics.columnar.query")
+                .description("Tempo dos agregados sobre o snapshot colunar")
+                .tag("operation", operation)
+                .register(meterRegistry);
+        return Optional.of(timer.record(() -> aggregate.apply(columns)));
+    }
+
+    // Gravações publicadas durante a varredura e já lidas por ela não são reaplicadas
+    private SnapshotHolder.Scan<HistoryColumns, PredictionHistory> scan() {
+        LocalDateTime recentFrom = LocalDateTime.now().minus(recentWindow);
+        HistoryColumns fresh = new HistoryColumns();
+        Set<String> recentIds = new HashSet<>();
+        StreamingQuery.forEach(jdbcTemplate, SCAN_SQL, rs -> {
+            LocalDateTime createdAt = rs.getTimestamp("created_at").toLocalDateTime();
+            if (!createdAt.isBefore(recentFrom)) recentIds.add(rs.getString("id"));
+            appendRow(fresh, rs, createdAt.toLocalDate());
+        });
+        return new SnapshotHolder.Scan<>(fresh, history -> history.id() != null && recentIds.contains(history.id()));
+    }
+
+    private static void appendRow(HistoryColumns target, ResultSet rs, LocalDate createdDay) throws SQLException {
+        Double frustrationIndex = rs.getObject("frustration_index", Double.class);
+        target.append(new HistoryColumns.Row(
+                rs.getDouble("probability"),
+                ChurnStatus.WILL_CHURN.name().equals(rs.getString("churn_status")),
+                rs.getInt("age"),
+                (int) createdDay.toEpochDay(),
+                rs.getString("gender"),
+                rs.getString("country"),
+                rs.getString("subscription_type"),
+                rs.getString("device_type"),
+                frustrationIndex != null ? frustrationIndex : Double.NaN,
+                rs.getObject("is_heavy_user", Boolean.class),
+                rs.getBoolean("offline_listening"),
+                rs.getInt("risk_flags")));
+    }
+
+    private static void append(HistoryColumns target, PredictionHistory h) {
+        LocalDate createdDay = h.createdAt() != null ? h.createdAt().toLocalDate() : LocalDate.now();
+        target.append(new HistoryColumns.Row(
+                h.probability() != null ? h.probability() : 0.0,
+                h.churnStatus() == ChurnStatus.WILL_CHURN,
+                h.age() != null ? h.age() : 0,
+                (int) createdDay.toEpochDay(),
+                h.gender(),
+                h.country(),
+                h.subscriptionType(),
+                h.deviceType(),
+                h.frustrationIndex() != null ? h.frustrationIndex() : Double.NaN,
+                h.isHeavyUser(),
+                Boolean.TRUE.equals(h.offlineListening()),
+                ChurnBusinessRules.riskFactorFlags(h)));
+    }
+}
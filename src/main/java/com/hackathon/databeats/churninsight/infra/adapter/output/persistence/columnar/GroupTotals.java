@@ -0,0 +1,17 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.columnar;
+
+import java.util.List;
+
+/**
+ * Acumuladores de um grupo da agregação, comuns ao motor colunar e ao SQL.
+ *
+ * @param keys valor de cada dimensão na ordem do agrupamento (String, LocalDate ou null)
+ * @param count predições do grupo
+ * @param probabilitySum soma das probabilidades
+ * @param minProbability menor probabilidade
+ * @param maxProbability maior probabilidade
+ * @param revenueAtRisk soma do valor mensal do plano das predições WILL_CHURN
+ */
+public record GroupTotals(List<Object> keys, long count, double probabilitySum,
+                          double minProbability, double maxProbability, double revenueAtRisk) {
+}
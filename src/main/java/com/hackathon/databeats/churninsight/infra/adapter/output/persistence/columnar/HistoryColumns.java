@@ -0,0 +1,523 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.columnar;
+
+import com.hackathon.databeats.churninsight.application.dto.AggregateDimension;
+import com.hackathon.databeats.churninsight.application.dto.PredictionSearchFilter;
+import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
+import com.hackathon.databeats.churninsight.domain.enums.RiskFactor;
+import com.hackathon.databeats.churninsight.domain.rules.ChurnBusinessRules;
+import com.hackathon.databeats.churninsight.domain.rules.SubscriptionPricing;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Armazenamento colunar das predições: um array primitivo por coluna, categóricas
+ * codificadas por dicionário e um bitset por flag booleana.
+ *
+ * <p>As linhas ficam em blocos de {@link #CHUNK_ROWS}. Os agregados percorrem cada bloco em
+ * laços simples sobre arrays primitivos (que o JIT vetoriza) e processam os blocos em paralelo
+ * no pool comum do ForkJoin.</p>
+ *
+ * <p>Um único escritor por vez ({@link #append}); leitores não usam lock. O escritor preenche
+ * as posições além do total publicado e só então publica o novo total, então uma leitura
+ * enxerga apenas linhas completas.</p>
+ */
+final class HistoryColumns {
+
+    static final int CHUNK_SHIFT = 16;
+    static final int CHUNK_ROWS = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_ROWS - 1;
+    private static final int WORDS_PER_CHUNK = CHUNK_ROWS >>> 6;
+
+    /** Acima desta quantidade de combinações o agrupamento usa mapa em vez de arrays densos. */
+    private static final int DENSE_GROUP_LIMIT = 1 << 16;
+
+    /** Flags de risco na ordem das contagens de {@link #riskFactorCounts()}. */
+    static final int[] RISK_FLAGS = {
+            ChurnBusinessRules.RISK_FREE_HIGH_ADS,
+            ChurnBusinessRules.RISK_HIGH_SKIP_RATE,
+            ChurnBusinessRules.RISK_HIGH_FRUSTRATION,
+            ChurnBusinessRules.RISK_PREMIUM_NO_OFFLINE,
+            ChurnBusinessRules.RISK_LOW_LISTENING
+    };
+
+    /** Limites das faixas de probabilidade (mesmos do SQL original). */
+    private static final double BUCKET_LOW = 0.2;
+    private static final double BUCKET_MEDIUM = 0.5;
+    private static final double BUCKET_HIGH = 0.7;
+
+    private static final int[] AGE_BAND_BY_AGE = new int[256];
+
+    static {
+        for (int age = 0; age < AGE_BAND_BY_AGE.length; age++) AGE_BAND_BY_AGE[age] = AggregateDimension.ageBand(age);
+    }
+
+    /** Colunas categóricas codificadas por dicionário. */
+    enum Categorical { GENDER, COUNTRY, SUBSCRIPTION_TYPE, DEVICE_TYPE }
+
+    /**
+     * Uma predição a acrescentar.
+     *
+     * @param age idade (0 a 150, conforme chk_age)
+     * @param createdDay dia da predição em {@code LocalDate.toEpochDay()}
+     * @param frustrationIndex índice de frustração, ou NaN se ausente
+     * @param riskFlags flags de {@link ChurnBusinessRules#riskFactorFlags}
+     */
+    record Row(double probability, boolean willChurn, int age, int createdDay,
+               String gender, String country, String subscriptionType, String deviceType,
+               double frustrationIndex, Boolean heavyUser, boolean offlineListening, int riskFlags) {
+    }
+
+    /** Totais globais: linhas, soma das probabilidades e linhas WILL_CHURN. */
+    record Totals(long rows, double probabilitySum, long willChurn) {
+    }
+
+    private static final class Chunk {
+        final double[] probability = new double[CHUNK_ROWS];
+        final double[] frustration = new double[CHUNK_ROWS];
+        final byte[] age = new byte[CHUNK_ROWS];
+        final int[] createdDay = new int[CHUNK_ROWS];
+        final short[][] categorical = new short[Categorical.values().length][CHUNK_ROWS];
+        final long[] willChurn = new long[WORDS_PER_CHUNK];
+        final long[] heavyUser = new long[WORDS_PER_CHUNK];
+        final long[] heavyUserKnown = new long[WORDS_PER_CHUNK];
+        final long[] offlineListening = new long[WORDS_PER_CHUNK];
+        final long[][] risk = new long[RISK_FLAGS.length][WORDS_PER_CHUNK];
+
+        static long bytes() {
+            return (long) CHUNK_ROWS * (2 * Double.BYTES + 1 + Integer.BYTES + Categorical.values().length * Short.BYTES)
+                    + (long) WORDS_PER_CHUNK * Long.BYTES * (4 + RISK_FLAGS.length);
+        }
+    }
+
+    private record View(Chunk[] chunks, int rows, int minDay, int maxDay) {
+    }
+
+    private final ColumnDictionary[] dictionaries = new ColumnDictionary[Categorical.values().length];
+    private volatile View view = new View(new Chunk[0], 0, Integer.MAX_VALUE, Integer.MIN_VALUE);
+
+    HistoryColumns() {
+        for (int i = 0; i < dictionaries.length; i++) dictionaries[i] = new ColumnDictionary();
+    }
+
+    /**
+     * Acrescenta uma linha. Não é thread-safe: chamadores serializam as escritas.
+     */
+    void append(Row row) {
+        View current = view;
+        int index = current.rows();
+        Chunk[] chunks = current.chunks();
+        int chunkIndex = index >>> CHUNK_SHIFT;
+        if (chunkIndex == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunks.length + 1);
+            chunks[chunkIndex] = new Chunk();
+        }
+        Chunk chunk = chunks[chunkIndex];
+        int i = index & CHUNK_MASK;
+
+        chunk.probability[i] = row.probability();
+        chunk.frustration[i] = row.frustrationIndex();
+        chunk.age[i] = (byte) Math.clamp(row.age(), 0, 255);
+        chunk.createdDay[i] = row.createdDay();
+        chunk.categorical[Categorical.GENDER.ordinal()][i] = code(Categorical.GENDER, row.gender());
+        chunk.categorical[Categorical.COUNTRY.ordinal()][i] = code(Categorical.COUNTRY, row.country());
+        chunk.categorical[Categorical.SUBSCRIPTION_TYPE.ordinal()][i] = code(Categorical.SUBSCRIPTION_TYPE, row.subscriptionType());
+        chunk.categorical[Categorical.DEVICE_TYPE.ordinal()][i] = code(Categorical.DEVICE_TYPE, row.deviceType());
+        long bit = 1L << (i & 63);
+        int word = i >>> 6;
+        if (row.willChurn()) chunk.willChurn[word] |= bit;
+        if (row.heavyUser() != null) {
+            chunk.heavyUserKnown[word] |= bit;
+            if (row.heavyUser()) chunk.heavyUser[word] |= bit;
+        }
+        if (row.offlineListening()) chunk.offlineListening[word] |= bit;
+        for (int f = 0; f < RISK_FLAGS.length; f++) {
+            if ((row.riskFlags() & RISK_FLAGS[f]) != 0) chunk.risk[f][word] |= bit;
+        }
+
+        view = new View(chunks, index + 1,
+                Math.min(current.minDay(), row.createdDay()), Math.max(current.maxDay(), row.createdDay()));
+    }
+
+    int rows() {
+        return view.rows();
+    }
+
+    /** Memória ocupada pelos blocos alocados. */
+    long memoryBytes() {
+        return view.chunks().length * Chunk.bytes();
+    }
+
+    Totals totals() {
+        View v = view;
+        double[] partial = reduce(v, (chunk, n) -> {
+            double sum = 0.0;
+            double[] probability = chunk.probability;
+            for (int i = 0; i < n; i++) sum += probability[i];
+            return new double[]{sum, popCount(chunk.willChurn, n)};
+        }, HistoryColumns::addDoubles, new double[2]);
+        return new Totals(v.rows(), partial[0], (long) partial[1]);
+    }
+
+    /** Contagens por faixa: {@code <0.2}, {@code [0.2,0.5)}, {@code [0.5,0.7)}, {@code >=0.7}. */
+    long[] probabilityBuckets() {
+        return reduce(view, (chunk, n) -> {
+            long[] counts = new long[4];
+            double[] probability = chunk.probability;
+            for (int i = 0; i < n; i++) {
+                double p = probability[i];
+                int bucket = (p >= BUCKET_LOW ? 1 : 0) + (p >= BUCKET_MEDIUM ? 1 : 0) + (p >= BUCKET_HIGH ? 1 : 0);
+                counts[bucket]++;
+            }
+            return counts;
+        }, HistoryColumns::addLongs, new long[4]);
+    }
+
+    /** Contagens por fator de risco na ordem de {@link #RISK_FLAGS}. */
+    long[] riskFactorCounts() {
+        return reduce(view, (chunk, n) -> {
+            long[] counts = new long[RISK_FLAGS.length];
+            for (int f = 0; f < counts.length; f++) counts[f] = popCount(chunk.risk[f], n);
+            return counts;
+        }, HistoryColumns::addLongs, new long[RISK_FLAGS.length]);
+    }
+
+    /**
+     * Contagem de linhas por valor da coluna, em ordem de primeira ocorrência; nulos aparecem
+     * com chave null.
+     */
+    Map<String, Long> countBy(Categorical column) {
+        View v = view;
+        // Lido após a view: contém todos os códigos das linhas publicadas
+        String[] values = dictionaries[column.ordinal()].values();
+        int columnIndex = column.ordinal();
+        long[] counts = reduce(v, (chunk, n) -> {
+            long[] local = new long[values.length];
+            short[] codes = chunk.categorical[columnIndex];
+            for (int i = 0; i < n; i++) local[ColumnDictionary.decode(codes[i])]++;
+            return local;
+        }, HistoryColumns::addLongs, new long[values.length]);
+
+        Map<String, Long> out = new LinkedHashMap<>();
+        for (int code = 0; code < values.length; code++) {
+            if (counts[code] > 0) out.put(values[code], counts[code]);
+        }
+        return out;
+    }
+
+    /**
+     * Agrupa as linhas que atendem ao filtro pelas dimensões informadas. O filtro deve estar
+     * normalizado e sem userId (a coluna não faz parte do snapshot).
+     *
+     * @throws IllegalArgumentException se a combinação de dimensões tiver grupos demais
+     */
+    List<GroupTotals> aggregate(PredictionSearchFilter filter, List<AggregateDimension> dimensions) {
+        View v = view;
+        String[][] values = new String[dictionaries.length][];
+        for (int c = 0; c < dictionaries.length; c++) values[c] = dictionaries[c].values();
+        RowFilter rowFilter = RowFilter.compile(filter, values);
+        if (rowFilter == null || v.rows() == 0) return List.of();
+
+        int dimensionCount = dimensions.size();
+        int[] radix = new int[dimensionCount];
+        long combinations = 1;
+        for (int d = 0; d < dimensionCount; d++) {
+            radix[d] = switch (dimensions.get(d)) {
+                case GENDER -> values[Categorical.GENDER.ordinal()].length;
+                case COUNTRY -> values[Categorical.COUNTRY.ordinal()].length;
+                case SUBSCRIPTION_TYPE -> values[Categorical.SUBSCRIPTION_TYPE.ordinal()].length;
+                case DEVICE_TYPE -> values[Categorical.DEVICE_TYPE.ordinal()].length;
+                case AGE_BAND -> AggregateDimension.AGE_BAND_LABELS.size();
+                case PROBABILITY_BUCKET -> AggregateDimension.PROBABILITY_BUCKET_LABELS.size();
+                case CREATED_DAY -> v.maxDay() - v.minDay() + 1;
+                case PRIMARY_RISK_FACTOR -> RiskFactor.values().length;
+            };
+            try {
+                combinations = Math.multiplyExact(combinations, radix[d]);
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Combinação de dimensões gera grupos demais");
+            }
+        }
+        final long groupCount = combinations;
+
+        String[] plans = values[Categorical.SUBSCRIPTION_TYPE.ordinal()];
+        double[] planValue = new double[plans.length];
+        for (int code = 0; code < plans.length; code++) planValue[code] = SubscriptionPricing.monthlyValue(plans[code]);
+
+        Accumulator merged = reduce(v, (chunk, n) -> {
+            Accumulator acc = groupCount <= DENSE_GROUP_LIMIT ? new DenseAccumulator((int) groupCount) : new SparseAccumulator();
+            short[] subscription = chunk.categorical[Categorical.SUBSCRIPTION_TYPE.ordinal()];
+            for (int i = 0; i < n; i++) {
+                if (!rowFilter.matches(chunk, i)) continue;
+                long key = 0;
+                for (int d = 0; d < dimensionCount; d++) {
+                    key = key * radix[d] + dimensionCode(dimensions.get(d), chunk, i, v.minDay());
+                }
+                double revenue = bit(chunk.willChurn, i) ? planValue[ColumnDictionary.decode(subscription[i])] : 0.0;
+                acc.add(key, chunk.probability[i], revenue);
+            }
+            return acc;
+        }, Accumulator::merge, groupCount <= DENSE_GROUP_LIMIT ? new DenseAccumulator((int) groupCount) : new SparseAccumulator());
+
+        List<GroupTotals> groups = new ArrayList<>();
+        merged.forEach((key, totals) -> {
+            Object[] keys = new Object[dimensionCount];
+            long remaining = key;
+            for (int d = dimensionCount - 1; d >= 0; d--) {
+                int code = (int) (remaining % radix[d]);
+                remaining /= radix[d];
+                keys[d] = dimensionValue(dimensions.get(d), code, values, v.minDay());
+            }
+            groups.add(new GroupTotals(Arrays.asList(keys), (long) totals[0], totals[1], totals[2], totals[3], totals[4]));
+        });
+        return groups;
+    }
+
+    // === MÉTODOS PRIVADOS ===
+
+    private short code(Categorical column, String value) {
+        return (short) dictionaries[column.ordinal()].encode(value);
+    }
+
+    private static int dimensionCode(AggregateDimension dimension, Chunk chunk, int i, int minDay) {
+        return switch (dimension) {
+            case GENDER -> ColumnDictionary.decode(chunk.categorical[Categorical.GENDER.ordinal()][i]);
+            case COUNTRY -> ColumnDictionary.decode(chunk.categorical[Categorical.COUNTRY.ordinal()][i]);
+            case SUBSCRIPTION_TYPE -> ColumnDictionary.decode(chunk.categorical[Categorical.SUBSCRIPTION_TYPE.ordinal()][i]);
+            case DEVICE_TYPE -> ColumnDictionary.decode(chunk.categorical[Categorical.DEVICE_TYPE.ordinal()][i]);
+            case AGE_BAND -> AGE_BAND_BY_AGE[chunk.age[i] & 0xFF];
+            case PROBABILITY_BUCKET -> AggregateDimension.probabilityBucket(chunk.probability[i]);
+            case CREATED_DAY -> chunk.createdDay[i] - minDay;
+            case PRIMARY_RISK_FACTOR -> primaryRiskFactor(chunk, i);
+        };
+    }
+
+    private static Object dimensionValue(AggregateDimension dimension, int code, String[][] values, int minDay) {
+        return switch (dimension) {
+            case GENDER -> values[Categorical.GENDER.ordinal()][code];
+            case COUNTRY -> values[Categorical.COUNTRY.ordinal()][code];
+            case SUBSCRIPTION_TYPE -> values[Categorical.SUBSCRIPTION_TYPE.ordinal()][code];
+            case DEVICE_TYPE -> values[Categorical.DEVICE_TYPE.ordinal()][code];
+            case AGE_BAND -> AggregateDimension.AGE_BAND_LABELS.get(code);
+            case PROBABILITY_BUCKET -> AggregateDimension.PROBABILITY_BUCKET_LABELS.get(code);
+            case CREATED_DAY -> LocalDate.ofEpochDay((long) minDay + code);
+            case PRIMARY_RISK_FACTOR -> RiskFactor.fromCode(code).name();
+        };
+    }
+
+    /** Código de {@link RiskFactor} da linha, a partir dos bits de risco e do status. */
+    private static int primaryRiskFactor(Chunk chunk, int i) {
+        int flags = 0;
+        for (int f = 0; f < RISK_FLAGS.length; f++) {
+            if (bit(chunk.risk[f], i)) flags |= RISK_FLAGS[f];
+        }
+        ChurnStatus status = bit(chunk.willChurn, i) ? ChurnStatus.WILL_CHURN : ChurnStatus.WILL_STAY;
+        return ChurnBusinessRules.primaryRiskFactor(status, flags).code();
+    }
+
+    /**
+     * Filtro compilado para as colunas: categóricos viram códigos do dicionário e datas viram
+     * dias. Nulos não atendem a comparações, como no SQL.
+     */
+    private record RowFilter(int churn, double minProbability, double maxProbability, int[] categoricalCodes,
+                             int minAge, int maxAge, int minDay, int maxDay, int heavyUser, int offlineListening,
+                             boolean frustrationFiltered, double minFrustration, double maxFrustration,
+                             int riskFactor) {
+
+        private static final int ANY = -1;
+
+        /** Compila o filtro, ou null se nenhuma linha pode atender (valor categórico inexistente). */
+        static RowFilter compile(PredictionSearchFilter filter, String[][] values) {
+            int[] codes = new int[Categorical.values().length];
+            String[] wanted = new String[codes.length];
+            wanted[Categorical.GENDER.ordinal()] = filter.gender();
+            wanted[Categorical.COUNTRY.ordinal()] = filter.country();
+            wanted[Categorical.SUBSCRIPTION_TYPE.ordinal()] = filter.subscriptionType();
+            wanted[Categorical.DEVICE_TYPE.ordinal()] = filter.deviceType();
+            for (int c = 0; c < codes.length; c++) {
+                codes[c] = ANY;
+                if (wanted[c] == null) continue;
+                // Mesma collation case-insensitive das colunas
+                for (int code = 1; code < values[c].length && codes[c] == ANY; code++) {
+                    if (wanted[c].equalsIgnoreCase(values[c][code])) codes[c] = code;
+                }
+                if (codes[c] == ANY) return null;
+            }
+            return new RowFilter(
+                    filter.churnStatus() == null ? ANY : (filter.churnStatus() == ChurnStatus.WILL_CHURN ? 1 : 0),
+                    filter.minProbability() != null ? filter.minProbability() : Double.NEGATIVE_INFINITY,
+                    filter.maxProbability() != null ? filter.maxProbability() : Double.POSITIVE_INFINITY,
+                    codes,
+                    filter.minAge() != null ? filter.minAge() : Integer.MIN_VALUE,
+                    filter.maxAge() != null ? filter.maxAge() : Integer.MAX_VALUE,
+                    filter.startDate() != null ? (int) filter.startDate().toEpochDay() : Integer.MIN_VALUE,
+                    filter.endDate() != null ? (int) filter.endDate().toEpochDay() : Integer.MAX_VALUE,
+                    filter.isHeavyUser() == null ? ANY : (filter.isHeavyUser() ? 1 : 0),
+                    filter.offlineListening() == null ? ANY : (filter.offlineListening() ? 1 : 0),
+                    filter.minFrustrationIndex() != null || filter.maxFrustrationIndex() != null,
+                    filter.minFrustrationIndex() != null ? filter.minFrustrationIndex() : Double.NEGATIVE_INFINITY,
+                    filter.maxFrustrationIndex() != null ? filter.maxFrustrationIndex() : Double.POSITIVE_INFINITY,
+                    filter.riskFactor() == null ? ANY : filter.riskFactor().code());
+        }
+
+        boolean matches(Chunk chunk, int i) {
+            double p = chunk.probability[i];
+            if (p < minProbability || p > maxProbability) return false;
+            if (churn != ANY && bit(chunk.willChurn, i) != (churn == 1)) return false;
+            for (int c = 0; c < categoricalCodes.length; c++) {
+                if (categoricalCodes[c] != ANY && ColumnDictionary.decode(chunk.categorical[c][i]) != categoricalCodes[c]) {
+                    return false;
+                }
+            }
+            int age = chunk.age[i] & 0xFF;
+            if (age < minAge || age > maxAge) return false;
+            int day = chunk.createdDay[i];
+            if (day < minDay || day > maxDay) return false;
+            if (heavyUser != ANY && (!bit(chunk.heavyUserKnown, i) || bit(chunk.heavyUser, i) != (heavyUser == 1))) return false;
+            if (offlineListening != ANY && bit(chunk.offlineListening, i) != (offlineListening == 1)) return false;
+            if (frustrationFiltered) {
+                double f = chunk.frustration[i];
+                // NaN (ausente) falha nas duas comparações
+                if (!(f >= minFrustration && f <= maxFrustration)) return false;
+            }
+            if (riskFactor != ANY && primaryRiskFactor(chunk, i) != riskFactor) return false;
+            return true;
+        }
+    }
+
+    /** Acumuladores por chave de grupo: count, soma, mínimo e máximo da probabilidade e receita. */
+    private interface Accumulator {
+        void add(long key, double probability, double revenue);
+
+        Accumulator merge(Accumulator other);
+
+        void forEach(BiConsumer<Long, double[]> consumer);
+    }
+
+    private static final class DenseAccumulator implements Accumulator {
+        private final long[] count;
+        private final double[] sum;
+        private final double[] min;
+        private final double[] max;
+        private final double[] revenue;
+
+        DenseAccumulator(int groups) {
+            count = new long[groups];
+            sum = new double[groups];
+            min = new double[groups];
+            max = new double[groups];
+            revenue = new double[groups];
+            Arrays.fill(min, Double.POSITIVE_INFINITY);
+            Arrays.fill(max, Double.NEGATIVE_INFINITY);
+        }
+
+        @Override
+        public void add(long key, double probability, double revenueAtRisk) {
+            int g = (int) key;
+            count[g]++;
+            sum[g] += probability;
+            if (probability < min[g]) min[g] = probability;
+            if (probability > max[g]) max[g] = probability;
+            revenue[g] += revenueAtRisk;
+        }
+
+        @Override
+        public Accumulator merge(Accumulator other) {
+            DenseAccumulator o = (DenseAccumulator) other;
+            DenseAccumulator out = new DenseAccumulator(count.length);
+            for (int g = 0; g < count.length; g++) {
+                out.count[g] = count[g] + o.count[g];
+                out.sum[g] = sum[g] + o.sum[g];
+                out.min[g] = Math.min(min[g], o.min[g]);
+                out.max[g] = Math.max(max[g], o.max[g]);
+                out.revenue[g] = revenue[g] + o.revenue[g];
+            }
+            return out;
+        }
+
+        @Override
+        public void forEach(BiConsumer<Long, double[]> consumer) {
+            for (int g = 0; g < count.length; g++) {
+                if (count[g] > 0) consumer.accept((long) g, new double[]{count[g], sum[g], min[g], max[g], revenue[g]});
+            }
+        }
+    }
+
+    private static final class SparseAccumulator implements Accumulator {
+        private final Map<Long, double[]> groups = new HashMap<>();
+
+        @Override
+        public void add(long key, double probability, double revenueAtRisk) {
+            double[] t = groups.computeIfAbsent(key,
+                    k -> new double[]{0, 0, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 0});
+            t[0]++;
+            t[1] += probability;
+            t[2] = Math.min(t[2], probability);
+            t[3] = Math.max(t[3], probability);
+            t[4] += revenueAtRisk;
+        }
+
+        @Override
+        public Accumulator merge(Accumulator other) {
+            SparseAccumulator out = new SparseAccumulator();
+            out.groups.putAll(groups);
+            ((SparseAccumulator) other).groups.forEach((key, o) -> out.groups.merge(key, o.clone(), (a, b) ->
+                    new double[]{a[0] + b[0], a[1] + b[1], Math.min(a[2], b[2]), Math.max(a[3], b[3]), a[4] + b[4]}));
+            return out;
+        }
+
+        @Override
+        public void forEach(BiConsumer<Long, double[]> consumer) {
+            groups.forEach(consumer);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkKernel<T> {
+        T apply(Chunk chunk, int rows);
+    }
+
+    private static <T> T reduce(View v, ChunkKernel<T> kernel, BinaryOperator<T> merge, T identity) {
+        int rows = v.rows();
+        int chunkCount = (rows + CHUNK_MASK) >>> CHUNK_SHIFT;
+        Chunk[] chunks = v.chunks();
+        IntStream indexes = IntStream.range(0, chunkCount);
+        if (chunkCount > 1) indexes = indexes.parallel();
+        return indexes
+                .mapToObj(c -> kernel.apply(chunks[c], Math.min(CHUNK_ROWS, rows - (c << CHUNK_SHIFT))))
+                .reduce(identity, merge);
+    }
+
+    private static boolean bit(long[] words, int i) {
+        return (words[i >>> 6] & (1L << (i & 63))) != 0;
+    }
+
+    // Bits além de n podem estar sendo escritos e ainda não foram publicados
+    private static long popCount(long[] words, int n) {
+        long count = 0;
+        int full = n >>> 6;
+        for (int w = 0; w < full; w++) count += Long.bitCount(words[w]);
+        int remainder = n & 63;
+        if (remainder != 0) count += Long.bitCount(words[full] & ((1L << remainder) - 1));
+        return count;
+    }
+
+    private static long[] addLongs(long[] a, long[] b) {
+        long[] out = new long[Math.max(a.length, b.length)];
+        for (int i = 0; i < a.length; i++) out[i] += a[i];
+        for (int i = 0; i < b.length; i++) out[i] += b[i];
+        return out;
+    }
+
+    private static double[] addDoubles(double[] a, double[] b) {
+        return new double[]{a[0] + b[0], a[1] + b[1]};
+    }
+}
@@ -0,0 +1,71 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.entity;
+
+import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projeção somente leitura com a predição mais recente de cada cliente.
+ * As escritas são feitas via JDBC (upsert) junto com o churn_history.
+ */
+@Entity
+@Immutable
+@Table(name = "customer_latest_prediction")
+@Data
+public class CustomerLatestPredictionEntity {
+
+    @Id
+    @Column(name = "user_id", columnDefinition = "CHAR(36)", nullable = false)
+    private String userId;
+
+    @Column(name = "history_id", columnDefinition = "CHAR(36)", nullable = false)
+    private String historyId;
+
+    @Column(length = 20)
+    private String gender;
+
+    private Integer age;
+
+    @Column(length = 10)
+    private String country;
+
+    @Column(name = "subscription_type", length = 30)
+    private String subscriptionType;
+
+    @Column(name = "device_type", length = 30)
+    private String deviceType;
+
+    @Column(name = "listening_time")
+    private Double listeningTime;
+
+    @Column(name = "skip_rate")
+    private Double skipRate;
+
+    @Column(name = "ads_listened_per_week")
+    private Integer adsListenedPerWeek;
+
+    @Column(name = "frustration_index")
+    private Double frustrationIndex;
+
+    @Column(name = "is_heavy_user")
+    private Boolean isHeavyUser;
+
+    @Column(name = "premium_no_offline")
+    private Boolean premiumNoOffline;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "churn_status", nullable = false, length = 30)
+    private ChurnStatus churnStatus;
+
+    @Column(nullable = false)
+    private double probability;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
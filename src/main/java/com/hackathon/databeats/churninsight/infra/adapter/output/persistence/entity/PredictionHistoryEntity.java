@@ -94,4 +94,11 @@ public class PredictionHistoryEntity implements Persistable<String> {
 
     @Column(name = "premium_no_offline")
     private Boolean premiumNoOffline;
+
+    // FATORES DE RISCO (ChurnBusinessRules, calculados na gravação)
+    @Column(name = "risk_flags", nullable = false, columnDefinition = "TINYINT UNSIGNED")
+    private int riskFlags;
+
+    @Column(name = "primary_risk_factor", nullable = false, columnDefinition = "TINYINT UNSIGNED")
+    private int primaryRiskFactor;
 }
\ No newline at end of file
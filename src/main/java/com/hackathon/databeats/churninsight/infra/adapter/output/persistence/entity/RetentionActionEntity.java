@@ -7,6 +7,7 @@ import jakarta.persistence.*;
 import lombok.Data;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Entity
 @Table(name = "retention_action")
@@ -47,8 +48,10 @@ public class RetentionActionEntity {
     @Column(name = "notes", length = 500)
     private String notes;
 
+    // Truncado ao segundo da coluna TIMESTAMP (o MySQL arredondaria a fração), para que o valor
+    // em memória seja o mesmo que uma leitura posterior devolve
     @Column(name = "created_at", nullable = false, updatable = false)
-    private LocalDateTime createdAt = LocalDateTime.now();
+    private LocalDateTime createdAt = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
 
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt = LocalDateTime.now();
@@ -0,0 +1,14 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.event;
+
+/**
+ * Mudança efetiva de um cliente na projeção customer_latest_prediction.
+ *
+ * @param previous estado anterior, ou {@code null} quando o cliente é novo
+ * @param current estado após a gravação
+ */
+public record LatestPredictionChange(LatestPredictionSnapshot previous, LatestPredictionSnapshot current) {
+
+    public boolean isNewCustomer() {
+        return previous == null;
+    }
+}
@@ -0,0 +1,42 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.event;
+
+import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
+import com.hackathon.databeats.churninsight.domain.model.PredictionHistory;
+import com.hackathon.databeats.churninsight.domain.rules.ChurnBusinessRules;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Estado resumido de uma linha de customer_latest_prediction, com apenas os campos
+ * que os agregados em memória precisam.
+ *
+ * @param riskFlags máscara {@code ChurnBusinessRules.RISK_*}
+ * @param createdAt data da predição truncada em segundos, como gravada na coluna TIMESTAMP
+ */
+public record LatestPredictionSnapshot(
+        String userId,
+        String historyId,
+        String subscriptionType,
+        ChurnStatus churnStatus,
+        double probability,
+        int riskFlags,
+        LocalDateTime createdAt
+) {
+
+    public static LatestPredictionSnapshot of(PredictionHistory h, LocalDateTime fallbackCreatedAt) {
+        LocalDateTime createdAt = h.createdAt() != null ? h.createdAt() : fallbackCreatedAt;
+        return new LatestPredictionSnapshot(
+                h.userId(),
+                h.id(),
+                h.subscriptionType(),
+                h.churnStatus(),
+                h.probability() != null ? h.probability() : 0.0,
+                ChurnBusinessRules.riskFactorFlags(h),
+                createdAt.truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    public boolean hasRisk(int flag) {
+        return (riskFlags & flag) != 0;
+    }
+}
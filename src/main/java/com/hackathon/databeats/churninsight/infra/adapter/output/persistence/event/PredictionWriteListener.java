@@ -0,0 +1,28 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.event;
+
+import com.hackathon.databeats.churninsight.domain.model.PredictionHistory;
+
+import java.util.List;
+
+/**
+ * Observador das gravações de predição, notificado somente após o commit.
+ *
+ * <p>Implementações rodam na thread que gravou e devem ser rápidas; exceções são
+ * registradas e não afetam a gravação, que já foi confirmada.</p>
+ */
+public interface PredictionWriteListener {
+
+    /**
+     * Chamado com as mudanças efetivas na projeção de predição mais recente por cliente.
+     * Predições mais antigas que a já armazenada não geram mudança.
+     */
+    default void onLatestPredictionsChanged(List<LatestPredictionChange> changes) {
+    }
+
+    /**
+     * Chamado com todas as predições gravadas no churn_history pela transação,
+     * inclusive as sem userId, que não alteram a projeção.
+     */
+    default void onHistoriesPersisted(List<PredictionHistory> histories) {
+    }
+}
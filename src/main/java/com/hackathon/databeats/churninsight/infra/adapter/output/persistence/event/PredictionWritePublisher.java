@@ -0,0 +1,103 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.event;
+
+import com.hackathon.databeats.churninsight.domain.model.PredictionHistory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Distribui as mudanças da projeção para os {@link PredictionWriteListener} após o commit.
+ *
+ * <p>Os listeners são resolvidos a cada publicação via {@link ObjectProvider} para evitar
+ * ciclos de dependência com os repositórios que eles mesmos usam.</p>
+ *
+ * <p>Entre o commit e a publicação há um intervalo em que a mudança já está no banco mas os
+ * listeners ainda não a viram. Cada transação com mudanças recebe uma marca ao registrar a
+ * publicação; {@link #awaitPublished} permite a quem lê um snapshot do banco esperar que tudo
+ * o que ele pode conter já tenha sido publicado.</p>
+ */
+@Slf4j
+@Component
+public class PredictionWritePublisher {
+
+    private final ObjectProvider<PredictionWriteListener> listeners;
+    private final AtomicLong marks = new AtomicLong();
+    // Marcas das transações com mudanças ainda não publicadas (nem descartadas em rollback)
+    private final ConcurrentSkipListSet<Long> unpublished = new ConcurrentSkipListSet<>();
+
+    public PredictionWritePublisher(ObjectProvider<PredictionWriteListener> listeners) {
+        this.listeners = listeners;
+    }
+
+    /**
+     * Publica as predições gravadas e as mudanças da projeção após o commit da transação
+     * corrente, ou imediatamente quando não há transação ativa. Em rollback nada é publicado.
+     */
+    public void publishAfterCommit(List<PredictionHistory> histories, List<LatestPredictionChange> changes) {
+        if (histories.isEmpty() && changes.isEmpty()) return;
+        // Cópia: os chunks do chamador podem ser views reaproveitadas antes do commit
+        List<PredictionHistory> persisted = List.copyOf(histories);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(persisted, changes);
+            return;
+        }
+        long mark = changes.isEmpty() ? 0 : marks.incrementAndGet();
+        if (mark > 0) unpublished.add(mark);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(persisted, changes);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (mark > 0) unpublished.remove(mark);
+            }
+        });
+    }
+
+    /**
+     * Marca da última transação que registrou mudanças da projeção. Uma transação commitada
+     * antes deste instante tem marca menor ou igual à retornada.
+     */
+    public long publicationMark() {
+        return marks.get();
+    }
+
+    /**
+     * Aguarda até que todas as transações com marca menor ou igual a {@code mark} tenham
+     * publicado suas mudanças ou sofrido rollback.
+     *
+     * @throws IllegalStateException se alguma ainda estiver pendente após o timeout
+     */
+    public void awaitPublished(long mark, long timeoutMs) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        Long oldest;
+        while ((oldest = unpublished.ceiling(0L)) != null && oldest <= mark) {
+            if (System.nanoTime() - deadline > 0) {
+                throw new IllegalStateException("Mudanças da projeção ainda não publicadas após " + timeoutMs + "ms");
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    private void publish(List<PredictionHistory> histories, List<LatestPredictionChange> changes) {
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                if (!histories.isEmpty()) listener.onHistoriesPersisted(histories);
+                if (!changes.isEmpty()) listener.onLatestPredictionsChanged(changes);
+            } catch (RuntimeException e) {
+                log.error("Listener {} falhou ao processar {} predições / {} mudanças: {}",
+                        listener.getClass().getSimpleName(), histories.size(), changes.size(), e.getMessage(), e);
+            }
+        });
+    }
+}
@@ -0,0 +1,140 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.feed;
+
+import com.hackathon.databeats.churninsight.application.dto.PredictionFeedEvent;
+import com.hackathon.databeats.churninsight.application.dto.PredictionFeedFilter;
+import com.hackathon.databeats.churninsight.application.dto.PredictionFeedPage;
+import com.hackathon.databeats.churninsight.domain.model.PredictionHistory;
+import com.hackathon.databeats.churninsight.infra.util.UUIDv7;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Buffer circular dos últimos eventos do feed de predições.
+ *
+ * <p>Cada publicação reserva um bloco de cursores em {@link UUIDv7#reserve(int)}, monotônico
+ * no processo, então a ordem dos cursores é a ordem do buffer e a posição de um cursor é
+ * achada por busca binária. Quando o buffer enche, o evento mais antigo é sobrescrito e o seu
+ * cursor passa a ser o piso: cursores abaixo dele perderam eventos ({@code gap}). O piso
+ * inicial é um UUIDv7 gerado na criação, o que também marca como {@code gap} os cursores de
+ * uma execução anterior da aplicação.</p>
+ *
+ * <p>Escritas e leituras usam o mesmo lock; leitores sem eventos aguardam na condição
+ * sinalizada a cada publicação.</p>
+ */
+final class FeedRing {
+
+    private final PredictionFeedEvent[] events;
+    private final UUID[] cursors;
+    private final int mask;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+
+    private long head;   // total de eventos já publicados
+    private UUID last;   // cursor do último evento publicado
+    private UUID floor;  // eventos com cursor até este valor não estão mais disponíveis
+
+    FeedRing(int capacity) {
+        int size = 1 << (32 - Integer.numberOfLeadingZeros(Math.max(2, capacity) - 1)); // potência de 2
+        this.events = new PredictionFeedEvent[size];
+        this.cursors = new UUID[size];
+        this.mask = size - 1;
+        this.floor = UUIDv7.next();
+        this.last = floor;
+    }
+
+    void append(List<PredictionHistory> histories) {
+        lock.lock();
+        try {
+            if (histories.isEmpty()) return;
+            // Reservado sob o lock: a ordem dos blocos é a ordem do buffer
+            UUIDv7.Block cursorBlock = UUIDv7.reserve(histories.size());
+            for (int i = 0; i < histories.size(); i++) {
+                PredictionHistory history = histories.get(i);
+                UUID cursor = cursorBlock.uuid(i);
+                int slot = (int) (head & mask);
+                if (head >= events.length) floor = cursors[slot];
+                cursors[slot] = cursor;
+                events[slot] = toEvent(cursor, history);
+                head++;
+                last = cursor;
+            }
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    PredictionFeedPage poll(UUID after, PredictionFeedFilter filter, int limit, long waitNanos) {
+        lock.lock();
+        try {
+            boolean gap = after != null && after.compareTo(floor) < 0;
+            long position = after == null ? head : firstAfter(after);
+            UUID cursor = after == null ? last : after;
+            List<PredictionFeedEvent> found = new ArrayList<>();
+            long remaining = waitNanos;
+            while (true) {
+                // Durante a espera o buffer pode ter dado a volta sobre a posição
+                if (position < head - events.length) {
+                    gap = true;
+                    position = head - events.length;
+                }
+                for (; position < head && found.size() < limit; position++) {
+                    int slot = (int) (position & mask);
+                    cursor = cursors[slot];
+                    if (filter.matches(events[slot])) found.add(events[slot]);
+                }
+                if (!found.isEmpty() || gap || remaining <= 0) break;
+                try {
+                    remaining = appended.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            return new PredictionFeedPage(List.copyOf(found), cursor.toString(), gap);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return (int) Math.min(head, events.length);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // === MÉTODOS PRIVADOS ===
+
+    // Primeira posição retida com cursor maior que o informado
+    private long firstAfter(UUID after) {
+        long low = Math.max(0, head - events.length);
+        long high = head;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (cursors[(int) (mid & mask)].compareTo(after) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static PredictionFeedEvent toEvent(UUID cursor, PredictionHistory history) {
+        return new PredictionFeedEvent(
+                cursor.toString(),
+                history.id(),
+                history.userId(),
+                history.subscriptionType(),
+                history.churnStatus(),
+                history.probability() != null ? history.probability() : 0.0,
+                history.createdAt());
+    }
+}
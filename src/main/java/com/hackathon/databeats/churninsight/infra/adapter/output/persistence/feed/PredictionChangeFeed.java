@@ -0,0 +1,69 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.feed;
+
+import com.hackathon.databeats.churninsight.application.dto.PredictionFeedFilter;
+import com.hackathon.databeats.churninsight.application.dto.PredictionFeedPage;
+import com.hackathon.databeats.churninsight.application.port.output.PredictionFeedPort;
+import com.hackathon.databeats.churninsight.domain.model.PredictionHistory;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.event.PredictionWriteListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Feed em processo das predições gravadas no churn_history, para consumidores que hoje
+ * descobrem predições novas consultando {@code /clients}.
+ *
+ * <p>Alimentado após o commit pelas mesmas notificações que mantêm os agregados em memória,
+ * então cobre a predição individual e o batch. Os últimos {@code capacity} eventos ficam em um
+ * {@link FeedRing}; o consumidor guarda o cursor da última leitura e retoma dele. O feed não
+ * é durável: após reinício ou estouro do buffer a leitura sinaliza {@code gap} e o consumidor
+ * reconcilia pelo histórico.</p>
+ */
+@Component
+public class PredictionChangeFeed implements PredictionFeedPort, PredictionWriteListener {
+
+    private final FeedRing ring;
+    private final Counter publishedCounter;
+
+    public PredictionChangeFeed(
+            MeterRegistry meterRegistry,
+            @Value("${app.prediction-feed.capacity:65536}") int capacity) {
+        this.ring = new FeedRing(capacity);
+        this.publishedCounter = Counter.builder("churn.prediction.feed.published")
+                .description("Predições publicadas no feed de mudanças")
+                .register(meterRegistry);
+        Gauge.builder("churn.prediction.feed.buffered", ring, FeedRing::size)
+                .description("Eventos retidos no buffer do feed de predições")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onHistoriesPersisted(List<PredictionHistory> histories) {
+        ring.append(histories);
+        publishedCounter.increment(histories.size());
+    }
+
+    @Override
+    public PredictionFeedPage poll(String after, PredictionFeedFilter filter, int limit, Duration wait) {
+        return ring.poll(parseCursor(after), filter, Math.max(1, limit), Math.max(0L, wait.toNanos()));
+    }
+
+    // === MÉTODOS PRIVADOS ===
+
+    private static UUID parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            UUID parsed = UUID.fromString(cursor.trim());
+            if (parsed.version() == 7 && parsed.variant() == 2) return parsed;
+        } catch (IllegalArgumentException e) {
+            // cai na mensagem abaixo
+        }
+        throw new IllegalArgumentException("Cursor do feed inválido: " + cursor);
+    }
+}
@@ -0,0 +1,30 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.index;
+
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.snapshot.StreamingQuery;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.function.Consumer;
+
+/**
+ * Leitura em streaming dos userIds distintos para a carga dos índices em memória.
+ *
+ * <p>Usa a projeção customer_latest_prediction (chave primária user_id, uma linha por
+ * cliente) em vez de {@code SELECT DISTINCT} sobre o churn_history.</p>
+ */
+final class DistinctUserIds {
+
+    private static final String STREAM_SQL = "SELECT user_id FROM customer_latest_prediction";
+
+    private DistinctUserIds() {
+        // Utility class
+    }
+
+    /**
+     * Entrega cada userId ao consumidor sem materializar o resultado no driver.
+     */
+    static void forEach(JdbcTemplate jdbcTemplate, Consumer<String> consumer) {
+        StreamingQuery.forEach(jdbcTemplate, STREAM_SQL, rs -> {
+            consumer.accept(rs.getString(1));
+        });
+    }
+}
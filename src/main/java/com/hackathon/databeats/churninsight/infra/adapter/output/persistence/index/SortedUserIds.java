@@ -0,0 +1,119 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.index;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Conjunto imutável e ordenado de userIds empacotado em arrays primitivos.
+ *
+ * <p>Os bytes UTF-8 de todos os userIds ficam em uma única arena, na ordem de
+ * {@link String#compareTo}, com um {@code int[]} de deslocamentos. Para 1 milhão de UUIDs são
+ * cerca de 40 MB, contra mais de 100 MB como {@code TreeSet<String>}. A busca por prefixo é
+ * uma busca binária pelo primeiro elemento {@code >= prefixo} seguida de leitura sequencial.</p>
+ */
+final class SortedUserIds {
+
+    static final SortedUserIds EMPTY = new SortedUserIds(new byte[0], new int[]{0}, 0);
+
+    private final byte[] arena;
+    private final int[] offsets; // count + 1 posições; o último é o tamanho da arena
+    private final int count;
+
+    private SortedUserIds(byte[] arena, int[] offsets, int count) {
+        this.arena = arena;
+        this.offsets = offsets;
+        this.count = count;
+    }
+
+    /**
+     * Empacota uma lista já ordenada e sem repetições.
+     */
+    static SortedUserIds of(List<String> sortedDistinct) {
+        byte[][] encoded = new byte[sortedDistinct.size()][];
+        int total = 0;
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = sortedDistinct.get(i).getBytes(StandardCharsets.UTF_8);
+            total += encoded[i].length;
+        }
+        byte[] arena = new byte[total];
+        int[] offsets = new int[encoded.length + 1];
+        int position = 0;
+        for (int i = 0; i < encoded.length; i++) {
+            offsets[i] = position;
+            System.arraycopy(encoded[i], 0, arena, position, encoded[i].length);
+            position += encoded[i].length;
+        }
+        offsets[encoded.length] = position;
+        return new SortedUserIds(arena, offsets, encoded.length);
+    }
+
+    int size() {
+        return count;
+    }
+
+    String get(int index) {
+        return new String(arena, offsets[index], offsets[index + 1] - offsets[index], StandardCharsets.UTF_8);
+    }
+
+    boolean contains(String userId) {
+        int index = lowerBound(userId);
+        return index < count && get(index).equals(userId);
+    }
+
+    /** Posição do primeiro userId {@code >= key} (ou {@link #size()} se não houver). */
+    int lowerBound(String key) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (get(mid).compareTo(key) < 0) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    long memoryBytes() {
+        return arena.length + 4L * offsets.length;
+    }
+
+    /**
+     * Novo conjunto com os userIds informados (ordenados) intercalados aos atuais. Os bytes
+     * existentes são copiados direto para a nova arena; repetidos são descartados.
+     */
+    SortedUserIds withAll(List<String> sortedAdditions) {
+        byte[][] encoded = new byte[sortedAdditions.size()][];
+        int extra = 0;
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = sortedAdditions.get(i).getBytes(StandardCharsets.UTF_8);
+            extra += encoded[i].length;
+        }
+        byte[] mergedArena = new byte[arena.length + extra];
+        int[] mergedOffsets = new int[count + encoded.length + 1];
+        int position = 0;
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        String current = count > 0 ? get(0) : null;
+        while (i < count || j < encoded.length) {
+            int cmp = i == count ? 1 : j == encoded.length ? -1 : current.compareTo(sortedAdditions.get(j));
+            if (cmp <= 0) {
+                int length = offsets[i + 1] - offsets[i];
+                System.arraycopy(arena, offsets[i], mergedArena, position, length);
+                mergedOffsets[n++] = position;
+                position += length;
+                if (cmp == 0) j++;
+                current = ++i < count ? get(i) : null;
+            } else {
+                if (j == 0 || !sortedAdditions.get(j).equals(sortedAdditions.get(j - 1))) {
+                    System.arraycopy(encoded[j], 0, mergedArena, position, encoded[j].length);
+                    mergedOffsets[n++] = position;
+                    position += encoded[j].length;
+                }
+                j++;
+            }
+        }
+        mergedOffsets[n] = position;
+        return new SortedUserIds(Arrays.copyOf(mergedArena, position), Arrays.copyOf(mergedOffsets, n + 1), n);
+    }
+}
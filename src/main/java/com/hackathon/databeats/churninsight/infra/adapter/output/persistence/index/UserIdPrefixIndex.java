@@ -0,0 +1,193 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.index;
+
+import com.hackathon.databeats.churninsight.domain.model.PredictionHistory;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.event.PredictionWriteListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Autocomplete de userId em memória para {@code /clients/autocomplete/user-id}.
+ *
+ * <p>Os userIds distintos ficam em um {@link SortedUserIds} imutável, como chave em minúsculas
+ * seguida do id original quando ele difere da chave (a busca é case-insensitive, mas a resposta
+ * mantém o id como gravado). Os novos
+ * clientes gravados entram em um {@link ConcurrentSkipListSet} de recentes; ao passar de
+ * {@code merge-threshold} entradas, os recentes são fundidos em um novo array ordenado, trocado
+ * de forma atômica. A leitura não usa lock: percorre o array a partir da busca binária e os
+ * recentes pelo intervalo do prefixo, intercalando os dois em ordem.</p>
+ *
+ * <p>Carregado após a subida da aplicação a partir de customer_latest_prediction; até lá,
+ * {@link #complete} devolve vazio e o autocomplete consulta o banco.</p>
+ */
+@Slf4j
+@Component
+public class UserIdPrefixIndex implements PredictionWriteListener {
+
+    // Menor que qualquer caractere de userId: mantém as entradas agrupadas e ordenadas pela chave
+    private static final char ORIGINAL_SEPARATOR = '\u0000';
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int mergeThreshold;
+    private final NavigableSet<String> recent = new ConcurrentSkipListSet<>();
+    private final Object mergeLock = new Object();
+    private final AtomicBoolean merging = new AtomicBoolean();
+    private volatile SortedUserIds base = SortedUserIds.EMPTY;
+    private volatile boolean ready;
+
+    public UserIdPrefixIndex(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.search.user-id-autocomplete.enabled:true}") boolean enabled,
+            @Value("${app.search.user-id-autocomplete.merge-threshold:4096}") int mergeThreshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.mergeThreshold = mergeThreshold;
+        Gauge.builder("churn.search.user_id_autocomplete.bytes", this, UserIdPrefixIndex::memoryBytes)
+                .description("Memória estimada do índice de autocomplete de userId")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("churn.search.user_id_autocomplete.ids", this, i -> i.base.size() + i.recent.size())
+                .description("userIds no índice de autocomplete")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) return;
+        Thread.ofVirtual().name("user-id-autocomplete-build").start(this::build);
+    }
+
+    /**
+     * Até {@code limit} userIds que começam com o prefixo, em ordem alfabética.
+     *
+     * @return vazio enquanto o índice não estiver carregado
+     */
+    public Optional<List<String>> complete(String prefix, int limit) {
+        if (!ready) return Optional.empty();
+        String key = prefix.trim().toLowerCase(Locale.ROOT);
+        SortedUserIds snapshot = base;
+
+        int index = snapshot.lowerBound(key);
+        Iterator<String> fromRecent = recent.tailSet(key, true).iterator();
+        String nextBase = index < snapshot.size() ? snapshot.get(index) : null;
+        String nextRecent = fromRecent.hasNext() ? fromRecent.next() : null;
+
+        List<String> result = new ArrayList<>(limit);
+        String previous = null;
+        while (result.size() < limit) {
+            boolean baseMatches = nextBase != null && nextBase.startsWith(key);
+            boolean recentMatches = nextRecent != null && nextRecent.startsWith(key);
+            if (!baseMatches && !recentMatches) break;
+
+            String next;
+            if (baseMatches && (!recentMatches || nextBase.compareTo(nextRecent) <= 0)) {
+                next = nextBase;
+                nextBase = ++index < snapshot.size() ? snapshot.get(index) : null;
+            } else {
+                next = nextRecent;
+                nextRecent = fromRecent.hasNext() ? fromRecent.next() : null;
+            }
+            // Durante uma fusão o mesmo userId pode estar nos dois lados
+            if (!next.equals(previous)) result.add(original(next));
+            previous = next;
+        }
+        return Optional.of(result);
+    }
+
+    @Override
+    public void onHistoriesPersisted(List<PredictionHistory> histories) {
+        if (!enabled) return;
+        SortedUserIds snapshot = base;
+        for (PredictionHistory history : histories) {
+            if (history.userId() == null || history.userId().isBlank()) continue;
+            String entry = entry(history.userId());
+            if (!snapshot.contains(entry)) recent.add(entry);
+        }
+        if (ready && recent.size() >= mergeThreshold) scheduleMerge();
+    }
+
+    /** Bytes do array ordenado mais uma estimativa por entrada do skip list de recentes. */
+    public double memoryBytes() {
+        return base.memoryBytes() + 96.0 * recent.size();
+    }
+
+    // === MÉTODOS PRIVADOS ===
+
+    private void build() {
+        long start = System.nanoTime();
+        try {
+            List<String> userIds = new ArrayList<>();
+            DistinctUserIds.forEach(jdbcTemplate, userId -> {
+                if (userId != null && !userId.isBlank()) userIds.add(entry(userId));
+            });
+            userIds.sort(null);
+            synchronized (mergeLock) {
+                base = SortedUserIds.of(distinct(userIds));
+            }
+            ready = true;
+            merge();
+            log.info("Autocomplete de userId carregado: {} clientes em {} ms",
+                    base.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Falha ao carregar autocomplete de userId, consultas seguirão no banco: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Funde os recentes no array ordenado. Os recentes só saem do skip list depois que o
+     * novo array foi publicado, então nenhuma leitura deixa de vê-los.
+     */
+    private void merge() {
+        synchronized (mergeLock) {
+            List<String> pending = new ArrayList<>(recent); // já ordenados pelo skip list
+            if (!pending.isEmpty()) {
+                base = base.withAll(pending);
+                recent.removeAll(pending);
+            }
+        }
+        merging.set(false);
+    }
+
+    // A fusão copia o array inteiro: roda fora da thread que gravou as predições
+    private void scheduleMerge() {
+        if (merging.compareAndSet(false, true)) {
+            Thread.ofVirtual().name("user-id-autocomplete-merge").start(this::merge);
+        }
+    }
+
+    // Chave em minúsculas para a busca, seguida do id original quando ele tem maiúsculas
+    private static String entry(String userId) {
+        String trimmed = userId.trim();
+        String key = trimmed.toLowerCase(Locale.ROOT);
+        return key.equals(trimmed) ? key : key + ORIGINAL_SEPARATOR + trimmed;
+    }
+
+    private static String original(String entry) {
+        int separator = entry.indexOf(ORIGINAL_SEPARATOR);
+        return separator < 0 ? entry : entry.substring(separator + 1);
+    }
+
+    private static List<String> distinct(List<String> sorted) {
+        List<String> out = new ArrayList<>(sorted.size());
+        for (String value : sorted) {
+            if (out.isEmpty() || !out.get(out.size() - 1).equals(value)) out.add(value);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,143 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.index;
+
+import com.hackathon.databeats.churninsight.application.dto.UserIdMatch;
+import com.hackathon.databeats.churninsight.domain.model.PredictionHistory;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.event.PredictionWriteListener;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Índice em memória dos userIds distintos para a busca por texto de {@code /clients}.
+ *
+ * <p>Construído após a subida da aplicação em uma thread própria, lendo em streaming a
+ * projeção customer_latest_prediction (uma linha por cliente), e atualizado a cada gravação
+ * confirmada de predições. Enquanto a carga inicial não termina, {@link #resolve} devolve
+ * vazio e a busca usa o {@code LIKE} no banco.</p>
+ *
+ * <p>A busca recebe os userIds que casam com o texto e filtra o churn_history com
+ * {@code user_id IN (...)} sobre idx_user_id, em vez de varrer a tabela com
+ * {@code LIKE '%texto%'}. Se o texto casar com mais de {@code max-matches} clientes, o índice
+ * também devolve vazio: nesse caso a lista IN deixaria de ser vantajosa.</p>
+ */
+@Slf4j
+@Component
+public class UserIdSearchIndex implements PredictionWriteListener {
+
+    private static final int LOAD_CHUNK = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int maxMatches;
+    private final UserIdTrigramIndex index = new UserIdTrigramIndex();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Timer queryTimer;
+    private volatile boolean ready;
+
+    public UserIdSearchIndex(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.search.user-id-index.enabled:true}") boolean enabled,
+            @Value("${app.search.user-id-index.max-matches:1000}") int maxMatches) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.maxMatches = maxMatches;
+        this.queryTimer = Timer.builder("churn.search.user_id_index.query")
+                .description("Tempo de consulta ao índice de userIds")
+                .register(meterRegistry);
+        Gauge.builder("churn.search.user_id_index.ids", this, i -> i.read(() -> (double) i.index.size()))
+                .description("userIds distintos no índice de busca")
+                .register(meterRegistry);
+        Gauge.builder("churn.search.user_id_index.bytes", this, i -> i.read(() -> (double) i.index.memoryBytes()))
+                .description("Memória estimada do índice de userIds")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) return;
+        Thread.ofVirtual().name("user-id-index-build").start(this::build);
+    }
+
+    /**
+     * userIds que casam com o texto no modo informado.
+     *
+     * @return lista (possivelmente vazia) de userIds em minúsculas, ou vazio se o índice
+     *         ainda não está pronto, o modo não é atendido ou há correspondências demais
+     */
+    public Optional<List<String>> resolve(String text, UserIdMatch match) {
+        if (!ready || text == null || text.isBlank() || match == UserIdMatch.EXACT) return Optional.empty();
+        List<String> found = queryTimer.record(() -> read(() -> index.find(text, match == UserIdMatch.PREFIX, maxMatches)));
+        return Optional.ofNullable(found);
+    }
+
+    /** Indica se a carga inicial terminou. */
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public void onHistoriesPersisted(List<PredictionHistory> histories) {
+        if (!enabled) return;
+        lock.writeLock().lock();
+        try {
+            for (PredictionHistory history : histories) {
+                index.add(history.userId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // === MÉTODOS PRIVADOS ===
+
+    private void build() {
+        long start = System.nanoTime();
+        try {
+            List<String> chunk = new ArrayList<>(LOAD_CHUNK);
+            DistinctUserIds.forEach(jdbcTemplate, userId -> {
+                chunk.add(userId);
+                if (chunk.size() == LOAD_CHUNK) addAll(chunk);
+            });
+            addAll(chunk);
+            ready = true;
+            log.info("Índice de userIds carregado: {} clientes em {} ms",
+                    read(index::size), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Falha ao carregar índice de userIds, busca por texto seguirá no banco: {}", e.getMessage(), e);
+        }
+    }
+
+    // Em lotes para não segurar o lock de escrita durante toda a carga
+    private void addAll(List<String> userIds) {
+        lock.writeLock().lock();
+        try {
+            for (String userId : userIds) index.add(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        userIds.clear();
+    }
+
+    private <T> T read(Supplier<T> action) {
+        lock.readLock().lock();
+        try {
+            return action.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
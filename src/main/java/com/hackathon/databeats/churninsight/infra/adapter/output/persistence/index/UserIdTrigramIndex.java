@@ -0,0 +1,261 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.index;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Índice invertido de trigramas sobre userIds distintos (em minúsculas).
+ *
+ * <p>Cada userId recebe um ordinal crescente e tem seus bytes UTF-8 guardados em uma arena
+ * contígua. Para cada trigrama há uma lista de ordinais; como os ordinais só crescem, as
+ * listas já nascem ordenadas e são gravadas como deltas em varint (tipicamente 1–2 bytes por
+ * entrada). A deduplicação usa uma tabela hash aberta de ordinais sobre a própria arena, sem
+ * manter um {@code String} por userId.</p>
+ *
+ * <p>A busca intersecciona as listas dos trigramas da consulta, começando pela menor, e
+ * confirma cada candidato comparando os bytes na arena. Consultas com menos de 3 caracteres
+ * não têm trigrama e varrem a arena.</p>
+ *
+ * <p>Não é thread-safe: a sincronização fica com {@link UserIdSearchIndex}.</p>
+ */
+final class UserIdTrigramIndex {
+
+    private static final int VERIFY_THRESHOLD = 64;
+
+    private byte[] arena = new byte[1 << 16];
+    private int arenaSize;
+    private int[] offsets = new int[1 << 10];
+    private int count;
+    private int[] table = new int[1 << 11];
+    private final Map<Long, PostingList> postings = new HashMap<>();
+
+    /**
+     * Adiciona o userId se ainda não estiver no índice.
+     *
+     * @return {@code true} se foi adicionado
+     */
+    boolean add(String userId) {
+        if (userId == null || userId.isBlank()) return false;
+        String key = userId.trim().toLowerCase(Locale.ROOT);
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        int hash = hash(bytes, 0, bytes.length);
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        while (table[slot] != 0) {
+            int ordinal = table[slot] - 1;
+            if (equalsAt(ordinal, bytes)) return false;
+            slot = (slot + 1) & mask;
+        }
+
+        int ordinal = append(bytes);
+        table[slot] = ordinal + 1;
+        if (count * 2 > table.length) rehash();
+
+        for (int i = 0; i + 2 < key.length(); i++) {
+            postings.computeIfAbsent(trigram(key, i), t -> new PostingList()).add(ordinal);
+        }
+        return true;
+    }
+
+    /**
+     * Retorna os userIds que contêm (ou começam com) o texto consultado.
+     *
+     * @param query texto procurado (comparação sem diferenciar caixa)
+     * @param prefix se {@code true}, exige que o userId comece com o texto
+     * @param limit máximo de resultados
+     * @return userIds encontrados, ou {@code null} se houver mais que {@code limit}
+     */
+    List<String> find(String query, boolean prefix, int limit) {
+        String key = query.trim().toLowerCase(Locale.ROOT);
+        byte[] needle = key.getBytes(StandardCharsets.UTF_8);
+        List<String> result = new ArrayList<>();
+
+        if (key.length() < 3) {
+            for (int ordinal = 0; ordinal < count; ordinal++) {
+                if (matches(ordinal, needle, prefix) && !collect(ordinal, result, limit)) return null;
+            }
+            return result;
+        }
+
+        int[] candidates = candidates(key);
+        for (int ordinal : candidates) {
+            if (matches(ordinal, needle, prefix) && !collect(ordinal, result, limit)) return null;
+        }
+        return result;
+    }
+
+    /** Quantidade de userIds distintos. */
+    int size() {
+        return count;
+    }
+
+    /** Estimativa dos bytes ocupados pela arena, ordinais, tabela hash e listas. */
+    long memoryBytes() {
+        long bytes = arena.length + 4L * offsets.length + 4L * table.length;
+        for (PostingList list : postings.values()) {
+            // entrada do HashMap + chave Long + objeto PostingList, além dos dados
+            bytes += 32 + 16 + 32 + list.data.length;
+        }
+        return bytes;
+    }
+
+    // === MÉTODOS PRIVADOS ===
+
+    private int[] candidates(String key) {
+        Set<Long> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 2 < key.length(); i++) grams.add(trigram(key, i));
+
+        List<PostingList> lists = new ArrayList<>(grams.size());
+        for (Long gram : grams) {
+            PostingList list = postings.get(gram);
+            if (list == null) return new int[0];
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(l -> l.count));
+
+        // Com poucos candidatos é mais barato confirmar na arena do que decodificar mais listas
+        int[] current = lists.get(0).decode();
+        for (int i = 1; i < lists.size() && current.length > VERIFY_THRESHOLD; i++) {
+            current = lists.get(i).intersect(current);
+        }
+        return current;
+    }
+
+    private boolean collect(int ordinal, List<String> result, int limit) {
+        if (result.size() >= limit) return false;
+        result.add(new String(arena, offsets[ordinal], length(ordinal), StandardCharsets.UTF_8));
+        return true;
+    }
+
+    private boolean matches(int ordinal, byte[] needle, boolean prefix) {
+        int start = offsets[ordinal];
+        int length = length(ordinal);
+        if (needle.length > length) return false;
+        int lastStart = prefix ? 0 : length - needle.length;
+        for (int from = 0; from <= lastStart; from++) {
+            int k = 0;
+            while (k < needle.length && arena[start + from + k] == needle[k]) k++;
+            if (k == needle.length) return true;
+        }
+        return false;
+    }
+
+    private boolean equalsAt(int ordinal, byte[] bytes) {
+        int start = offsets[ordinal];
+        return length(ordinal) == bytes.length
+                && Arrays.equals(arena, start, start + bytes.length, bytes, 0, bytes.length);
+    }
+
+    private int length(int ordinal) {
+        return (ordinal + 1 < count ? offsets[ordinal + 1] : arenaSize) - offsets[ordinal];
+    }
+
+    private int append(byte[] bytes) {
+        if (arenaSize + bytes.length > arena.length) {
+            arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaSize + bytes.length));
+        }
+        if (count == offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        System.arraycopy(bytes, 0, arena, arenaSize, bytes.length);
+        offsets[count] = arenaSize;
+        arenaSize += bytes.length;
+        return count++;
+    }
+
+    private void rehash() {
+        int[] next = new int[table.length * 2];
+        int mask = next.length - 1;
+        for (int ordinal = 0; ordinal < count; ordinal++) {
+            int slot = hash(arena, offsets[ordinal], offsets[ordinal] + length(ordinal)) & mask;
+            while (next[slot] != 0) slot = (slot + 1) & mask;
+            next[slot] = ordinal + 1;
+        }
+        table = next;
+    }
+
+    private static int hash(byte[] bytes, int from, int to) {
+        int h = 1;
+        for (int i = from; i < to; i++) h = 31 * h + bytes[i];
+        return h ^ (h >>> 16);
+    }
+
+    private static long trigram(String key, int i) {
+        return ((long) key.charAt(i) << 32) | ((long) key.charAt(i + 1) << 16) | key.charAt(i + 2);
+    }
+
+    /**
+     * Lista de ordinais crescentes codificada em deltas varint.
+     */
+    private static final class PostingList {
+        private byte[] data = new byte[8];
+        private int size;
+        private int count;
+        private int last = -1;
+
+        void add(int ordinal) {
+            if (ordinal == last) return; // trigrama repetido no mesmo userId
+            int delta = ordinal - last;
+            if (size + 5 > data.length) data = Arrays.copyOf(data, data.length * 2);
+            while ((delta & ~0x7F) != 0) {
+                data[size++] = (byte) ((delta & 0x7F) | 0x80);
+                delta >>>= 7;
+            }
+            data[size++] = (byte) delta;
+            last = ordinal;
+            count++;
+        }
+
+        /**
+         * Interseção com uma lista ordenada, decodificando os deltas em streaming.
+         */
+        int[] intersect(int[] sorted) {
+            int[] out = new int[Math.min(sorted.length, count)];
+            int n = 0;
+            int j = 0;
+            int pos = 0;
+            int value = -1;
+            for (int i = 0; i < count && j < sorted.length; i++) {
+                int delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data[pos++];
+                    delta |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                value += delta;
+                while (j < sorted.length && sorted[j] < value) j++;
+                if (j < sorted.length && sorted[j] == value) out[n++] = sorted[j++];
+            }
+            return Arrays.copyOf(out, n);
+        }
+
+        int[] decode() {
+            int[] out = new int[count];
+            int pos = 0;
+            int value = -1;
+            for (int i = 0; i < count; i++) {
+                int delta = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data[pos++];
+                    delta |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                value += delta;
+                out[i] = value;
+            }
+            return out;
+        }
+    }
+}
@@ -0,0 +1,598 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.journal;
+
+import com.hackathon.databeats.churninsight.domain.model.PredictionHistory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Journal local append-only das predições individuais.
+ *
+ * <p>Cada predição é gravada em segmentos memory-mapped de tamanho fixo antes de seguir
+ * para o MySQL. Um thread dedicado faz o fsync em grupo (group commit): todas as gravações
+ * acumuladas desde o último fsync são tornadas duráveis com um único {@code force()}.</p>
+ *
+ * <p>Formato de cada registro no segmento:</p>
+ * <pre>
+ * int  tamanho do payload (0 indica fim dos dados do segmento)
+ * long sequência
+ * byte[] payload ({@link PredictionJournalCodec})
+ * int  CRC32 de sequência + payload
+ * </pre>
+ *
+ * <p>O checkpoint guarda a maior sequência S tal que todos os registros até S já foram
+ * confirmados no MySQL. Segmentos totalmente cobertos pelo checkpoint são removidos e os
+ * registros após o checkpoint são reenviados por {@link PredictionJournalReplayer}.</p>
+ *
+ * <p>Registros que o MySQL rejeita de forma permanente são copiados, no mesmo formato, para
+ * {@code dead-letter.journal} e confirmados ({@link #deadLetter}), para não prender o
+ * checkpoint nem a remoção dos segmentos.</p>
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class PredictionJournal {
+
+    /** Sequência retornada quando o journal está desabilitado ou a gravação falhou. */
+    public static final long NO_SEQUENCE = -1L;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".journal";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final String DEAD_LETTER_FILE = "dead-letter" + SEGMENT_SUFFIX;
+    private static final int RECORD_OVERHEAD = Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final long fsyncIntervalMs;
+    private final boolean awaitDurable;
+    private final Counter deadLettered;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition workAvailable = lock.newCondition();
+    private final Condition durable = lock.newCondition();
+
+    // Estado protegido por lock
+    private final List<SegmentInfo> closedSegments = new ArrayList<>();
+    private Segment active;
+    private long nextSequence = 1;
+    private long writtenSequence;
+    private long durableSequence;
+    private boolean running;
+
+    // Estado de confirmação protegido por ackMonitor
+    private final Object ackMonitor = new Object();
+    private final Set<Long> acknowledgedAhead = new HashSet<>();
+    private volatile long checkpointSequence;
+    private boolean checkpointDirty;
+
+    private Thread flusher;
+    private volatile LocalDateTime openedAt = LocalDateTime.now();
+
+    public PredictionJournal(
+            @Value("${app.journal.enabled:false}") boolean enabled,
+            @Value("${app.journal.dir:./data/journal}") String directory,
+            @Value("${app.journal.segment-size-mb:64}") int segmentSizeMb,
+            @Value("${app.journal.fsync-interval-ms:5}") long fsyncIntervalMs,
+            @Value("${app.journal.await-durable:true}") boolean awaitDurable,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.segmentSize = Math.max(1, segmentSizeMb) * 1024 * 1024;
+        this.fsyncIntervalMs = Math.max(1, fsyncIntervalMs);
+        this.awaitDurable = awaitDurable;
+
+        Gauge.builder("churn.journal.pending", this, PredictionJournal::pendingCount)
+                .description("Predicoes gravadas no journal ainda nao confirmadas no MySQL")
+                .register(meterRegistry);
+        this.deadLettered = Counter.builder("churn.journal.dead_letter")
+                .description("Predicoes do journal rejeitadas de forma permanente pelo MySQL")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Abre o journal: lê o checkpoint, descarta segmentos já confirmados e inicia um
+     * novo segmento ativo após a maior sequência encontrada em disco.
+     */
+    @PostConstruct
+    public void open() {
+        if (!enabled) {
+            log.info("PredictionJournal desabilitado (app.journal.enabled=false)");
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            long checkpoint = readCheckpoint();
+            long maxSequence = checkpoint;
+            long minSequence = Long.MAX_VALUE;
+
+            for (Path path : listSegments()) {
+                SegmentScan scan = scanSegment(path, Long.MAX_VALUE, null);
+                if (scan.records == 0 || scan.lastSequence <= checkpoint) {
+                    Files.deleteIfExists(path);
+                    continue;
+                }
+                closedSegments.add(new SegmentInfo(path, scan.firstSequence, scan.lastSequence));
+                maxSequence = Math.max(maxSequence, scan.lastSequence);
+                minSequence = Math.min(minSequence, scan.firstSequence);
+            }
+
+            // Sem registros pendentes em disco, o checkpoint alcança a última sequência conhecida
+            checkpointSequence = minSequence == Long.MAX_VALUE ? maxSequence : Math.max(checkpoint, minSequence - 1);
+            nextSequence = maxSequence + 1;
+            writtenSequence = maxSequence;
+            durableSequence = maxSequence;
+            active = Segment.create(segmentPath(nextSequence), nextSequence, segmentSize);
+            openedAt = LocalDateTime.now();
+
+            running = true;
+            flusher = new Thread(this::flushLoop, "prediction-journal-fsync");
+            flusher.setDaemon(true);
+            flusher.start();
+
+            log.info("PredictionJournal aberto em {} | checkpoint: {} | pendentes em disco: {}",
+                    directory.toAbsolutePath(), checkpointSequence, maxSequence - checkpointSequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao abrir o journal de predições em " + directory, e);
+        }
+    }
+
+    /**
+     * Fecha o journal garantindo fsync do segmento ativo e persistência do checkpoint.
+     */
+    @PreDestroy
+    public void close() {
+        if (!enabled || flusher == null) return;
+        lock.lock();
+        try {
+            running = false;
+            workAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            active.buffer.force();
+            active.close();
+            durableSequence = writtenSequence;
+        } finally {
+            lock.unlock();
+        }
+        persistCheckpoint();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Momento em que o journal foi aberto. Registros criados antes disso pertencem a
+     * execuções anteriores da aplicação.
+     */
+    public LocalDateTime openedAt() {
+        return openedAt;
+    }
+
+    /**
+     * Acrescenta uma predição ao journal.
+     *
+     * <p>Com {@code app.journal.await-durable=true} o método só retorna após o fsync em
+     * grupo que cobre o registro.</p>
+     *
+     * @return sequência atribuída ao registro, ou {@link #NO_SEQUENCE} se desabilitado
+     * @throws UncheckedIOException se o registro não puder ser gravado
+     */
+    public long append(PredictionHistory history) {
+        if (!enabled) return NO_SEQUENCE;
+
+        byte[] payload = PredictionJournalCodec.encode(history);
+        int recordSize = RECORD_OVERHEAD + payload.length;
+        long sequence;
+
+        lock.lock();
+        try {
+            if (!running) {
+                throw new IllegalStateException("PredictionJournal não está aberto");
+            }
+            if (active.buffer.remaining() < recordSize + Integer.BYTES) {
+                rollSegment(recordSize);
+            }
+            sequence = nextSequence++;
+            writeRecord(active.buffer, sequence, payload);
+            active.lastSequence = sequence;
+            writtenSequence = sequence;
+            workAvailable.signal();
+
+            if (awaitDurable) {
+                while (durableSequence < sequence && running) {
+                    durable.awaitUninterruptibly();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar predição no journal", e);
+        } finally {
+            lock.unlock();
+        }
+        return sequence;
+    }
+
+    /**
+     * Confirma que o registro chegou ao MySQL, permitindo avançar o checkpoint.
+     */
+    public void acknowledge(long sequence) {
+        if (!enabled || sequence <= 0) return;
+        synchronized (ackMonitor) {
+            if (sequence <= checkpointSequence) return;
+            acknowledgedAhead.add(sequence);
+            long checkpoint = checkpointSequence;
+            while (acknowledgedAhead.remove(checkpoint + 1)) {
+                checkpoint++;
+            }
+            if (checkpoint != checkpointSequence) {
+                checkpointSequence = checkpoint;
+                checkpointDirty = true;
+            }
+        }
+    }
+
+    /**
+     * Retira do journal um registro que o MySQL rejeita de forma permanente (ex.: violação de
+     * integridade): copia-o para {@code dead-letter.journal}, com fsync, e o confirma.
+     *
+     * @throws UncheckedIOException se a cópia falhar; o registro continua pendente
+     */
+    public synchronized void deadLetter(JournalEntry entry) {
+        if (!enabled) return;
+        byte[] payload = PredictionJournalCodec.encode(entry.history());
+        ByteBuffer record = ByteBuffer.allocate(RECORD_OVERHEAD + payload.length);
+        writeRecord(record, entry.sequence(), payload);
+        record.flip();
+        try (FileChannel channel = FileChannel.open(directory.resolve(DEAD_LETTER_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar predição no dead-letter do journal", e);
+        }
+        deadLettered.increment();
+        acknowledge(entry.sequence());
+    }
+
+    /**
+     * Lê registros ainda não confirmados, em ordem de sequência.
+     *
+     * @param limit         número máximo de registros retornados
+     * @param createdBefore só retorna predições criadas antes deste instante, evitando
+     *                      reenviar registros cuja gravação síncrona ainda está em andamento
+     */
+    public List<JournalEntry> readUnacknowledged(int limit, LocalDateTime createdBefore) {
+        if (!enabled || pendingCount() == 0) return List.of();
+
+        List<Path> paths = new ArrayList<>();
+        long upTo;
+        lock.lock();
+        try {
+            long checkpoint = checkpointSequence;
+            for (SegmentInfo info : closedSegments) {
+                if (info.lastSequence > checkpoint) paths.add(info.path);
+            }
+            paths.add(active.path);
+            upTo = writtenSequence;
+        } finally {
+            lock.unlock();
+        }
+
+        List<JournalEntry> entries = new ArrayList<>();
+        for (Path path : paths) {
+            if (entries.size() >= limit) break;
+            try {
+                scanSegment(path, upTo, entry -> {
+                    if (entries.size() >= limit || isAcknowledged(entry.sequence())) return;
+                    LocalDateTime createdAt = entry.history().createdAt();
+                    if (createdAt == null || createdAt.isBefore(createdBefore)) {
+                        entries.add(entry);
+                    }
+                });
+            } catch (IOException e) {
+                log.warn("Falha ao ler segmento do journal {}: {}", path.getFileName(), e.getMessage());
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Quantidade de registros gravados e ainda não confirmados no MySQL.
+     */
+    public long pendingCount() {
+        if (!enabled) return 0;
+        synchronized (ackMonitor) {
+            return Math.max(0, writtenSequenceSnapshot() - checkpointSequence - acknowledgedAhead.size());
+        }
+    }
+
+    long checkpointSequence() {
+        return checkpointSequence;
+    }
+
+    private boolean isAcknowledged(long sequence) {
+        synchronized (ackMonitor) {
+            return sequence <= checkpointSequence || acknowledgedAhead.contains(sequence);
+        }
+    }
+
+    private long writtenSequenceSnapshot() {
+        lock.lock();
+        try {
+            return writtenSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ========== Group commit ==========
+
+    private void flushLoop() {
+        while (true) {
+            long target;
+            MappedByteBuffer buffer;
+            lock.lock();
+            try {
+                if (running && writtenSequence == durableSequence) {
+                    workAvailable.await(fsyncIntervalMs, TimeUnit.MILLISECONDS);
+                }
+                if (!running) return;
+                target = writtenSequence;
+                buffer = active.buffer;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            if (target > durableSequenceSnapshot()) {
+                // fsync fora do lock: novas gravações entram no próximo grupo
+                buffer.force();
+                lock.lock();
+                try {
+                    durableSequence = Math.max(durableSequence, target);
+                    durable.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+            persistCheckpoint();
+        }
+    }
+
+    private long durableSequenceSnapshot() {
+        lock.lock();
+        try {
+            return durableSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void rollSegment(int recordSize) throws IOException {
+        if (recordSize + Integer.BYTES > segmentSize) {
+            throw new IOException("Registro de " + recordSize + " bytes excede o tamanho do segmento");
+        }
+        active.buffer.force();
+        active.close();
+        if (active.lastSequence >= active.firstSequence) {
+            closedSegments.add(new SegmentInfo(active.path, active.firstSequence, active.lastSequence));
+        } else {
+            Files.deleteIfExists(active.path);
+        }
+        durableSequence = writtenSequence;
+        durable.signalAll();
+        active = Segment.create(segmentPath(nextSequence), nextSequence, segmentSize);
+    }
+
+    // ========== Checkpoint ==========
+
+    private void persistCheckpoint() {
+        long checkpoint;
+        synchronized (ackMonitor) {
+            if (!checkpointDirty) return;
+            checkpoint = checkpointSequence;
+            checkpointDirty = false;
+        }
+        try {
+            Path tmp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, checkpoint));
+                channel.force(true);
+            }
+            Files.move(tmp, directory.resolve(CHECKPOINT_FILE),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            deleteAcknowledgedSegments(checkpoint);
+        } catch (IOException e) {
+            synchronized (ackMonitor) {
+                checkpointDirty = true;
+            }
+            log.warn("Falha ao persistir checkpoint do journal: {}", e.getMessage());
+        }
+    }
+
+    private void deleteAcknowledgedSegments(long checkpoint) throws IOException {
+        List<Path> removable = new ArrayList<>();
+        lock.lock();
+        try {
+            Iterator<SegmentInfo> it = closedSegments.iterator();
+            while (it.hasNext()) {
+                SegmentInfo info = it.next();
+                if (info.lastSequence <= checkpoint) {
+                    removable.add(info.path);
+                    it.remove();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (Path path : removable) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) return 0L;
+        byte[] bytes = Files.readAllBytes(file);
+        return bytes.length == Long.BYTES ? ByteBuffer.wrap(bytes).getLong() : 0L;
+    }
+
+    // ========== Segmentos ==========
+
+    private Path segmentPath(long firstSequence) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstSequence, SEGMENT_SUFFIX));
+    }
+
+    private List<Path> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static void writeRecord(ByteBuffer buffer, long sequence, byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, sequence));
+        crc.update(payload);
+
+        int start = buffer.position();
+        // Tamanho gravado por último: leitores concorrentes nunca veem um registro parcial como válido
+        buffer.position(start + Integer.BYTES);
+        buffer.putLong(sequence);
+        buffer.put(payload);
+        buffer.putInt((int) crc.getValue());
+        buffer.putInt(start, payload.length);
+    }
+
+    /**
+     * Percorre os registros válidos de um segmento até o primeiro registro vazio,
+     * truncado ou com CRC inválido (cauda de uma gravação interrompida).
+     */
+    private static SegmentScan scanSegment(Path path, long upToSequence,
+                                           java.util.function.Consumer<JournalEntry> consumer) throws IOException {
+        SegmentScan scan = new SegmentScan();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            CRC32 crc = new CRC32();
+            while (buffer.remaining() >= RECORD_OVERHEAD) {
+                int start = buffer.position();
+                int length = buffer.getInt(start);
+                if (length <= 0 || length > buffer.remaining() - RECORD_OVERHEAD) break;
+
+                long sequence = buffer.getLong(start + Integer.BYTES);
+                if (sequence > upToSequence) break;
+
+                ByteBuffer payload = buffer.slice(start + Integer.BYTES + Long.BYTES, length);
+                int storedCrc = buffer.getInt(start + Integer.BYTES + Long.BYTES + length);
+                crc.reset();
+                crc.update(ByteBuffer.allocate(Long.BYTES).putLong(0, sequence));
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != storedCrc) break;
+
+                if (scan.records == 0) scan.firstSequence = sequence;
+                scan.lastSequence = sequence;
+                scan.records++;
+                if (consumer != null) {
+                    consumer.accept(new JournalEntry(sequence, PredictionJournalCodec.decode(payload)));
+                }
+                buffer.position(start + RECORD_OVERHEAD + length);
+            }
+        }
+        return scan;
+    }
+
+    /**
+     * Registro lido do journal com sua sequência.
+     */
+    public record JournalEntry(long sequence, PredictionHistory history) {
+    }
+
+    private record SegmentInfo(Path path, long firstSequence, long lastSequence) {
+    }
+
+    private static final class SegmentScan {
+        long firstSequence;
+        long lastSequence;
+        long records;
+    }
+
+    private static final class Segment {
+        final Path path;
+        final long firstSequence;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        long lastSequence;
+
+        private Segment(Path path, long firstSequence, FileChannel channel, MappedByteBuffer buffer) {
+            this.path = path;
+            this.firstSequence = firstSequence;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.lastSequence = firstSequence - 1;
+        }
+
+        static Segment create(Path path, long firstSequence, int size) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            return new Segment(path, firstSequence, channel, buffer);
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Falha ao fechar segmento do journal {}: {}", path.getFileName(), e.getMessage());
+            }
+        }
+    }
+}
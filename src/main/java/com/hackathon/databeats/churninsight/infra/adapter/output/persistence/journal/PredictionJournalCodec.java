@@ -0,0 +1,202 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.journal;
+
+import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
+import com.hackathon.databeats.churninsight.domain.model.PredictionHistory;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Codificação binária compacta de {@link PredictionHistory} para o journal.
+ *
+ * <p>Layout do payload (big-endian):</p>
+ * <pre>
+ * byte  versão do formato
+ * short bitmap de nulos dos campos fixos
+ * int   age, songsPlayedPerDay, adsListenedPerWeek
+ * double listeningTime, skipRate, probability, frustrationIndex, adIntensity, songsPerMinute
+ * byte  flags (offlineListening, isHeavyUser, premiumNoOffline)
+ * byte  churnStatus (ordinal)
+ * long  createdAt (micros desde epoch, UTC)
+ * strings: id, userId, gender, country, subscriptionType, deviceType, requesterId, requestIp
+ *          (short com tamanho em bytes UTF-8, -1 para nulo)
+ * </pre>
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public final class PredictionJournalCodec {
+
+    static final byte FORMAT_VERSION = 1;
+
+    private static final int FIXED_SIZE = 1 + 2 + (3 * Integer.BYTES) + (6 * Double.BYTES) + 1 + 1 + Long.BYTES;
+
+    private static final int NULL_AGE = 1;
+    private static final int NULL_SONGS = 1 << 1;
+    private static final int NULL_ADS = 1 << 2;
+    private static final int NULL_LISTENING = 1 << 3;
+    private static final int NULL_SKIP = 1 << 4;
+    private static final int NULL_PROBABILITY = 1 << 5;
+    private static final int NULL_FRUSTRATION = 1 << 6;
+    private static final int NULL_AD_INTENSITY = 1 << 7;
+    private static final int NULL_SONGS_PER_MINUTE = 1 << 8;
+    private static final int NULL_OFFLINE = 1 << 9;
+    private static final int NULL_HEAVY_USER = 1 << 10;
+    private static final int NULL_PREMIUM_NO_OFFLINE = 1 << 11;
+    private static final int NULL_STATUS = 1 << 12;
+    private static final int NULL_CREATED_AT = 1 << 13;
+
+    private static final int FLAG_OFFLINE = 1;
+    private static final int FLAG_HEAVY_USER = 1 << 1;
+    private static final int FLAG_PREMIUM_NO_OFFLINE = 1 << 2;
+
+    private PredictionJournalCodec() {
+        throw new UnsupportedOperationException("Classe utilitária não deve ser instanciada");
+    }
+
+    /**
+     * Serializa o histórico em um array de bytes no layout do journal.
+     */
+    public static byte[] encode(PredictionHistory h) {
+        byte[][] strings = {
+                utf8(h.id()), utf8(h.userId()), utf8(h.gender()), utf8(h.country()),
+                utf8(h.subscriptionType()), utf8(h.deviceType()), utf8(h.requesterId()), utf8(h.requestIp())
+        };
+        int size = FIXED_SIZE;
+        for (byte[] s : strings) {
+            size += Short.BYTES + (s != null ? s.length : 0);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        int nulls = 0;
+        if (h.age() == null) nulls |= NULL_AGE;
+        if (h.songsPlayedPerDay() == null) nulls |= NULL_SONGS;
+        if (h.adsListenedPerWeek() == null) nulls |= NULL_ADS;
+        if (h.listeningTime() == null) nulls |= NULL_LISTENING;
+        if (h.skipRate() == null) nulls |= NULL_SKIP;
+        if (h.probability() == null) nulls |= NULL_PROBABILITY;
+        if (h.frustrationIndex() == null) nulls |= NULL_FRUSTRATION;
+        if (h.adIntensity() == null) nulls |= NULL_AD_INTENSITY;
+        if (h.songsPerMinute() == null) nulls |= NULL_SONGS_PER_MINUTE;
+        if (h.offlineListening() == null) nulls |= NULL_OFFLINE;
+        if (h.isHeavyUser() == null) nulls |= NULL_HEAVY_USER;
+        if (h.premiumNoOffline() == null) nulls |= NULL_PREMIUM_NO_OFFLINE;
+        if (h.churnStatus() == null) nulls |= NULL_STATUS;
+        if (h.createdAt() == null) nulls |= NULL_CREATED_AT;
+
+        int flags = 0;
+        if (Boolean.TRUE.equals(h.offlineListening())) flags |= FLAG_OFFLINE;
+        if (Boolean.TRUE.equals(h.isHeavyUser())) flags |= FLAG_HEAVY_USER;
+        if (Boolean.TRUE.equals(h.premiumNoOffline())) flags |= FLAG_PREMIUM_NO_OFFLINE;
+
+        buffer.put(FORMAT_VERSION);
+        buffer.putShort((short) nulls);
+        buffer.putInt(h.age() != null ? h.age() : 0);
+        buffer.putInt(h.songsPlayedPerDay() != null ? h.songsPlayedPerDay() : 0);
+        buffer.putInt(h.adsListenedPerWeek() != null ? h.adsListenedPerWeek() : 0);
+        buffer.putDouble(h.listeningTime() != null ? h.listeningTime() : 0.0);
+        buffer.putDouble(h.skipRate() != null ? h.skipRate() : 0.0);
+        buffer.putDouble(h.probability() != null ? h.probability() : 0.0);
+        buffer.putDouble(h.frustrationIndex() != null ? h.frustrationIndex() : 0.0);
+        buffer.putDouble(h.adIntensity() != null ? h.adIntensity() : 0.0);
+        buffer.putDouble(h.songsPerMinute() != null ? h.songsPerMinute() : 0.0);
+        buffer.put((byte) flags);
+        buffer.put((byte) (h.churnStatus() != null ? h.churnStatus().ordinal() : 0));
+        buffer.putLong(h.createdAt() != null ? toEpochMicros(h.createdAt()) : 0L);
+        for (byte[] s : strings) {
+            putString(buffer, s);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Reconstrói o histórico a partir do payload gravado por {@link #encode(PredictionHistory)}.
+     *
+     * @throws IllegalArgumentException se a versão do formato não for suportada
+     */
+    public static PredictionHistory decode(ByteBuffer buffer) {
+        byte version = buffer.get();
+        if (version != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Versão de registro do journal não suportada: " + version);
+        }
+        int nulls = buffer.getShort() & 0xFFFF;
+        int age = buffer.getInt();
+        int songs = buffer.getInt();
+        int ads = buffer.getInt();
+        double listening = buffer.getDouble();
+        double skip = buffer.getDouble();
+        double probability = buffer.getDouble();
+        double frustration = buffer.getDouble();
+        double adIntensity = buffer.getDouble();
+        double songsPerMinute = buffer.getDouble();
+        int flags = buffer.get();
+        int status = buffer.get();
+        long createdAt = buffer.getLong();
+
+        return PredictionHistory.builder()
+                .id(getString(buffer))
+                .userId(getString(buffer))
+                .gender(getString(buffer))
+                .country(getString(buffer))
+                .subscriptionType(getString(buffer))
+                .deviceType(getString(buffer))
+                .requesterId(getString(buffer))
+                .requestIp(getString(buffer))
+                .age(isNull(nulls, NULL_AGE) ? null : age)
+                .songsPlayedPerDay(isNull(nulls, NULL_SONGS) ? null : songs)
+                .adsListenedPerWeek(isNull(nulls, NULL_ADS) ? null : ads)
+                .listeningTime(isNull(nulls, NULL_LISTENING) ? null : listening)
+                .skipRate(isNull(nulls, NULL_SKIP) ? null : skip)
+                .probability(isNull(nulls, NULL_PROBABILITY) ? null : probability)
+                .frustrationIndex(isNull(nulls, NULL_FRUSTRATION) ? null : frustration)
+                .adIntensity(isNull(nulls, NULL_AD_INTENSITY) ? null : adIntensity)
+                .songsPerMinute(isNull(nulls, NULL_SONGS_PER_MINUTE) ? null : songsPerMinute)
+                .offlineListening(isNull(nulls, NULL_OFFLINE) ? null : (flags & FLAG_OFFLINE) != 0)
+                .isHeavyUser(isNull(nulls, NULL_HEAVY_USER) ? null : (flags & FLAG_HEAVY_USER) != 0)
+                .premiumNoOffline(isNull(nulls, NULL_PREMIUM_NO_OFFLINE) ? null : (flags & FLAG_PREMIUM_NO_OFFLINE) != 0)
+                .churnStatus(isNull(nulls, NULL_STATUS) ? null : ChurnStatus.values()[status])
+                .createdAt(isNull(nulls, NULL_CREATED_AT) ? null : fromEpochMicros(createdAt))
+                .build();
+    }
+
+    private static boolean isNull(int nulls, int bit) {
+        return (nulls & bit) != 0;
+    }
+
+    private static byte[] utf8(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static void putString(ByteBuffer buffer, byte[] value) {
+        if (value == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        if (value.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Campo texto excede o limite do journal: " + value.length + " bytes");
+        }
+        buffer.putShort((short) value.length);
+        buffer.put(value);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        short length = buffer.getShort();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long toEpochMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + dateTime.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromEpochMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(
+                Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000,
+                ZoneOffset.UTC);
+    }
+}
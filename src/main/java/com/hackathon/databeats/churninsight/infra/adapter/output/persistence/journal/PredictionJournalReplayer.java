@@ -0,0 +1,131 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.journal;
+
+import com.hackathon.databeats.churninsight.application.port.output.BatchSavePort;
+import com.hackathon.databeats.churninsight.infra.util.DataAccessFailures;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Reenvia ao MySQL as predições do journal que ainda não foram confirmadas.
+ *
+ * <p>Na inicialização, reenvia tudo o que ficou pendente da execução anterior. Depois,
+ * periodicamente, reenvia o que falhou durante indisponibilidades do banco. A gravação
+ * usa {@link BatchSavePort}, que é idempotente: ids que já existem no banco são ignorados.</p>
+ *
+ * <p>Uma falha transitória ({@link DataAccessFailures#isTransient}) interrompe o reenvio até
+ * a próxima rodada. Se o lote falha de forma permanente, seus registros são reenviados um a
+ * um e os que continuam rejeitados vão para o dead-letter do journal, sem impedir o avanço
+ * do checkpoint.</p>
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class PredictionJournalReplayer {
+
+    private final PredictionJournal journal;
+    private final BatchSavePort batchSavePort;
+    private final int batchSize;
+    private final long graceMs;
+
+    public PredictionJournalReplayer(
+            PredictionJournal journal,
+            @Qualifier("jdbcBatchPersistenceAdapter") BatchSavePort batchSavePort,
+            @Value("${app.journal.replay-batch-size:1000}") int batchSize,
+            @Value("${app.journal.replay-grace-ms:10000}") long graceMs) {
+        this.journal = journal;
+        this.batchSavePort = batchSavePort;
+        this.batchSize = Math.max(1, batchSize);
+        this.graceMs = Math.max(0, graceMs);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayOnStartup() {
+        if (!journal.isEnabled()) return;
+        int replayed = replay(journal.openedAt());
+        if (replayed > 0) {
+            log.info("Journal: {} predições pendentes da execução anterior reenviadas ao MySQL", replayed);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.journal.replay-interval-ms:15000}",
+               initialDelayString = "${app.journal.replay-interval-ms:15000}")
+    public void replayPending() {
+        if (!journal.isEnabled() || journal.pendingCount() == 0) return;
+        int replayed = replay(LocalDateTime.now().minusNanos(graceMs * 1_000_000L));
+        if (replayed > 0) {
+            log.info("Journal: {} predições reenviadas ao MySQL após falha de gravação", replayed);
+        }
+    }
+
+    /**
+     * Reenvia em lotes os registros pendentes criados antes do instante informado.
+     *
+     * @return quantidade de registros gravados no MySQL
+     */
+    synchronized int replay(LocalDateTime createdBefore) {
+        int total = 0;
+        while (true) {
+            List<PredictionJournal.JournalEntry> entries = journal.readUnacknowledged(batchSize, createdBefore);
+            if (entries.isEmpty()) return total;
+
+            try {
+                batchSavePort.saveAll(entries.stream().map(PredictionJournal.JournalEntry::history).toList());
+                entries.forEach(e -> journal.acknowledge(e.sequence()));
+                total += entries.size();
+            } catch (RuntimeException e) {
+                // saveAll propaga falhas dos chunks paralelos como CompletionException
+                if (DataAccessFailures.isTransient(e)) {
+                    logUnavailable(e);
+                    return total;
+                }
+                log.warn("Journal: lote de {} predições rejeitado, reenviando uma a uma: {}",
+                        entries.size(), e.getMessage());
+                try {
+                    for (PredictionJournal.JournalEntry entry : entries) {
+                        if (replayOne(entry)) total++;
+                    }
+                } catch (RuntimeException single) {
+                    if (!DataAccessFailures.isTransient(single)) throw single;
+                    logUnavailable(single);
+                    return total;
+                }
+            }
+            if (entries.size() < batchSize) return total;
+        }
+    }
+
+    /**
+     * Reenvia um único registro; se o MySQL o rejeita de forma permanente, move-o para o dead-letter.
+     *
+     * @return {@code true} se gravado, {@code false} se movido para o dead-letter
+     * @throws RuntimeException a falha transitória, deixando o registro pendente
+     */
+    private boolean replayOne(PredictionJournal.JournalEntry entry) {
+        try {
+            batchSavePort.saveAll(List.of(entry.history()));
+        } catch (RuntimeException e) {
+            if (DataAccessFailures.isTransient(e)) throw e;
+            log.error("Journal: predição {} (seq {}) rejeitada pelo MySQL, movida para o dead-letter: {}",
+                    entry.history().id(), entry.sequence(), e.getMessage());
+            journal.deadLetter(entry);
+            return false;
+        }
+        journal.acknowledge(entry.sequence());
+        return true;
+    }
+
+    private void logUnavailable(RuntimeException e) {
+        log.warn("Journal: MySQL ainda indisponível, {} predições permanecem pendentes: {}",
+                journal.pendingCount(), e.getMessage());
+    }
+}
@@ -1,6 +1,7 @@
 package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.mapper;
 
 import com.hackathon.databeats.churninsight.domain.model.PredictionHistory;
+import com.hackathon.databeats.churninsight.domain.rules.ChurnBusinessRules;
 import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.entity.PredictionHistoryEntity;
 import org.springframework.stereotype.Component;
 
@@ -35,6 +36,8 @@ public class PredictionHistoryMapper {
         entity.setSongsPerMinute(domain.songsPerMinute());
         entity.setIsHeavyUser(domain.isHeavyUser());
         entity.setPremiumNoOffline(domain.premiumNoOffline());
+        entity.setRiskFlags(ChurnBusinessRules.riskFactorFlags(domain));
+        entity.setPrimaryRiskFactor(ChurnBusinessRules.primaryRiskFactor(domain.churnStatus(), entity.getRiskFlags()).code());
 
         entity.setRequesterId(domain.requesterId());
         entity.setRequestIp(domain.requestIp());
@@ -0,0 +1,171 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.priority;
+
+import com.hackathon.databeats.churninsight.application.dto.PrioritizedCustomer;
+import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
+import com.hackathon.databeats.churninsight.domain.enums.RetentionActionStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Ranking de retenção em memória: a predição mais recente de cada cliente em uma skip list
+ * ordenada por (probabilidade desc, user_id asc) e a última ação de retenção por usuário.
+ *
+ * <p>O TOP 25% é o prefixo da skip list com {@code probability >= cutoff}. Uma página por
+ * cursor custa O(log n + página); por posição, O(offset + página). A troca de posição de um
+ * cliente é uma inserção e uma remoção, O(log n).</p>
+ *
+ * <p>As mutações são idempotentes para que as gravações recebidas durante uma reconstrução
+ * possam ser reaplicadas sobre o resultado lido do banco: uma predição mais antiga que a
+ * armazenada é ignorada, a última ação só é trocada por outra criada depois (desempate por id)
+ * e a mudança de status só vale para a ação que é a última do usuário.</p>
+ *
+ * <p>Um único escritor por vez; leitores não usam lock. Durante a troca de posição de um
+ * cliente uma leitura concorrente pode vê-lo nas duas posições.</p>
+ */
+final class PriorityRanking {
+
+    /** Chave de ordenação: probabilidade desc, user_id asc. */
+    record Key(double probability, String userId) implements Comparable<Key> {
+
+        private static final Comparator<Key> ORDER = Comparator
+                .comparingDouble(Key::probability).reversed()
+                .thenComparing(Key::userId);
+
+        @Override
+        public int compareTo(Key other) {
+            return ORDER.compare(this, other);
+        }
+    }
+
+    /** Predição mais recente do cliente. */
+    record Customer(String historyId, String userId, double probability, String subscriptionType,
+                    ChurnStatus churnStatus, LocalDateTime createdAt) {
+    }
+
+    /** Última ação de retenção do usuário. */
+    record Action(String id, RetentionActionStatus status, LocalDateTime createdAt) {
+
+        boolean isBefore(Action other) {
+            int byCreatedAt = createdAt.compareTo(other.createdAt);
+            return byCreatedAt != 0 ? byCreatedAt < 0 : id.compareTo(other.id) < 0;
+        }
+    }
+
+    private record CachedCount(double cutoff, long version, long count) {
+    }
+
+    private final ConcurrentSkipListMap<Key, Customer> ranking = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<String, Key> keyByUser = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Action> actionByUser = new ConcurrentHashMap<>();
+
+    // Alterada a cada mudança no ranking; invalida a contagem em cache
+    private volatile long version;
+    private volatile CachedCount cachedCount;
+
+    /**
+     * Insere ou reposiciona o cliente.
+     *
+     * @return false se a predição é mais antiga que a armazenada
+     */
+    boolean upsertCustomer(Customer customer) {
+        Key previous = keyByUser.get(customer.userId());
+        if (previous != null) {
+            Customer current = ranking.get(previous);
+            if (current != null && customer.createdAt().isBefore(current.createdAt())) return false;
+        }
+        Key key = new Key(customer.probability(), customer.userId());
+        ranking.put(key, customer);
+        keyByUser.put(customer.userId(), key);
+        if (previous != null && !previous.equals(key)) ranking.remove(previous);
+        version++;
+        return true;
+    }
+
+    /**
+     * Registra uma ação do usuário.
+     *
+     * @return false se a ação é anterior à última já registrada
+     */
+    boolean saveAction(String userId, Action action) {
+        Action current = actionByUser.get(userId);
+        if (current != null && action.isBefore(current)) return false;
+        actionByUser.put(userId, action);
+        return true;
+    }
+
+    /**
+     * Altera o status da última ação do usuário.
+     *
+     * @return false se {@code actionId} não é a última ação do usuário
+     */
+    boolean changeActionStatus(String userId, String actionId, RetentionActionStatus status) {
+        Action current = actionByUser.get(userId);
+        if (current == null || !current.id().equals(actionId)) return false;
+        actionByUser.put(userId, new Action(actionId, status, current.createdAt()));
+        return true;
+    }
+
+    /** Página por posição dentro do TOP 25%. */
+    List<PrioritizedCustomer> page(double cutoff, long offset, int size) {
+        List<PrioritizedCustomer> page = new ArrayList<>(size);
+        Iterator<Customer> customers = top(cutoff).values().iterator();
+        for (long skipped = 0; skipped < offset && customers.hasNext(); skipped++) customers.next();
+        while (page.size() < size && customers.hasNext()) page.add(toPrioritized(customers.next()));
+        return page;
+    }
+
+    /** Até {@code limit} clientes do TOP 25% estritamente depois de (lastProbability, lastUserId). */
+    List<PrioritizedCustomer> after(double cutoff, double lastProbability, String lastUserId, int limit) {
+        List<PrioritizedCustomer> page = new ArrayList<>(limit);
+        // tailMap no mapa inteiro: o cursor pode estar abaixo de um corte que subiu entre páginas
+        for (Customer customer : ranking.tailMap(new Key(lastProbability, lastUserId), false).values()) {
+            if (page.size() == limit || customer.probability() < cutoff) break;
+            page.add(toPrioritized(customer));
+        }
+        return page;
+    }
+
+    /** Total do TOP 25%, em cache até a próxima mudança no ranking ou no corte. */
+    long count(double cutoff) {
+        long currentVersion = version;
+        CachedCount cached = cachedCount;
+        if (cached != null && cached.version() == currentVersion && cached.cutoff() == cutoff) {
+            return cached.count();
+        }
+        long count = top(cutoff).size();
+        cachedCount = new CachedCount(cutoff, currentVersion, count);
+        return count;
+    }
+
+    /** Clientes no ranking. */
+    int size() {
+        return keyByUser.size();
+    }
+
+    // === MÉTODOS PRIVADOS ===
+
+    private ConcurrentNavigableMap<Key, Customer> top(double cutoff) {
+        // Chaves com probabilidade > nextDown(cutoff), isto é, >= cutoff
+        return ranking.headMap(new Key(Math.nextDown(cutoff), ""), false);
+    }
+
+    private PrioritizedCustomer toPrioritized(Customer customer) {
+        Action action = actionByUser.get(customer.userId());
+        return new PrioritizedCustomer(
+                customer.historyId(),
+                customer.userId(),
+                customer.probability(),
+                customer.subscriptionType(),
+                customer.churnStatus(),
+                customer.createdAt(),
+                action != null ? action.id() : null,
+                action != null ? action.status() : null);
+    }
+}
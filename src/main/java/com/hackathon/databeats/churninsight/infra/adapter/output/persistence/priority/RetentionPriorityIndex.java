@@ -0,0 +1,178 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.priority;
+
+import com.hackathon.databeats.churninsight.application.dto.PrioritizedCustomer;
+import com.hackathon.databeats.churninsight.application.port.output.RetentionPriorityPort;
+import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
+import com.hackathon.databeats.churninsight.domain.enums.RetentionActionStatus;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.event.LatestPredictionChange;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.event.LatestPredictionSnapshot;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.event.PredictionWriteListener;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.snapshot.SnapshotHolder;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.snapshot.StreamingQuery;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.function.Consumer;
+
+/**
+ * Lista priorizada de retenção (TOP 25%) mantida em memória por {@link PriorityRanking}.
+ *
+ * <p>Carregada após a subida da aplicação por duas varreduras em streaming
+ * (customer_latest_prediction e retention_action) e mantida atual pelas mudanças da projeção
+ * de predição mais recente e pelas ações de retenção criadas ou alteradas. A página deixa de
+ * ranquear a projeção e de buscar a última ação por cliente a cada requisição.</p>
+ *
+ * <p>O ranking é reconstruído periodicamente a partir das tabelas, que continuam sendo a fonte
+ * durável. As mutações recebidas durante a varredura são guardadas e reaplicadas ao final
+ * (são idempotentes). Enquanto o ranking não está pronto as leituras devolvem vazio e o
+ * chamador usa as consultas SQL.</p>
+ */
+@Slf4j
+@Component
+public class RetentionPriorityIndex implements RetentionPriorityPort, PredictionWriteListener {
+
+    private static final String CUSTOMERS_SQL = """
+        SELECT history_id, user_id, probability, subscription_type, churn_status, created_at
+        FROM customer_latest_prediction
+        """;
+
+    private static final String ACTIONS_SQL = """
+        SELECT user_id, id, status, created_at
+        FROM retention_action
+        WHERE user_id IS NOT NULL
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final Timer buildTimer;
+    private final SnapshotHolder<PriorityRanking, Consumer<PriorityRanking>> snapshot =
+            new SnapshotHolder<>((ranking, mutation) -> mutation.accept(ranking));
+
+    public RetentionPriorityIndex(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.retention.priority-index.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.buildTimer = Timer.builder("churn.retention.priority.build")
+                .description("Tempo de carga do ranking de retenção em memória")
+                .register(meterRegistry);
+        Gauge.builder("churn.retention.priority.customers", snapshot, s -> s.current() == null ? 0 : s.current().size())
+                .description("Clientes no ranking de retenção em memória")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) return;
+        Thread.ofVirtual().name("retention-priority-build").start(this::rebuild);
+    }
+
+    /**
+     * Reconstrói o ranking a partir do banco. Ignorado se outra reconstrução estiver em curso;
+     * o ranking anterior continua respondendo até a troca.
+     */
+    @Scheduled(initialDelayString = "${app.retention.priority-index.rebuild-interval-ms:1800000}",
+               fixedDelayString = "${app.retention.priority-index.rebuild-interval-ms:1800000}")
+    public void rebuild() {
+        if (!enabled) return;
+        Timer.Sample sample = Timer.start();
+        try {
+            snapshot.rebuild(this::scan).ifPresent(rebuilt -> {
+                long nanos = sample.stop(buildTimer);
+                log.info("Ranking de retenção carregado: {} clientes em {} ms, {} mutações reaplicadas",
+                        rebuilt.snapshot().size(), nanos / 1_000_000, rebuilt.replayed());
+            });
+        } catch (RuntimeException e) {
+            log.error("Falha ao carregar ranking de retenção, lista priorizada seguirá no banco: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void onLatestPredictionsChanged(List<LatestPredictionChange> changes) {
+        if (!enabled) return;
+        List<PriorityRanking.Customer> customers = changes.stream()
+                .map(change -> toCustomer(change.current()))
+                .toList();
+        snapshot.apply(ranking -> customers.forEach(ranking::upsertCustomer));
+    }
+
+    @Override
+    public void onActionSaved(String userId, String actionId, RetentionActionStatus status, LocalDateTime createdAt) {
+        if (!enabled || userId == null) return;
+        // As ações são gravadas com created_at já truncado ao segundo; truncar aqui mantém o valor
+        // igual ao que a reconstrução lê também para chamadas com fração
+        PriorityRanking.Action action = new PriorityRanking.Action(actionId, status, createdAt.truncatedTo(ChronoUnit.SECONDS));
+        snapshot.apply(ranking -> ranking.saveAction(userId, action));
+    }
+
+    @Override
+    public void onActionStatusChanged(String userId, String actionId, RetentionActionStatus status) {
+        if (!enabled || userId == null) return;
+        snapshot.apply(ranking -> ranking.changeActionStatus(userId, actionId, status));
+    }
+
+    @Override
+    public Optional<List<PrioritizedCustomer>> page(double cutoff, long offset, int size) {
+        PriorityRanking ranking = snapshot.current();
+        return ranking == null ? Optional.empty() : Optional.of(ranking.page(cutoff, offset, size));
+    }
+
+    @Override
+    public Optional<List<PrioritizedCustomer>> after(double cutoff, double lastProbability, String lastUserId, int limit) {
+        PriorityRanking ranking = snapshot.current();
+        return ranking == null ? Optional.empty() : Optional.of(ranking.after(cutoff, lastProbability, lastUserId, limit));
+    }
+
+    @Override
+    public OptionalLong count(double cutoff) {
+        PriorityRanking ranking = snapshot.current();
+        return ranking == null ? OptionalLong.empty() : OptionalLong.of(ranking.count(cutoff));
+    }
+
+    // === MÉTODOS PRIVADOS ===
+
+    // Mutações do ranking são idempotentes: todas as recebidas durante a varredura são reaplicadas
+    private SnapshotHolder.Scan<PriorityRanking, Consumer<PriorityRanking>> scan() {
+        PriorityRanking fresh = new PriorityRanking();
+        StreamingQuery.forEach(jdbcTemplate, CUSTOMERS_SQL, rs -> {
+            fresh.upsertCustomer(new PriorityRanking.Customer(
+                    rs.getString("history_id"),
+                    rs.getString("user_id"),
+                    rs.getDouble("probability"),
+                    rs.getString("subscription_type"),
+                    ChurnStatus.valueOf(rs.getString("churn_status")),
+                    rs.getTimestamp("created_at").toLocalDateTime()));
+        });
+        StreamingQuery.forEach(jdbcTemplate, ACTIONS_SQL, rs -> {
+            fresh.saveAction(rs.getString("user_id"), new PriorityRanking.Action(
+                    rs.getString("id"),
+                    RetentionActionStatus.valueOf(rs.getString("status")),
+                    rs.getTimestamp("created_at").toLocalDateTime()));
+        });
+        return SnapshotHolder.Scan.of(fresh);
+    }
+
+    private static PriorityRanking.Customer toCustomer(LatestPredictionSnapshot snapshot) {
+        return new PriorityRanking.Customer(
+                snapshot.historyId(),
+                snapshot.userId(),
+                snapshot.probability(),
+                snapshot.subscriptionType(),
+                snapshot.churnStatus(),
+                snapshot.createdAt());
+    }
+}
@@ -0,0 +1,172 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.repository;
+
+import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
+import com.hackathon.databeats.churninsight.domain.model.PredictionHistory;
+import com.hackathon.databeats.churninsight.domain.rules.ChurnBusinessRules;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.event.LatestPredictionChange;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.event.LatestPredictionSnapshot;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.event.PredictionWritePublisher;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Escrita da projeção customer_latest_prediction via JDBC batch.
+ *
+ * <p>Deve ser chamado na mesma transação que grava o churn_history. O upsert só
+ * substitui a linha do cliente quando a predição recebida é igual ou mais recente
+ * que a armazenada, então reenvios e gravações fora de ordem não regridem a projeção.</p>
+ *
+ * <p>Antes do upsert as linhas atuais dos clientes do lote são lidas com {@code FOR UPDATE},
+ * o que permite calcular a mudança efetiva (estado anterior → novo) de cada cliente e
+ * publicá-la após o commit para os agregados em memória.</p>
+ */
+@Repository
+@RequiredArgsConstructor
+public class CustomerLatestPredictionJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PredictionWritePublisher publisher;
+
+    // VALUES(col) em vez de alias de linha para manter o rewrite de batch do Connector/J.
+    // created_at precisa ser a última atribuição: as anteriores comparam com o valor antigo.
+    private static final String UPSERT_SQL =
+        "INSERT INTO customer_latest_prediction (" +
+        "user_id, history_id, gender, age, country, subscription_type, device_type, " +
+        "listening_time, skip_rate, ads_listened_per_week, frustration_index, " +
+        "is_heavy_user, premium_no_offline, churn_status, probability, created_at" +
+        ") VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?) " +
+        "ON DUPLICATE KEY UPDATE " +
+        "history_id = IF(VALUES(created_at) >= created_at, VALUES(history_id), history_id), " +
+        "gender = IF(VALUES(created_at) >= created_at, VALUES(gender), gender), " +
+        "age = IF(VALUES(created_at) >= created_at, VALUES(age), age), " +
+        "country = IF(VALUES(created_at) >= created_at, VALUES(country), country), " +
+        "subscription_type = IF(VALUES(created_at) >= created_at, VALUES(subscription_type), subscription_type), " +
+        "device_type = IF(VALUES(created_at) >= created_at, VALUES(device_type), device_type), " +
+        "listening_time = IF(VALUES(created_at) >= created_at, VALUES(listening_time), listening_time), " +
+        "skip_rate = IF(VALUES(created_at) >= created_at, VALUES(skip_rate), skip_rate), " +
+        "ads_listened_per_week = IF(VALUES(created_at) >= created_at, VALUES(ads_listened_per_week), ads_listened_per_week), " +
+        "frustration_index = IF(VALUES(created_at) >= created_at, VALUES(frustration_index), frustration_index), " +
+        "is_heavy_user = IF(VALUES(created_at) >= created_at, VALUES(is_heavy_user), is_heavy_user), " +
+        "premium_no_offline = IF(VALUES(created_at) >= created_at, VALUES(premium_no_offline), premium_no_offline), " +
+        "churn_status = IF(VALUES(created_at) >= created_at, VALUES(churn_status), churn_status), " +
+        "probability = IF(VALUES(created_at) >= created_at, VALUES(probability), probability), " +
+        "created_at = GREATEST(created_at, VALUES(created_at))";
+
+    private static final String SELECT_FOR_UPDATE_SQL =
+        "SELECT user_id, history_id, subscription_type, churn_status, probability, " +
+        "ads_listened_per_week, skip_rate, frustration_index, premium_no_offline, listening_time, created_at " +
+        "FROM customer_latest_prediction WHERE user_id IN (%s) ORDER BY user_id FOR UPDATE";
+
+    /**
+     * Atualiza a projeção com as predições informadas. Registros sem userId não entram na
+     * projeção, mas ainda são publicados como gravados.
+     *
+     * @param histories apenas as predições efetivamente inseridas nesta transação (linhas
+     *                  ignoradas pelo INSERT idempotente ficam de fora; ver {@link InsertedHistories})
+     * @return mudanças efetivas por cliente (também publicadas após o commit)
+     */
+    public List<LatestPredictionChange> upsertAll(List<PredictionHistory> histories) {
+        // Ordenar por user_id mantém a mesma ordem de locks entre chunks paralelos (evita deadlocks)
+        List<PredictionHistory> withUser = histories.stream()
+                .filter(h -> h.userId() != null && !h.userId().isBlank())
+                .sorted(Comparator.comparing(PredictionHistory::userId))
+                .toList();
+        if (withUser.isEmpty()) {
+            publisher.publishAfterCommit(histories, List.of());
+            return List.of();
+        }
+
+        // A coluna é TIMESTAMP sem fração: trunca para que a comparação em Java e no SQL concordem
+        LocalDateTime nowTruncated = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Timestamp now = Timestamp.valueOf(nowTruncated);
+        List<LatestPredictionChange> changes = computeChanges(withUser, nowTruncated);
+
+        jdbcTemplate.batchUpdate(UPSERT_SQL, withUser, withUser.size(), (ps, h) -> {
+            int col = 1;
+            ps.setString(col++, h.userId());
+            ps.setString(col++, h.id());
+            ps.setString(col++, h.gender());
+            ps.setObject(col++, h.age());
+            ps.setString(col++, h.country());
+            ps.setString(col++, h.subscriptionType());
+            ps.setString(col++, h.deviceType());
+            ps.setObject(col++, h.listeningTime());
+            ps.setObject(col++, h.skipRate());
+            ps.setObject(col++, h.adsListenedPerWeek());
+            ps.setObject(col++, h.frustrationIndex());
+            ps.setObject(col++, h.isHeavyUser());
+            ps.setObject(col++, h.premiumNoOffline());
+            ps.setString(col++, h.churnStatus().name());
+            ps.setDouble(col++, h.probability() != null ? h.probability() : 0.0);
+            ps.setTimestamp(col++, h.createdAt() != null
+                    ? Timestamp.valueOf(h.createdAt().truncatedTo(ChronoUnit.SECONDS)) : now);
+        });
+
+        publisher.publishAfterCommit(histories, changes);
+        return changes;
+    }
+
+    /**
+     * Aplica em memória a mesma regra do upsert (vence a predição igual ou mais recente)
+     * sobre as linhas atuais, bloqueadas até o fim da transação.
+     */
+    private List<LatestPredictionChange> computeChanges(List<PredictionHistory> sortedByUser, LocalDateTime now) {
+        List<String> userIds = sortedByUser.stream().map(PredictionHistory::userId).distinct().toList();
+        Map<String, LatestPredictionSnapshot> previous = new HashMap<>(userIds.size() * 2);
+        String placeholders = String.join(",", Collections.nCopies(userIds.size(), "?"));
+        jdbcTemplate.query(SELECT_FOR_UPDATE_SQL.formatted(placeholders),
+                rs -> {
+                    LatestPredictionSnapshot snapshot = mapSnapshot(rs);
+                    previous.put(snapshot.userId(), snapshot);
+                },
+                userIds.toArray());
+
+        Map<String, LatestPredictionSnapshot> current = new LinkedHashMap<>(previous);
+        for (PredictionHistory h : sortedByUser) {
+            LatestPredictionSnapshot candidate = LatestPredictionSnapshot.of(h, now);
+            LatestPredictionSnapshot stored = current.get(candidate.userId());
+            if (stored == null || !candidate.createdAt().isBefore(stored.createdAt())) {
+                current.put(candidate.userId(), candidate);
+            }
+        }
+
+        List<LatestPredictionChange> changes = new ArrayList<>(userIds.size());
+        for (String userId : userIds) {
+            LatestPredictionSnapshot before = previous.get(userId);
+            LatestPredictionSnapshot after = current.get(userId);
+            if (after != before) changes.add(new LatestPredictionChange(before, after));
+        }
+        return changes;
+    }
+
+    private static LatestPredictionSnapshot mapSnapshot(ResultSet rs) throws SQLException {
+        String subscriptionType = rs.getString("subscription_type");
+        return new LatestPredictionSnapshot(
+                rs.getString("user_id"),
+                rs.getString("history_id"),
+                subscriptionType,
+                ChurnStatus.valueOf(rs.getString("churn_status")),
+                rs.getDouble("probability"),
+                ChurnBusinessRules.riskFactorFlags(subscriptionType,
+                        rs.getObject("ads_listened_per_week", Integer.class),
+                        rs.getObject("skip_rate", Double.class),
+                        rs.getObject("frustration_index", Double.class),
+                        rs.getObject("premium_no_offline", Boolean.class),
+                        rs.getObject("listening_time", Double.class)),
+                rs.getTimestamp("created_at").toLocalDateTime());
+    }
+}
@@ -0,0 +1,41 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.repository;
+
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.entity.CustomerLatestPredictionEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repositório de leitura da projeção customer_latest_prediction (uma linha por cliente).
+ */
+@Repository
+public interface CustomerLatestPredictionRepository extends JpaRepository<CustomerLatestPredictionEntity, String> {
+
+    /**
+     * Agrega clientes com probabilidade maior ou igual ao corte por tipo de assinatura.
+     * Retorna pares [subscription_type, count].
+     */
+    @Query(value = """
+    SELECT subscription_type, COUNT(*) as count
+    FROM customer_latest_prediction
+    WHERE probability >= :cutoff
+    GROUP BY subscription_type
+    ORDER BY count DESC
+    """, nativeQuery = true)
+    List<Object[]> getSubscriptionCountsAtOrAbove(@Param("cutoff") double cutoff);
+
+    /**
+     * Probabilidade do cliente na posição informada (0 = maior), percorrendo o índice de
+     * probabilidade. Usado no cálculo exato do corte do TOP 25%.
+     */
+    @Query(value = """
+    SELECT probability
+    FROM customer_latest_prediction
+    ORDER BY probability DESC
+    LIMIT 1 OFFSET :offset
+    """, nativeQuery = true)
+    Double findProbabilityAtRankFromTop(@Param("offset") long offset);
+}
@@ -0,0 +1,74 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.repository;
+
+import com.hackathon.databeats.churninsight.domain.model.PredictionHistory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Separa, de um lote gravado com {@code INSERT ... ON DUPLICATE KEY UPDATE id = id}, as
+ * predições que de fato entraram no churn_history. Só elas atualizam a projeção e são
+ * publicadas: reenvios (journal, retry de chunk, upload repetido) não contam duas vezes.
+ *
+ * <p>Sem reescrita de batch o driver devolve 1 por linha inserida e 0 por linha ignorada. Com
+ * {@code rewriteBatchedStatements=true} o INSERT multi-linha devolve
+ * {@link Statement#SUCCESS_NO_INFO}; por isso os ids já existentes são lidos na mesma
+ * transação, antes do INSERT, e descartados em qualquer caso.</p>
+ */
+@Component
+public class InsertedHistories {
+
+    static final int IN_CHUNK = 1000;
+
+    private static final String SELECT_EXISTING_SQL = "SELECT id FROM churn_history WHERE id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public InsertedHistories(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Ids do lote que já estão gravados. Deve ser chamado na transação do INSERT, antes dele.
+     */
+    public Set<String> existingIds(List<PredictionHistory> histories) {
+        Set<String> existing = new HashSet<>();
+        List<String> ids = histories.stream().map(PredictionHistory::id).distinct().toList();
+        for (int i = 0; i < ids.size(); i += IN_CHUNK) {
+            List<String> chunk = ids.subList(i, Math.min(i + IN_CHUNK, ids.size()));
+            jdbcTemplate.query(SELECT_EXISTING_SQL.formatted(String.join(",", Collections.nCopies(chunk.size(), "?"))),
+                    rs -> {
+                        existing.add(rs.getString(1));
+                    },
+                    chunk.toArray());
+        }
+        return existing;
+    }
+
+    /**
+     * Predições inseridas pelo batch, na ordem do lote.
+     *
+     * @param existing ids já gravados antes do INSERT ({@link #existingIds})
+     * @param counts contagens devolvidas pelo batchUpdate, na ordem do lote
+     */
+    public static List<PredictionHistory> inserted(List<PredictionHistory> histories, Set<String> existing, int[][] counts) {
+        List<PredictionHistory> inserted = new ArrayList<>(histories.size());
+        Set<String> seen = new HashSet<>(histories.size() * 2);
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                PredictionHistory history = histories.get(index++);
+                // 0: linha ignorada; ids repetidos no próprio lote só entram uma vez
+                if (count == 0 || existing.contains(history.id()) || !seen.add(history.id())) continue;
+                inserted.add(history);
+            }
+        }
+        return inserted;
+    }
+}
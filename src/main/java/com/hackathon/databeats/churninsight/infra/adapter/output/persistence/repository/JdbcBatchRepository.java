@@ -2,6 +2,7 @@ package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.re
 
 import com.hackathon.databeats.churninsight.application.port.output.BatchSavePort;
 import com.hackathon.databeats.churninsight.domain.model.PredictionHistory;
+import com.hackathon.databeats.churninsight.domain.rules.ChurnBusinessRules;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Primary;
@@ -13,6 +14,7 @@ import java.sql.PreparedStatement;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 @Slf4j
 @Repository
@@ -21,6 +23,8 @@ import java.util.List;
 public class JdbcBatchRepository implements BatchSavePort {
 
     private final JdbcTemplate jdbcTemplate;
+    private final CustomerLatestPredictionJdbcRepository latestPredictionRepository;
+    private final InsertedHistories insertedHistories;
 
     private static final String INSERT_SQL = """
         INSERT INTO churn_history (
@@ -29,8 +33,9 @@ public class JdbcBatchRepository implements BatchSavePort {
             ads_listened_per_week, device_type, offline_listening, 
             churn_status, probability, created_at, requester_id, request_ip,
             frustration_index, ad_intensity, songs_per_minute, 
-            is_heavy_user, premium_no_offline
-        ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            is_heavy_user, premium_no_offline, risk_flags, primary_risk_factor
+        ) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+        ON DUPLICATE KEY UPDATE id = id
     """;
 
     @Override
@@ -45,7 +50,8 @@ public class JdbcBatchRepository implements BatchSavePort {
         if (histories.isEmpty()) return;
 
         try {
-            jdbcTemplate.batchUpdate(INSERT_SQL, histories, batchSize,
+            Set<String> existing = insertedHistories.existingIds(histories);
+            int[][] counts = jdbcTemplate.batchUpdate(INSERT_SQL, histories, batchSize,
                     (PreparedStatement ps, PredictionHistory h) -> {
                         ps.setString(1, h.id());
                         ps.setString(2, h.userId());
@@ -69,7 +75,11 @@ public class JdbcBatchRepository implements BatchSavePort {
                         ps.setObject(20, h.songsPerMinute());
                         ps.setObject(21, h.isHeavyUser());
                         ps.setObject(22, h.premiumNoOffline());
+                        int riskFlags = ChurnBusinessRules.riskFactorFlags(h);
+                        ps.setInt(23, riskFlags);
+                        ps.setInt(24, ChurnBusinessRules.primaryRiskFactor(h.churnStatus(), riskFlags).code());
                     });
+            latestPredictionRepository.upsertAll(InsertedHistories.inserted(histories, existing, counts));
         } catch (Exception e) {
             log.error("Erro ao salvar no banco via JDBC: {}", e.getMessage());
             throw e;
@@ -82,47 +82,10 @@ public interface PredictionHistoryRepository extends
     Object[] getProbabilityBuckets();
 
     /**
-     * Agregação: contagens por fatores de risco heurísticos
+     * Agregação: predições por máscara de fatores de risco ({@code risk_flags}, gravada na
+     * inserção). Percorre apenas idx_risk_flags e devolve no máximo 32 linhas
+     * [riskFlags, count], que o adapter soma por fator.
      */
-    @Query("SELECT " +
-            "SUM(CASE WHEN p.subscriptionType = 'Free' AND p.adsListenedPerWeek > 15 THEN 1 ELSE 0 END), " +
-            "SUM(CASE WHEN p.skipRate > 0.4 THEN 1 ELSE 0 END), " +
-            "SUM(CASE WHEN p.frustrationIndex IS NOT NULL AND p.frustrationIndex > 3.0 THEN 1 ELSE 0 END), " +
-            "SUM(CASE WHEN p.premiumNoOffline = true THEN 1 ELSE 0 END), " +
-            "SUM(CASE WHEN p.listeningTime < 100 THEN 1 ELSE 0 END) " +
-            "FROM PredictionHistoryEntity p")
-    Object[] getRiskFactorCounts();
-
-    /**
-     * Conta quantos clientes ficam no TOP 25% (probability >= cutoff_top25).
-     */
-    @Query(value = """
-    SELECT COUNT(*)
-    FROM (
-      SELECT id,
-             ROW_NUMBER() OVER (ORDER BY probability DESC) as row_num,
-             COUNT(*) OVER () as total_count
-      FROM churn_history
-    ) ranked
-    WHERE row_num <= CEIL(total_count * 0.25)
-    """, nativeQuery = true)
-    Long countTop25AtRisk();
-
-                /**
-                 * Agrega clientes do TOP 25% por probabilidade agrupando por tipo de assinatura.
-                 * Retorna pares [subscription_type, count].
-                 */
-                @Query(value = """
-                SELECT ranked.subscription_type, COUNT(*) as count
-                FROM (
-                        SELECT subscription_type,
-                                                 ROW_NUMBER() OVER (ORDER BY probability DESC) as row_num,
-                                                 COUNT(*) OVER () as total_count
-                        FROM churn_history
-                ) ranked
-                WHERE ranked.row_num <= CEIL(ranked.total_count * 0.25)
-                GROUP BY ranked.subscription_type
-                ORDER BY count DESC
-                """, nativeQuery = true)
-                List<Object[]> getTop25SubscriptionCounts();
-}
\ No newline at end of file
+    @Query("SELECT p.riskFlags, COUNT(p) FROM PredictionHistoryEntity p GROUP BY p.riskFlags")
+    List<Object[]> countByRiskFlags();
+}
@@ -1,71 +1,95 @@
 package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.repository;
 
-import com.hackathon.databeats.churninsight.domain.enums.RetentionActionStatus;
 import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.entity.RetentionActionEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RetentionActionRepository extends JpaRepository<RetentionActionEntity, String> {
 
-    long countByCreatedAtBetween(LocalDateTime from, LocalDateTime to);
+    /**
+     * Ação bloqueada para escrita ({@code SELECT ... FOR UPDATE}) até o fim da transação, para
+     * que alterações concorrentes da mesma ação sejam serializadas.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM RetentionActionEntity a WHERE a.id = :id")
+    Optional<RetentionActionEntity> findByIdForUpdate(@Param("id") String id);
 
-    long countByStatusAndCreatedAtBetween(RetentionActionStatus status, LocalDateTime from, LocalDateTime to);
-
-    @Query("""
-        SELECT COALESCE(SUM(o.recoveredRevenue), 0)
-        FROM RetentionOutcomeEntity o
-        JOIN RetentionActionEntity a ON a.id = o.actionId
-        WHERE a.createdAt BETWEEN :from AND :to
-    """)
-    Double sumRecoveredRevenueBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
-
-    @Query("""
-        SELECT o.retained, COUNT(o)
-        FROM RetentionOutcomeEntity o
-        JOIN RetentionActionEntity a ON a.id = o.actionId
-        WHERE a.createdAt BETWEEN :from AND :to
-        GROUP BY o.retained
-    """)
-    List<Object[]> getRetentionOutcomeCounts(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+    /**
+     * TOP 25% de clientes por probabilidade, a partir da predição mais recente de cada
+     * cliente (customer_latest_prediction), com a última ação de retenção do usuário.
+     * A coluna id corresponde ao churn_history.id da predição mais recente.
+     *
+     * <p>O TOP 25% é a faixa {@code probability >= :cutoff}, lida na ordem do índice
+     * idx_clp_probability (probability DESC, user_id); a última ação é buscada apenas para
+     * as linhas da página via idx_retention_action_user_created.</p>
+     */
+    @Query(value = """
+        SELECT
+            l.history_id AS id,
+            l.user_id,
+            l.probability,
+            l.subscription_type,
+            l.churn_status,
+            l.created_at,
+            la.id as action_id,
+            la.status as action_status
+        FROM customer_latest_prediction l
+        LEFT JOIN retention_action la ON la.id = (
+            SELECT ra.id
+            FROM retention_action ra
+            WHERE ra.user_id = l.user_id
+            ORDER BY ra.created_at DESC, ra.id DESC
+            LIMIT 1
+        )
+        WHERE l.probability >= :cutoff
+        ORDER BY l.probability DESC, l.user_id
+    """, countQuery = "SELECT COUNT(*) FROM customer_latest_prediction WHERE probability >= :cutoff", nativeQuery = true)
+    Page<Object[]> getPrioritizedTop25(@Param("cutoff") double cutoff, Pageable pageable);
 
+    /**
+     * Página do TOP 25% por cursor (keyset): registros estritamente depois de
+     * (:lastProbability, :lastUserId) na ordem (probability DESC, user_id). Na primeira
+     * página use lastProbability acima de 1 e lastUserId vazio.
+     */
     @Query(value = """
         SELECT
-            h.id,
-            h.user_id,
-            h.probability,
-            h.subscription_type,
-            h.churn_status,
-            h.created_at,
-            ranked.row_num,
-            ranked.total_count,
+            l.history_id AS id,
+            l.user_id,
+            l.probability,
+            l.subscription_type,
+            l.churn_status,
+            l.created_at,
             la.id as action_id,
             la.status as action_status
-        FROM (
-            SELECT id,
-                   ROW_NUMBER() OVER (ORDER BY probability DESC) as row_num,
-                   COUNT(*) OVER () as total_count
-            FROM churn_history
-        ) ranked
-        JOIN churn_history h ON h.id = ranked.id
-        LEFT JOIN (
-            SELECT ra.client_id, ra.id, ra.status
+        FROM customer_latest_prediction l
+        LEFT JOIN retention_action la ON la.id = (
+            SELECT ra.id
             FROM retention_action ra
-            INNER JOIN (
-                SELECT client_id, MAX(created_at) AS max_created
-                FROM retention_action
-                GROUP BY client_id
-            ) last_ra ON last_ra.client_id = ra.client_id AND last_ra.max_created = ra.created_at
-        ) la ON la.client_id = h.id
-        WHERE ranked.row_num <= CEIL(ranked.total_count * 0.25)
-        ORDER BY h.probability DESC
-    """, countQuery = "SELECT CEIL(COUNT(*) * 0.25) FROM churn_history", nativeQuery = true)
-    Page<Object[]> getPrioritizedTop25(Pageable pageable);
+            WHERE ra.user_id = l.user_id
+            ORDER BY ra.created_at DESC, ra.id DESC
+            LIMIT 1
+        )
+        WHERE l.probability >= :cutoff
+          AND (l.probability < :lastProbability
+               OR (l.probability = :lastProbability AND l.user_id > :lastUserId))
+        ORDER BY l.probability DESC, l.user_id
+        LIMIT :limit
+    """, nativeQuery = true)
+    List<Object[]> getPrioritizedTop25After(@Param("cutoff") double cutoff,
+                                            @Param("lastProbability") double lastProbability,
+                                            @Param("lastUserId") String lastUserId,
+                                            @Param("limit") int limit);
+
+    @Query(value = "SELECT COUNT(*) FROM customer_latest_prediction WHERE probability >= :cutoff", nativeQuery = true)
+    long countPrioritizedTop25(@Param("cutoff") double cutoff);
 }
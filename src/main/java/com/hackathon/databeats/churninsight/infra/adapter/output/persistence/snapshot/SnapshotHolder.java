@@ -0,0 +1,116 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.snapshot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Snapshot em memória reconstruído periodicamente a partir do banco e mantido atual por
+ * mutações aplicadas após cada gravação confirmada.
+ *
+ * <p>Leituras usam {@link #current()} sem lock. Mutações e a troca do snapshot são
+ * serializadas; as mutações recebidas durante uma reconstrução são guardadas e reaplicadas
+ * sobre o snapshot novo antes da troca, exceto as que a própria varredura já incluiu
+ * ({@link Scan#alreadyIncluded()}).</p>
+ *
+ * @param <S> snapshot (mutável, acessado apenas sob o lock nas escritas)
+ * @param <M> mutação
+ */
+public final class SnapshotHolder<S, M> {
+
+    /**
+     * Resultado da varredura.
+     *
+     * @param snapshot snapshot novo, ainda não publicado
+     * @param alreadyIncluded mutações recebidas durante a varredura que ela já leu do banco
+     */
+    public record Scan<S, M>(S snapshot, Predicate<M> alreadyIncluded) {
+
+        /** Varredura cujas mutações concorrentes são todas reaplicadas (mutações idempotentes). */
+        public static <S, M> Scan<S, M> of(S snapshot) {
+            return new Scan<>(snapshot, mutation -> false);
+        }
+    }
+
+    /** Snapshot publicado por uma reconstrução e quantidade de mutações reaplicadas nele. */
+    public record Rebuilt<S>(S snapshot, int replayed) {
+    }
+
+    private final BiConsumer<S, M> applier;
+    private final Object lock = new Object();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // Escritas protegidas por lock; leituras sem lock
+    private volatile S published;
+    private List<M> pendingDuringBuild;
+
+    /**
+     * @param applier aplica uma mutação ao snapshot
+     */
+    public SnapshotHolder(BiConsumer<S, M> applier) {
+        this.applier = applier;
+    }
+
+    /** Snapshot publicado, ou {@code null} antes da primeira reconstrução. */
+    public S current() {
+        return published;
+    }
+
+    /** Aplica a mutação ao snapshot publicado e a guarda para a reconstrução em curso. */
+    public void apply(M mutation) {
+        synchronized (lock) {
+            if (pendingDuringBuild != null) pendingDuringBuild.add(mutation);
+            if (published != null) applier.accept(published, mutation);
+        }
+    }
+
+    /** Igual a {@link #apply(Object)} para várias mutações, em ordem. */
+    public void applyAll(Collection<? extends M> mutations) {
+        synchronized (lock) {
+            if (pendingDuringBuild != null) pendingDuringBuild.addAll(mutations);
+            if (published == null) return;
+            for (M mutation : mutations) applier.accept(published, mutation);
+        }
+    }
+
+    /**
+     * Executa a varredura, reaplica as mutações recebidas durante ela e publica o snapshot
+     * novo. O snapshot anterior continua respondendo até a troca; em falha ele é mantido e a
+     * exceção propagada.
+     *
+     * @return snapshot publicado, ou vazio se outra reconstrução estiver em curso
+     */
+    public Optional<Rebuilt<S>> rebuild(Supplier<Scan<S, M>> scanner) {
+        if (!rebuildLock.tryLock()) return Optional.empty();
+        try {
+            synchronized (lock) {
+                pendingDuringBuild = new ArrayList<>();
+            }
+            Scan<S, M> scan = scanner.get();
+            S fresh = scan.snapshot();
+            int replayed = 0;
+            synchronized (lock) {
+                for (M mutation : pendingDuringBuild) {
+                    if (scan.alreadyIncluded().test(mutation)) continue;
+                    applier.accept(fresh, mutation);
+                    replayed++;
+                }
+                pendingDuringBuild = null;
+                published = fresh;
+            }
+            return Optional.of(new Rebuilt<>(fresh, replayed));
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                pendingDuringBuild = null;
+            }
+            throw e;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+}
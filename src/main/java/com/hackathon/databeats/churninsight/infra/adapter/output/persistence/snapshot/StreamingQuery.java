@@ -0,0 +1,38 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.snapshot;
+
+import com.hackathon.databeats.churninsight.infra.config.DataSourceRole;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+/**
+ * Varredura em streaming para a carga dos snapshots em memória.
+ *
+ * <p>Com cursor somente para frente e {@code fetchSize = Integer.MIN_VALUE} o Connector/J
+ * entrega as linhas uma a uma conforme chegam do servidor, em vez de materializar o
+ * resultado inteiro: a memória do driver não depende do tamanho da tabela.</p>
+ *
+ * <p>A varredura sempre lê o primário ({@link DataSourceRole#INTERACTIVE_WRITER}): as mutações
+ * recebidas durante ela são reaplicadas sobre o resultado, e uma réplica atrasada perderia as
+ * gravações que ainda não chegaram a ela.</p>
+ */
+public final class StreamingQuery {
+
+    private StreamingQuery() {
+        // Utility class
+    }
+
+    /**
+     * Entrega cada linha de {@code sql} ao handler, sem materializar o resultado no driver.
+     */
+    public static void forEach(JdbcTemplate jdbcTemplate, String sql, RowCallbackHandler handler) {
+        DataSourceRole.runAs(DataSourceRole.INTERACTIVE_WRITER, () -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(Integer.MIN_VALUE); // streaming linha a linha no Connector/J
+            return statement;
+        }, handler));
+    }
+}
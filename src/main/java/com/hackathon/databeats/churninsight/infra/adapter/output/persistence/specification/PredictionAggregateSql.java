@@ -0,0 +1,90 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.specification;
+
+import com.hackathon.databeats.churninsight.application.dto.AggregateDimension;
+import com.hackathon.databeats.churninsight.application.dto.AggregateQuery;
+import com.hackathon.databeats.churninsight.domain.rules.SubscriptionPricing;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * {@code GROUP BY} em SQL nativo sobre churn_history equivalente ao agrupamento do snapshot
+ * colunar, usado quando o snapshot não está carregado ou o filtro inclui userId.
+ *
+ * <p>Colunas do resultado: uma por dimensão (faixas como índice numérico, dia como DATE),
+ * seguidas de COUNT, SUM, MIN e MAX da probabilidade e da receita em risco.</p>
+ *
+ * @param sql consulta completa
+ * @param params parâmetros posicionais na ordem dos {@code ?}
+ */
+public record PredictionAggregateSql(String sql, List<Object> params) {
+
+    /**
+     * Monta a consulta para a agregação normalizada.
+     *
+     * @param resolvedUserIds userIds resolvidos pelo índice em memória, ou null
+     */
+    public static PredictionAggregateSql of(AggregateQuery query, Collection<String> resolvedUserIds) {
+        PredictionSearchSql where = PredictionSearchSql.of(query.filter(), resolvedUserIds);
+        List<String> columns = new ArrayList<>();
+        for (AggregateDimension dimension : query.groupBy()) {
+            columns.add(expression(dimension));
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (String column : columns) sql.append(column).append(", ");
+        sql.append("COUNT(*), SUM(probability), MIN(probability), MAX(probability), ")
+           .append("SUM(CASE WHEN churn_status = 'WILL_CHURN' THEN ").append(planValueExpression()).append(" ELSE 0 END) ")
+           .append("FROM churn_history WHERE ").append(where.where());
+        if (!columns.isEmpty()) {
+            sql.append(" GROUP BY ");
+            for (int i = 1; i <= columns.size(); i++) {
+                sql.append(i == 1 ? "" : ", ").append(i);
+            }
+        }
+        return new PredictionAggregateSql(sql.toString(), where.params());
+    }
+
+    private static String expression(AggregateDimension dimension) {
+        return switch (dimension) {
+            case GENDER -> "gender";
+            case COUNTRY -> "country";
+            case SUBSCRIPTION_TYPE -> "subscription_type";
+            case DEVICE_TYPE -> "device_type";
+            case AGE_BAND -> bandExpression("COALESCE(age, 0)", toStrings(AggregateDimension.AGE_BAND_LOWER_BOUNDS));
+            case PROBABILITY_BUCKET -> bandExpression("probability", toStrings(AggregateDimension.PROBABILITY_BUCKET_LOWER_BOUNDS));
+            case CREATED_DAY -> "DATE(created_at)";
+            case PRIMARY_RISK_FACTOR -> "primary_risk_factor";
+        };
+    }
+
+    // CASE WHEN col < b1 THEN 0 WHEN col < b2 THEN 1 ... ELSE n END
+    private static String bandExpression(String column, List<String> lowerBounds) {
+        StringBuilder sb = new StringBuilder("CASE");
+        for (int i = 0; i < lowerBounds.size(); i++) {
+            sb.append(" WHEN ").append(column).append(" < ").append(lowerBounds.get(i)).append(" THEN ").append(i);
+        }
+        return sb.append(" ELSE ").append(lowerBounds.size()).append(" END").toString();
+    }
+
+    private static String planValueExpression() {
+        StringBuilder sb = new StringBuilder("CASE subscription_type");
+        SubscriptionPricing.monthlyValues().forEach((plan, value) ->
+                sb.append(" WHEN '").append(plan).append("' THEN ").append(String.format(Locale.ROOT, "%.2f", value)));
+        return sb.append(" ELSE 0 END").toString();
+    }
+
+    private static List<String> toStrings(int[] values) {
+        List<String> out = new ArrayList<>(values.length);
+        for (int v : values) out.add(Integer.toString(v));
+        return out;
+    }
+
+    private static List<String> toStrings(double[] values) {
+        List<String> out = new ArrayList<>(values.length);
+        for (double v : values) out.add(Double.toString(v));
+        return out;
+    }
+}
@@ -1,14 +1,17 @@
 package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.specification;
 
 import com.hackathon.databeats.churninsight.application.dto.PredictionSearchFilter;
+import com.hackathon.databeats.churninsight.application.dto.UserIdMatch;
 import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
 import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.entity.PredictionHistoryEntity;
+import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -21,11 +24,30 @@ public class PredictionHistorySpecification {
         // Utility class
     }
 
+    /** Caractere de escape dos padrões LIKE gerados para userId. */
+    public static final char LIKE_ESCAPE = '!';
+
     /**
      * Constrói uma Specification baseada nos filtros fornecidos.
      * Apenas filtros não-nulos são aplicados.
+     *
+     * <p>Os filtros são normalizados antes ({@link PredictionSearchFilter#normalized()}) e os
+     * categóricos comparados por igualdade direta com a coluna, já gravada na forma canônica:
+     * nenhuma função envolve a coluna, então idx_gender, idx_country, idx_subscription_type,
+     * idx_device_type e idx_user_id continuam utilizáveis.</p>
+     */
+    public static Specification<PredictionHistoryEntity> withFilters(PredictionSearchFilter rawFilter) {
+        return withFilters(rawFilter, null);
+    }
+
+    /**
+     * Igual a {@link #withFilters(PredictionSearchFilter)}, mas com o filtro de userId já
+     * resolvido pelo índice em memória: quando {@code resolvedUserIds} não é nulo, o texto
+     * é substituído por {@code user_id IN (...)}.
      */
-    public static Specification<PredictionHistoryEntity> withFilters(PredictionSearchFilter filter) {
+    public static Specification<PredictionHistoryEntity> withFilters(
+            PredictionSearchFilter rawFilter, Collection<String> resolvedUserIds) {
+        PredictionSearchFilter filter = rawFilter.normalized();
         return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
@@ -43,8 +65,8 @@ public class PredictionHistorySpecification {
             }
 
             // === FILTROS DEMOGRÁFICOS ===
-            if (filter.gender() != null && !filter.gender().isBlank()) {
-                predicates.add(cb.equal(cb.lower(root.get("gender")), filter.gender().toLowerCase()));
+            if (filter.gender() != null) {
+                predicates.add(cb.equal(root.get("gender"), filter.gender()));
             }
             if (filter.minAge() != null) {
                 predicates.add(cb.greaterThanOrEqualTo(root.get("age"), filter.minAge()));
@@ -52,14 +74,14 @@ public class PredictionHistorySpecification {
             if (filter.maxAge() != null) {
                 predicates.add(cb.lessThanOrEqualTo(root.get("age"), filter.maxAge()));
             }
-            if (filter.country() != null && !filter.country().isBlank()) {
-                predicates.add(cb.equal(cb.upper(root.get("country")), filter.country().toUpperCase()));
+            if (filter.country() != null) {
+                predicates.add(cb.equal(root.get("country"), filter.country()));
             }
-            if (filter.subscriptionType() != null && !filter.subscriptionType().isBlank()) {
-                predicates.add(cb.equal(cb.lower(root.get("subscriptionType")), filter.subscriptionType().toLowerCase()));
+            if (filter.subscriptionType() != null) {
+                predicates.add(cb.equal(root.get("subscriptionType"), filter.subscriptionType()));
             }
-            if (filter.deviceType() != null && !filter.deviceType().isBlank()) {
-                predicates.add(cb.equal(cb.lower(root.get("deviceType")), filter.deviceType().toLowerCase()));
+            if (filter.deviceType() != null) {
+                predicates.add(cb.equal(root.get("deviceType"), filter.deviceType()));
             }
 
             // === FILTROS DE DATA ===
@@ -87,17 +109,57 @@ public class PredictionHistorySpecification {
             if (filter.maxFrustrationIndex() != null) {
                 predicates.add(cb.lessThanOrEqualTo(root.get("frustrationIndex"), filter.maxFrustrationIndex()));
             }
+            if (filter.riskFactor() != null) {
+                // Código gravado na inserção: usa idx_primary_risk_factor
+                predicates.add(cb.equal(root.get("primaryRiskFactor"), filter.riskFactor().code()));
+            }
 
             // === BUSCA POR TEXTO (userId) ===
-            if (filter.userId() != null && !filter.userId().isBlank()) {
-                predicates.add(cb.like(cb.lower(root.get("userId")),
-                        "%" + filter.userId().toLowerCase() + "%"));
+            if (filter.userId() != null && resolvedUserIds != null) {
+                predicates.add(resolvedUserIds.isEmpty()
+                        ? cb.disjunction()
+                        : root.get("userId").in(resolvedUserIds));
+            } else if (filter.userId() != null) {
+                Path<String> userId = root.get("userId");
+                predicates.add(switch (filter.userIdMatch()) {
+                    case EXACT -> cb.equal(userId, filter.userId());
+                    case PREFIX, CONTAINS -> cb.like(userId, userIdPattern(filter), LIKE_ESCAPE);
+                });
             }
 
             return cb.and(predicates.toArray(new Predicate[0]));
         };
     }
 
+    /**
+     * Padrão LIKE do filtro de userId normalizado, com curingas do texto escapados:
+     * {@code abc%} no modo prefixo (sargável) e {@code %abc%} no modo contém.
+     */
+    public static String userIdPattern(PredictionSearchFilter filter) {
+        String escaped = filter.userId()
+                .replace(String.valueOf(LIKE_ESCAPE), "" + LIKE_ESCAPE + LIKE_ESCAPE)
+                .replace("%", LIKE_ESCAPE + "%")
+                .replace("_", LIKE_ESCAPE + "_");
+        return filter.userIdMatch() == UserIdMatch.CONTAINS ? "%" + escaped + "%" : escaped + "%";
+    }
+
+    /**
+     * Specification de paginação keyset: registros estritamente depois de (sortValue, id)
+     * na ordenação informada.
+     */
+    public static <T extends Comparable<? super T>> Specification<PredictionHistoryEntity> after(
+            String field, T sortValue, boolean ascending, String id, boolean idAscending) {
+        return (root, query, cb) -> {
+            Path<T> key = root.get(field);
+            Path<String> idPath = root.get("id");
+            Predicate beyond = ascending ? cb.greaterThan(key, sortValue) : cb.lessThan(key, sortValue);
+            Predicate tie = cb.and(
+                    cb.equal(key, sortValue),
+                    idAscending ? cb.greaterThan(idPath, id) : cb.lessThan(idPath, id));
+            return cb.or(beyond, tie);
+        };
+    }
+
     /**
      * Specification para busca por status apenas (mais performática)
      */
@@ -0,0 +1,121 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.specification;
+
+import com.hackathon.databeats.churninsight.application.dto.PredictionSearchFilter;
+import com.hackathon.databeats.churninsight.application.dto.UserIdMatch;
+
+import java.sql.Timestamp;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Cláusula WHERE em SQL nativo equivalente a {@link PredictionHistorySpecification#withFilters}.
+ *
+ * <p>Usada onde a consulta é montada via JDBC sobre churn_history (ex.: estimativa de
+ * contagem via {@code EXPLAIN}). Qualquer filtro novo deve ser incluído nos dois lugares.</p>
+ *
+ * @param where cláusula sem a palavra WHERE ({@code "1=1"} quando não há filtros)
+ * @param params parâmetros posicionais na ordem dos {@code ?}
+ */
+public record PredictionSearchSql(String where, List<Object> params) {
+
+    public static PredictionSearchSql of(PredictionSearchFilter rawFilter) {
+        return of(rawFilter, null);
+    }
+
+    /**
+     * Igual a {@link #of(PredictionSearchFilter)}, com o userId resolvido pelo índice em
+     * memória ({@code user_id IN (...)}) quando {@code resolvedUserIds} não é nulo.
+     */
+    public static PredictionSearchSql of(PredictionSearchFilter rawFilter, Collection<String> resolvedUserIds) {
+        PredictionSearchFilter filter = rawFilter.normalized();
+        List<String> clauses = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+
+        if (filter.churnStatus() != null) {
+            clauses.add("churn_status = ?");
+            params.add(filter.churnStatus().name());
+        }
+        if (filter.minProbability() != null) {
+            clauses.add("probability >= ?");
+            params.add(filter.minProbability());
+        }
+        if (filter.maxProbability() != null) {
+            clauses.add("probability <= ?");
+            params.add(filter.maxProbability());
+        }
+        if (filter.gender() != null) {
+            clauses.add("gender = ?");
+            params.add(filter.gender());
+        }
+        if (filter.minAge() != null) {
+            clauses.add("age >= ?");
+            params.add(filter.minAge());
+        }
+        if (filter.maxAge() != null) {
+            clauses.add("age <= ?");
+            params.add(filter.maxAge());
+        }
+        if (filter.country() != null) {
+            clauses.add("country = ?");
+            params.add(filter.country());
+        }
+        if (filter.subscriptionType() != null) {
+            clauses.add("subscription_type = ?");
+            params.add(filter.subscriptionType());
+        }
+        if (filter.deviceType() != null) {
+            clauses.add("device_type = ?");
+            params.add(filter.deviceType());
+        }
+        if (filter.startDate() != null) {
+            clauses.add("created_at >= ?");
+            params.add(Timestamp.valueOf(filter.startDate().atStartOfDay()));
+        }
+        if (filter.endDate() != null) {
+            clauses.add("created_at <= ?");
+            params.add(Timestamp.valueOf(filter.endDate().atTime(LocalTime.MAX)));
+        }
+        if (filter.isHeavyUser() != null) {
+            clauses.add("is_heavy_user = ?");
+            params.add(filter.isHeavyUser());
+        }
+        if (filter.offlineListening() != null) {
+            clauses.add("offline_listening = ?");
+            params.add(filter.offlineListening());
+        }
+        if (filter.minFrustrationIndex() != null) {
+            clauses.add("frustration_index >= ?");
+            params.add(filter.minFrustrationIndex());
+        }
+        if (filter.maxFrustrationIndex() != null) {
+            clauses.add("frustration_index <= ?");
+            params.add(filter.maxFrustrationIndex());
+        }
+        if (filter.riskFactor() != null) {
+            clauses.add("primary_risk_factor = ?");
+            params.add(filter.riskFactor().code());
+        }
+        if (filter.userId() != null && resolvedUserIds != null) {
+            if (resolvedUserIds.isEmpty()) {
+                clauses.add("1=0");
+            } else {
+                clauses.add("user_id IN (" + String.join(",", Collections.nCopies(resolvedUserIds.size(), "?")) + ")");
+                params.addAll(resolvedUserIds);
+            }
+        } else if (filter.userId() != null) {
+            if (filter.userIdMatch() == UserIdMatch.EXACT) {
+                clauses.add("user_id = ?");
+                params.add(filter.userId());
+            } else {
+                clauses.add("user_id LIKE ? ESCAPE '" + PredictionHistorySpecification.LIKE_ESCAPE + "'");
+                params.add(PredictionHistorySpecification.userIdPattern(filter));
+            }
+        }
+
+        String where = clauses.isEmpty() ? "1=1" : String.join(" AND ", clauses);
+        return new PredictionSearchSql(where, List.copyOf(params));
+    }
+}
@@ -0,0 +1,111 @@
+package com.hackathon.databeats.churninsight.infra.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Pools de conexões separados por papel ({@link DataSourceRole}).
+ *
+ * <p>Ativa com {@code app.datasource.pools.enabled=true} e/ou
+ * {@code app.datasource.replica.enabled=true}; com as duas desligadas, o Spring Boot cria o
+ * pool único de {@code spring.datasource.*} como antes.</p>
+ *
+ * <ul>
+ *   <li>Escritor interativo: {@code spring.datasource.hikari.*}, sobrescrito por
+ *       {@code app.datasource.pools.interactive-writer.*}.</li>
+ *   <li>Gravação em massa: {@code app.datasource.pools.batch-writer.*}.</li>
+ *   <li>Leitor: {@code app.datasource.pools.reader.*}, apontando para a réplica
+ *       ({@code app.datasource.replica.url}) quando ela está habilitada.</li>
+ * </ul>
+ *
+ * <p>Com os pools desligados e a réplica ligada, escritas em massa e interativas continuam
+ * no pool primário único. Cada pool publica {@code hikaricp.connections.*{pool}}.</p>
+ */
+@Configuration
+@ConditionalOnExpression("${app.datasource.pools.enabled:false} or ${app.datasource.replica.enabled:false}")
+public class DataSourcePoolsConfig {
+
+    @Bean(destroyMethod = "close")
+    public RoleRoutingDataSource roleRoutingDataSource(
+            DataSourceProperties properties,
+            Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${app.datasource.pools.enabled:false}") boolean poolsEnabled,
+            @Value("${app.datasource.replica.enabled:false}") boolean replicaEnabled,
+            @Value("${app.datasource.replica.url:}") String replicaUrl,
+            @Value("${app.datasource.replica.username:}") String replicaUsername,
+            @Value("${app.datasource.replica.password:}") String replicaPassword,
+            @Value("${app.datasource.replica.max-lag-seconds:10}") long maxLagSeconds,
+            @Value("${app.datasource.replica.allow-standalone:false}") boolean allowStandalone) {
+        Binder binder = Binder.get(environment);
+        MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(meterRegistry);
+        Map<DataSourceRole, DataSource> pools = new EnumMap<>(DataSourceRole.class);
+
+        HikariDataSource interactive = primaryPool(properties, binder, metrics, "spring.datasource.hikari");
+        if (poolsEnabled) {
+            binder.bind("app.datasource.pools.interactive-writer", Bindable.ofInstance(interactive));
+            pools.put(DataSourceRole.BATCH_WRITER,
+                    primaryPool(properties, binder, metrics, "app.datasource.pools.batch-writer"));
+        } else {
+            pools.put(DataSourceRole.BATCH_WRITER, interactive);
+        }
+        pools.put(DataSourceRole.INTERACTIVE_WRITER, interactive);
+
+        if (replicaEnabled) {
+            if (!StringUtils.hasText(replicaUrl)) {
+                throw new IllegalStateException("app.datasource.replica.url é obrigatório com a réplica habilitada");
+            }
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("ChurnInsightReaderPool");
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setJdbcUrl(replicaUrl);
+            replica.setUsername(StringUtils.hasText(replicaUsername) ? replicaUsername : properties.determineUsername());
+            replica.setPassword(StringUtils.hasText(replicaPassword) ? replicaPassword : properties.determinePassword());
+            replica.setReadOnly(true);
+            binder.bind("app.datasource.pools.reader", Bindable.ofInstance(replica));
+            replica.setMetricsTrackerFactory(metrics);
+            pools.put(DataSourceRole.READER, replica);
+        } else {
+            pools.put(DataSourceRole.READER, primaryPool(properties, binder, metrics, "app.datasource.pools.reader"));
+        }
+
+        return new RoleRoutingDataSource(pools, replicaEnabled, maxLagSeconds, allowStandalone, meterRegistry);
+    }
+
+    /**
+     * DataSource da aplicação (JPA, JdbcTemplate, Flyway). O proxy adia a obtenção da conexão
+     * até o primeiro comando, quando o papel e o modo somente leitura da transação já são
+     * conhecidos.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(RoleRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    // === MÉTODOS PRIVADOS ===
+
+    private static HikariDataSource primaryPool(DataSourceProperties properties, Binder binder,
+                                                MicrometerMetricsTrackerFactory metrics, String prefix) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind(prefix, Bindable.ofInstance(pool));
+        pool.setMetricsTrackerFactory(metrics);
+        return pool;
+    }
+}
@@ -0,0 +1,58 @@
+package com.hackathon.databeats.churninsight.infra.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Papel do pool de conexões que atende um acesso ao banco.
+ *
+ * <p>Sem papel declarado, transações somente leitura usam {@link #READER} e o restante usa
+ * {@link #INTERACTIVE_WRITER}. Gravações em massa declaram {@link #BATCH_WRITER} com
+ * {@link #callAs} em volta da transação, para não disputar conexões com as requisições
+ * interativas. Leituras que não podem estar atrasadas em relação às gravações (snapshots em
+ * memória que recebem as mutações publicadas depois) declaram {@link #INTERACTIVE_WRITER}
+ * para ler o primário mesmo em transação somente leitura.</p>
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public enum DataSourceRole {
+
+    /** Gravações em massa (upload de arquivos, replay do journal). */
+    BATCH_WRITER,
+
+    /** Gravações das requisições (/predict, retenção) e leituras fora de transação somente leitura. */
+    INTERACTIVE_WRITER,
+
+    /** Transações somente leitura (consultas e dashboard). */
+    READER;
+
+    private static final ThreadLocal<DataSourceRole> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Executa o trecho com o papel informado na thread atual. Com o proxy de conexão
+     * preguiçosa, vale para as transações cuja primeira instrução roda dentro do trecho.
+     */
+    public static <T> T callAs(DataSourceRole role, Supplier<T> action) {
+        DataSourceRole previous = CURRENT.get();
+        CURRENT.set(role);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) CURRENT.remove();
+            else CURRENT.set(previous);
+        }
+    }
+
+    /** Variante de {@link #callAs} sem retorno. */
+    public static void runAs(DataSourceRole role, Runnable action) {
+        callAs(role, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /** Papel declarado na thread atual, ou {@code null}. */
+    public static DataSourceRole current() {
+        return CURRENT.get();
+    }
+}
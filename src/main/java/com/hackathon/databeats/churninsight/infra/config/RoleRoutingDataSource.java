@@ -0,0 +1,236 @@
+package com.hackathon.databeats.churninsight.infra.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DataSource que escolhe o pool de conexões pelo papel do acesso ({@link DataSourceRole}).
+ *
+ * <p>O papel declarado na thread ({@link DataSourceRole#callAs}) tem precedência; sem ele,
+ * transações somente leitura ({@link TransactionSynchronizationManager#isCurrentTransactionReadOnly()})
+ * vão ao leitor e o restante ao escritor interativo. Por isso precisa ficar atrás de um
+ * {@code LazyConnectionDataSourceProxy}: a conexão física só é obtida no primeiro comando,
+ * quando a transação já marcou o modo e o papel já foi declarado.</p>
+ *
+ * <p>Cada pool é o bulkhead do seu papel: tamanho máximo e tempo de espera
+ * ({@code connection-timeout}) próprios, de modo que um upload grande esgota só o pool de
+ * gravação em massa. A espera por conexão é medida em {@code churn.datasource.acquire{role}}
+ * e as esperas estouradas em {@code churn.datasource.acquire.timeouts{role}}.</p>
+ *
+ * <p>Quando o leitor aponta para uma réplica, o atraso é verificado periodicamente
+ * ({@code SHOW REPLICA STATUS}). Acima de {@code maxLagSeconds}, com a replicação parada ou
+ * com a réplica inacessível, as leituras voltam ao escritor interativo até a próxima
+ * verificação bem-sucedida.</p>
+ */
+@Slf4j
+public class RoleRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final Map<DataSourceRole, DataSource> pools;
+    private final boolean readerIsReplica;
+    private final long maxLagSeconds;
+    private final boolean allowStandalone;
+    private final Map<DataSourceRole, Timer> acquireTimers = new EnumMap<>(DataSourceRole.class);
+    private final Map<DataSourceRole, Counter> acquireTimeouts = new EnumMap<>(DataSourceRole.class);
+    private final Map<String, Counter> routes = new HashMap<>();
+
+    private volatile boolean readerAvailable;
+    private volatile double lagSeconds = Double.NaN;
+
+    /**
+     * @param pools pool de cada papel (papéis podem compartilhar o mesmo pool)
+     * @param readerIsReplica o pool {@link DataSourceRole#READER} aponta para uma réplica
+     * @param maxLagSeconds atraso máximo aceito antes de voltar as leituras ao primário
+     * @param allowStandalone aceita uma réplica sem replicação configurada (ambiente local)
+     */
+    public RoleRoutingDataSource(Map<DataSourceRole, DataSource> pools, boolean readerIsReplica,
+                                 long maxLagSeconds, boolean allowStandalone, MeterRegistry meterRegistry) {
+        this.pools = new EnumMap<>(pools);
+        this.readerIsReplica = readerIsReplica;
+        this.maxLagSeconds = maxLagSeconds;
+        this.allowStandalone = allowStandalone;
+        this.readerAvailable = !readerIsReplica;
+        setTargetDataSources(new HashMap<>(this.pools));
+        setDefaultTargetDataSource(this.pools.get(DataSourceRole.INTERACTIVE_WRITER));
+
+        for (DataSourceRole role : DataSourceRole.values()) {
+            String tag = tag(role);
+            acquireTimers.put(role, Timer.builder("churn.datasource.acquire")
+                    .description("Espera por uma conexão do pool do papel")
+                    .tag("role", tag)
+                    .register(meterRegistry));
+            acquireTimeouts.put(role, Counter.builder("churn.datasource.acquire.timeouts")
+                    .description("Esperas por conexão que estouraram o connection-timeout do pool")
+                    .tag("role", tag)
+                    .register(meterRegistry));
+        }
+        for (String reason : new String[]{"declared", "read_only", "read_write", "replica_unavailable"}) {
+            for (DataSourceRole role : DataSourceRole.values()) {
+                routes.put(route(role, reason), Counter.builder("churn.datasource.routing")
+                        .description("Conexões obtidas por papel do pool")
+                        .tag("role", tag(role))
+                        .tag("reason", reason)
+                        .register(meterRegistry));
+            }
+        }
+        if (readerIsReplica) {
+            Gauge.builder("churn.datasource.replica.lag", this, ds -> ds.lagSeconds)
+                    .description("Atraso de replicação medido na última verificação (segundos)")
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            Gauge.builder("churn.datasource.replica.available", this, ds -> ds.readerAvailable ? 1 : 0)
+                    .description("1 quando as leituras somente leitura estão indo para a réplica")
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        DataSourceRole role = determineCurrentLookupKey();
+        long start = System.nanoTime();
+        try {
+            return pools.get(role).getConnection();
+        } catch (SQLTransientConnectionException e) {
+            acquireTimeouts.get(role).increment();
+            throw e;
+        } finally {
+            acquireTimers.get(role).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return pools.get(determineCurrentLookupKey()).getConnection(username, password);
+    }
+
+    @Override
+    protected DataSourceRole determineCurrentLookupKey() {
+        DataSourceRole role = DataSourceRole.current();
+        String reason = "declared";
+        if (role == null) {
+            boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+            role = readOnly ? DataSourceRole.READER : DataSourceRole.INTERACTIVE_WRITER;
+            reason = readOnly ? "read_only" : "read_write";
+        }
+        if (role == DataSourceRole.READER && !readerAvailable) {
+            role = DataSourceRole.INTERACTIVE_WRITER;
+            reason = "replica_unavailable";
+        }
+        routes.get(route(role, reason)).increment();
+        return role;
+    }
+
+    /**
+     * Mede o atraso da réplica e decide se ela continua recebendo leituras.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:5000}")
+    public void checkReplicaLag() {
+        if (!readerIsReplica) return;
+        Long lag;
+        boolean replicating;
+        try (Connection connection = pools.get(DataSourceRole.READER).getConnection();
+             Statement statement = connection.createStatement()) {
+            ReplicaStatus status = replicaStatus(statement);
+            replicating = status.configured();
+            lag = status.lagSeconds();
+        } catch (SQLException | RuntimeException e) {
+            lagSeconds = Double.NaN;
+            if (readerAvailable) {
+                log.warn("Réplica inacessível, leituras no primário: {}", e.getMessage());
+            }
+            readerAvailable = false;
+            return;
+        }
+        updateReplicaStatus(replicating, lag);
+    }
+
+    /**
+     * Aplica o resultado de uma verificação da réplica.
+     *
+     * @param replicating a instância tem replicação configurada
+     * @param lag atraso em segundos ({@code null} quando a replicação está parada)
+     */
+    void updateReplicaStatus(boolean replicating, Long lag) {
+        boolean available;
+        if (!replicating) {
+            available = allowStandalone;
+            lagSeconds = allowStandalone ? 0 : Double.NaN;
+        } else {
+            available = lag != null && lag <= maxLagSeconds;
+            lagSeconds = lag != null ? lag : Double.NaN;
+        }
+        if (available != readerAvailable) {
+            if (available) {
+                log.info("Réplica disponível (atraso {}s), leituras somente leitura na réplica", lag == null ? 0 : lag);
+            } else {
+                log.warn("Réplica indisponível (replicação={}, atraso={}s, máximo={}s), leituras no primário",
+                        replicating, lag, maxLagSeconds);
+            }
+        }
+        readerAvailable = available;
+    }
+
+    boolean isReaderAvailable() {
+        return readerAvailable;
+    }
+
+    @Override
+    public void close() throws Exception {
+        Set<DataSource> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+        distinct.addAll(pools.values());
+        for (DataSource pool : distinct) {
+            if (pool instanceof AutoCloseable closeable) closeable.close();
+        }
+    }
+
+    // === MÉTODOS PRIVADOS ===
+
+    private record ReplicaStatus(boolean configured, Long lagSeconds) {
+    }
+
+    private static ReplicaStatus replicaStatus(Statement statement) throws SQLException {
+        try {
+            return readStatus(statement, "SHOW REPLICA STATUS", "Seconds_Behind_Source");
+        } catch (SQLException e) {
+            // MySQL anterior à 8.0.22
+            return readStatus(statement, "SHOW SLAVE STATUS", "Seconds_Behind_Master");
+        }
+    }
+
+    private static ReplicaStatus readStatus(Statement statement, String sql, String lagColumn) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(sql)) {
+            if (!rs.next()) {
+                return new ReplicaStatus(false, null);
+            }
+            long lag = rs.getLong(lagColumn);
+            return new ReplicaStatus(true, rs.wasNull() ? null : lag);
+        }
+    }
+
+    private static String route(DataSourceRole role, String reason) {
+        return role.name() + ':' + reason;
+    }
+
+    private static String tag(DataSourceRole role) {
+        return role.name().toLowerCase();
+    }
+}
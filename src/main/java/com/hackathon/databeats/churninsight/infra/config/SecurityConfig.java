@@ -1,5 +1,6 @@
 package com.hackathon.databeats.churninsight.infra.config;
 
+import com.hackathon.databeats.churninsight.infra.adapter.input.web.feed.PredictionFeedStreamer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -37,7 +38,7 @@ import java.util.List;
  *
  * <p><b>CORS:</b> Whitelist restritiva (configurável via property app.cors.allowed-origins).</p>
  *
- * <p><b>Autorização:</b> /cache/clear requer role ADMIN.</p>
+ * <p><b>Autorização:</b> /cache/clear e /retention/kpis/rebuild requerem role ADMIN.</p>
  *
  * @author Equipe ChurnInsight
  * @version 1.0.0
@@ -87,8 +88,9 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(Customizer.withDefaults())
                 .authorizeHttpRequests(auth -> {
-                        // Keep cache/clear and observability endpoint restricted to ADMIN
-                        auth.requestMatchers("/cache/clear", "/actuator/prometheus", "/actuator/prometheus/**")
+                        // Keep cache/clear, KPI rebuild and observability endpoint restricted to ADMIN
+                        auth.requestMatchers("/cache/clear", "/retention/kpis/rebuild",
+                                        "/actuator/prometheus", "/actuator/prometheus/**")
                             .hasRole("ADMIN");
 
                     if (allowUnauthenticatedPredict) {
@@ -121,9 +123,12 @@ public class SecurityConfig {
 
         config.setAllowedOrigins(origins);
 
-        config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-        config.setAllowedHeaders(List.of("Authorization", "Content-Type", "X-Requested-With"));
-        config.setExposedHeaders(List.of("X-Rate-Limit-Remaining", "X-Rate-Limit-Limit"));
+        config.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
+        // Cabeçalhos condicionais permitem revalidar as respostas com ETag (304)
+        config.setAllowedHeaders(List.of("Authorization", "Content-Type", "X-Requested-With", "If-None-Match", "If-Modified-Since"));
+        // Cursor e lacuna do feed: o frontend precisa lê-los para retomar o long-poll
+        config.setExposedHeaders(List.of("X-Rate-Limit-Remaining", "X-Rate-Limit-Limit", "ETag", "Last-Modified",
+                PredictionFeedStreamer.CURSOR_HEADER, PredictionFeedStreamer.GAP_HEADER));
         config.setAllowCredentials(true);
         config.setMaxAge(3600L); // Cache preflight por 1 hora
 
@@ -0,0 +1,51 @@
+package com.hackathon.databeats.churninsight.infra.util;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionTimedOutException;
+
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+
+/**
+ * Classificação das falhas de acesso ao banco entre transitórias e permanentes.
+ *
+ * <p>Transitórias são as que podem dar certo numa nova tentativa sem mudar os dados:
+ * deadlock, timeout de lock ou de consulta, pool esgotado, banco inacessível ou conexão
+ * perdida. As demais (violação de integridade, SQL inválido, dado fora do tamanho da
+ * coluna) falham de novo a cada tentativa.</p>
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public final class DataAccessFailures {
+
+    private DataAccessFailures() {
+    }
+
+    /**
+     * Indica se a falha, ou alguma causa dela, é transitória.
+     *
+     * <p>A cadeia de causas é percorrida porque a falha costuma chegar embrulhada, por exemplo
+     * num {@code CompletionException} dos chunks paralelos ou num {@code TransactionSystemException}
+     * do commit.</p>
+     */
+    public static boolean isTransient(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof TransientDataAccessException
+                    || t instanceof RecoverableDataAccessException
+                    || t instanceof DataAccessResourceFailureException
+                    || t instanceof CannotCreateTransactionException
+                    || t instanceof TransactionTimedOutException
+                    || t instanceof SQLTransientException
+                    || t instanceof SQLRecoverableException
+                    || t instanceof SQLNonTransientConnectionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
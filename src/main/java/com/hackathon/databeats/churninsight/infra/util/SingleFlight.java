@@ -0,0 +1,91 @@
+package com.hackathon.databeats.churninsight.infra.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalescência de chamadas idênticas simultâneas (single-flight).
+ *
+ * <p>A primeira chamada com uma chave executa o cálculo; as que chegam com a mesma chave
+ * enquanto ele roda aguardam e recebem o mesmo resultado (ou a mesma exceção), em vez de
+ * repetir a consulta. Não há cache: terminado o cálculo, a próxima chamada executa de novo.</p>
+ *
+ * <p>Chamadas coalescidas são contadas em {@code churn.singleflight.deduplicated{name}} e
+ * cálculos executados em {@code churn.singleflight.executions{name}}.</p>
+ *
+ * <h3>Thread Safety:</h3>
+ * <p>Classe <b>thread-safe</b>. Quem aguarda fica bloqueado até o fim do cálculo, o que é
+ * barato nas threads virtuais da aplicação.</p>
+ *
+ * @param <K> chave que identifica chamadas equivalentes (equals/hashCode)
+ * @param <V> resultado compartilhado (deve ser imutável ou não ser alterado pelos chamadores)
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executions;
+    private final Counter deduplicated;
+
+    /**
+     * @param name nome do grupo de chamadas (tag das métricas)
+     */
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.executions = Counter.builder("churn.singleflight.executions")
+                .tag("name", name)
+                .description("Cálculos executados pelo single-flight")
+                .register(meterRegistry);
+        this.deduplicated = Counter.builder("churn.singleflight.deduplicated")
+                .tag("name", name)
+                .description("Chamadas que reaproveitaram um cálculo em andamento")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Executa o cálculo ou aguarda o cálculo em andamento com a mesma chave.
+     */
+    public V execute(K key, Supplier<V> supplier) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, call);
+        if (running != null) {
+            deduplicated.increment();
+            return await(running);
+        }
+
+        executions.increment();
+        try {
+            V value = supplier.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    /** Chamadas em andamento (diagnóstico). */
+    public int inFlight() {
+        return inFlight.size();
+    }
+
+    private static <V> V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            // Repassa a mesma exceção do cálculo original
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            if (e.getCause() instanceof Error error) throw error;
+            throw e;
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.hackathon.databeats.churninsight.infra.util;
 
+import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Gerador de UUID v7 (RFC 9562) otimizado para alta performance.
@@ -26,11 +28,32 @@ import java.util.concurrent.ThreadLocalRandom;
  *
  * <p><b>Thread-safety:</b> Usa {@link ThreadLocalRandom} para evitar sincronização.</p>
  *
+ * <p><b>Monotônico:</b> {@link #next()}, {@link #nextString()}, {@link #nextBytes()} e
+ * {@link #reserve(int)} seguem o método 1 da RFC 9562 (contador dedicado): 22 bits de
+ * contador (rand_a + 10 bits altos de rand_b), sorteado a cada milissegundo novo e
+ * incrementado dentro dele, e 52 bits aleatórios. O estado é único no processo, um
+ * {@link AtomicLong} com timestamp e contador avançado por CAS, então os ids são estritamente
+ * crescentes entre todas as threads (inclusive virtuais) sem lock; se o contador estourar, o
+ * timestamp avança 1 ms (§6.2). Relógio recuado mantém o último timestamp.</p>
+ *
  * @author Equipe ChurnInsight
  * @version 1.0.0
  */
 public final class UUIDv7 {
 
+	// Estado: timestamp nos 42 bits altos (milissegundos até 2109) e contador nos 22 baixos
+	private static final int COUNTER_BITS = 22;
+	private static final int COUNTER_LOW_BITS = 10;
+	private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+	// Semente com o bit alto zerado: ao menos metade do espaço sobra para incrementos
+	private static final long COUNTER_SEED_MASK = (1L << (COUNTER_BITS - 1)) - 1;
+	private static final int MAX_BLOCK = 1 << (COUNTER_BITS - 1);
+	private static final long RANDOM_MASK = (1L << 52) - 1;
+	private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+	// Próximo valor livre (timestamp + contador), compartilhado por todas as threads
+	private static final AtomicLong STATE = new AtomicLong();
+
 	private UUIDv7() {} // Utility class - não instanciável
 
 	/**
@@ -88,5 +111,188 @@ public final class UUIDv7 {
 	public static String generateString(long timestampMillis) {
 		return generate(timestampMillis).toString();
 	}
-}
 
+	/**
+	 * Gera um UUID v7 determinístico para uma linha de um job batch.
+	 *
+	 * <p>O mesmo par (jobId, rowNumber) sempre produz o mesmo UUID, permitindo reenviar
+	 * um chunk sem duplicar registros. O timestamp e os bits aleatórios vêm do próprio
+	 * jobId (também UUID v7) e os 32 bits finais carregam o número da linha, de modo que
+	 * os ids de um job são crescentes na ordem do arquivo.</p>
+	 *
+	 * <pre>
+	 *   48 bits: timestamp do jobId
+	 *    4 bits: versão (0111 = 7)
+	 *   12 bits: rand_a do jobId
+	 *    2 bits: variante
+	 *   30 bits: bits aleatórios do jobId
+	 *   32 bits: número da linha
+	 * </pre>
+	 *
+	 * @param jobId     identificador do job (UUID v7)
+	 * @param rowNumber número da linha no arquivo de origem (0 a 2^32-1)
+	 * @return UUID v7 estável para a linha
+	 * @throws IllegalArgumentException se o número da linha estiver fora do intervalo
+	 */
+	public static UUID fromJobRow(String jobId, long rowNumber) {
+		if (rowNumber < 0 || rowNumber > 0xFFFFFFFFL) {
+			throw new IllegalArgumentException("Número de linha fora do intervalo: " + rowNumber);
+		}
+		UUID job = UUID.fromString(jobId);
+		long jobMsb = job.getMostSignificantBits();
+		long jobLsb = job.getLeastSignificantBits();
+
+		long msb = (jobMsb & 0xFFFFFFFFFFFF0000L) // timestamp do job
+				 | (0x7L << 12)
+				 | (jobMsb & 0xFFFL);
+		long lsb = (0x2L << 62)
+				 | ((jobLsb & 0x3FFFFFFFL) << 32)
+				 | rowNumber;
+
+		return new UUID(msb, lsb);
+	}
+
+	/**
+	 * Gera o próximo UUID v7 monotônico.
+	 *
+	 * @return UUID v7 maior que todos os gerados antes no processo
+	 */
+	public static UUID next() {
+		return reserve(1).uuid(0);
+	}
+
+	/**
+	 * Gera o próximo UUID v7 monotônico como String, formatada direto dos bits (sem
+	 * {@link UUID} intermediário).
+	 *
+	 * @return UUID v7 em formato string padrão
+	 */
+	public static String nextString() {
+		return reserve(1).string(0);
+	}
+
+	/**
+	 * Gera o próximo UUID v7 monotônico em 16 bytes big-endian (ordem de {@code BINARY(16)}).
+	 *
+	 * @return novo array com o UUID
+	 */
+	public static byte[] nextBytes() {
+		byte[] bytes = new byte[16];
+		reserve(1).writeBytes(0, bytes, 0);
+		return bytes;
+	}
+
+	/**
+	 * Reserva {@code count} ids consecutivos com um único CAS no estado compartilhado.
+	 *
+	 * <p>Os ids do bloco compartilham timestamp e cauda aleatória e diferem só no contador;
+	 * são materializados sob demanda como longs, bytes ou String.</p>
+	 *
+	 * @param count quantidade de ids (1 a 2^21)
+	 * @return bloco de ids crescentes
+	 * @throws IllegalArgumentException se count estiver fora do intervalo
+	 */
+	public static Block reserve(int count) {
+		if (count < 1 || count > MAX_BLOCK) {
+			throw new IllegalArgumentException("Quantidade de ids fora do intervalo: " + count);
+		}
+		long now = System.currentTimeMillis() << COUNTER_BITS;
+		while (true) {
+			long current = STATE.get();
+			long first = current;
+			if (now > current) {
+				first = now | seed();
+			}
+			if ((first & COUNTER_MASK) + count - 1 > COUNTER_MASK) {
+				// Contador estourou: avança 1 ms
+				first = ((first >>> COUNTER_BITS) + 1) << COUNTER_BITS | seed();
+			}
+			if (STATE.compareAndSet(current, first + count)) {
+				return new Block(first >>> COUNTER_BITS, first & COUNTER_MASK, count,
+						ThreadLocalRandom.current().nextLong());
+			}
+		}
+	}
+
+	private static long seed() {
+		return ThreadLocalRandom.current().nextLong() & COUNTER_SEED_MASK;
+	}
+
+	/**
+	 * Bloco de UUIDs v7 consecutivos reservado por {@link #reserve(int)}.
+	 */
+	public static final class Block {
+
+		private final long millis;
+		private final long firstCounter;
+		private final int count;
+		private final long random;
+
+		private Block(long millis, long firstCounter, int count, long random) {
+			this.millis = millis;
+			this.firstCounter = firstCounter;
+			this.count = count;
+			this.random = random & RANDOM_MASK;
+		}
+
+		/** Quantidade de ids do bloco. */
+		public int size() {
+			return count;
+		}
+
+		/** 64 bits mais significativos do i-ésimo id. */
+		public long msb(int index) {
+			return (millis << 16) | (0x7L << 12) | (counter(index) >>> COUNTER_LOW_BITS);
+		}
+
+		/** 64 bits menos significativos do i-ésimo id. */
+		public long lsb(int index) {
+			return (0x2L << 62) | ((counter(index) & ((1L << COUNTER_LOW_BITS) - 1)) << 52) | random;
+		}
+
+		public UUID uuid(int index) {
+			return new UUID(msb(index), lsb(index));
+		}
+
+		/** Escreve o i-ésimo id em 16 bytes big-endian a partir de {@code offset}. */
+		public void writeBytes(int index, byte[] target, int offset) {
+			long msb = msb(index);
+			long lsb = lsb(index);
+			for (int i = 0; i < 8; i++) {
+				target[offset + i] = (byte) (msb >>> (56 - 8 * i));
+				target[offset + 8 + i] = (byte) (lsb >>> (56 - 8 * i));
+			}
+		}
+
+		/** I-ésimo id em formato string padrão (8-4-4-4-12, minúsculo). */
+		public String string(int index) {
+			byte[] text = new byte[36];
+			long msb = msb(index);
+			long lsb = lsb(index);
+			hex(msb >>> 32, text, 0, 8);
+			text[8] = '-';
+			hex(msb >>> 16, text, 9, 4);
+			text[13] = '-';
+			hex(msb, text, 14, 4);
+			text[18] = '-';
+			hex(lsb >>> 48, text, 19, 4);
+			text[23] = '-';
+			hex(lsb, text, 24, 12);
+			return new String(text, StandardCharsets.ISO_8859_1);
+		}
+
+		private long counter(int index) {
+			if (index < 0 || index >= count) {
+				throw new IndexOutOfBoundsException(index);
+			}
+			return firstCounter + index;
+		}
+
+		private static void hex(long value, byte[] target, int offset, int digits) {
+			for (int i = digits - 1; i >= 0; i--) {
+				target[offset + i] = HEX[(int) (value & 0xF)];
+				value >>>= 4;
+			}
+		}
+	}
+}
@@ -0,0 +1,106 @@
+-- =============================================================================
+-- Migração: V10__normalize_categorical_columns.sql
+-- Descrição: Grava gender, country, subscription_type e device_type na forma
+--            canônica (CategoricalNormalizer: Male/Female/Other, ISO do país,
+--            Free/Premium/Family/Student, Desktop/Mobile/Web). Com a caixa
+--            padronizada na escrita, a busca compara por igualdade direta e volta
+--            a usar idx_gender, idx_country, idx_subscription_type e idx_device_type.
+--            Valores desconhecidos ficam com a primeira letra maiúscula (país em
+--            maiúsculas), a mesma regra aplicada em Java.
+-- =============================================================================
+
+-- -----------------------------------------------------------------------------
+-- churn_history
+-- -----------------------------------------------------------------------------
+UPDATE churn_history SET gender = CASE
+        WHEN TRIM(gender) = '' THEN ''
+        WHEN LOWER(TRIM(gender)) IN ('male', 'm', 'masculino') THEN 'Male'
+        WHEN LOWER(TRIM(gender)) IN ('female', 'f', 'feminino') THEN 'Female'
+        WHEN LOWER(TRIM(gender)) IN ('other', 'outro', 'outros') THEN 'Other'
+        ELSE CONCAT(UPPER(LEFT(TRIM(gender), 1)), LOWER(SUBSTRING(TRIM(gender), 2)))
+    END
+WHERE gender IS NOT NULL;
+
+UPDATE churn_history SET country = CASE
+        WHEN LOWER(TRIM(country)) IN ('germany', 'de', 'alemanha', 'deutschland') THEN 'DE'
+        WHEN LOWER(TRIM(country)) IN ('usa', 'us', 'united states', 'estados unidos', 'eua') THEN 'US'
+        WHEN LOWER(TRIM(country)) IN ('brazil', 'br', 'brasil') THEN 'BR'
+        WHEN LOWER(TRIM(country)) IN ('canada', 'ca', 'canadá') THEN 'CA'
+        WHEN LOWER(TRIM(country)) IN ('uk', 'gb', 'united kingdom', 'reino unido', 'england', 'inglaterra') THEN 'GB'
+        WHEN LOWER(TRIM(country)) IN ('france', 'fr', 'frança') THEN 'FR'
+        WHEN LOWER(TRIM(country)) IN ('spain', 'es', 'espanha', 'españa') THEN 'ES'
+        WHEN LOWER(TRIM(country)) IN ('italy', 'it', 'italia', 'itália') THEN 'IT'
+        WHEN LOWER(TRIM(country)) IN ('portugal', 'pt') THEN 'PT'
+        WHEN LOWER(TRIM(country)) IN ('mexico', 'mx', 'méxico') THEN 'MX'
+        WHEN LOWER(TRIM(country)) IN ('argentina', 'ar') THEN 'AR'
+        WHEN LOWER(TRIM(country)) IN ('india', 'in', 'índia') THEN 'IN'
+        ELSE UPPER(TRIM(country))
+    END
+WHERE country IS NOT NULL;
+
+UPDATE churn_history SET subscription_type = CASE
+        WHEN TRIM(subscription_type) = '' THEN ''
+        WHEN LOWER(TRIM(subscription_type)) IN ('free', 'gratis', 'gratuito') THEN 'Free'
+        WHEN LOWER(TRIM(subscription_type)) IN ('premium', 'pago') THEN 'Premium'
+        WHEN LOWER(TRIM(subscription_type)) IN ('family', 'familia', 'familiar') THEN 'Family'
+        WHEN LOWER(TRIM(subscription_type)) IN ('student', 'estudante', 'universitario') THEN 'Student'
+        ELSE CONCAT(UPPER(LEFT(TRIM(subscription_type), 1)), LOWER(SUBSTRING(TRIM(subscription_type), 2)))
+    END
+WHERE subscription_type IS NOT NULL;
+
+UPDATE churn_history SET device_type = CASE
+        WHEN TRIM(device_type) = '' THEN ''
+        WHEN LOWER(TRIM(device_type)) IN ('desktop', 'computer', 'pc', 'computador') THEN 'Desktop'
+        WHEN LOWER(TRIM(device_type)) IN ('mobile', 'celular', 'smartphone', 'phone') THEN 'Mobile'
+        WHEN LOWER(TRIM(device_type)) IN ('web', 'browser', 'navegador') THEN 'Web'
+        ELSE CONCAT(UPPER(LEFT(TRIM(device_type), 1)), LOWER(SUBSTRING(TRIM(device_type), 2)))
+    END
+WHERE device_type IS NOT NULL;
+
+-- -----------------------------------------------------------------------------
+-- customer_latest_prediction
+-- -----------------------------------------------------------------------------
+UPDATE customer_latest_prediction SET gender = CASE
+        WHEN TRIM(gender) = '' THEN ''
+        WHEN LOWER(TRIM(gender)) IN ('male', 'm', 'masculino') THEN 'Male'
+        WHEN LOWER(TRIM(gender)) IN ('female', 'f', 'feminino') THEN 'Female'
+        WHEN LOWER(TRIM(gender)) IN ('other', 'outro', 'outros') THEN 'Other'
+        ELSE CONCAT(UPPER(LEFT(TRIM(gender), 1)), LOWER(SUBSTRING(TRIM(gender), 2)))
+    END
+WHERE gender IS NOT NULL;
+
+UPDATE customer_latest_prediction SET country = CASE
+        WHEN LOWER(TRIM(country)) IN ('germany', 'de', 'alemanha', 'deutschland') THEN 'DE'
+        WHEN LOWER(TRIM(country)) IN ('usa', 'us', 'united states', 'estados unidos', 'eua') THEN 'US'
+        WHEN LOWER(TRIM(country)) IN ('brazil', 'br', 'brasil') THEN 'BR'
+        WHEN LOWER(TRIM(country)) IN ('canada', 'ca', 'canadá') THEN 'CA'
+        WHEN LOWER(TRIM(country)) IN ('uk', 'gb', 'united kingdom', 'reino unido', 'england', 'inglaterra') THEN 'GB'
+        WHEN LOWER(TRIM(country)) IN ('france', 'fr', 'frança') THEN 'FR'
+        WHEN LOWER(TRIM(country)) IN ('spain', 'es', 'espanha', 'españa') THEN 'ES'
+        WHEN LOWER(TRIM(country)) IN ('italy', 'it', 'italia', 'itália') THEN 'IT'
+        WHEN LOWER(TRIM(country)) IN ('portugal', 'pt') THEN 'PT'
+        WHEN LOWER(TRIM(country)) IN ('mexico', 'mx', 'méxico') THEN 'MX'
+        WHEN LOWER(TRIM(country)) IN ('argentina', 'ar') THEN 'AR'
+        WHEN LOWER(TRIM(country)) IN ('india', 'in', 'índia') THEN 'IN'
+        ELSE UPPER(TRIM(country))
+    END
+WHERE country IS NOT NULL;
+
+UPDATE customer_latest_prediction SET subscription_type = CASE
+        WHEN TRIM(subscription_type) = '' THEN ''
+        WHEN LOWER(TRIM(subscription_type)) IN ('free', 'gratis', 'gratuito') THEN 'Free'
+        WHEN LOWER(TRIM(subscription_type)) IN ('premium', 'pago') THEN 'Premium'
+        WHEN LOWER(TRIM(subscription_type)) IN ('family', 'familia', 'familiar') THEN 'Family'
+        WHEN LOWER(TRIM(subscription_type)) IN ('student', 'estudante', 'universitario') THEN 'Student'
+        ELSE CONCAT(UPPER(LEFT(TRIM(subscription_type), 1)), LOWER(SUBSTRING(TRIM(subscription_type), 2)))
+    END
+WHERE subscription_type IS NOT NULL;
+
+UPDATE customer_latest_prediction SET device_type = CASE
+        WHEN TRIM(device_type) = '' THEN ''
+        WHEN LOWER(TRIM(device_type)) IN ('desktop', 'computer', 'pc', 'computador') THEN 'Desktop'
+        WHEN LOWER(TRIM(device_type)) IN ('mobile', 'celular', 'smartphone', 'phone') THEN 'Mobile'
+        WHEN LOWER(TRIM(device_type)) IN ('web', 'browser', 'navegador') THEN 'Web'
+        ELSE CONCAT(UPPER(LEFT(TRIM(device_type), 1)), LOWER(SUBSTRING(TRIM(device_type), 2)))
+    END
+WHERE device_type IS NOT NULL;
@@ -0,0 +1,47 @@
+-- =============================================================================
+-- Migração: V11__add_risk_factor_columns.sql
+-- Descrição: Persiste os fatores de risco heurísticos calculados na gravação
+--            (ChurnBusinessRules):
+--            - risk_flags: máscara RISK_* (1 = Free com muitos anúncios,
+--              2 = pulos, 4 = frustração, 8 = Premium sem offline,
+--              16 = baixo engajamento)
+--            - primary_risk_factor: código de RiskFactor (0 = nenhum/stay,
+--              1..5 = primeiro bit presente, 6 = risco moderado)
+--            A listagem passa a só traduzir o código, o filtro por fator usa
+--            idx_primary_risk_factor e as contagens do dashboard agrupam
+--            idx_risk_flags (até 32 valores) em vez de cinco CASE por linha.
+-- =============================================================================
+
+ALTER TABLE churn_history
+    ADD COLUMN risk_flags TINYINT UNSIGNED NOT NULL DEFAULT 0
+        COMMENT 'Máscara de fatores de risco (ChurnBusinessRules.RISK_*)',
+    ADD COLUMN primary_risk_factor TINYINT UNSIGNED NOT NULL DEFAULT 0
+        COMMENT 'Fator de risco primário (RiskFactor.code)';
+
+-- -----------------------------------------------------------------------------
+-- Carga das linhas existentes (mesmas regras de ChurnBusinessRules.riskFactorFlags;
+-- nulos não disparam fator). No UPDATE de tabela única o MySQL aplica as
+-- atribuições em ordem, então primary_risk_factor já enxerga o risk_flags novo.
+-- -----------------------------------------------------------------------------
+UPDATE churn_history SET
+    risk_flags =
+          (CASE WHEN subscription_type = 'Free' AND ads_listened_per_week > 15 THEN 1 ELSE 0 END)
+        | (CASE WHEN skip_rate > 0.4 THEN 2 ELSE 0 END)
+        | (CASE WHEN frustration_index > 3.0 THEN 4 ELSE 0 END)
+        | (CASE WHEN premium_no_offline = TRUE THEN 8 ELSE 0 END)
+        | (CASE WHEN listening_time < 100 THEN 16 ELSE 0 END),
+    primary_risk_factor = CASE
+        WHEN churn_status <> 'WILL_CHURN' THEN 0
+        WHEN risk_flags & 1 THEN 1
+        WHEN risk_flags & 2 THEN 2
+        WHEN risk_flags & 4 THEN 3
+        WHEN risk_flags & 8 THEN 4
+        WHEN risk_flags & 16 THEN 5
+        ELSE 6
+    END;
+
+-- Filtro por fator na busca, já na ordem padrão da listagem
+CREATE INDEX idx_primary_risk_factor ON churn_history(primary_risk_factor, created_at DESC);
+
+-- Contagens por fator (GROUP BY risk_flags percorre só o índice)
+CREATE INDEX idx_risk_flags ON churn_history(risk_flags);
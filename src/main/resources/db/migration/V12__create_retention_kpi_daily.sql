@@ -0,0 +1,43 @@
+-- =============================================================================
+-- Migração: V12__create_retention_kpi_daily.sql
+-- Descrição: Rollup diário dos KPIs de retenção por canal, tipo de ação e
+--            responsável. Cada ação conta no dia em que foi criada (mesma regra
+--            do filtro por período de /retention/kpis), inclusive a execução e
+--            o resultado registrados depois.
+--            A aplicação soma os deltas de cada gravação de ação/resultado e
+--            recalcula periodicamente os dias recentes a partir das tabelas
+--            brutas; os KPIs de qualquer período somam só as linhas diárias.
+-- =============================================================================
+
+CREATE TABLE IF NOT EXISTS retention_kpi_daily (
+    day DATE NOT NULL COMMENT 'Dia de criação das ações',
+    channel VARCHAR(30) NOT NULL,
+    action_type VARCHAR(40) NOT NULL,
+    owner VARCHAR(80) NOT NULL DEFAULT '' COMMENT 'Responsável ('''' quando ausente)',
+
+    total_actions BIGINT NOT NULL DEFAULT 0,
+    executed_actions BIGINT NOT NULL DEFAULT 0 COMMENT 'Ações com status EXECUTED',
+    total_outcomes BIGINT NOT NULL DEFAULT 0 COMMENT 'Ações com resultado registrado',
+    retained_count BIGINT NOT NULL DEFAULT 0,
+    recovered_revenue DOUBLE NOT NULL DEFAULT 0,
+
+    PRIMARY KEY (day, channel, action_type, owner)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+  COMMENT='KPIs de retenção por dia de criação da ação';
+
+-- -----------------------------------------------------------------------------
+-- Carga a partir das ações e resultados existentes
+-- -----------------------------------------------------------------------------
+INSERT INTO retention_kpi_daily (
+    day, channel, action_type, owner,
+    total_actions, executed_actions, total_outcomes, retained_count, recovered_revenue
+)
+SELECT DATE(a.created_at), a.channel, a.action_type, COALESCE(a.owner, ''),
+       COUNT(*),
+       SUM(a.status = 'EXECUTED'),
+       COUNT(o.action_id),
+       COALESCE(SUM(o.retained), 0),
+       COALESCE(SUM(o.recovered_revenue), 0)
+FROM retention_action a
+LEFT JOIN retention_outcome o ON o.action_id = a.id
+GROUP BY DATE(a.created_at), a.channel, a.action_type, COALESCE(a.owner, '');
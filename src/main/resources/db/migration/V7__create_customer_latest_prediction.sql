@@ -0,0 +1,60 @@
+-- =============================================================================
+-- Migração: V7__create_customer_latest_prediction.sql
+-- Descrição: Projeção com a predição mais recente de cada cliente (uma linha por
+--            user_id). Mantida pelos mesmos caminhos de escrita do churn_history e
+--            usada por dashboard e priorização de retenção, que passam a escalar com
+--            o número de clientes e não com o volume de predições.
+-- =============================================================================
+
+CREATE TABLE IF NOT EXISTS customer_latest_prediction (
+    user_id CHAR(36) NOT NULL COMMENT 'Identificador externo do usuário',
+    history_id CHAR(36) NOT NULL COMMENT 'Predição (churn_history.id) mais recente do usuário',
+
+    gender VARCHAR(20),
+    age INT,
+    country VARCHAR(10),
+    subscription_type VARCHAR(30),
+    device_type VARCHAR(30),
+    listening_time DOUBLE,
+    skip_rate DOUBLE,
+    ads_listened_per_week INT,
+    frustration_index DOUBLE,
+    is_heavy_user BOOLEAN,
+    premium_no_offline BOOLEAN,
+
+    churn_status ENUM('WILL_CHURN', 'WILL_STAY') NOT NULL,
+    probability DOUBLE NOT NULL,
+    created_at TIMESTAMP NOT NULL COMMENT 'Data/hora da predição mais recente',
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+
+    PRIMARY KEY (user_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+  COMMENT='Predição mais recente por cliente (projeção de churn_history)';
+
+-- Ranking TOP 25% e ordenação por risco
+CREATE INDEX idx_clp_probability ON customer_latest_prediction(probability DESC);
+CREATE INDEX idx_clp_status ON customer_latest_prediction(churn_status);
+CREATE INDEX idx_clp_subscription_probability ON customer_latest_prediction(subscription_type, probability);
+CREATE INDEX idx_clp_history ON customer_latest_prediction(history_id);
+
+-- Última ação de retenção por usuário (priorização junta por user_id)
+CREATE INDEX idx_retention_action_user_created ON retention_action(user_id, created_at);
+
+-- -----------------------------------------------------------------------------
+-- Carga inicial a partir do histórico existente
+-- -----------------------------------------------------------------------------
+INSERT INTO customer_latest_prediction (
+    user_id, history_id, gender, age, country, subscription_type, device_type,
+    listening_time, skip_rate, ads_listened_per_week, frustration_index,
+    is_heavy_user, premium_no_offline, churn_status, probability, created_at
+)
+SELECT user_id, id, gender, age, country, subscription_type, device_type,
+       listening_time, skip_rate, ads_listened_per_week, frustration_index,
+       is_heavy_user, premium_no_offline, churn_status, probability, created_at
+FROM (
+    SELECT h.*,
+           ROW_NUMBER() OVER (PARTITION BY h.user_id ORDER BY h.created_at DESC, h.id DESC) AS rn
+    FROM churn_history h
+    WHERE h.user_id IS NOT NULL
+) latest
+WHERE latest.rn = 1;
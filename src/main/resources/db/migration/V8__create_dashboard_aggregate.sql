@@ -0,0 +1,31 @@
+-- =============================================================================
+-- Migração: V8__create_dashboard_aggregate.sql
+-- Descrição: Agregados do dashboard executivo por tipo de assinatura, calculados
+--            sobre customer_latest_prediction. A aplicação mantém os contadores em
+--            memória a cada gravação e reconcilia periodicamente com esta tabela,
+--            que também serve de ponto de partida após reinicializações.
+-- =============================================================================
+
+CREATE TABLE IF NOT EXISTS dashboard_aggregate (
+    subscription_type VARCHAR(30) NOT NULL COMMENT 'Tipo de assinatura ('''' quando ausente)',
+
+    total_customers BIGINT NOT NULL DEFAULT 0,
+    will_churn BIGINT NOT NULL DEFAULT 0,
+
+    risk_free_high_ads BIGINT NOT NULL DEFAULT 0,
+    risk_high_skip_rate BIGINT NOT NULL DEFAULT 0,
+    risk_high_frustration BIGINT NOT NULL DEFAULT 0,
+    risk_premium_no_offline BIGINT NOT NULL DEFAULT 0,
+    risk_low_listening BIGINT NOT NULL DEFAULT 0,
+
+    bucket_very_low BIGINT NOT NULL DEFAULT 0 COMMENT 'probability < 0.2',
+    bucket_low BIGINT NOT NULL DEFAULT 0 COMMENT '0.2 <= probability < 0.5',
+    bucket_medium BIGINT NOT NULL DEFAULT 0 COMMENT '0.5 <= probability < 0.7',
+    bucket_high BIGINT NOT NULL DEFAULT 0 COMMENT 'probability >= 0.7',
+
+    top25_customers BIGINT NOT NULL DEFAULT 0 COMMENT 'Clientes do plano no TOP 25% por probabilidade',
+    reconciled_at TIMESTAMP NOT NULL COMMENT 'Momento da última reconciliação exata',
+
+    PRIMARY KEY (subscription_type)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci
+  COMMENT='Agregados do dashboard por plano (reconciliados a partir de customer_latest_prediction)';
@@ -0,0 +1,12 @@
+-- =============================================================================
+-- Migração: V9__add_dashboard_aggregate_histogram.sql
+-- Descrição: Histograma de probabilidades por plano (sketch de quantis com bins de
+--            largura 0.0001, codificação esparsa). A soma dos histogramas fornece o
+--            corte do TOP 25%, e as consultas do TOP 25% passam a ser uma varredura
+--            por faixa (probability >= corte) em idx_clp_probability.
+-- =============================================================================
+
+ALTER TABLE dashboard_aggregate
+    ADD COLUMN probability_histogram MEDIUMBLOB NULL
+        COMMENT 'ProbabilityHistogram serializado (bins não vazios em varint)'
+        AFTER top25_customers;
@@ -1,8 +1,10 @@
 package com.hackathon.databeats.churninsight.application.service;
 
+import com.hackathon.databeats.churninsight.application.dto.DashboardAggregates;
 import com.hackathon.databeats.churninsight.application.dto.DashboardMetricsResponse;
+import com.hackathon.databeats.churninsight.application.port.output.DashboardAggregatePort;
 import com.hackathon.databeats.churninsight.application.port.output.ModelMetadataPort;
-import com.hackathon.databeats.churninsight.application.port.output.PredictionHistoryQueryPort;
+import com.hackathon.databeats.churninsight.application.port.output.LatestPredictionQueryPort;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -10,19 +12,25 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class DashboardMetricsServiceTest {
 
     @Mock
-    private PredictionHistoryQueryPort predictionHistoryQueryPort;
+    private LatestPredictionQueryPort latestPredictionQueryPort;
+
+    @Mock
+    private DashboardAggregatePort dashboardAggregatePort;
 
     @Mock
     private ModelMetadataPort modelMetadataPort;
@@ -31,55 +39,54 @@ class DashboardMetricsServiceTest {
 
     @BeforeEach
     void setUp() {
-        dashboardMetricsService = new DashboardMetricsService(predictionHistoryQueryPort, modelMetadataPort);
+        dashboardMetricsService = new DashboardMetricsService(latestPredictionQueryPort, dashboardAggregatePort, modelMetadataPort);
     }
 
     @Test
-    @DisplayName("Deve preencher risk_factors quando agregação vier em tupla linear")
-    void shouldBuildRiskFactorsFromLinearAggregateTuple() {
-        stubCommonMetrics();
-        when(predictionHistoryQueryPort.getRiskFactorCounts())
-                .thenReturn(new Object[]{10L, 20L, 30L, 40L, 5L});
+    @DisplayName("Deve usar a consulta exata única enquanto os agregados em memória não estiverem prontos")
+    void shouldFallBackToSingleExactQuery() {
+        when(dashboardAggregatePort.current()).thenReturn(Optional.empty());
+        when(latestPredictionQueryPort.aggregateDashboard()).thenReturn(new DashboardAggregates(
+                100L, 30L, 70L, 25L,
+                new DashboardAggregates.RiskFactorCounts(10L, 20L, 30L, 40L, 5L),
+                new DashboardAggregates.ProbabilityBuckets(20L, 30L, 25L, 25L),
+                Map.of("Premium", 60L, "Free", 40L),
+                Map.of("Premium", 10L),
+                LocalDateTime.now()));
+        when(modelMetadataPort.getAcuracia()).thenReturn(0.6488);
 
         DashboardMetricsResponse response = dashboardMetricsService.getMetrics();
 
-        assertNotNull(response);
-        assertNotNull(response.getRiskFactors());
-        assertFalse(response.getRiskFactors().isEmpty());
+        assertEquals(100L, response.getTotalCustomers());
+        assertEquals(25L, response.getCustomersAtRisk());
+        assertEquals(239.0, response.getRevenueAtRisk());
         assertEquals(5, response.getRiskFactors().size());
         assertEquals("Subutilização Premium", response.getRiskFactors().get(0).getName());
         assertEquals(40L, response.getRiskFactors().get(0).getCount());
+        assertFalse(response.getFeatureImportance().isEmpty());
+        verify(latestPredictionQueryPort, times(1)).aggregateDashboard();
     }
 
     @Test
-    @DisplayName("Deve preencher risk_factors quando agregação vier em tupla aninhada")
-    void shouldBuildRiskFactorsFromNestedAggregateTuple() {
-        stubCommonMetrics();
-        Object[] nested = new Object[]{8L, 16L, 24L, 32L, 4L};
-        when(predictionHistoryQueryPort.getRiskFactorCounts())
-                .thenReturn(new Object[]{nested});
+    @DisplayName("Deve usar agregados em memória sem consultar a base quando disponíveis")
+    void shouldUseInMemoryAggregatesWithoutQueries() {
+        when(dashboardAggregatePort.current()).thenReturn(Optional.of(new DashboardAggregates(
+                200L, 80L, 120L, 50L,
+                new DashboardAggregates.RiskFactorCounts(10L, 60L, 30L, 0L, 5L),
+                new DashboardAggregates.ProbabilityBuckets(40L, 60L, 50L, 50L),
+                Map.of("Premium", 150L, "Free", 50L),
+                Map.of("Premium", 10L, "Free", 40L),
+                LocalDateTime.now())));
+        when(modelMetadataPort.getAcuracia()).thenReturn(0.6488);
 
         DashboardMetricsResponse response = dashboardMetricsService.getMetrics();
 
-        assertNotNull(response);
-        assertNotNull(response.getRiskFactors());
-        assertFalse(response.getRiskFactors().isEmpty());
-        assertEquals(5, response.getRiskFactors().size());
-        assertEquals("Subutilização Premium", response.getRiskFactors().get(0).getName());
-        assertEquals(32L, response.getRiskFactors().get(0).getCount());
-
-        List<DashboardMetricsResponse.FeatureImportanceItem> featureImportance = response.getFeatureImportance();
-        assertNotNull(featureImportance);
-        assertFalse(featureImportance.isEmpty());
-    }
-
-    private void stubCommonMetrics() {
-        when(predictionHistoryQueryPort.count()).thenReturn(100L);
-        when(predictionHistoryQueryPort.countTop25AtRisk()).thenReturn(25L);
-        List<Object[]> top25SubscriptionCounts = new ArrayList<>();
-        top25SubscriptionCounts.add(new Object[]{"Premium", 10L});
-        when(predictionHistoryQueryPort.getTop25SubscriptionCounts())
-            .thenReturn(top25SubscriptionCounts);
-        when(modelMetadataPort.getAcuracia()).thenReturn(0.6488);
+        assertEquals(200L, response.getTotalCustomers());
+        assertEquals(50L, response.getCustomersAtRisk());
+        assertEquals(25.0, response.getGlobalChurnRate());
+        assertEquals(239.0, response.getRevenueAtRisk());
+        assertEquals(4, response.getRiskFactors().size());
+        assertEquals("Taxa de Pulos Elevada", response.getRiskFactors().get(0).getName());
+        verifyNoInteractions(latestPredictionQueryPort);
     }
 }
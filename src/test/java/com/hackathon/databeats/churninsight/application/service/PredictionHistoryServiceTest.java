@@ -1,5 +1,13 @@
 package com.hackathon.databeats.churninsight.application.service;
 
+import com.hackathon.databeats.churninsight.application.dto.AggregateDimension;
+import com.hackathon.databeats.churninsight.application.dto.AggregateMetric;
+import com.hackathon.databeats.churninsight.application.dto.AggregateQuery;
+import com.hackathon.databeats.churninsight.application.dto.CountStrategy;
+import com.hackathon.databeats.churninsight.application.dto.PageCursor;
+import com.hackathon.databeats.churninsight.application.dto.PredictionSearchFilter;
+import com.hackathon.databeats.churninsight.application.port.output.PredictionAggregatePort;
+import com.hackathon.databeats.churninsight.application.port.output.PredictionExportPort;
 import com.hackathon.databeats.churninsight.application.port.output.PredictionHistoryQueryPort;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -8,11 +16,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -21,11 +32,17 @@ class PredictionHistoryServiceTest {
     @Mock
     private PredictionHistoryQueryPort predictionHistoryQueryPort;
 
+    @Mock
+    private PredictionAggregatePort predictionAggregatePort;
+
+    @Mock
+    private PredictionExportPort predictionExportPort;
+
     private PredictionHistoryService predictionHistoryService;
 
     @BeforeEach
     void setUp() {
-        predictionHistoryService = new PredictionHistoryService(predictionHistoryQueryPort);
+        predictionHistoryService = new PredictionHistoryService(predictionHistoryQueryPort, predictionAggregatePort, predictionExportPort);
     }
 
     @Test
@@ -66,4 +83,61 @@ class PredictionHistoryServiceTest {
         assertEquals(6L, riskMap.get("PREMIUM_NO_OFFLINE"));
         assertEquals(5L, riskMap.get("LOW_ENGAGEMENT"));
     }
+
+    @Test
+    @DisplayName("Deve limitar tamanho da página na busca por cursor")
+    void shouldClampPageSizeOnCursorSearch() {
+        PredictionSearchFilter filter = PredictionSearchFilter.builder().build();
+
+        predictionHistoryService.searchAfter(filter, null, 500, "probability", "desc", null);
+
+        verify(predictionHistoryQueryPort).searchAfter(filter, null, 100, "probability", "desc", null);
+    }
+
+    @Test
+    @DisplayName("Deve codificar cursor keyset ida e volta e rejeitar cursor inválido")
+    void shouldRoundTripPageCursor() {
+        PageCursor cursor = new PageCursor("createdAt", "desc", "2025-01-15T10:30:45", "0194a6e0-user|1", 40);
+
+        PageCursor decoded = PageCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+        assertThrows(IllegalArgumentException.class, () -> decoded.requireSort("probability", "desc"));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("não-é-base64"));
+    }
+
+    @Test
+    @DisplayName("Deve normalizar filtros equivalentes para a mesma chave de contagem")
+    void shouldNormalizeEquivalentFilters() {
+        PredictionSearchFilter a = PredictionSearchFilter.builder()
+                .gender(" Female ").country("br").subscriptionType("PREMIUM").deviceType("").userId("ABC").build();
+        PredictionSearchFilter b = PredictionSearchFilter.builder()
+                .gender("female").country("BR ").subscriptionType("premium").userId("abc").build();
+
+        assertEquals(a.normalized(), b.normalized());
+        assertEquals("BR", a.normalized().country());
+        assertEquals(null, a.normalized().deviceType());
+        assertEquals(CountStrategy.CACHED, CountStrategy.from(" cached", CountStrategy.EXACT));
+        assertEquals(CountStrategy.EXACT, CountStrategy.from(null, CountStrategy.EXACT));
+        assertThrows(IllegalArgumentException.class, () -> CountStrategy.from("aproximado", CountStrategy.EXACT));
+    }
+
+    @Test
+    @DisplayName("Deve normalizar a consulta de agregação antes de delegar ao port")
+    void shouldNormalizeAggregateQuery() {
+        AggregateQuery query = new AggregateQuery(
+                List.of(AggregateDimension.from("subscriptionType"), AggregateDimension.COUNTRY, AggregateDimension.COUNTRY),
+                List.of(),
+                PredictionSearchFilter.builder().country(" br").build());
+
+        predictionHistoryService.aggregate(query);
+
+        verify(predictionAggregatePort).aggregate(new AggregateQuery(
+                List.of(AggregateDimension.SUBSCRIPTION_TYPE, AggregateDimension.COUNTRY),
+                List.of(AggregateMetric.COUNT),
+                PredictionSearchFilter.builder().country("BR").build().normalized()));
+        assertThrows(IllegalArgumentException.class, () -> AggregateDimension.from("cidade"));
+        assertThrows(IllegalArgumentException.class, () -> new AggregateQuery(
+                List.of(AggregateDimension.values()), List.of(), null).normalized());
+    }
 }
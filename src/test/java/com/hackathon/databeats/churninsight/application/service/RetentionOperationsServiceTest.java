@@ -0,0 +1,222 @@
+package com.hackathon.databeats.churninsight.application.service;
+
+import com.hackathon.databeats.churninsight.application.dto.NewRetentionAction;
+import com.hackathon.databeats.churninsight.application.dto.RetentionActionRef;
+import com.hackathon.databeats.churninsight.application.dto.RetentionKpiGroup;
+import com.hackathon.databeats.churninsight.application.dto.RetentionKpiTotals;
+import com.hackathon.databeats.churninsight.application.dto.RetentionTarget;
+import com.hackathon.databeats.churninsight.application.dto.RiskCutoff;
+import com.hackathon.databeats.churninsight.application.port.output.RetentionActionBulkPort;
+import com.hackathon.databeats.churninsight.application.port.output.RetentionKpiQueryPort;
+import com.hackathon.databeats.churninsight.application.port.output.RetentionKpiRollupPort;
+import com.hackathon.databeats.churninsight.application.port.output.RetentionPriorityPort;
+import com.hackathon.databeats.churninsight.application.port.output.RiskCutoffPort;
+import com.hackathon.databeats.churninsight.domain.enums.RetentionActionStatus;
+import com.hackathon.databeats.churninsight.domain.enums.RetentionActionType;
+import com.hackathon.databeats.churninsight.domain.enums.RetentionChannel;
+import com.hackathon.databeats.churninsight.infra.adapter.input.web.dto.BulkCreateRetentionActionsRequest;
+import com.hackathon.databeats.churninsight.infra.adapter.input.web.dto.BulkRetentionActionFilter;
+import com.hackathon.databeats.churninsight.infra.adapter.input.web.dto.BulkRetentionActionItemResponse.Result;
+import com.hackathon.databeats.churninsight.infra.adapter.input.web.dto.BulkRetentionActionResponse;
+import com.hackathon.databeats.churninsight.infra.adapter.input.web.dto.BulkUpdateRetentionActionStatusRequest;
+import com.hackathon.databeats.churninsight.infra.adapter.input.web.dto.CreateRetentionActionRequest;
+import com.hackathon.databeats.churninsight.infra.adapter.input.web.dto.RetentionKpiBreakdownResponse;
+import com.hackathon.databeats.churninsight.infra.adapter.input.web.dto.RetentionKpisResponse;
+import com.hackathon.databeats.churninsight.infra.adapter.input.web.dto.UpdateRetentionActionStatusRequest;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.entity.RetentionActionEntity;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.repository.PredictionHistoryRepository;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.repository.RetentionActionRepository;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.repository.RetentionOutcomeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Testes unitários das operações de retenção em lote e dos KPIs.
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+@ExtendWith(MockitoExtension.class)
+class RetentionOperationsServiceTest {
+
+    @Mock
+    private RetentionActionRepository retentionActionRepository;
+
+    @Mock
+    private RetentionOutcomeRepository retentionOutcomeRepository;
+
+    @Mock
+    private PredictionHistoryRepository predictionHistoryRepository;
+
+    @Mock
+    private RiskCutoffPort riskCutoffPort;
+
+    @Mock
+    private RetentionKpiQueryPort retentionKpiQueryPort;
+
+    @Mock
+    private RetentionKpiRollupPort retentionKpiRollupPort;
+
+    @Mock
+    private RetentionPriorityPort retentionPriorityPort;
+
+    @Mock
+    private RetentionActionBulkPort retentionActionBulkPort;
+
+    private RetentionOperationsService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new RetentionOperationsService(retentionActionRepository, retentionOutcomeRepository,
+                predictionHistoryRepository, riskCutoffPort, retentionKpiQueryPort, retentionKpiRollupPort,
+                retentionPriorityPort, retentionActionBulkPort, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "bulkMaxItems", 3);
+    }
+
+    @Test
+    @DisplayName("Deve criar as ações em um único lote e reportar clientes inexistentes por item")
+    @SuppressWarnings("unchecked")
+    void shouldInsertFoundClientsInOneBatch() {
+        when(retentionActionBulkPort.findClients(anyCollection())).thenReturn(List.of(
+                new RetentionTarget("c1", "u1"), new RetentionTarget("c3", "u3")));
+
+        BulkRetentionActionResponse response = service.createActions(new BulkCreateRetentionActionsRequest(
+                List.of(request("c1"), request("c2"), request("c3")), null));
+
+        assertEquals(3, response.requested());
+        assertEquals(2, response.succeeded());
+        assertEquals(1, response.failed());
+        assertEquals(List.of(Result.CREATED, Result.NOT_FOUND, Result.CREATED),
+                response.items().stream().map(item -> item.result()).toList());
+
+        ArgumentCaptor<List<NewRetentionAction>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(retentionActionBulkPort, times(1)).findClients(anyCollection());
+        verify(retentionActionBulkPort, times(1)).insertAll(inserted.capture());
+        assertEquals(List.of("c1", "c3"), inserted.getValue().stream().map(NewRetentionAction::clientId).toList());
+        assertEquals(RetentionActionStatus.PLANNED, inserted.getValue().get(0).status());
+        assertEquals(0, inserted.getValue().get(0).createdAt().getNano(), "created_at na precisão da coluna TIMESTAMP");
+        verify(retentionKpiRollupPort).add(List.of(inserted.getValue().get(0).id(), inserted.getValue().get(1).id()),
+                new RetentionKpiTotals(1L, 0L, 0L, 0L, 0.0));
+        verify(retentionPriorityPort, times(2)).onActionSaved(anyString(), anyString(), eq(RetentionActionStatus.PLANNED), any());
+        verifyNoInteractions(predictionHistoryRepository, retentionActionRepository);
+    }
+
+    @Test
+    @DisplayName("Deve selecionar clientes pelo filtro sobre o TOP 25%")
+    void shouldSelectTargetsByFilter() {
+        when(riskCutoffPort.top25Cutoff()).thenReturn(new RiskCutoff(0.72, 1000L, false));
+        when(retentionActionBulkPort.findTopRisk(0.72, "Free", true, 3)).thenReturn(List.of(
+                new RetentionTarget("c1", "u1"), new RetentionTarget("c2", "u2")));
+
+        BulkRetentionActionResponse response = service.createActions(new BulkCreateRetentionActionsRequest(null,
+                new BulkRetentionActionFilter("Free", null, 50, RetentionActionType.PREMIUM_TRIAL,
+                        RetentionChannel.EMAIL, null, null, null, null)));
+
+        assertEquals(2, response.succeeded());
+        assertEquals(List.of(0, 1), response.items().stream().map(item -> item.index()).toList());
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar lote acima do máximo ou sem actions e filter")
+    void shouldRejectInvalidBulkRequests() {
+        assertThrows(IllegalArgumentException.class, () -> service.createActions(
+                new BulkCreateRetentionActionsRequest(null, null)));
+        assertThrows(IllegalArgumentException.class, () -> service.updateActionStatuses(
+                new BulkUpdateRetentionActionStatusRequest(List.of("a", "b", "c", "d"), RetentionActionStatus.EXECUTED)));
+        verifyNoInteractions(retentionActionBulkPort);
+    }
+
+    @Test
+    @DisplayName("Deve alterar apenas as ações existentes com status diferente")
+    void shouldUpdateOnlyChangedActions() {
+        when(retentionActionBulkPort.lockActions(anyCollection())).thenReturn(List.of(
+                new RetentionActionRef("a1", "c1", "u1", RetentionActionStatus.PLANNED),
+                new RetentionActionRef("a2", "c2", "u2", RetentionActionStatus.EXECUTED)));
+        when(retentionActionBulkPort.updateStatus(anyCollection(), any(), any())).thenReturn(1);
+
+        BulkRetentionActionResponse response = service.updateActionStatuses(new BulkUpdateRetentionActionStatusRequest(
+                List.of("a1", "a2", "a3"), RetentionActionStatus.EXECUTED));
+
+        assertEquals(List.of(Result.UPDATED, Result.UNCHANGED, Result.NOT_FOUND),
+                response.items().stream().map(item -> item.result()).toList());
+        verify(retentionActionBulkPort).updateStatus(eq(List.of("a1")), eq(RetentionActionStatus.EXECUTED), notNull());
+        verify(retentionPriorityPort).onActionStatusChanged("u1", "a1", RetentionActionStatus.EXECUTED);
+        verify(retentionKpiRollupPort).add(List.of("a1"), new RetentionKpiTotals(0L, 1L, 0L, 0L, 0.0));
+    }
+
+    @Test
+    @DisplayName("Deve calcular o delta de KPI a partir da ação lida com bloqueio")
+    void shouldTakeStatusDeltaFromLockedAction() {
+        RetentionActionEntity action = new RetentionActionEntity();
+        action.setId("a1");
+        action.setUserId("u1");
+        action.setStatus(RetentionActionStatus.EXECUTED);
+        when(retentionActionRepository.findByIdForUpdate("a1")).thenReturn(Optional.of(action));
+        when(retentionActionRepository.save(action)).thenReturn(action);
+
+        service.updateActionStatus("a1", new UpdateRetentionActionStatusRequest(RetentionActionStatus.FAILED));
+
+        verify(retentionActionRepository, never()).findById(any());
+        verify(retentionKpiRollupPort).add(List.of("a1"), new RetentionKpiTotals(0L, -1L, 0L, 0L, 0.0));
+        verify(retentionPriorityPort).onActionStatusChanged("u1", "a1", RetentionActionStatus.FAILED);
+    }
+
+    @Test
+    @DisplayName("Deve abortar sem delta de KPI quando o UPDATE altera outra quantidade de ações")
+    void shouldAbortWhenUpdatedCountDiverges() {
+        when(retentionActionBulkPort.lockActions(anyCollection())).thenReturn(List.of(
+                new RetentionActionRef("a1", "c1", "u1", RetentionActionStatus.PLANNED)));
+        when(retentionActionBulkPort.updateStatus(anyCollection(), any(), any())).thenReturn(0);
+
+        assertThrows(IllegalStateException.class, () -> service.updateActionStatuses(
+                new BulkUpdateRetentionActionStatusRequest(List.of("a1"), RetentionActionStatus.FAILED)));
+        verifyNoInteractions(retentionKpiRollupPort, retentionPriorityPort);
+    }
+
+    @Test
+    @DisplayName("Deve somar totais e quebras por canal e responsável a partir do rollup")
+    void shouldFoldKpiGroups() {
+        LocalDate from = LocalDate.of(2025, 1, 1);
+        LocalDate to = LocalDate.of(2025, 1, 31);
+        when(retentionKpiQueryPort.totalsByChannelAndOwner(from, to)).thenReturn(List.of(
+                new RetentionKpiGroup("EMAIL", "ana", new RetentionKpiTotals(4L, 2L, 2L, 1L, 100.0)),
+                new RetentionKpiGroup("EMAIL", null, new RetentionKpiTotals(1L, 1L, 0L, 0L, 0.0)),
+                new RetentionKpiGroup("PHONE", "ana", new RetentionKpiTotals(5L, 1L, 1L, 1L, 50.0))));
+
+        RetentionKpisResponse response = service.getKpis(from, to);
+
+        assertEquals(10L, response.totalActions());
+        assertEquals(4L, response.executedActions());
+        assertEquals(40.0, response.executionRate());
+        assertEquals(150.0, response.recoveredRevenue());
+        assertEquals(List.of("EMAIL", "PHONE"),
+                response.byChannel().stream().map(RetentionKpiBreakdownResponse::key).toList());
+        assertEquals(5L, response.byChannel().get(0).totalActions());
+        assertEquals(60.0, response.byChannel().get(0).executionRate());
+        assertEquals(2, response.byOwner().size());
+        assertEquals("ana", response.byOwner().get(0).key());
+        assertEquals(9L, response.byOwner().get(0).totalActions());
+        assertNull(response.byOwner().get(1).key());
+        assertEquals(1L, response.byOwner().get(1).totalActions());
+    }
+
+    private static CreateRetentionActionRequest request(String clientId) {
+        return new CreateRetentionActionRequest(clientId, RetentionActionType.DISCOUNT_OFFER, RetentionChannel.EMAIL,
+                null, null, null, null);
+    }
+}
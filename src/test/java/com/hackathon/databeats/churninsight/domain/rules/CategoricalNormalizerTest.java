@@ -0,0 +1,58 @@
+package com.hackathon.databeats.churninsight.domain.rules;
+
+import com.hackathon.databeats.churninsight.domain.model.CustomerProfile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a forma canônica dos atributos categóricos.
+ *
+ * <p>Os valores canônicos são os esperados pelo modelo ONNX e os gravados no banco,
+ * então a busca por igualdade depende desta normalização.</p>
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+class CategoricalNormalizerTest {
+
+	@Test
+	@DisplayName("Deve converter sinônimos e caixa para a forma canônica do modelo")
+	void shouldNormalizeKnownValues() {
+		assertEquals("Male", CategoricalNormalizer.gender(" masculino "));
+		assertEquals("Female", CategoricalNormalizer.gender("F"));
+		assertEquals("BR", CategoricalNormalizer.country("Brasil"));
+		assertEquals("GB", CategoricalNormalizer.country("uk"));
+		assertEquals("Premium", CategoricalNormalizer.subscriptionType("PREMIUM"));
+		assertEquals("Desktop", CategoricalNormalizer.deviceType("pc"));
+	}
+
+	@Test
+	@DisplayName("Deve preservar nulos, vazios e padronizar valores desconhecidos")
+	void shouldKeepUnknownValuesInCanonicalCase() {
+		assertNull(CategoricalNormalizer.gender(null));
+		assertEquals("", CategoricalNormalizer.deviceType("  "));
+		assertEquals("Duo", CategoricalNormalizer.subscriptionType("dUO"));
+		assertEquals("JP", CategoricalNormalizer.country(" jp"));
+		assertEquals(CategoricalNormalizer.deviceType("Smart tv"), CategoricalNormalizer.deviceType("SMART TV"));
+	}
+
+	@Test
+	@DisplayName("Deve gravar o perfil do cliente já na forma canônica")
+	void shouldNormalizeCustomerProfileOnCreation() {
+		CustomerProfile profile = CustomerProfile.builder()
+				.userId("user-1")
+				.gender("female")
+				.age(30)
+				.country("brazil")
+				.subscriptionType("free")
+				.deviceType("MOBILE")
+				.build();
+
+		assertEquals("Female", profile.gender());
+		assertEquals("BR", profile.country());
+		assertEquals("Free", profile.subscriptionType());
+		assertEquals("Mobile", profile.deviceType());
+	}
+}
@@ -1,5 +1,7 @@
 package com.hackathon.databeats.churninsight.domain.rules;
 
+import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
+import com.hackathon.databeats.churninsight.domain.enums.RiskFactor;
 import com.hackathon.databeats.churninsight.domain.model.CustomerProfile;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -142,6 +144,43 @@ class ChurnBusinessRulesTest {
 		assertEquals(5, features.size()); // Deve ter as 5 features
 	}
 
+	/**
+	 * Valida a precedência do fator de risco primário gravado em churn_history.
+	 *
+	 * <p>Ordem: anúncios (Free) → pulos → frustração → Premium sem offline → baixo engajamento.</p>
+	 */
+	@Test
+	@DisplayName("Deve escolher o fator de risco primário pela precedência das regras")
+	void shouldPickPrimaryRiskFactorByPrecedence() {
+		// Free com muitos anúncios e pulos altos: anúncios vencem
+		int flags = ChurnBusinessRules.riskFactorFlags("Free", 20, 0.5, 5.0, false, 50.0);
+		assertEquals(ChurnBusinessRules.RISK_FREE_HIGH_ADS | ChurnBusinessRules.RISK_HIGH_SKIP_RATE
+				| ChurnBusinessRules.RISK_HIGH_FRUSTRATION | ChurnBusinessRules.RISK_LOW_LISTENING, flags);
+		assertEquals(RiskFactor.FREE_HIGH_ADS, ChurnBusinessRules.primaryRiskFactor(ChurnStatus.WILL_CHURN, flags));
+
+		// Premium sem offline com pouca escuta
+		flags = ChurnBusinessRules.riskFactorFlags("Premium", 0, 0.1, 0.1, true, 50.0);
+		assertEquals(RiskFactor.PREMIUM_NO_OFFLINE, ChurnBusinessRules.primaryRiskFactor(ChurnStatus.WILL_CHURN, flags));
+
+		// Sem fatores: risco moderado para quem vai cancelar
+		assertEquals(RiskFactor.MODERATE, ChurnBusinessRules.primaryRiskFactor(ChurnStatus.WILL_CHURN, 0));
+
+		// Permanência nunca destaca fator
+		assertEquals(RiskFactor.NONE, ChurnBusinessRules.primaryRiskFactor(ChurnStatus.WILL_STAY, flags));
+	}
+
+	/**
+	 * Valida que o código persistido volta ao mesmo fator.
+	 */
+	@Test
+	@DisplayName("Deve converter o código persistido de volta no fator de risco")
+	void shouldRoundTripRiskFactorCode() {
+		for (RiskFactor factor : RiskFactor.values()) {
+			assertEquals(factor, RiskFactor.fromCode(factor.code()));
+		}
+		assertThrows(IllegalArgumentException.class, () -> RiskFactor.fromCode(99));
+	}
+
 	/**
 	 * Helper para criar perfil com offline_listening implicitamente false.
 	 */
@@ -0,0 +1,71 @@
+package com.hackathon.databeats.churninsight.infra.adapter.input.web.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para o cache refresh-ahead dos read models.
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+class ReadModelCacheTest {
+
+    @Test
+    @DisplayName("Deve responder 304 quando o cliente envia o ETag atual")
+    void shouldAnswerNotModifiedForCurrentEtag() {
+        ReadModelCache cache = cache(60);
+        AtomicInteger loads = new AtomicInteger();
+
+        ResponseEntity<Map<String, Integer>> first = cache.respond(get(null), "metrics", "", () -> Map.of("total", loads.incrementAndGet()));
+        String etag = first.getHeaders().getETag();
+        ResponseEntity<Map<String, Integer>> second = cache.respond(get(etag), "metrics", "", () -> Map.of("total", loads.incrementAndGet()));
+
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertNotNull(etag);
+        assertEquals(HttpStatus.NOT_MODIFIED, second.getStatusCode());
+        assertNull(second.getBody());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Deve servir o valor anterior e atualizar em segundo plano após o TTL suave")
+    void shouldServeStaleValueWhileRefreshing() {
+        ReadModelCache cache = cache(0);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.respond(get(null), "kpis", "30d", loads::incrementAndGet);
+        ResponseEntity<Integer> stale = cache.respond(get(null), "kpis", "30d", loads::incrementAndGet);
+        ResponseEntity<Integer> refreshed = cache.respond(get(null), "kpis", "30d", loads::incrementAndGet);
+
+        assertEquals(1, stale.getBody());
+        assertEquals(2, refreshed.getBody());
+        assertNotEquals(stale.getHeaders().getETag(), refreshed.getHeaders().getETag());
+
+        cache.evict("kpis");
+        assertEquals(4, cache.respond(get(null), "kpis", "30d", loads::incrementAndGet).getBody());
+    }
+
+    // Executor síncrono: a atualização termina antes da próxima requisição
+    private static ReadModelCache cache(long softTtlSeconds) {
+        return new ReadModelCache(new ObjectMapper(), Runnable::run, new SimpleMeterRegistry(), true, softTtlSeconds, 600, 100);
+    }
+
+    private static ServletWebRequest get(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/dashboard/metrics");
+        if (ifNoneMatch != null) request.addHeader("If-None-Match", ifNoneMatch);
+        return new ServletWebRequest(request, new MockHttpServletResponse());
+    }
+}
@@ -0,0 +1,70 @@
+package com.hackathon.databeats.churninsight.infra.adapter.input.web.controller;
+
+import com.hackathon.databeats.churninsight.application.dto.AggregateDimension;
+import com.hackathon.databeats.churninsight.application.dto.AggregateQuery;
+import com.hackathon.databeats.churninsight.application.dto.PredictionSearchFilter;
+import com.hackathon.databeats.churninsight.application.dto.UserIdMatch;
+import com.hackathon.databeats.churninsight.application.port.input.ClientPredictionQueryUseCase;
+import com.hackathon.databeats.churninsight.application.service.PredictionHistoryService;
+import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
+import com.hackathon.databeats.churninsight.domain.enums.RiskFactor;
+import com.hackathon.databeats.churninsight.infra.adapter.input.web.cache.ReadModelCache;
+import com.hackathon.databeats.churninsight.infra.adapter.input.web.export.PredictionExportWriter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Testes unitários para a leitura dos filtros de {@code /clients}.
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+class ClientQueryControllerTest {
+
+    private final PredictionHistoryService historyService = mock(PredictionHistoryService.class);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new ClientQueryController(
+            mock(ClientPredictionQueryUseCase.class), historyService, mock(ReadModelCache.class),
+            mock(PredictionExportWriter.class))).build();
+
+    @Test
+    @DisplayName("Deve ler os mesmos filtros na busca e na agregação")
+    void shouldBindSameFiltersForSearchAndAggregate() throws Exception {
+        String filters = "status=WILL_CHURN&minProbability=0.6&startDate=2026-01-01&isHeavyUser=true"
+                + "&minFrustration=2.5&riskFactor=HIGH_SKIP_RATE&userId=AbC&userIdMatch=prefix";
+
+        mockMvc.perform(get("/clients?" + filters)).andExpect(status().isOk());
+        mockMvc.perform(get("/clients/aggregate?groupBy=country&" + filters)).andExpect(status().isOk());
+
+        ArgumentCaptor<PredictionSearchFilter> searched = ArgumentCaptor.forClass(PredictionSearchFilter.class);
+        verify(historyService).search(searched.capture(), anyInt(), anyInt(), anyString(), anyString(), any());
+        ArgumentCaptor<AggregateQuery> aggregated = ArgumentCaptor.forClass(AggregateQuery.class);
+        verify(historyService).aggregate(aggregated.capture());
+
+        PredictionSearchFilter filter = searched.getValue();
+        assertEquals(ChurnStatus.WILL_CHURN, filter.churnStatus());
+        assertEquals(0.6, filter.minProbability());
+        assertEquals(LocalDate.of(2026, 1, 1), filter.startDate());
+        assertEquals(Boolean.TRUE, filter.isHeavyUser());
+        assertEquals(2.5, filter.minFrustrationIndex());
+        assertEquals(RiskFactor.HIGH_SKIP_RATE, filter.riskFactor());
+        assertEquals("AbC", filter.userId());
+        assertEquals(UserIdMatch.PREFIX, filter.userIdMatch());
+        assertEquals(filter, aggregated.getValue().filter());
+        assertEquals(List.of(AggregateDimension.from("country")), aggregated.getValue().groupBy());
+    }
+}
@@ -0,0 +1,150 @@
+package com.hackathon.databeats.churninsight.infra.adapter.input.web.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hackathon.databeats.churninsight.application.dto.PredictionHistoryResponse;
+import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a escrita em streaming da exportação do histórico.
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+class PredictionExportWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+
+    @Test
+    @DisplayName("Deve escrever CSV com cabeçalho e escapar vírgulas e aspas")
+    void shouldWriteEscapedCsv() throws IOException {
+        PredictionExportWriter writer = new PredictionExportWriter(objectMapper, new SimpleMeterRegistry(), 2);
+
+        String csv = new String(write(writer, PredictionExportWriter.Format.CSV, false), StandardCharsets.UTF_8);
+        String[] lines = csv.split("\n");
+
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("id,user_id,gender,age,"));
+        assertTrue(lines[1].startsWith("p1,u1,Female,30,BR,Free,Mobile,WILL_CHURN,0.82,Vai Cancelar,4.5,false,"
+                + "\"Enviar pesquisa, com \"\"cupom\"\"\","));
+        assertTrue(lines[2].contains(",,"), "colunas nulas ficam vazias");
+    }
+
+    @Test
+    @DisplayName("Deve escrever NDJSON comprimido com uma linha por predição")
+    void shouldWriteGzippedNdjson() throws IOException {
+        PredictionExportWriter writer = new PredictionExportWriter(objectMapper, new SimpleMeterRegistry(), 2);
+
+        byte[] gzipped = write(writer, PredictionExportWriter.Format.NDJSON, true);
+        String ndjson = new String(new GZIPInputStream(new ByteArrayInputStream(gzipped)).readAllBytes(), StandardCharsets.UTF_8);
+        String[] lines = ndjson.split("\n");
+
+        assertEquals(2, lines.length);
+        assertEquals("p1", objectMapper.readTree(lines[0]).get("id").asText());
+        assertEquals("u2", objectMapper.readTree(lines[1]).get("user_id").asText());
+    }
+
+    @Test
+    @DisplayName("Deve interromper a consulta quando o cliente desconecta e liberar a vaga")
+    void shouldAbortOnClientDisconnect() throws IOException {
+        PredictionExportWriter writer = new PredictionExportWriter(objectMapper, new SimpleMeterRegistry(), 1);
+        OutputStream closed = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        ResponseEntity<StreamingResponseBody> response = writer.respond(PredictionExportWriter.Format.CSV, false, sink -> {
+            long count = 0;
+            // Mais que o buffer de saída, para a escrita chegar ao socket
+            for (int i = 0; i < 5_000; i++) {
+                sink.accept(rows().get(0));
+                count++;
+            }
+            return count;
+        });
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS,
+                writer.respond(PredictionExportWriter.Format.CSV, false, sink -> 0).getStatusCode());
+
+        assertThrows(IOException.class, () -> response.getBody().writeTo(closed));
+        assertEquals(HttpStatus.OK, writer.respond(PredictionExportWriter.Format.CSV, false, sink -> 0).getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Deve liberar a vaga quando a requisição assíncrona termina sem executar o corpo")
+    void shouldReleasePermitWhenBodyNeverRuns() throws Exception {
+        PredictionExportWriter writer = new PredictionExportWriter(objectMapper, new SimpleMeterRegistry(), 1);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            assertEquals(HttpStatus.OK, writer.respond(PredictionExportWriter.Format.CSV, false, sink -> 0).getStatusCode());
+            assertEquals(HttpStatus.TOO_MANY_REQUESTS,
+                    writer.respond(PredictionExportWriter.Format.CSV, false, sink -> 0).getStatusCode());
+
+            // Timeout antes de o executor rodar o corpo: o WebAsyncManager chama afterCompletion
+            CallableProcessingInterceptor interceptor = WebAsyncUtils.getAsyncManager(request)
+                    .getCallableInterceptor(PredictionExportWriter.PERMIT_INTERCEPTOR_KEY);
+            interceptor.afterCompletion(new ServletWebRequest(request), () -> null);
+            interceptor.afterCompletion(new ServletWebRequest(request), () -> null);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        assertEquals(HttpStatus.OK, writer.respond(PredictionExportWriter.Format.CSV, false, sink -> 0).getStatusCode());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS,
+                writer.respond(PredictionExportWriter.Format.CSV, false, sink -> 0).getStatusCode(),
+                "a vaga é devolvida uma única vez");
+    }
+
+    private static byte[] write(PredictionExportWriter writer, PredictionExportWriter.Format format, boolean gzip) throws IOException {
+        ResponseEntity<StreamingResponseBody> response = writer.respond(format, gzip, sink -> {
+            rows().forEach(sink);
+            return 2;
+        });
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return out.toByteArray();
+    }
+
+    private static List<PredictionHistoryResponse> rows() {
+        return List.of(
+                PredictionHistoryResponse.builder()
+                        .id("p1").userId("u1").gender("Female").age(30).country("BR").subscriptionType("Free")
+                        .deviceType("Mobile").churnStatus(ChurnStatus.WILL_CHURN).probability(0.82)
+                        .predictionLabel("Vai Cancelar").frustrationIndex(4.5).isHeavyUser(false)
+                        .recommendedAction("Enviar pesquisa, com \"cupom\"").primaryRiskFactor("Índice de Frustração")
+                        .createdAt(LocalDateTime.of(2026, 1, 15, 10, 30))
+                        .build(),
+                PredictionHistoryResponse.builder()
+                        .id("p2").userId("u2").age(41).churnStatus(ChurnStatus.WILL_STAY).probability(0.1)
+                        .predictionLabel("Vai Continuar")
+                        .build());
+    }
+}
@@ -0,0 +1,134 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.adapter;
+
+import com.hackathon.databeats.churninsight.ChurnInsightApplication;
+import com.hackathon.databeats.churninsight.application.dto.PredictionHistoryResponse;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.entity.PredictionHistoryEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de uma página de /clients: entidades gerenciadas (antes) contra a projeção
+ * {@link PredictionHistoryRow} (depois), com a mesma ordenação e o mesmo mapeamento para a
+ * resposta.
+ *
+ * <p>Usa o banco de {@code src/test/resources/application.properties} (MySQL com dados em
+ * churn_history). A alocação por página aparece em {@code gc.alloc.rate.norm} (bytes/op):</p>
+ *
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *   com.hackathon.databeats.churninsight.infra.adapter.output.persistence.adapter.PredictionPageBenchmark
+ * </pre>
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PredictionPageBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+
+    @Setup
+    public void setUp() {
+        // Sem índices e snapshots em memória: só o caminho da consulta importa aqui
+        context = new SpringApplicationBuilder(ChurnInsightApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--app.analytics.columnar.enabled=false",
+                        "--app.search.user-id-index.enabled=false",
+                        "--app.search.user-id-autocomplete.enabled=false",
+                        "--app.dashboard.aggregates.enabled=false",
+                        "--app.journal.enabled=false");
+        entityManager = context.getBean(EntityManager.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PredictionHistoryResponse> managedEntities() {
+        return readOnly.execute(status -> {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<PredictionHistoryEntity> query = cb.createQuery(PredictionHistoryEntity.class);
+            Root<PredictionHistoryEntity> root = query.from(PredictionHistoryEntity.class);
+            query.orderBy(cb.desc(root.get("createdAt")));
+            return entityManager.createQuery(query)
+                    .setMaxResults(pageSize)
+                    .getResultList()
+                    .stream()
+                    .map(PredictionPageBenchmark::toResponse)
+                    .toList();
+        });
+    }
+
+    @Benchmark
+    public List<PredictionHistoryResponse> rowProjection() {
+        return readOnly.execute(status -> {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<PredictionHistoryRow> query = cb.createQuery(PredictionHistoryRow.class);
+            Root<PredictionHistoryEntity> root = query.from(PredictionHistoryEntity.class);
+            query.select(PredictionHistoryRow.select(cb, root));
+            query.orderBy(cb.desc(root.get("createdAt")));
+            return entityManager.createQuery(query)
+                    .setMaxResults(pageSize)
+                    .getResultList()
+                    .stream()
+                    .map(PredictionHistoryRow::toResponse)
+                    .toList();
+        });
+    }
+
+    // Mesma resposta da projeção, a partir da entidade gerenciada
+    private static PredictionHistoryResponse toResponse(PredictionHistoryEntity entity) {
+        return new PredictionHistoryRow(entity.getId(), entity.getUserId(), entity.getGender(), entity.getAge(),
+                entity.getCountry(), entity.getSubscriptionType(), entity.getDeviceType(), entity.getChurnStatus(),
+                entity.getProbability(), entity.getFrustrationIndex(), entity.getIsHeavyUser(),
+                entity.getPrimaryRiskFactor(), entity.getCreatedAt()).toResponse();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PredictionPageBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
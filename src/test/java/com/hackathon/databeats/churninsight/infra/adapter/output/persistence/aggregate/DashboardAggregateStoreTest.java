@@ -0,0 +1,60 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.aggregate;
+
+import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.event.LatestPredictionChange;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.event.LatestPredictionSnapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a separação das mudanças publicadas durante a reconciliação.
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+class DashboardAggregateStoreTest {
+
+    @Test
+    @DisplayName("Deve reaplicar só as mudanças que seguem o estado do snapshot")
+    void shouldKeepOnlyChangesAfterSnapshot() {
+        LatestPredictionChange u1First = change("u1", null, "h1");
+        LatestPredictionChange u1Second = change("u1", "h1", "h2");
+        LatestPredictionChange u1Third = change("u1", "h2", "h3");
+        LatestPredictionChange u2New = change("u2", null, "h9");
+        LatestPredictionChange u3New = change("u3", null, "h7");
+
+        // u1: h1 e h2 já estavam no snapshot; u2 já existia; u3 é posterior. h3 publicada antes de h2.
+        List<LatestPredictionChange> after = DashboardAggregateStore.afterSnapshot(
+                List.of(u1First, u1Third, u1Second, u2New, u3New),
+                Map.of("u1", "h2", "u2", "h9"));
+
+        assertEquals(List.of(u1Third, u3New), after);
+    }
+
+    @Test
+    @DisplayName("Deve seguir a cadeia mesmo com publicações fora de ordem")
+    void shouldFollowChainPublishedOutOfOrder() {
+        LatestPredictionChange second = change("u1", "h1", "h2");
+        LatestPredictionChange first = change("u1", null, "h1");
+
+        assertEquals(List.of(first, second),
+                DashboardAggregateStore.afterSnapshot(List.of(second, first), Map.of()));
+    }
+
+    private static LatestPredictionChange change(String userId, String previousId, String currentId) {
+        return new LatestPredictionChange(
+                previousId == null ? null : snapshot(userId, previousId),
+                snapshot(userId, currentId));
+    }
+
+    private static LatestPredictionSnapshot snapshot(String userId, String historyId) {
+        return new LatestPredictionSnapshot(userId, historyId, "Free", ChurnStatus.WILL_CHURN, 0.8, 0,
+                LocalDateTime.of(2026, 1, 1, 10, 0));
+    }
+}
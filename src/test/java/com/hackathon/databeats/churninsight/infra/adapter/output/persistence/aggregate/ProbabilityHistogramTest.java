@@ -0,0 +1,89 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.aggregate;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para o ProbabilityHistogram.
+ *
+ * <p>Valida:</p>
+ * <ul>
+ *   <li>Corte do TOP 25% comparado ao ranking exato</li>
+ *   <li>Remoção de valores e combinação de sketches</li>
+ *   <li>Serialização esparsa ida e volta</li>
+ * </ul>
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+class ProbabilityHistogramTest {
+
+    @Test
+    @DisplayName("Deve produzir corte do TOP 25% com erro de no máximo um bin")
+    void shouldApproximateTop25CutoffWithinOneBin() {
+        Random random = new Random(42);
+        double[] values = new double[50_000];
+        ProbabilityHistogram histogram = new ProbabilityHistogram();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextDouble();
+            histogram.add(values[i]);
+        }
+        Arrays.sort(values);
+        int k = (int) Math.ceil(values.length * 0.25);
+        double exactCutoff = values[values.length - k];
+
+        int bin = histogram.upperFractionBin(0.25);
+        double cutoff = ProbabilityHistogram.lowerBound(bin);
+
+        assertTrue(cutoff <= exactCutoff);
+        assertTrue(exactCutoff - cutoff < 1.0 / ProbabilityHistogram.BINS);
+        long atOrAbove = Arrays.stream(values).filter(v -> v >= cutoff).count();
+        assertTrue(atOrAbove >= k);
+        assertEquals(atOrAbove, histogram.countFromBin(bin));
+    }
+
+    @Test
+    @DisplayName("Deve suportar remoção e combinação de sketches")
+    void shouldSupportRemovalAndMerge() {
+        ProbabilityHistogram premium = new ProbabilityHistogram();
+        ProbabilityHistogram free = new ProbabilityHistogram();
+        premium.add(0.9);
+        premium.add(0.8);
+        free.add(0.1);
+        free.add(0.2);
+
+        // Cliente mudou de 0.9 para 0.3
+        premium.remove(0.9);
+        premium.add(0.3);
+
+        ProbabilityHistogram merged = new ProbabilityHistogram();
+        merged.merge(premium);
+        merged.merge(free);
+
+        assertEquals(4, merged.total());
+        assertEquals(ProbabilityHistogram.binOf(0.8), merged.upperFractionBin(0.25));
+        assertEquals(1, premium.countFromBin(ProbabilityHistogram.binOf(0.8)));
+        assertEquals(0, free.countFromBin(ProbabilityHistogram.binOf(0.8)));
+    }
+
+    @Test
+    @DisplayName("Deve serializar e desserializar preservando contagens")
+    void shouldRoundTripThroughBytes() {
+        ProbabilityHistogram histogram = new ProbabilityHistogram();
+        histogram.add(0.0);
+        histogram.add(1.0);
+        histogram.add(0.5);
+        histogram.add(0.5);
+        histogram.addToBin(1234, -3);
+
+        byte[] bytes = histogram.toBytes();
+
+        assertEquals(histogram, ProbabilityHistogram.fromBytes(bytes));
+        assertEquals(-1, new ProbabilityHistogram().upperFractionBin(0.25));
+    }
+}
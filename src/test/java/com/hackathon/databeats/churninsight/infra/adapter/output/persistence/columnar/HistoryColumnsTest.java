@@ -0,0 +1,111 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.columnar;
+
+import com.hackathon.databeats.churninsight.application.dto.AggregateDimension;
+import com.hackathon.databeats.churninsight.application.dto.PredictionSearchFilter;
+import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
+import com.hackathon.databeats.churninsight.domain.rules.ChurnBusinessRules;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para o armazenamento colunar do histórico.
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+class HistoryColumnsTest {
+
+    @Test
+    @DisplayName("Deve agregar totais, faixas e fatores de risco como as consultas SQL")
+    void shouldAggregateLikeSqlQueries() {
+        HistoryColumns columns = new HistoryColumns();
+        append(columns, 0.1, false, 30, 20000, "Male", "BR", "Free", "Mobile", ChurnBusinessRules.RISK_FREE_HIGH_ADS);
+        append(columns, 0.2, false, 25, 20000, "Female", "US", "Premium", "Web", 0);
+        append(columns, 0.69, true, 40, 20001, "Female", "BR", "Premium", "Desktop",
+                ChurnBusinessRules.RISK_HIGH_SKIP_RATE | ChurnBusinessRules.RISK_LOW_LISTENING);
+        append(columns, 0.7, true, 51, 20001, null, "BR", "Free", "Mobile", ChurnBusinessRules.RISK_FREE_HIGH_ADS);
+
+        HistoryColumns.Totals totals = columns.totals();
+        assertEquals(4, totals.rows());
+        assertEquals(2, totals.willChurn());
+        assertEquals(1.69, totals.probabilitySum(), 1e-9);
+        assertArrayEquals(new long[]{1, 1, 1, 1}, columns.probabilityBuckets());
+        assertArrayEquals(new long[]{2, 1, 0, 0, 1}, columns.riskFactorCounts());
+    }
+
+    @Test
+    @DisplayName("Deve contar por coluna categórica incluindo nulos")
+    void shouldCountByDictionaryColumn() {
+        HistoryColumns columns = new HistoryColumns();
+        append(columns, 0.5, true, 30, 20000, "Male", "BR", "Free", "Mobile", 0);
+        append(columns, 0.5, true, 30, 20000, null, "BR", "Free", "Mobile", 0);
+        append(columns, 0.5, true, 30, 20000, "Male", "BR", "Premium", "Mobile", 0);
+
+        Map<String, Long> genders = columns.countBy(HistoryColumns.Categorical.GENDER);
+
+        assertEquals(2L, genders.get("Male"));
+        assertEquals(1L, genders.get(null));
+        assertEquals(Map.of("Free", 2L, "Premium", 1L), columns.countBy(HistoryColumns.Categorical.SUBSCRIPTION_TYPE));
+    }
+
+    @Test
+    @DisplayName("Deve agregar em paralelo linhas distribuídas em vários blocos")
+    void shouldAggregateAcrossChunks() {
+        HistoryColumns columns = new HistoryColumns();
+        int rows = HistoryColumns.CHUNK_ROWS * 2 + 123;
+        for (int i = 0; i < rows; i++) {
+            boolean churn = i % 3 == 0;
+            append(columns, churn ? 0.9 : 0.1, churn, 30, 20000, "Male", "BR", "Free", "Mobile",
+                    churn ? ChurnBusinessRules.RISK_HIGH_FRUSTRATION : 0);
+        }
+
+        long expectedChurn = (rows + 2) / 3;
+        assertEquals(rows, columns.rows());
+        assertEquals(expectedChurn, columns.totals().willChurn());
+        assertArrayEquals(new long[]{rows - expectedChurn, 0, 0, expectedChurn}, columns.probabilityBuckets());
+        assertEquals(expectedChurn, columns.riskFactorCounts()[2]);
+    }
+
+    @Test
+    @DisplayName("Deve agrupar por dimensões aplicando filtros e receita em risco")
+    void shouldGroupByDimensionsWithFilters() {
+        HistoryColumns columns = new HistoryColumns();
+        append(columns, 0.1, false, 17, 20000, "Male", "BR", "Free", "Mobile", 0);
+        append(columns, 0.8, true, 30, 20000, "Female", "BR", "Premium", "Web", 0);
+        append(columns, 0.6, true, 32, 20001, "Female", "BR", "Premium", "Web", 0);
+        append(columns, 0.9, true, 70, 20001, "Female", "US", "Family", "Web", 0);
+
+        PredictionSearchFilter brazil = PredictionSearchFilter.builder().country("br").build().normalized();
+        List<GroupTotals> groups = columns.aggregate(brazil, List.of(AggregateDimension.SUBSCRIPTION_TYPE, AggregateDimension.AGE_BAND));
+
+        assertEquals(2, groups.size());
+        GroupTotals premium = groups.stream().filter(g -> "Premium".equals(g.keys().get(0))).findFirst().orElseThrow();
+        assertEquals(List.of("Premium", "25-34"), premium.keys());
+        assertEquals(2, premium.count());
+        assertEquals(1.4, premium.probabilitySum(), 1e-9);
+        assertEquals(0.6, premium.minProbability(), 1e-9);
+        assertEquals(0.8, premium.maxProbability(), 1e-9);
+        assertEquals(47.80, premium.revenueAtRisk(), 1e-9);
+
+        PredictionSearchFilter churners = PredictionSearchFilter.builder().churnStatus(ChurnStatus.WILL_CHURN).build().normalized();
+        List<GroupTotals> byDay = columns.aggregate(churners, List.of(AggregateDimension.CREATED_DAY));
+        assertEquals(2, byDay.size());
+        assertTrue(byDay.stream().anyMatch(g -> g.keys().equals(List.of(LocalDate.ofEpochDay(20001))) && g.count() == 2));
+
+        PredictionSearchFilter unknownCountry = PredictionSearchFilter.builder().country("XX").build().normalized();
+        assertTrue(columns.aggregate(unknownCountry, List.of()).isEmpty());
+        assertEquals(4, columns.aggregate(PredictionSearchFilter.builder().build().normalized(), List.of()).get(0).count());
+    }
+
+    private static void append(HistoryColumns columns, double probability, boolean willChurn, int age, int createdDay,
+                               String gender, String country, String subscriptionType, String deviceType, int riskFlags) {
+        columns.append(new HistoryColumns.Row(probability, willChurn, age, createdDay, gender, country, subscriptionType,
+                deviceType, Double.NaN, null, false, riskFlags));
+    }
+}
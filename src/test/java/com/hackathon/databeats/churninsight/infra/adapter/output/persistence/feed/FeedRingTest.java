@@ -0,0 +1,138 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.feed;
+
+import com.hackathon.databeats.churninsight.application.dto.PredictionFeedEvent;
+import com.hackathon.databeats.churninsight.application.dto.PredictionFeedFilter;
+import com.hackathon.databeats.churninsight.application.dto.PredictionFeedPage;
+import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
+import com.hackathon.databeats.churninsight.domain.model.PredictionHistory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para o FeedRing.
+ *
+ * <p>Valida:</p>
+ * <ul>
+ *   <li>Cursores crescentes dentro e entre publicações</li>
+ *   <li>Retomada por cursor com filtro</li>
+ *   <li>Sinalização de gap após estouro do buffer ou cursor anterior à subida</li>
+ *   <li>Long-poll acordado por publicação</li>
+ * </ul>
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+class FeedRingTest {
+
+    @Test
+    @DisplayName("Deve gerar cursores crescentes com o relógio parado")
+    void shouldKeepCursorsIncreasingWithStoppedClock() {
+        FeedRing ring = new FeedRing(1024);
+        PredictionFeedPage start = ring.poll(null, PredictionFeedFilter.ALL, 10, 0);
+        ring.append(histories(500, 0.5));
+
+        List<PredictionFeedEvent> events = drain(ring, start.cursor(), PredictionFeedFilter.ALL);
+
+        assertEquals(500, events.size());
+        for (int i = 1; i < events.size(); i++) {
+            assertTrue(UUID.fromString(events.get(i - 1).cursor()).compareTo(UUID.fromString(events.get(i).cursor())) < 0);
+            assertEquals(7, UUID.fromString(events.get(i).cursor()).version());
+        }
+        assertEquals("h0", events.get(0).id());
+        assertEquals("h499", events.get(499).id());
+    }
+
+    @Test
+    @DisplayName("Deve avançar o cursor sobre eventos descartados pelo filtro")
+    void shouldAdvanceCursorPastFilteredEvents() {
+        FeedRing ring = new FeedRing(64);
+        String start = ring.poll(null, PredictionFeedFilter.ALL, 10, 0).cursor();
+        ring.append(List.of(history("a", 0.9), history("b", 0.2), history("c", 0.3)));
+        PredictionFeedFilter highRisk = new PredictionFeedFilter(0.8, null, null);
+
+        PredictionFeedPage first = ring.poll(UUID.fromString(start), highRisk, 10, 0);
+        assertEquals(List.of("a"), first.events().stream().map(PredictionFeedEvent::id).toList());
+
+        PredictionFeedPage second = ring.poll(UUID.fromString(first.cursor()), highRisk, 10, 0);
+        assertTrue(second.events().isEmpty());
+        assertEquals(first.cursor(), second.cursor());
+        assertFalse(second.gap());
+    }
+
+    @Test
+    @DisplayName("Deve sinalizar gap quando o buffer sobrescreve eventos não lidos")
+    void shouldFlagGapAfterOverflow() {
+        FeedRing ring = new FeedRing(8);
+        String start = ring.poll(null, PredictionFeedFilter.ALL, 10, 0).cursor();
+        ring.append(histories(20, 0.5));
+
+        PredictionFeedPage page = ring.poll(UUID.fromString(start), PredictionFeedFilter.ALL, 100, 0);
+
+        assertTrue(page.gap());
+        assertEquals(8, page.events().size());
+        assertEquals("h12", page.events().get(0).id());
+        assertFalse(ring.poll(UUID.fromString(page.cursor()), PredictionFeedFilter.ALL, 100, 0).gap());
+    }
+
+    @Test
+    @DisplayName("Deve sinalizar gap para cursor anterior à criação do feed")
+    void shouldFlagGapForCursorFromPreviousRun() {
+        // Piso de um feed criado antes, como o de uma execução anterior
+        String old = new FeedRing(8).poll(null, PredictionFeedFilter.ALL, 1, 0).cursor();
+        FeedRing ring = new FeedRing(8);
+
+        assertTrue(ring.poll(UUID.fromString(old), PredictionFeedFilter.ALL, 10, 0).gap());
+    }
+
+    @Test
+    @DisplayName("Deve acordar o long-poll quando uma predição é publicada")
+    void shouldWakeLongPollOnAppend() throws Exception {
+        FeedRing ring = new FeedRing(64);
+        UUID start = UUID.fromString(ring.poll(null, PredictionFeedFilter.ALL, 10, 0).cursor());
+
+        CompletableFuture<PredictionFeedPage> waiting = CompletableFuture.supplyAsync(
+                () -> ring.poll(start, PredictionFeedFilter.ALL, 10, Duration.ofSeconds(10).toNanos()));
+        Thread.sleep(50);
+        ring.append(List.of(history("x", 0.7)));
+
+        PredictionFeedPage page = waiting.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("x"), page.events().stream().map(PredictionFeedEvent::id).toList());
+    }
+
+    private static List<PredictionFeedEvent> drain(FeedRing ring, String cursor, PredictionFeedFilter filter) {
+        List<PredictionFeedEvent> all = new ArrayList<>();
+        PredictionFeedPage page;
+        do {
+            page = ring.poll(UUID.fromString(cursor), filter, 64, 0);
+            all.addAll(page.events());
+            cursor = page.cursor();
+        } while (!page.events().isEmpty());
+        return all;
+    }
+
+    private static List<PredictionHistory> histories(int count, double probability) {
+        return IntStream.range(0, count).mapToObj(i -> history("h" + i, probability)).toList();
+    }
+
+    private static PredictionHistory history(String id, double probability) {
+        return PredictionHistory.builder()
+                .id(id)
+                .userId("u-" + id)
+                .subscriptionType("Free")
+                .churnStatus(probability >= 0.5 ? ChurnStatus.WILL_CHURN : ChurnStatus.WILL_STAY)
+                .probability(probability)
+                .createdAt(LocalDateTime.of(2025, 1, 1, 0, 0))
+                .build();
+    }
+}
@@ -0,0 +1,41 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para o conjunto ordenado de userIds do autocomplete.
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+class SortedUserIdsTest {
+
+    @Test
+    @DisplayName("Deve localizar o primeiro userId com o prefixo por busca binária")
+    void shouldFindLowerBoundForPrefix() {
+        SortedUserIds ids = SortedUserIds.of(List.of("a-1", "b-1", "b-2", "c-1"));
+
+        assertEquals(1, ids.lowerBound("b"));
+        assertEquals("b-1", ids.get(ids.lowerBound("b-")));
+        assertEquals(4, ids.lowerBound("d"));
+        assertTrue(ids.contains("c-1"));
+        assertFalse(ids.contains("c"));
+    }
+
+    @Test
+    @DisplayName("Deve intercalar novos userIds mantendo ordem e sem repetições")
+    void shouldMergeAdditionsInOrder() {
+        SortedUserIds ids = SortedUserIds.of(List.of("b-1", "d-1"))
+                .withAll(List.of("a-1", "b-1", "c-1", "e-1"));
+
+        assertEquals(5, ids.size());
+        assertEquals(List.of("a-1", "b-1", "c-1", "d-1", "e-1"),
+                java.util.stream.IntStream.range(0, ids.size()).mapToObj(ids::get).toList());
+        assertEquals(1, SortedUserIds.EMPTY.withAll(List.of("x")).size());
+    }
+}
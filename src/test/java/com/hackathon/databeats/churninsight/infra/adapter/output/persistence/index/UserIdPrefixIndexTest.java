@@ -0,0 +1,49 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.index;
+
+import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
+import com.hackathon.databeats.churninsight.domain.model.PredictionHistory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Testes unitários para o autocomplete de userId em memória.
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+class UserIdPrefixIndexTest {
+
+    @Test
+    @DisplayName("Deve buscar sem diferenciar maiúsculas e devolver o userId como gravado")
+    void shouldMatchCaseInsensitiveAndReturnOriginalId() {
+        UserIdPrefixIndex index = new UserIdPrefixIndex(mock(JdbcTemplate.class), new SimpleMeterRegistry(), true, 2);
+        ReflectionTestUtils.invokeMethod(index, "build");
+
+        index.onHistoriesPersisted(List.of(history("AbC-1"), history("abd-2"), history("ABE-3"), history("x-1")));
+
+        assertEquals(Optional.of(List.of("AbC-1", "abd-2", "ABE-3")), index.complete("ab", 10));
+        assertEquals(Optional.of(List.of("AbC-1")), index.complete("ABC", 10));
+
+        // Após a fusão no array ordenado o resultado é o mesmo
+        ReflectionTestUtils.invokeMethod(index, "merge");
+        assertEquals(Optional.of(List.of("AbC-1", "abd-2")), index.complete("aB", 2));
+    }
+
+    private static PredictionHistory history(String userId) {
+        return PredictionHistory.builder()
+                .id("h-" + userId)
+                .userId(userId)
+                .churnStatus(ChurnStatus.WILL_STAY)
+                .probability(0.1)
+                .build();
+    }
+}
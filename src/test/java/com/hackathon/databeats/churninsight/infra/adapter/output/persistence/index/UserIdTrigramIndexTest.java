@@ -0,0 +1,52 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.index;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para o índice de trigramas de userIds.
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+class UserIdTrigramIndexTest {
+
+    @Test
+    @DisplayName("Deve encontrar userIds por substring e prefixo sem diferenciar caixa")
+    void shouldFindBySubstringAndPrefix() {
+        UserIdTrigramIndex index = new UserIdTrigramIndex();
+        index.add("ABC-123-xyz");
+        index.add("abc-999");
+        index.add("zzz-123");
+
+        assertEquals(Set.of("abc-123-xyz", "zzz-123"), Set.copyOf(index.find("-123", false, 10)));
+        assertEquals(Set.of("abc-123-xyz", "abc-999"), Set.copyOf(index.find("ABC", true, 10)));
+        assertEquals(List.of("abc-123-xyz"), index.find("3-x", false, 10));
+        assertEquals(List.of("zzz-123"), index.find("zz", true, 10));
+        assertTrue(index.find("nada", false, 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve ignorar duplicados e sinalizar excesso de resultados")
+    void shouldDeduplicateAndSignalOverflow() {
+        UserIdTrigramIndex index = new UserIdTrigramIndex();
+        List<String> ids = IntStream.range(0, 5_000).mapToObj(i -> UUID.randomUUID().toString()).toList();
+        ids.forEach(index::add);
+
+        assertFalse(index.add(ids.get(42).toUpperCase()));
+        assertEquals(5_000, index.size());
+        assertEquals(List.of(ids.get(42)), index.find(ids.get(42).substring(9, 23), false, 10));
+        assertNull(index.find("-", false, 100), "Mais correspondências que o limite deve retornar null");
+
+        Set<String> expected = ids.stream().filter(id -> id.contains("ab1")).collect(Collectors.toSet());
+        assertEquals(expected, Set.copyOf(index.find("ab1", false, 5_000)));
+    }
+}
@@ -0,0 +1,87 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.journal;
+
+import com.hackathon.databeats.churninsight.application.port.output.BatchSavePort;
+import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
+import com.hackathon.databeats.churninsight.domain.model.PredictionHistory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Testes unitários para o reenvio do journal com falhas transitórias e permanentes.
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+class PredictionJournalReplayerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final BatchSavePort batchSavePort = mock(BatchSavePort.class);
+    private PredictionJournal journal;
+    private PredictionJournalReplayer replayer;
+
+    @BeforeEach
+    void setUp() {
+        journal = new PredictionJournal(true, tempDir.toString(), 1, 5, true, new SimpleMeterRegistry());
+        journal.open();
+        replayer = new PredictionJournalReplayer(journal, batchSavePort, 10, 0);
+        for (String id : List.of("id-1", "id-2", "id-3")) {
+            journal.append(PredictionHistory.builder().id(id).churnStatus(ChurnStatus.WILL_STAY)
+                    .createdAt(LocalDateTime.now().minusMinutes(1)).build());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        journal.close();
+    }
+
+    @Test
+    @DisplayName("Deve isolar o registro rejeitado no dead-letter e confirmar o restante do lote")
+    void shouldDeadLetterPermanentlyRejectedEntry() throws Exception {
+        doAnswer(inv -> {
+            List<PredictionHistory> histories = inv.getArgument(0);
+            if (histories.stream().anyMatch(h -> h.id().equals("id-2"))) {
+                throw new CompletionException(new DataIntegrityViolationException("Data too long"));
+            }
+            return null;
+        }).when(batchSavePort).saveAll(anyList());
+
+        assertEquals(2, replayer.replay(LocalDateTime.now()));
+
+        assertEquals(0, journal.pendingCount());
+        assertEquals(3, journal.checkpointSequence(), "Registro rejeitado não deve prender o checkpoint");
+        assertTrue(Files.size(tempDir.resolve("dead-letter.journal")) > 0);
+    }
+
+    @Test
+    @DisplayName("Deve manter tudo pendente quando o MySQL está indisponível")
+    void shouldKeepEntriesPendingOnTransientFailure() {
+        doAnswer(inv -> {
+            throw new CompletionException(new CannotAcquireLockException("Lock wait timeout"));
+        }).when(batchSavePort).saveAll(anyList());
+
+        assertEquals(0, replayer.replay(LocalDateTime.now()));
+
+        assertEquals(3, journal.pendingCount());
+        assertFalse(Files.exists(tempDir.resolve("dead-letter.journal")));
+    }
+}
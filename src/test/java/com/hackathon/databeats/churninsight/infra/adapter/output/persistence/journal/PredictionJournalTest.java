@@ -0,0 +1,131 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.journal;
+
+import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
+import com.hackathon.databeats.churninsight.domain.model.PredictionHistory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para o PredictionJournal.
+ *
+ * <p>Valida:</p>
+ * <ul>
+ *   <li>Codificação binária ida e volta de PredictionHistory</li>
+ *   <li>Leitura dos registros não confirmados</li>
+ *   <li>Recuperação após reabertura usando o checkpoint</li>
+ * </ul>
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+class PredictionJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Deve codificar e decodificar histórico preservando campos e nulos")
+    void shouldRoundTripHistoryThroughCodec() {
+        PredictionHistory original = history("id-1", "user-ç-1");
+        PredictionHistory withNulls = PredictionHistory.builder().id("id-2").churnStatus(ChurnStatus.WILL_STAY).build();
+
+        assertEquals(original, PredictionJournalCodec.decode(ByteBuffer.wrap(PredictionJournalCodec.encode(original))));
+        assertEquals(withNulls, PredictionJournalCodec.decode(ByteBuffer.wrap(PredictionJournalCodec.encode(withNulls))));
+    }
+
+    @Test
+    @DisplayName("Deve retornar apenas registros não confirmados")
+    void shouldReturnOnlyUnacknowledgedEntries() {
+        PredictionJournal journal = newJournal();
+        journal.open();
+
+        long first = journal.append(history("id-1", "u1"));
+        long second = journal.append(history("id-2", "u2"));
+        long third = journal.append(history("id-3", "u3"));
+        journal.acknowledge(first);
+        journal.acknowledge(third);
+
+        List<PredictionJournal.JournalEntry> pending = journal.readUnacknowledged(10, LocalDateTime.now().plusMinutes(1));
+
+        assertEquals(1, pending.size());
+        assertEquals(second, pending.get(0).sequence());
+        assertEquals("id-2", pending.get(0).history().id());
+        assertEquals(1, journal.pendingCount());
+        assertEquals(first, journal.checkpointSequence());
+        journal.close();
+    }
+
+    @Test
+    @DisplayName("Deve recuperar pendências após reabrir o journal")
+    void shouldRecoverPendingEntriesAfterReopen() {
+        PredictionJournal journal = newJournal();
+        journal.open();
+        long first = journal.append(history("id-1", "u1"));
+        journal.append(history("id-2", "u2"));
+        journal.acknowledge(first);
+        journal.close();
+
+        PredictionJournal reopened = newJournal();
+        reopened.open();
+        List<PredictionJournal.JournalEntry> pending = reopened.readUnacknowledged(10, reopened.openedAt());
+
+        assertEquals(1, pending.size());
+        assertEquals("id-2", pending.get(0).history().id());
+
+        reopened.acknowledge(pending.get(0).sequence());
+        assertEquals(0, reopened.pendingCount());
+        long next = reopened.append(history("id-3", "u3"));
+        assertTrue(next > pending.get(0).sequence(), "Sequência deve continuar após a recuperação");
+        reopened.close();
+    }
+
+    @Test
+    @DisplayName("Deve ignorar gravações quando desabilitado")
+    void shouldBeNoOpWhenDisabled() {
+        PredictionJournal journal = new PredictionJournal(false, tempDir.toString(), 1, 5, true, new SimpleMeterRegistry());
+        journal.open();
+
+        assertEquals(PredictionJournal.NO_SEQUENCE, journal.append(history("id-1", "u1")));
+        assertTrue(journal.readUnacknowledged(10, LocalDateTime.now()).isEmpty());
+    }
+
+    private PredictionJournal newJournal() {
+        return new PredictionJournal(true, tempDir.toString(), 1, 5, true, new SimpleMeterRegistry());
+    }
+
+    private static PredictionHistory history(String id, String userId) {
+        return PredictionHistory.builder()
+                .id(id)
+                .userId(userId)
+                .gender("Female")
+                .age(28)
+                .country("BR")
+                .subscriptionType("Premium")
+                .deviceType("Mobile")
+                .listeningTime(120.5)
+                .songsPlayedPerDay(40)
+                .skipRate(0.25)
+                .adsListenedPerWeek(0)
+                .offlineListening(true)
+                .churnStatus(ChurnStatus.WILL_CHURN)
+                .probability(0.82)
+                .frustrationIndex(1.5)
+                .adIntensity(0.0)
+                .songsPerMinute(0.33)
+                .isHeavyUser(false)
+                .premiumNoOffline(false)
+                .requesterId("api")
+                .requestIp("10.0.0.1")
+                .createdAt(LocalDateTime.of(2025, 1, 15, 10, 30, 45, 123_456_000))
+                .build();
+    }
+}
@@ -0,0 +1,135 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.priority;
+
+import com.hackathon.databeats.churninsight.application.dto.PrioritizedCustomer;
+import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
+import com.hackathon.databeats.churninsight.domain.enums.RetentionActionStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para o PriorityRanking.
+ *
+ * <p>Valida:</p>
+ * <ul>
+ *   <li>Ordem e corte do TOP 25% comparados a uma ordenação completa</li>
+ *   <li>Reposicionamento do cliente e descarte de predições antigas</li>
+ *   <li>Paginação por cursor e contagem em cache</li>
+ *   <li>Última ação por usuário e mudança de status</li>
+ * </ul>
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+class PriorityRankingTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 10, 12, 0);
+
+    @Test
+    @DisplayName("Deve paginar o TOP 25% na mesma ordem de uma ordenação completa")
+    void shouldMatchFullSortWithinCutoff() {
+        Random random = new Random(7);
+        PriorityRanking ranking = new PriorityRanking();
+        List<PriorityRanking.Customer> all = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            // Probabilidades com duas casas para forçar empates
+            double probability = Math.round(random.nextDouble() * 100) / 100.0;
+            PriorityRanking.Customer customer = customer("u" + i, probability, T0);
+            all.add(customer);
+            ranking.upsertCustomer(customer);
+        }
+        double cutoff = 0.75;
+        List<String> expected = all.stream()
+                .filter(c -> c.probability() >= cutoff)
+                .sorted(Comparator.comparingDouble(PriorityRanking.Customer::probability).reversed()
+                        .thenComparing(PriorityRanking.Customer::userId))
+                .map(PriorityRanking.Customer::userId)
+                .toList();
+
+        List<String> byOffset = new ArrayList<>();
+        for (long offset = 0; offset < expected.size() + 20; offset += 20) {
+            ranking.page(cutoff, offset, 20).forEach(c -> byOffset.add(c.userId()));
+        }
+        List<String> byCursor = new ArrayList<>();
+        double lastProbability = 2.0;
+        String lastUserId = "";
+        List<PrioritizedCustomer> page;
+        do {
+            page = ranking.after(cutoff, lastProbability, lastUserId, 20);
+            page.forEach(c -> byCursor.add(c.userId()));
+            if (!page.isEmpty()) {
+                lastProbability = page.get(page.size() - 1).probability();
+                lastUserId = page.get(page.size() - 1).userId();
+            }
+        } while (page.size() == 20);
+
+        assertEquals(expected, byOffset);
+        assertEquals(expected, byCursor);
+        assertEquals(expected.size(), ranking.count(cutoff));
+    }
+
+    @Test
+    @DisplayName("Deve reposicionar o cliente e ignorar predição mais antiga")
+    void shouldMoveCustomerAndIgnoreOlderPrediction() {
+        PriorityRanking ranking = new PriorityRanking();
+        ranking.upsertCustomer(customer("a", 0.90, T0));
+        ranking.upsertCustomer(customer("b", 0.80, T0));
+        assertEquals(2, ranking.count(0.5));
+
+        assertTrue(ranking.upsertCustomer(customer("a", 0.30, T0.plusHours(1))));
+        assertEquals(List.of("b"), userIds(ranking.page(0.5, 0, 10)));
+        assertEquals(1, ranking.count(0.5));
+        assertEquals(2, ranking.size());
+
+        assertFalse(ranking.upsertCustomer(customer("a", 0.99, T0)));
+        assertEquals(List.of("b"), userIds(ranking.page(0.5, 0, 10)));
+    }
+
+    @Test
+    @DisplayName("Deve parar o cursor no corte mesmo quando ele sobe entre páginas")
+    void shouldStopCursorAtRaisedCutoff() {
+        PriorityRanking ranking = new PriorityRanking();
+        ranking.upsertCustomer(customer("a", 0.90, T0));
+        ranking.upsertCustomer(customer("b", 0.60, T0));
+        ranking.upsertCustomer(customer("c", 0.55, T0));
+
+        assertEquals(List.of("c"), userIds(ranking.after(0.5, 0.60, "b", 10)));
+        assertTrue(ranking.after(0.7, 0.60, "b", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Deve manter apenas a última ação do usuário")
+    void shouldKeepLatestActionPerUser() {
+        PriorityRanking ranking = new PriorityRanking();
+        ranking.upsertCustomer(customer("a", 0.90, T0));
+        ranking.saveAction("a", new PriorityRanking.Action("act-2", RetentionActionStatus.PLANNED, T0.plusMinutes(5)));
+
+        assertFalse(ranking.saveAction("a", new PriorityRanking.Action("act-1", RetentionActionStatus.PLANNED, T0)));
+        assertFalse(ranking.changeActionStatus("a", "act-1", RetentionActionStatus.EXECUTED));
+        assertTrue(ranking.changeActionStatus("a", "act-2", RetentionActionStatus.EXECUTED));
+
+        PrioritizedCustomer item = ranking.page(0.5, 0, 1).get(0);
+        assertEquals("act-2", item.actionId());
+        assertEquals(RetentionActionStatus.EXECUTED, item.actionStatus());
+
+        // Reaplicar a mesma ação (replay após reconstrução) é idempotente
+        assertTrue(ranking.saveAction("a", new PriorityRanking.Action("act-2", RetentionActionStatus.EXECUTED, T0.plusMinutes(5))));
+        assertEquals("act-2", ranking.page(0.5, 0, 1).get(0).actionId());
+    }
+
+    private static PriorityRanking.Customer customer(String userId, double probability, LocalDateTime createdAt) {
+        return new PriorityRanking.Customer("h-" + userId, userId, probability, "Free",
+                probability >= 0.5 ? ChurnStatus.WILL_CHURN : ChurnStatus.WILL_STAY, createdAt);
+    }
+
+    private static List<String> userIds(List<PrioritizedCustomer> customers) {
+        return customers.stream().map(PrioritizedCustomer::userId).toList();
+    }
+}
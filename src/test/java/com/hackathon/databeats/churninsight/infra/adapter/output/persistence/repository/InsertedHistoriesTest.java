@@ -0,0 +1,57 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.repository;
+
+import com.hackathon.databeats.churninsight.domain.enums.ChurnStatus;
+import com.hackathon.databeats.churninsight.domain.model.PredictionHistory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Statement;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a seleção das predições efetivamente inseridas.
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+class InsertedHistoriesTest {
+
+    private static final int NO_INFO = Statement.SUCCESS_NO_INFO;
+
+    @Test
+    @DisplayName("Deve descartar linhas com contagem 0 no batch sem reescrita")
+    void shouldDropSkippedRowsByUpdateCount() {
+        List<PredictionHistory> batch = List.of(history("a"), history("b"), history("c"));
+
+        List<PredictionHistory> inserted = InsertedHistories.inserted(batch, Set.of(), new int[][] {{1, 0}, {1}});
+
+        assertEquals(List.of("a", "c"), ids(inserted));
+    }
+
+    @Test
+    @DisplayName("Deve descartar ids já gravados e repetidos quando o driver não informa contagens")
+    void shouldDropExistingAndRepeatedIdsWithoutCounts() {
+        List<PredictionHistory> batch = List.of(history("a"), history("b"), history("c"), history("a"));
+
+        List<PredictionHistory> inserted = InsertedHistories.inserted(batch, Set.of("b"),
+                new int[][] {{NO_INFO, NO_INFO, NO_INFO, NO_INFO}});
+
+        assertEquals(List.of("a", "c"), ids(inserted));
+    }
+
+    private static List<String> ids(List<PredictionHistory> histories) {
+        return histories.stream().map(PredictionHistory::id).toList();
+    }
+
+    private static PredictionHistory history(String id) {
+        return PredictionHistory.builder()
+                .id(id)
+                .userId("u-" + id)
+                .churnStatus(ChurnStatus.WILL_STAY)
+                .probability(0.1)
+                .build();
+    }
+}
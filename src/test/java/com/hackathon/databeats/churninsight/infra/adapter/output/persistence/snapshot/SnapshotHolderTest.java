@@ -0,0 +1,79 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.snapshot;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a reconstrução de snapshots em memória.
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+class SnapshotHolderTest {
+
+    @Test
+    @DisplayName("Deve reaplicar no snapshot novo as mutações recebidas durante a varredura")
+    void shouldReplayMutationsReceivedDuringScan() {
+        SnapshotHolder<List<String>, String> holder = new SnapshotHolder<>(List::add);
+        assertNull(holder.current());
+        holder.apply("antes"); // sem snapshot publicado nem reconstrução: descartada
+
+        Optional<SnapshotHolder.Rebuilt<List<String>>> rebuilt = holder.rebuild(() -> {
+            List<String> fresh = new ArrayList<>(List.of("lido"));
+            holder.applyAll(List.of("lido", "novo"));
+            return new SnapshotHolder.Scan<>(fresh, "lido"::equals);
+        });
+
+        assertTrue(rebuilt.isPresent());
+        assertEquals(1, rebuilt.get().replayed());
+        assertEquals(List.of("lido", "novo"), holder.current());
+
+        holder.apply("depois");
+        assertEquals(List.of("lido", "novo", "depois"), holder.current());
+    }
+
+    @Test
+    @DisplayName("Deve ignorar reconstrução concorrente e manter o snapshot anterior em falha")
+    void shouldSkipConcurrentRebuildAndKeepSnapshotOnFailure() throws Exception {
+        SnapshotHolder<List<String>, String> holder = new SnapshotHolder<>(List::add);
+        holder.rebuild(() -> SnapshotHolder.Scan.of(new ArrayList<>(List.of("a"))));
+        List<String> published = holder.current();
+        CountDownLatch scanning = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<?> failing = CompletableFuture.runAsync(() -> holder.rebuild(() -> {
+            scanning.countDown();
+            await(release);
+            throw new IllegalStateException("falha na varredura");
+        }));
+        assertTrue(scanning.await(5, TimeUnit.SECONDS));
+        assertTrue(holder.rebuild(() -> SnapshotHolder.Scan.of(new ArrayList<>())).isEmpty());
+        release.countDown();
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> failing.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+
+        assertSame(published, holder.current());
+        holder.apply("b");
+        assertEquals(List.of("a", "b"), holder.current());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
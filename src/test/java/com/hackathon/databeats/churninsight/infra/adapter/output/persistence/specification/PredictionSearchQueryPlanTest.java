@@ -0,0 +1,236 @@
+package com.hackathon.databeats.churninsight.infra.adapter.output.persistence.specification;
+
+import com.hackathon.databeats.churninsight.application.dto.PredictionSearchFilter;
+import com.hackathon.databeats.churninsight.application.dto.UserIdMatch;
+import com.hackathon.databeats.churninsight.domain.enums.RiskFactor;
+import com.hackathon.databeats.churninsight.infra.adapter.output.persistence.entity.PredictionHistoryEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.flywaydb.core.Flyway;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Teste de regressão do plano de consulta da busca de predições.
+ *
+ * <p>Aplica as migrações em um MySQL local descartável (schema dedicado, limpo a cada
+ * execução), popula churn_history e verifica via {@code EXPLAIN} que cada filtro pode usar
+ * o índice da sua coluna. O SQL explicado é o que o Hibernate gera a partir de
+ * {@link PredictionHistorySpecification}, capturado na conexão junto dos parâmetros. Um
+ * predicado que volte a envolver a coluna em função (ex.: {@code LOWER(gender)}) deixa de
+ * listar o índice em possible_keys e quebra o teste.</p>
+ *
+ * <p>Executado apenas com {@code CHURN_EXPLAIN_DB_URL} definido, por exemplo
+ * {@code jdbc:mysql://localhost:3306/churn_explain?createDatabaseIfNotExist=true}
+ * (usuário/senha em {@code CHURN_EXPLAIN_DB_USER}/{@code CHURN_EXPLAIN_DB_PASSWORD}).</p>
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+@EnabledIfEnvironmentVariable(named = "CHURN_EXPLAIN_DB_URL", matches = "jdbc:mysql:.+")
+class PredictionSearchQueryPlanTest {
+
+    private static final int ROWS = 5_000;
+    private static final String[] GENDERS = {"Male", "Female", "Other"};
+    private static final String[] COUNTRIES = {"BR", "US", "DE", "GB", "FR", "ES", "IT", "PT", "MX", "AR"};
+    private static final String[] PLANS = {"Free", "Premium", "Family", "Student"};
+    private static final String[] DEVICES = {"Mobile", "Desktop", "Web"};
+
+    private static JdbcTemplate jdbcTemplate;
+    private static RecordingDataSource recordingDataSource;
+    private static EntityManagerFactory entityManagerFactory;
+
+    @BeforeAll
+    static void setUpSchema() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                System.getenv("CHURN_EXPLAIN_DB_URL"),
+                System.getenv().getOrDefault("CHURN_EXPLAIN_DB_USER", "root"),
+                System.getenv().getOrDefault("CHURN_EXPLAIN_DB_PASSWORD", ""));
+
+        Flyway flyway = Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration")
+                .cleanDisabled(false)
+                .load();
+        flyway.clean();
+        flyway.migrate();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        List<Object[]> rows = new ArrayList<>(ROWS);
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Object[]{
+                    UUID.randomUUID().toString(), UUID.randomUUID().toString(),
+                    GENDERS[i % GENDERS.length], 18 + i % 60, COUNTRIES[i % COUNTRIES.length],
+                    PLANS[i % PLANS.length], DEVICES[i % DEVICES.length],
+                    i % 3 == 0 ? "WILL_CHURN" : "WILL_STAY", (i % 1000) / 1000.0,
+                    Timestamp.valueOf(base.plusMinutes(i))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO churn_history (id, user_id, gender, age, country, " +
+                "subscription_type, device_type, churn_status, probability, created_at) " +
+                "VALUES (?,?,?,?,?,?,?,?,?,?)", rows);
+        jdbcTemplate.execute("ANALYZE TABLE churn_history");
+
+        // Mesma estratégia de nomes do Spring Boot; o schema vem das migrações
+        recordingDataSource = new RecordingDataSource(dataSource);
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(recordingDataSource);
+        factory.setPackagesToScan(PredictionHistoryEntity.class.getPackageName());
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaPropertyMap(Map.of(
+                "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName(),
+                "hibernate.hbm2ddl.auto", "none"));
+        factory.afterPropertiesSet();
+        entityManagerFactory = factory.getObject();
+    }
+
+    @AfterAll
+    static void closeEntityManagerFactory() {
+        if (entityManagerFactory != null) entityManagerFactory.close();
+    }
+
+    @Test
+    @DisplayName("Filtros categóricos devem ser sargáveis sobre os índices das colunas")
+    void categoricalFiltersShouldUseColumnIndexes() {
+        assertIndexUsable(PredictionSearchFilter.builder().gender("female").build(), "idx_gender");
+        assertIndexUsable(PredictionSearchFilter.builder().country("brasil").build(), "idx_country");
+        assertIndexUsable(PredictionSearchFilter.builder().subscriptionType("PREMIUM").build(), "idx_subscription_type");
+        assertIndexUsable(PredictionSearchFilter.builder().deviceType("pc").build(), "idx_device_type");
+    }
+
+    @Test
+    @DisplayName("Filtro por fator de risco primário deve usar idx_primary_risk_factor")
+    void riskFactorFilterShouldUseIndex() {
+        assertIndexUsable(PredictionSearchFilter.builder().riskFactor(RiskFactor.HIGH_SKIP_RATE).build(),
+                "idx_primary_risk_factor");
+    }
+
+    @Test
+    @DisplayName("Busca por userId exata ou por prefixo deve usar idx_user_id")
+    void userIdExactAndPrefixShouldUseIndex() {
+        String userId = jdbcTemplate.queryForObject("SELECT user_id FROM churn_history LIMIT 1", String.class);
+        assertNotNull(userId);
+
+        assertIndexUsable(PredictionSearchFilter.builder()
+                .userId(userId).userIdMatch(UserIdMatch.EXACT).build(), "idx_user_id");
+        assertIndexUsable(PredictionSearchFilter.builder()
+                .userId(userId.substring(0, 6).toUpperCase()).userIdMatch(UserIdMatch.PREFIX).build(), "idx_user_id");
+    }
+
+    private static void assertIndexUsable(PredictionSearchFilter filter, String expectedIndex) {
+        Recorded statement = generatedSql(filter);
+        Map<String, Object> plan = jdbcTemplate.queryForMap("EXPLAIN " + statement.sql(), statement.params().toArray());
+        Object possibleKeys = plan.get("possible_keys");
+        assertTrue(possibleKeys != null && possibleKeys.toString().contains(expectedIndex),
+                () -> "Esperado " + expectedIndex + " em possible_keys para [" + statement.sql() + "], plano: " + plan);
+    }
+
+    /** Executa a Specification pelo Hibernate e devolve o SELECT que ele enviou ao banco. */
+    private static Recorded generatedSql(PredictionSearchFilter filter) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<PredictionHistoryEntity> query = cb.createQuery(PredictionHistoryEntity.class);
+            Root<PredictionHistoryEntity> root = query.from(PredictionHistoryEntity.class);
+            query.select(root).where(PredictionHistorySpecification.withFilters(filter).toPredicate(root, query, cb));
+            recordingDataSource.reset();
+            entityManager.createQuery(query).setMaxResults(1).getResultList();
+            return recordingDataSource.last();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private record Recorded(String sql, List<Object> params) {
+    }
+
+    /** Guarda o último SQL preparado e os parâmetros ligados a ele. */
+    private static final class RecordingDataSource extends DelegatingDataSource {
+
+        private String sql;
+        private final Map<Integer, Object> params = new TreeMap<>();
+
+        RecordingDataSource(DataSource target) {
+            super(target);
+        }
+
+        synchronized void reset() {
+            sql = null;
+            params.clear();
+        }
+
+        synchronized Recorded last() {
+            assertNotNull(sql, "Nenhum SQL foi preparado");
+            return new Recorded(sql, new ArrayList<>(params.values()));
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection connection = super.getConnection();
+            return proxy(Connection.class, connection, (method, args) -> {
+                Object result = method.invoke(connection, args);
+                if (method.getName().equals("prepareStatement")) {
+                    synchronized (this) {
+                        sql = (String) args[0];
+                        params.clear();
+                    }
+                    PreparedStatement statement = (PreparedStatement) result;
+                    return proxy(PreparedStatement.class, statement, (psMethod, psArgs) -> {
+                        if (psMethod.getName().startsWith("set") && psArgs != null && psArgs.length >= 2
+                                && psArgs[0] instanceof Integer index) {
+                            synchronized (this) {
+                                params.put(index, psMethod.getName().equals("setNull") ? null : psArgs[1]);
+                            }
+                        }
+                        return psMethod.invoke(statement, psArgs);
+                    });
+                }
+                return result;
+            });
+        }
+
+        private interface Call {
+            Object invoke(Method method, Object[] args) throws Throwable;
+        }
+
+        private static <T> T proxy(Class<T> type, T target, Call call) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, method, args) -> {
+                try {
+                    return call.invoke(method, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+            }));
+        }
+    }
+}
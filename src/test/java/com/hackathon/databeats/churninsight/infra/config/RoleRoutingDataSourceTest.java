@@ -0,0 +1,77 @@
+package com.hackathon.databeats.churninsight.infra.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Testes unitários para o roteamento de conexões por papel.
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+class RoleRoutingDataSourceTest {
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    @DisplayName("Deve escolher o pool pelo papel declarado ou pelo modo da transação")
+    void shouldRouteByDeclaredRoleOrTransactionMode() {
+        RoleRoutingDataSource dataSource = dataSource(false);
+
+        assertEquals(DataSourceRole.INTERACTIVE_WRITER, dataSource.determineCurrentLookupKey());
+        assertEquals(DataSourceRole.BATCH_WRITER,
+                DataSourceRole.callAs(DataSourceRole.BATCH_WRITER, dataSource::determineCurrentLookupKey));
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(DataSourceRole.READER, dataSource.determineCurrentLookupKey());
+        assertNull(DataSourceRole.current());
+    }
+
+    @Test
+    @DisplayName("Deve voltar ao primário com atraso alto, replicação parada ou instância sem replicação")
+    void shouldFallBackToPrimaryWhenReplicaLags() {
+        RoleRoutingDataSource dataSource = dataSource(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // Até a primeira verificação a réplica não recebe leituras
+        assertEquals(DataSourceRole.INTERACTIVE_WRITER, dataSource.determineCurrentLookupKey());
+
+        dataSource.updateReplicaStatus(true, 2L);
+        assertEquals(DataSourceRole.READER, dataSource.determineCurrentLookupKey());
+
+        dataSource.updateReplicaStatus(true, 30L);
+        assertFalse(dataSource.isReaderAvailable());
+        assertEquals(DataSourceRole.INTERACTIVE_WRITER, dataSource.determineCurrentLookupKey());
+
+        dataSource.updateReplicaStatus(true, null);
+        assertFalse(dataSource.isReaderAvailable());
+
+        dataSource.updateReplicaStatus(false, null);
+        assertFalse(dataSource.isReaderAvailable());
+
+        dataSource.updateReplicaStatus(true, 10L);
+        assertTrue(dataSource.isReaderAvailable());
+    }
+
+    private static RoleRoutingDataSource dataSource(boolean readerIsReplica) {
+        Map<DataSourceRole, DataSource> pools = Map.of(
+                DataSourceRole.BATCH_WRITER, mock(DataSource.class),
+                DataSourceRole.INTERACTIVE_WRITER, mock(DataSource.class),
+                DataSourceRole.READER, mock(DataSource.class));
+        RoleRoutingDataSource dataSource = new RoleRoutingDataSource(pools, readerIsReplica, 10, false, new SimpleMeterRegistry());
+        dataSource.afterPropertiesSet();
+        return dataSource;
+    }
+}
@@ -0,0 +1,82 @@
+package com.hackathon.databeats.churninsight.infra.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para a coalescência de chamadas simultâneas.
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+class SingleFlightTest {
+
+    @Test
+    @DisplayName("Deve compartilhar um único cálculo entre chamadas simultâneas com a mesma chave")
+    void shouldShareInFlightComputation() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SingleFlight<String, Integer> flight = new SingleFlight<>("test", registry);
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Integer> leader = executor.submit(() -> flight.execute("top25", () -> {
+                started.countDown();
+                await(release);
+                return executions.incrementAndGet();
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            List<Future<Integer>> followers = new ArrayList<>();
+            for (int i = 1; i < callers; i++) {
+                followers.add(executor.submit(() -> flight.execute("top25", executions::incrementAndGet)));
+            }
+            while (registry.counter("churn.singleflight.deduplicated", "name", "test").count() < callers - 1) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            assertEquals(1, leader.get());
+            for (Future<Integer> follower : followers) {
+                assertEquals(1, follower.get());
+            }
+        }
+        assertEquals(1, executions.get());
+        assertEquals(0, flight.inFlight());
+        assertEquals(2, flight.execute("top25", executions::incrementAndGet));
+    }
+
+    @Test
+    @DisplayName("Deve repassar a exceção do cálculo e liberar a chave")
+    void shouldPropagateFailureAndReleaseKey() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>("test", new SimpleMeterRegistry());
+
+        assertThrows(IllegalStateException.class, () -> flight.execute("stats", () -> {
+            throw new IllegalStateException("banco indisponível");
+        }));
+        assertEquals(0, flight.inFlight());
+        assertEquals(7, flight.execute("stats", () -> 7));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.hackathon.databeats.churninsight.infra.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark de geração de ids (ids/s): UUID v4 do JDK e UUID v7 aleatório (antes) contra o
+ * UUID v7 monotônico (estado compartilhado por CAS), id a id e em blocos reservados de uma vez.
+ *
+ * <p>{@link #main} roda com 1 thread e com uma thread por CPU, para medir a contenção. A
+ * alocação por id aparece em {@code gc.alloc.rate.norm} (bytes/op):</p>
+ *
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *   com.hackathon.databeats.churninsight.infra.util.UUIDv7Benchmark
+ * </pre>
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UUIDv7Benchmark {
+
+    private static final int BLOCK = 1_000;
+
+    @Benchmark
+    public String jdkRandomString() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public String randomV7String() {
+        return UUIDv7.randomUUIDString();
+    }
+
+    @Benchmark
+    public String monotonicString() {
+        return UUIDv7.nextString();
+    }
+
+    @Benchmark
+    public byte[] monotonicBytes() {
+        return UUIDv7.nextBytes();
+    }
+
+    @Benchmark
+    public void monotonicLongs(Blackhole blackhole) {
+        UUIDv7.Block block = UUIDv7.reserve(1);
+        blackhole.consume(block.msb(0));
+        blackhole.consume(block.lsb(0));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BLOCK)
+    public void reservedBlockLongs(Blackhole blackhole) {
+        UUIDv7.Block block = UUIDv7.reserve(BLOCK);
+        for (int i = 0; i < BLOCK; i++) {
+            blackhole.consume(block.msb(i));
+            blackhole.consume(block.lsb(i));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BLOCK)
+    public void reservedBlockBytes(Blackhole blackhole) {
+        UUIDv7.Block block = UUIDv7.reserve(BLOCK);
+        byte[] bytes = new byte[16 * BLOCK];
+        for (int i = 0; i < BLOCK; i++) {
+            block.writeBytes(i, bytes, 16 * i);
+        }
+        blackhole.consume(bytes);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[] {1, Runtime.getRuntime().availableProcessors()}) {
+            new Runner(new OptionsBuilder()
+                    .include(UUIDv7Benchmark.class.getSimpleName())
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .build()).run();
+        }
+    }
+}
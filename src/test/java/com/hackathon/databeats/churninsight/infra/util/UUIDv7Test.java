@@ -0,0 +1,111 @@
+package com.hackathon.databeats.churninsight.infra.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes unitários para o gerador monotônico de UUID v7.
+ *
+ * @author Equipe ChurnInsight
+ * @version 1.0.0
+ */
+class UUIDv7Test {
+
+    @Test
+    @DisplayName("Deve gerar ids estritamente crescentes na mesma thread")
+    void shouldBeStrictlyIncreasingWithinThread() {
+        UUID previous = UUIDv7.next();
+        for (int i = 0; i < 200_000; i++) {
+            UUID current = UUIDv7.next();
+            assertTrue(previous.compareTo(current) < 0, previous + " >= " + current);
+            assertEquals(7, current.version());
+            assertEquals(2, current.variant());
+            previous = current;
+        }
+    }
+
+    @Test
+    @DisplayName("Deve manter a ordem entre blocos e dentro de cada bloco")
+    void shouldOrderReservedBlocks() {
+        UUIDv7.Block first = UUIDv7.reserve(1_000);
+        UUIDv7.Block second = UUIDv7.reserve(1_000);
+
+        for (int i = 1; i < first.size(); i++) {
+            assertTrue(first.uuid(i - 1).compareTo(first.uuid(i)) < 0);
+        }
+        assertTrue(first.uuid(first.size() - 1).compareTo(second.uuid(0)) < 0);
+        assertThrows(IndexOutOfBoundsException.class, () -> first.uuid(1_000));
+        assertThrows(IllegalArgumentException.class, () -> UUIDv7.reserve(0));
+    }
+
+    @Test
+    @DisplayName("Deve produzir String e bytes equivalentes ao UUID")
+    void shouldMatchUuidRepresentations() {
+        UUIDv7.Block block = UUIDv7.reserve(16);
+        byte[] bytes = new byte[16];
+        for (int i = 0; i < block.size(); i++) {
+            UUID uuid = block.uuid(i);
+            assertEquals(uuid.toString(), block.string(i));
+            block.writeBytes(i, bytes, 0);
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            assertEquals(uuid, new UUID(buffer.getLong(), buffer.getLong()));
+        }
+        assertEquals(36, UUID.fromString(UUIDv7.nextString()).toString().length());
+        assertEquals(16, UUIDv7.nextBytes().length);
+    }
+
+    @Test
+    @DisplayName("Deve gerar ids únicos entre threads concorrentes")
+    void shouldBeUniqueAcrossThreads() throws Exception {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 20_000;
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) ids.add(UUIDv7.next());
+                }));
+            }
+            for (Future<?> future : futures) future.get();
+        }
+        assertEquals(threads * perThread, ids.size());
+    }
+
+    @Test
+    @DisplayName("Deve manter a ordem entre threads virtuais diferentes")
+    void shouldBeStrictlyIncreasingAcrossVirtualThreads() throws Exception {
+        // Cada requisição roda numa thread virtual nova: a ordem vale entre threads, não só dentro de uma
+        UUID previous = UUIDv7.next();
+        for (int i = 0; i < 2_000; i++) {
+            AtomicReference<UUID> generated = new AtomicReference<>();
+            Thread.ofVirtual().start(() -> generated.set(UUIDv7.next())).join();
+            assertTrue(previous.compareTo(generated.get()) < 0, previous + " >= " + generated.get());
+            previous = generated.get();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve carregar o timestamp atual nos 48 bits altos")
+    void shouldCarryCurrentTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = UUIDv7.next();
+        long after = System.currentTimeMillis();
+
+        long millis = id.getMostSignificantBits() >>> 16;
+        assertTrue(millis >= before && millis <= after + 1);
+    }
+}